@@ -13,6 +13,7 @@
 import org.infinispan.commons.util.CloseableIteratorSet;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.query.dsl.Query;
+import org.reactivestreams.Publisher;
 
 /**
  * Provides remote reference to a Hot Rod server/cluster. It implements {@link org.infinispan.Cache}, but given its
@@ -231,6 +232,20 @@
     */
    CloseableIterator<Entry<Object, Object>> retrieveEntries(String filterConverterFactory, int batchSize);
 
+   /**
+    * Retrieve entries from the servers in parallel. Instead of iterating all the segments through a single server, one
+    * iteration is started on each server for the segments it is the primary owner of, and the entries of all of them
+    * are returned as they are received. The order of the entries is not defined.
+    *
+    * @param filterConverterFactory Factory name for the KeyValueFilterConverter or null for no filtering.
+    * @param filterConverterParams  Parameters to the KeyValueFilterConverter
+    * @param segments               The segments to iterate. If null all segments will be iterated. An empty set will filter out all entries.
+    * @param batchSize              The number of entries transferred from each server at a time.
+    * @return Iterator for the entries
+    * @see #retrieveEntries(String, Object[], java.util.Set, int)
+    */
+   CloseableIterator<Entry<Object, Object>> retrieveEntriesParallel(String filterConverterFactory, Object[] filterConverterParams, Set<Integer> segments, int batchSize);
+
    /**
     * Retrieve entries from the server matching a query.
     *
@@ -246,6 +261,33 @@
     */
    CloseableIterator<Entry<Object, MetadataValue<Object>>> retrieveEntriesWithMetadata(Set<Integer> segments, int batchSize);
 
+   /**
+    * Publishes the entries of the cache. Each subscriber starts its own iteration on the server, and the batches are
+    * requested following the demand of the subscriber, so no more than one batch is held in memory and no thread is
+    * blocked waiting for the server.
+    *
+    * @param filterConverterFactory Factory name for the KeyValueFilterConverter or null for no filtering.
+    * @param filterConverterParams  Parameters to the KeyValueFilterConverter
+    * @param segments               The segments to iterate. If null all segments will be iterated. An empty set will filter out all entries.
+    * @param batchSize              The number of entries transferred from the server at a time.
+    * @return Publisher of the entries
+    */
+   Publisher<Entry<Object, Object>> publishEntries(String filterConverterFactory, Object[] filterConverterParams, Set<Integer> segments, int batchSize);
+
+   /**
+    * Publishes the entries matching a query.
+    *
+    * @see #publishEntries(String, Object[], Set, int)
+    */
+   Publisher<Entry<Object, Object>> publishEntriesByQuery(Query filterQuery, Set<Integer> segments, int batchSize);
+
+   /**
+    * Publishes the keys of the cache. The values are not transferred from the server.
+    *
+    * @see #publishEntries(String, Object[], Set, int)
+    */
+   Publisher<K> publishKeys(Set<Integer> segments, int batchSize);
+
    /**
     * Returns the {@link VersionedValue} associated to the supplied key param, or null if it doesn't exist.
     *
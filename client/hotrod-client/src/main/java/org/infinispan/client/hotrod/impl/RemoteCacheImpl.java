@@ -16,6 +16,7 @@
 import java.util.Spliterator;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import javax.management.MBeanServer;
@@ -35,6 +36,8 @@
 import org.infinispan.client.hotrod.event.impl.ClientListenerNotifier;
 import org.infinispan.client.hotrod.exceptions.RemoteCacheManagerNotStartedException;
 import org.infinispan.client.hotrod.filter.Filters;
+import org.infinispan.client.hotrod.impl.iteration.IterationPublisher;
+import org.infinispan.client.hotrod.impl.iteration.ParallelRemoteCloseableIterator;
 import org.infinispan.client.hotrod.impl.iteration.RemoteCloseableIterator;
 import org.infinispan.client.hotrod.impl.operations.AddClientListenerOperation;
 import org.infinispan.client.hotrod.impl.operations.ClearOperation;
@@ -71,6 +74,7 @@
 import org.infinispan.commons.util.IteratorMapper;
 import org.infinispan.commons.util.RemovableCloseableIterator;
 import org.infinispan.query.dsl.Query;
+import org.reactivestreams.Publisher;
 
 /**
  * @author Mircea.Markus@jboss.com
@@ -236,6 +240,19 @@ public CloseableIterator<Entry<Object, Object>> retrieveEntries(String filterCon
       return retrieveEntries(filterConverterFactory, null, batchSize);
    }
 
+   @Override
+   public CloseableIterator<Entry<Object, Object>> retrieveEntriesParallel(String filterConverterFactory, Object[] filterConverterParams, Set<Integer> segments, int batchSize) {
+      assertRemoteCacheManagerIsStarted();
+      if (segments != null && segments.isEmpty()) {
+         return Closeables.iterator(Collections.emptyIterator());
+      }
+      byte[][] params = marshallParams(filterConverterParams);
+      ParallelRemoteCloseableIterator<Object> iterator = new ParallelRemoteCloseableIterator<>(operationsFactory,
+            filterConverterFactory, params, segments, batchSize, false, dataFormat);
+      iterator.start();
+      return iterator;
+   }
+
    @Override
    public CloseableIterator<Entry<Object, Object>> retrieveEntriesByQuery(Query filterQuery, Set<Integer> segments, int batchSize) {
       Object[] factoryParams = makeFactoryParams(filterQuery);
@@ -249,6 +266,33 @@ public CloseableIterator<Entry<Object, MetadataValue<Object>>> retrieveEntriesWi
       return remoteCloseableIterator;
    }
 
+   @Override
+   public Publisher<Entry<Object, Object>> publishEntries(String filterConverterFactory, Object[] filterConverterParams, Set<Integer> segments, int batchSize) {
+      assertRemoteCacheManagerIsStarted();
+      byte[][] params = marshallParams(filterConverterParams);
+      return publisher(filterConverterFactory, params, segments, batchSize, Function.identity());
+   }
+
+   @Override
+   public Publisher<Entry<Object, Object>> publishEntriesByQuery(Query filterQuery, Set<Integer> segments, int batchSize) {
+      Object[] factoryParams = makeFactoryParams(filterQuery);
+      return publishEntries(Filters.ITERATION_QUERY_FILTER_CONVERTER_FACTORY_NAME, factoryParams, segments, batchSize);
+   }
+
+   @Override
+   public Publisher<K> publishKeys(Set<Integer> segments, int batchSize) {
+      assertRemoteCacheManagerIsStarted();
+      // Use the ToEmptyBytesKeyValueFilterConverter to remove value payload
+      return publisher("org.infinispan.server.hotrod.HotRodServer$ToEmptyBytesKeyValueFilterConverter", null, segments,
+            batchSize, e -> (K) e.getKey());
+   }
+
+   private <T> Publisher<T> publisher(String filterConverterFactory, byte[][] params, Set<Integer> segments, int batchSize,
+                                      Function<Entry<Object, Object>, T> mapper) {
+      return new IterationPublisher<>(operationsFactory, filterConverterFactory, params, segments, batchSize, false,
+            dataFormat, mapper);
+   }
+
    @Override
    public VersionedValue<V> getVersioned(K key) {
       assertRemoteCacheManagerIsStarted();
@@ -0,0 +1,271 @@
+package org.infinispan.client.hotrod.impl.iteration;
+
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.infinispan.client.hotrod.DataFormat;
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.exceptions.RemoteIllegalLifecycleStateException;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.operations.IterationNextResponse;
+import org.infinispan.client.hotrod.impl.operations.IterationStartResponse;
+import org.infinispan.client.hotrod.impl.operations.OperationsFactory;
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.netty.channel.Channel;
+
+/**
+ * A {@link Publisher} of the entries of a remote iteration. Each subscriber gets its own iteration on the server.
+ * <p>
+ * The demand of the subscriber drives the iteration: a batch is only requested from the server when the subscriber has
+ * requested more elements than the ones already received, so at most one batch is held in memory for each
+ * subscription. No thread waits for the server, the elements are emitted by the thread that receives the batch or by
+ * the thread that requests more elements, so subscribers must not block in {@link Subscriber#onNext(Object)}.
+ *
+ * @since 10.0
+ */
+public class IterationPublisher<E, T> implements Publisher<T> {
+
+   private static final Log log = LogFactory.getLog(IterationPublisher.class);
+
+   private final OperationsFactory operationsFactory;
+   private final String filterConverterFactory;
+   private final byte[][] filterParams;
+   private final Set<Integer> segments;
+   private final int batchSize;
+   private final boolean metadata;
+   private final DataFormat dataFormat;
+   private final Function<Entry<Object, E>, T> mapper;
+
+   public IterationPublisher(OperationsFactory operationsFactory, String filterConverterFactory, byte[][] filterParams,
+                             Set<Integer> segments, int batchSize, boolean metadata, DataFormat dataFormat,
+                             Function<Entry<Object, E>, T> mapper) {
+      this.operationsFactory = operationsFactory;
+      this.filterConverterFactory = filterConverterFactory;
+      this.filterParams = filterParams;
+      this.segments = segments;
+      this.batchSize = batchSize;
+      this.metadata = metadata;
+      this.dataFormat = dataFormat;
+      this.mapper = mapper;
+   }
+
+   @Override
+   public void subscribe(Subscriber<? super T> subscriber) {
+      if (subscriber == null) {
+         throw new NullPointerException();
+      }
+      IterationSubscription subscription = new IterationSubscription(subscriber);
+      subscriber.onSubscribe(subscription);
+      // Completes right away when there are no segments to iterate
+      subscription.drain();
+   }
+
+   private static Throwable unwrap(Throwable t) {
+      return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+   }
+
+   private class IterationSubscription implements Subscription {
+      private final Subscriber<? super T> subscriber;
+      private final Queue<Entry<Object, E>> entries = new ConcurrentLinkedQueue<>();
+      private final AtomicLong requested = new AtomicLong();
+      private final AtomicInteger wip = new AtomicInteger();
+      // Whether an operation is in flight
+      private final AtomicBoolean fetching = new AtomicBoolean();
+      private final AtomicBoolean ended = new AtomicBoolean();
+
+      private volatile KeyTracker keyTracker;
+      private volatile Channel channel;
+      private volatile byte[] iterationId;
+      private volatile boolean done;
+      private volatile Throwable error;
+      private volatile boolean cancelled;
+      private boolean terminated;
+
+      IterationSubscription(Subscriber<? super T> subscriber) {
+         this.subscriber = subscriber;
+         this.done = segments != null && segments.isEmpty();
+      }
+
+      @Override
+      public void request(long n) {
+         if (n <= 0) {
+            error = new IllegalArgumentException("Rule 3.9: the number of requested elements must be positive, but was " + n);
+            entries.clear();
+         } else {
+            requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+         }
+         drain();
+      }
+
+      @Override
+      public void cancel() {
+         cancelled = true;
+         endIfIdle();
+      }
+
+      private void drain() {
+         if (wip.getAndIncrement() != 0) {
+            return;
+         }
+         int missed = 1;
+         do {
+            if (terminated || cancelled) {
+               return;
+            }
+            long r = requested.get();
+            long emitted = 0;
+            Entry<Object, E> entry;
+            while (emitted != r && !cancelled && (entry = entries.poll()) != null) {
+               subscriber.onNext(mapper.apply(entry));
+               emitted++;
+            }
+            if (emitted != 0 && r != Long.MAX_VALUE) {
+               requested.addAndGet(-emitted);
+            }
+            if (cancelled) {
+               return;
+            }
+            if (entries.isEmpty()) {
+               Throwable t = error;
+               if (t != null) {
+                  terminated = true;
+                  endIfIdle();
+                  subscriber.onError(t);
+                  return;
+               }
+               if (done) {
+                  terminated = true;
+                  subscriber.onComplete();
+                  return;
+               }
+               if (requested.get() > 0) {
+                  fetch();
+               }
+            }
+            missed = wip.addAndGet(-missed);
+         } while (missed != 0);
+      }
+
+      private void fetch() {
+         if (!fetching.compareAndSet(false, true)) {
+            return;
+         }
+         try {
+            if (iterationId == null) {
+               start(segments);
+            } else {
+               operationsFactory.<E>newIterationNextOperation(iterationId, channel, keyTracker, dataFormat).execute()
+                     .whenComplete(this::received);
+            }
+         } catch (Throwable t) {
+            failed(t);
+         }
+      }
+
+      private void start(Set<Integer> startSegments) {
+         if (log.isDebugEnabled()) {
+            log.debugf("Starting iteration with segments %s", startSegments);
+         }
+         operationsFactory.newIterationStartOperation(filterConverterFactory, filterParams, startSegments, batchSize,
+               metadata, dataFormat).execute().whenComplete(this::started);
+      }
+
+      private void started(IterationStartResponse response, Throwable t) {
+         if (t != null) {
+            failed(t);
+            return;
+         }
+         channel = response.getChannel();
+         if (keyTracker == null) {
+            keyTracker = KeyTrackerFactory.create(dataFormat, response.getSegmentConsistentHash(), response.getTopologyId(), segments);
+         }
+         iterationId = response.getIterationId();
+         if (isStopped()) {
+            fetching.set(false);
+            endIfIdle();
+            return;
+         }
+         try {
+            // The start of the iteration was caused by a request, so the first batch is needed too
+            operationsFactory.<E>newIterationNextOperation(iterationId, channel, keyTracker, dataFormat).execute()
+                  .whenComplete(this::received);
+         } catch (Throwable e) {
+            failed(e);
+         }
+      }
+
+      private void received(IterationNextResponse<E> response, Throwable t) {
+         if (t != null) {
+            failed(t);
+            return;
+         }
+         if (!response.hasMore()) {
+            done = true;
+         } else if (error == null) {
+            entries.addAll(response.getEntries());
+         }
+         fetching.set(false);
+         // A cancel or an invalid request that arrived during the fetch couldn't end the iteration
+         if (done || isStopped()) {
+            endIfIdle();
+         }
+         drain();
+      }
+
+      private void failed(Throwable t) {
+         Throwable cause = unwrap(t);
+         if (!isStopped() && keyTracker != null &&
+               (cause instanceof TransportException || cause instanceof RemoteIllegalLifecycleStateException)) {
+            log.warnf(cause, "Error reaching the server during iteration");
+            try {
+               // Any server can continue with the segments that were not completed
+               start(keyTracker.missedSegments());
+               return;
+            } catch (Throwable e) {
+               cause = e;
+            }
+         }
+         if (error == null) {
+            error = cause;
+         }
+         fetching.set(false);
+         // The subscription may have terminated already, without ending the iteration
+         endIfIdle();
+         drain();
+      }
+
+      private boolean isStopped() {
+         return cancelled || error != null;
+      }
+
+      /**
+       * Ends the iteration on the server once there is no operation in flight for it, so that the server never
+       * processes the end of the iteration before the request of a batch.
+       */
+      private void endIfIdle() {
+         byte[] id = iterationId;
+         if (id != null && !fetching.get() && ended.compareAndSet(false, true)) {
+            operationsFactory.newIterationEndOperation(id, channel).execute().whenComplete((response, t) -> {
+               Throwable cause = t == null ? null : unwrap(t);
+               if (cause != null) {
+                  log.ignoringErrorDuringIterationClose(new String(id, HotRodConstants.HOTROD_STRING_CHARSET),
+                        cause instanceof Exception ? (Exception) cause : new HotRodClientException(cause));
+               }
+            });
+         }
+      }
+   }
+}
@@ -0,0 +1,331 @@
+package org.infinispan.client.hotrod.impl.iteration;
+
+import static org.infinispan.client.hotrod.impl.Util.await;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.infinispan.client.hotrod.DataFormat;
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.exceptions.RemoteIllegalLifecycleStateException;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
+import org.infinispan.client.hotrod.impl.consistenthash.SegmentConsistentHash;
+import org.infinispan.client.hotrod.impl.operations.IterationNextResponse;
+import org.infinispan.client.hotrod.impl.operations.IterationStartResponse;
+import org.infinispan.client.hotrod.impl.operations.OperationsFactory;
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.util.CloseableIterator;
+
+import io.netty.channel.Channel;
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Iterates the entries of a cache with one iteration for each server, each one over the segments the server is the
+ * primary owner of. The iterations run concurrently and their batches are returned in the order they are received.
+ * <p>
+ * Each iteration keeps one batch in flight and at most {@link #MAX_QUEUED_BATCHES} batches waiting to be consumed. The
+ * iterations are driven by the completion of their operations, so no thread is blocked while waiting for a server. If
+ * a server fails, its iteration is started again on any other server with the segments that were not completed, as
+ * {@link RemoteCloseableIterator} does.
+ *
+ * @since 10.0
+ */
+@NotThreadSafe
+public class ParallelRemoteCloseableIterator<E> implements CloseableIterator<Entry<Object, E>> {
+
+   private static final Log log = LogFactory.getLog(ParallelRemoteCloseableIterator.class);
+
+   private static final int MAX_QUEUED_BATCHES = 2;
+
+   private final OperationsFactory operationsFactory;
+   private final String filterConverterFactory;
+   private final byte[][] filterParams;
+   private final Set<Integer> segments;
+   private final int batchSize;
+   private final boolean metadata;
+   private final DataFormat dataFormat;
+
+   private final BlockingQueue<Batch<E>> batches = new LinkedBlockingQueue<>();
+   private final List<SegmentIteration> iterations = new ArrayList<>();
+   private int activeIterations;
+   private Iterator<Entry<Object, E>> current = Collections.emptyIterator();
+   private volatile boolean closed;
+
+   public ParallelRemoteCloseableIterator(OperationsFactory operationsFactory, String filterConverterFactory,
+                                          byte[][] filterParams, Set<Integer> segments, int batchSize, boolean metadata,
+                                          DataFormat dataFormat) {
+      this.operationsFactory = operationsFactory;
+      this.filterConverterFactory = filterConverterFactory;
+      this.filterParams = filterParams;
+      this.segments = segments;
+      this.batchSize = batchSize;
+      this.metadata = metadata;
+      this.dataFormat = dataFormat;
+   }
+
+   public void start() {
+      ConsistentHash consistentHash = operationsFactory.getConsistentHash();
+      if (consistentHash instanceof SegmentConsistentHash) {
+         SocketAddress[][] segmentOwners = ((SegmentConsistentHash) consistentHash).getSegmentOwners();
+         Map<SocketAddress, Set<Integer>> segmentsByServer = new HashMap<>();
+         for (int segment = 0; segment < segmentOwners.length; segment++) {
+            if (segments == null || segments.contains(segment)) {
+               segmentsByServer.computeIfAbsent(segmentOwners[segment][0], k -> new HashSet<>()).add(segment);
+            }
+         }
+         segmentsByServer.forEach((server, serverSegments) -> iterations.add(new SegmentIteration(server, serverSegments)));
+      } else {
+         // The segments of the servers are not known, so a single iteration goes through all of them
+         iterations.add(new SegmentIteration(null, segments));
+      }
+      activeIterations = iterations.size();
+      iterations.forEach(SegmentIteration::start);
+   }
+
+   @Override
+   public boolean hasNext() {
+      while (!current.hasNext()) {
+         if (closed || activeIterations == 0) {
+            return false;
+         }
+         Batch<E> batch = takeBatch();
+         if (batch.error != null) {
+            close();
+            throw batch.error instanceof HotRodClientException ? (HotRodClientException) batch.error : new HotRodClientException(batch.error);
+         }
+         if (batch.entries == null) {
+            activeIterations--;
+         } else {
+            current = batch.entries.iterator();
+            batch.iteration.batchConsumed();
+         }
+      }
+      return true;
+   }
+
+   @Override
+   public Entry<Object, E> next() {
+      if (!hasNext()) throw new NoSuchElementException();
+      return current.next();
+   }
+
+   @Override
+   public void close() {
+      if (!closed) {
+         closed = true;
+         iterations.forEach(SegmentIteration::close);
+      }
+   }
+
+   private Batch<E> takeBatch() {
+      try {
+         return batches.take();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new HotRodClientException(e);
+      }
+   }
+
+   private static Throwable unwrap(Throwable t) {
+      return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+   }
+
+   private static class Batch<E> {
+      final ParallelRemoteCloseableIterator<E>.SegmentIteration iteration;
+      final List<Entry<Object, E>> entries;
+      final Throwable error;
+
+      Batch(ParallelRemoteCloseableIterator<E>.SegmentIteration iteration, List<Entry<Object, E>> entries, Throwable error) {
+         this.iteration = iteration;
+         this.entries = entries;
+         this.error = error;
+      }
+   }
+
+   /**
+    * The iteration of the segments of a single server.
+    */
+   private class SegmentIteration {
+      private final SocketAddress server;
+      private final Set<Integer> segments;
+
+      @GuardedBy("this")
+      private KeyTracker keyTracker;
+      @GuardedBy("this")
+      private Channel channel;
+      @GuardedBy("this")
+      private byte[] iterationId;
+      @GuardedBy("this")
+      private CompletableFuture<?> pending;
+      @GuardedBy("this")
+      private int queuedBatches;
+      @GuardedBy("this")
+      private boolean finished;
+
+      SegmentIteration(SocketAddress server, Set<Integer> segments) {
+         this.server = server;
+         this.segments = segments;
+      }
+
+      void start() {
+         start(segments, server);
+      }
+
+      private synchronized void start(Set<Integer> startSegments, SocketAddress target) {
+         if (log.isDebugEnabled()) {
+            log.debugf("Starting iteration with segments %s on %s", startSegments, target);
+         }
+         try {
+            track(operationsFactory.newIterationStartOperation(filterConverterFactory, filterParams, startSegments,
+                  batchSize, metadata, dataFormat, target).execute().whenComplete(this::started));
+         } catch (Throwable t) {
+            failed(t);
+         }
+      }
+
+      private void started(IterationStartResponse response, Throwable t) {
+         if (t != null) {
+            failed(t);
+            return;
+         }
+         synchronized (this) {
+            channel = response.getChannel();
+            iterationId = response.getIterationId();
+            if (keyTracker == null) {
+               keyTracker = KeyTrackerFactory.create(dataFormat, response.getSegmentConsistentHash(), response.getTopologyId(), segments);
+            }
+            if (log.isDebugEnabled()) {
+               log.iterationTransportObtained(channel.remoteAddress(), iterationId());
+               log.startedIteration(iterationId());
+            }
+            requestNext();
+         }
+      }
+
+      @GuardedBy("this")
+      private void requestNext() {
+         if (closed || finished || queuedBatches >= MAX_QUEUED_BATCHES) {
+            pending = null;
+            return;
+         }
+         try {
+            track(operationsFactory.<E>newIterationNextOperation(iterationId, channel, keyTracker, dataFormat)
+                  .execute().whenComplete(this::received));
+         } catch (Throwable t) {
+            pending = null;
+            failed(t);
+         }
+      }
+
+      @GuardedBy("this")
+      private void track(CompletableFuture<?> operation) {
+         // When the operation is already complete its callback has run and has already set the pending operation
+         if (!operation.isDone()) {
+            pending = operation;
+         }
+      }
+
+      private void received(IterationNextResponse<E> response, Throwable t) {
+         if (t != null) {
+            failed(t);
+            return;
+         }
+         synchronized (this) {
+            if (!response.hasMore()) {
+               finished = true;
+               pending = null;
+               // Close out the iteration on the server as soon as it is done, without waiting for the response
+               operationsFactory.newIterationEndOperation(iterationId, channel).execute();
+               batches.add(new Batch<>(this, null, null));
+               return;
+            }
+            queuedBatches++;
+            batches.add(new Batch<>(this, response.getEntries(), null));
+            requestNext();
+         }
+      }
+
+      synchronized void batchConsumed() {
+         queuedBatches--;
+         if (pending == null && !finished) {
+            requestNext();
+         }
+      }
+
+      private void failed(Throwable t) {
+         Throwable cause = unwrap(t);
+         synchronized (this) {
+            if (!closed && keyTracker != null &&
+                  (cause instanceof TransportException || cause instanceof RemoteIllegalLifecycleStateException)) {
+               log.warnf(cause, "Error reaching the server during iteration");
+               // Any server can continue with the segments that were not completed
+               start(keyTracker.missedSegments(), null);
+               return;
+            }
+            finished = true;
+            pending = null;
+         }
+         batches.add(new Batch<>(this, null, cause));
+      }
+
+      void close() {
+         CompletableFuture<?> inFlight;
+         // The server must not process the end of the iteration before the operation in flight, and the callback of
+         // that operation may not have seen the iterator closed yet
+         while ((inFlight = pendingOperation()) != null) {
+            await(inFlight.handle((r, t) -> null));
+            synchronized (this) {
+               if (pending == inFlight) {
+                  pending = null;
+               }
+            }
+         }
+         Channel endChannel;
+         byte[] endIterationId;
+         synchronized (this) {
+            if (finished || iterationId == null) {
+               return;
+            }
+            finished = true;
+            endChannel = channel;
+            endIterationId = iterationId;
+         }
+         try {
+            short status = await(operationsFactory.newIterationEndOperation(endIterationId, endChannel).execute()).getStatus();
+            if (HotRodConstants.isSuccess(status) && log.isDebugEnabled()) {
+               log.iterationClosed(iterationId());
+            }
+            if (HotRodConstants.isInvalidIteration(status)) {
+               throw log.errorClosingIteration(iterationId());
+            }
+         } catch (HotRodClientException e) {
+            log.ignoringErrorDuringIterationClose(iterationId(), e);
+         }
+      }
+
+      private synchronized CompletableFuture<?> pendingOperation() {
+         return pending;
+      }
+
+      private synchronized String iterationId() {
+         return new String(iterationId, HotRodConstants.HOTROD_STRING_CHARSET);
+      }
+   }
+}
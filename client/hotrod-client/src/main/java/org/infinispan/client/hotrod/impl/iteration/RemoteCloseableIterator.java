@@ -7,6 +7,7 @@
 import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.infinispan.client.hotrod.DataFormat;
 import org.infinispan.client.hotrod.exceptions.HotRodClientException;
@@ -51,6 +52,7 @@
    private boolean endOfIteration = false;
    private boolean closed;
    private Queue<Entry<Object, E>> nextElements = new LinkedList<>();
+   private CompletableFuture<IterationNextResponse<E>> prefetch;
 
    public RemoteCloseableIterator(OperationsFactory operationsFactory, Marshaller marshaller, String filterConverterFactory,
                                   byte[][] filterParams, Set<Integer> segments, int batchSize, boolean metadata, DataFormat dataFormat) {
@@ -72,6 +74,7 @@ public RemoteCloseableIterator(OperationsFactory operationsFactory, Marshaller m
    public void close() {
       if (!closed) {
          try {
+            discardPrefetch();
             IterationEndResponse endResponse = await(operationsFactory.newIterationEndOperation(iterationId, channel).execute());
             short status = endResponse.getStatus();
 
@@ -113,8 +116,9 @@ private void fetch() {
 
       try {
          while (nextElements.isEmpty() && !endOfIteration) {
-            IterationNextOperation<E> iterationNextOperation = operationsFactory.newIterationNextOperation(iterationId, channel, segmentKeyTracker, dataFormat);
-            IterationNextResponse<E> iterationNextResponse = await(iterationNextOperation.execute());
+            CompletableFuture<IterationNextResponse<E>> pending = prefetch != null ? prefetch : requestNext();
+            prefetch = null;
+            IterationNextResponse<E> iterationNextResponse = await(pending);
             if (!iterationNextResponse.hasMore()) {
                endOfIteration = true;
                // May as well close out iterator early. This way iterator is always closed when fully iterating upon
@@ -122,16 +126,34 @@ private void fetch() {
                close();
                break;
             }
+            // Keep the next batch in flight while this one is consumed, so the server and the network are not idle
+            // between batches
+            prefetch = requestNext();
             nextElements.addAll(iterationNextResponse.getEntries());
          }
 
       } catch (TransportException | RemoteIllegalLifecycleStateException e) {
          log.warnf(e, "Error reaching the server during iteration");
+         prefetch = null;
          startInternal(segmentKeyTracker.missedSegments());
          fetch();
       }
    }
 
+   private CompletableFuture<IterationNextResponse<E>> requestNext() {
+      IterationNextOperation<E> iterationNextOperation = operationsFactory.newIterationNextOperation(iterationId, channel, segmentKeyTracker, dataFormat);
+      return iterationNextOperation.execute();
+   }
+
+   private void discardPrefetch() {
+      if (prefetch != null) {
+         // The server must not process the end of the iteration before the batch in flight, and any error is ignored
+         // because the entries are not needed anymore
+         await(prefetch.handle((response, t) -> null));
+         prefetch = null;
+      }
+   }
+
    private IterationStartResponse startInternal(Set<Integer> segments) {
       if (log.isDebugEnabled()) {
          log.debugf("Starting iteration with segments %s", segments);
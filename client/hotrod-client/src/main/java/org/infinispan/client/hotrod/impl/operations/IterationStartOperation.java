@@ -1,5 +1,6 @@
 package org.infinispan.client.hotrod.impl.operations;
 
+import java.net.SocketAddress;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -26,11 +27,13 @@ public class IterationStartOperation extends RetryOnFailureOperation<IterationSt
    private final int batchSize;
    private final ChannelFactory channelFactory;
    private final boolean metadata;
+   private final SocketAddress addressTarget;
    private Channel channel;
 
    IterationStartOperation(Codec codec, int flags, Configuration cfg, byte[] cacheName, AtomicInteger topologyId,
                            String filterConverterFactory, byte[][] filterParameters, Set<Integer> segments,
-                           int batchSize, ChannelFactory channelFactory, boolean metadata, DataFormat dataFormat) {
+                           int batchSize, ChannelFactory channelFactory, boolean metadata, DataFormat dataFormat,
+                           SocketAddress addressTarget) {
       super(ITERATION_START_REQUEST, ITERATION_START_RESPONSE, codec, channelFactory, cacheName, topologyId, flags, cfg, dataFormat);
       this.filterConverterFactory = filterConverterFactory;
       this.filterParameters = filterParameters;
@@ -38,6 +41,16 @@ public class IterationStartOperation extends RetryOnFailureOperation<IterationSt
       this.batchSize = batchSize;
       this.channelFactory = channelFactory;
       this.metadata = metadata;
+      this.addressTarget = addressTarget;
+   }
+
+   @Override
+   protected void fetchChannelAndInvoke(int retryCount, Set<SocketAddress> failedServers) {
+      if (addressTarget != null && (failedServers == null || !failedServers.contains(addressTarget))) {
+         channelFactory.fetchChannelAndInvoke(addressTarget, this);
+      } else {
+         super.fetchChannelAndInvoke(retryCount, failedServers);
+      }
    }
 
    @Override
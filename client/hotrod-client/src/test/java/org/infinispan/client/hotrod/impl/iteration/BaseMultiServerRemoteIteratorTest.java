@@ -5,7 +5,9 @@
 import static org.testng.AssertJUnit.assertFalse;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
@@ -16,9 +18,11 @@
 import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
 import org.infinispan.client.hotrod.test.MultiHotRodServersTest;
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.filter.AbstractKeyValueFilterConverter;
 import org.infinispan.filter.KeyValueFilterConverter;
@@ -40,6 +44,8 @@ public abstract class BaseMultiServerRemoteIteratorTest extends MultiHotRodServe
 
    public static final int CACHE_SIZE = 20;
 
+   protected abstract ConfigurationBuilder getCacheConfiguration();
+
    @BeforeMethod
    public void clear() {
       clients.forEach(c -> c.getCache().clear());
@@ -63,6 +69,52 @@ public void testBatchSizes() {
       }
    }
 
+   @Test
+   public void testParallelIteration() {
+      RemoteCache<Integer, AccountHS> cache = clients.get(0).getCache();
+      populateCache(CACHE_SIZE, this::newAccount, cache);
+
+      Set<Entry<Object, Object>> results = new HashSet<>(CACHE_SIZE);
+      try (CloseableIterator<Entry<Object, Object>> iterator = cache.retrieveEntriesParallel(null, null, null, 3)) {
+         iterator.forEachRemaining(results::add);
+      }
+      assertEquals(CACHE_SIZE, results.size());
+      assertEquals(rangeAsSet(0, CACHE_SIZE), extractKeys(results));
+
+      // Closing before consuming all the entries must end the iterations on all the servers
+      try (CloseableIterator<Entry<Object, Object>> iterator = cache.retrieveEntriesParallel(null, null, null, 1)) {
+         assertTrue(iterator.hasNext());
+         iterator.next();
+      }
+      eventually(() -> servers.stream().allMatch(s -> s.getIterationManager().activeIterations() == 0));
+   }
+
+   @Test
+   public void testParallelIterationFailOver() {
+      int cacheSize = 1000;
+      RemoteCache<Integer, AccountHS> cache = clients.get(0).getCache();
+      populateCache(cacheSize, this::newAccount, cache);
+
+      int killed = servers.size() - 1;
+      List<Entry<Object, Object>> entries = new ArrayList<>(cacheSize);
+      try (CloseableIterator<Entry<Object, Object>> iterator = cache.retrieveEntriesParallel(null, null, null, 7)) {
+         for (int i = 0; i < cacheSize / 4; i++) {
+            entries.add(iterator.next());
+         }
+         // The iteration of the segments of the killed server continues on another server
+         HotRodClientTestingUtil.killRemoteCacheManager(clients.remove(killed));
+         killServer(killed);
+         iterator.forEachRemaining(entries::add);
+      } finally {
+         addHotRodServer(getCacheConfiguration());
+         waitForClusterToForm();
+         clients.add(createClient(killed));
+      }
+      // No entry is lost or returned twice
+      assertEquals(cacheSize, entries.size());
+      assertEquals(rangeAsSet(0, cacheSize), extractKeys(entries));
+   }
+
    @Test
    public void testEmptyCache() {
       try (CloseableIterator<Entry<Object, Object>> iterator = client(0).getCache().retrieveEntries(null, null, 100)) {
@@ -35,7 +35,8 @@ protected void createCacheManagers() throws Throwable {
       createHotRodServers(NUM_SERVERS, getCacheConfiguration());
    }
 
-   private ConfigurationBuilder getCacheConfiguration() {
+   @Override
+   protected ConfigurationBuilder getCacheConfiguration() {
       ConfigurationBuilder builder = hotRodCacheConfiguration(getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false));
       builder.clustering().hash().numSegments(60).numOwners(2);
       return builder;
@@ -19,7 +19,8 @@ protected void createCacheManagers() throws Throwable {
       createHotRodServers(NUM_SERVERS, getCacheConfiguration());
    }
 
-   private ConfigurationBuilder getCacheConfiguration() {
+   @Override
+   protected ConfigurationBuilder getCacheConfiguration() {
       ConfigurationBuilder builder = hotRodCacheConfiguration(getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC, false));
       builder.clustering().hash().numSegments(60);
       return builder;
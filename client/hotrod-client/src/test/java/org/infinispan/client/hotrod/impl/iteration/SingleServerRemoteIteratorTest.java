@@ -9,6 +9,13 @@
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.exceptions.HotRodClientException;
@@ -20,6 +27,9 @@
 import org.infinispan.query.dsl.embedded.testdomain.Account;
 import org.infinispan.query.dsl.embedded.testdomain.hsearch.AccountHS;
 import org.infinispan.query.dsl.embedded.testdomain.hsearch.LimitsHS;
+import org.infinispan.test.Exceptions;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import org.testng.annotations.Test;
 
 /**
@@ -120,6 +130,161 @@ public void testResultsMultipleFetches() {
       assertEquals(rangeAsSet(0, cacheSize), keys);
    }
 
+   public void testLargeValuesSplitByBatchBytes() {
+      RemoteCache<Integer, byte[]> cache = remoteCacheManager.getCache();
+
+      // Each batch of the server holds about 1 MiB, so the 100 requested entries are fetched in several batches
+      int cacheSize = 20;
+      int valueSize = 256 * 1024;
+      populateCache(cacheSize, i -> new byte[valueSize], cache);
+
+      Set<Entry<Object, Object>> entries = new HashSet<>();
+
+      try (CloseableIterator<Entry<Object, Object>> iterator = cache.retrieveEntries(null, null, 100)) {
+         while (iterator.hasNext()) {
+            entries.add(iterator.next());
+         }
+      }
+
+      assertEquals(rangeAsSet(0, cacheSize), extractKeys(entries));
+      assertForAll(entries, e -> ((byte[]) e.getValue()).length == valueSize);
+   }
+
+   public void testPublishEntriesOnDemand() throws Exception {
+      RemoteCache<Integer, String> cache = remoteCacheManager.getCache();
+
+      int cacheSize = 50;
+      populateCache(cacheSize, i -> "value " + i, cache);
+
+      Set<Object> keys = ConcurrentHashMap.newKeySet();
+      CompletableFuture<Void> completed = new CompletableFuture<>();
+      cache.publishKeys(null, 5).subscribe(new Subscriber<Integer>() {
+         private Subscription subscription;
+
+         @Override
+         public void onSubscribe(Subscription s) {
+            subscription = s;
+            s.request(1);
+         }
+
+         @Override
+         public void onNext(Integer key) {
+            keys.add(key);
+            subscription.request(1);
+         }
+
+         @Override
+         public void onError(Throwable t) {
+            completed.completeExceptionally(t);
+         }
+
+         @Override
+         public void onComplete() {
+            completed.complete(null);
+         }
+      });
+      completed.get(10, TimeUnit.SECONDS);
+
+      assertEquals(rangeAsSet(0, cacheSize), keys);
+   }
+
+   public void testPublishCancel() throws Exception {
+      RemoteCache<Integer, String> cache = remoteCacheManager.getCache();
+      populateCache(50, i -> "value " + i, cache);
+
+      AtomicInteger received = new AtomicInteger();
+      AtomicBoolean terminated = new AtomicBoolean();
+      cache.publishKeys(null, 5).subscribe(new Subscriber<Integer>() {
+         private Subscription subscription;
+
+         @Override
+         public void onSubscribe(Subscription s) {
+            subscription = s;
+            s.request(2);
+         }
+
+         @Override
+         public void onNext(Integer key) {
+            received.incrementAndGet();
+            subscription.cancel();
+         }
+
+         @Override
+         public void onError(Throwable t) {
+            terminated.set(true);
+         }
+
+         @Override
+         public void onComplete() {
+            terminated.set(true);
+         }
+      });
+
+      // Cancelling ends the iteration on the server, and nothing is emitted after it
+      eventuallyEquals(0, () -> hotrodServer.getIterationManager().activeIterations());
+      assertEquals(1, received.get());
+      assertFalse(terminated.get());
+   }
+
+   public void testPublishInvalidRequestDuringStart() throws Exception {
+      // The iteration is still starting when the invalid request arrives
+      CompletableFuture<Void> completed = publishKeys(s -> {
+         s.request(1);
+         s.request(0);
+      }, (s, key) -> {});
+      assertInvalidRequestEndsIteration(completed);
+   }
+
+   public void testPublishInvalidRequestDuringFetch() throws Exception {
+      CompletableFuture<Subscription> firstElement = new CompletableFuture<>();
+      // Each batch holds a single element, so requesting another one fetches the next batch
+      CompletableFuture<Void> completed = publishKeys(s -> s.request(1), (s, key) -> {
+         s.request(1);
+         firstElement.complete(s);
+      });
+      firstElement.get(10, TimeUnit.SECONDS).request(-1);
+      assertInvalidRequestEndsIteration(completed);
+   }
+
+   private CompletableFuture<Void> publishKeys(Consumer<Subscription> onSubscribe,
+                                               BiConsumer<Subscription, Integer> onNext) {
+      RemoteCache<Integer, String> cache = remoteCacheManager.getCache();
+      populateCache(50, i -> "value " + i, cache);
+
+      CompletableFuture<Void> completed = new CompletableFuture<>();
+      cache.publishKeys(null, 1).subscribe(new Subscriber<Integer>() {
+         private Subscription subscription;
+
+         @Override
+         public void onSubscribe(Subscription s) {
+            subscription = s;
+            onSubscribe.accept(s);
+         }
+
+         @Override
+         public void onNext(Integer key) {
+            onNext.accept(subscription, key);
+         }
+
+         @Override
+         public void onError(Throwable t) {
+            completed.completeExceptionally(t);
+         }
+
+         @Override
+         public void onComplete() {
+            completed.complete(null);
+         }
+      });
+      return completed;
+   }
+
+   private void assertInvalidRequestEndsIteration(CompletableFuture<Void> completed) {
+      Exceptions.expectExecutionException(IllegalArgumentException.class, completed);
+      // The iteration must end even if the invalid request arrived while an operation was in flight
+      eventuallyEquals(0, () -> hotrodServer.getIterationManager().activeIterations());
+   }
+
    public void testEntities() {
       RemoteCache<Integer, AccountHS> cache = remoteCacheManager.getCache();
 
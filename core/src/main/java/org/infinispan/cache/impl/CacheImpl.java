@@ -81,6 +81,7 @@
 import org.infinispan.context.InvocationContextContainer;
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.context.impl.FlagBitSets;
+import org.infinispan.context.impl.SingleKeyNonTxInvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.distribution.ch.KeyPartitioner;
@@ -180,6 +181,8 @@
    private final String name;
    private volatile boolean stopping = false;
    private boolean transactional;
+   // The context of the last single key read of each thread, reused by its next read. Only set for non-tx caches.
+   private ThreadLocal<SingleKeyNonTxInvocationContext> readContexts;
    private boolean batchingEnabled;
    private final ContextBuilder contextBuilder = this::getInvocationContextWithImplicitTransaction;
    private final ContextBuilder expiredContextBuilder = i -> this.getInvocationContextWithImplicitTransaction(i, true);
@@ -199,6 +202,7 @@ public void preStart() {
             .lifespan(config.expiration().lifespan()).maxIdle(config.expiration().maxIdle()).build();
       transactional = config.transaction().transactionMode().isTransactional();
       batchingEnabled = config.invocationBatching().enabled();
+      readContexts = transactional ? null : ThreadLocal.withInitial(() -> new SingleKeyNonTxInvocationContext(null));
    }
 
    private void assertKeyNotNull(Object key) {
@@ -501,7 +505,10 @@ final boolean isEmpty(long explicitFlags) {
 
    @Override
    public final boolean containsKey(Object key) {
-      return containsKey(key, EnumUtil.EMPTY_BIT_SET, invocationContextFactory.createInvocationContext(false, 1));
+      InvocationContext ctx = acquireReadContext();
+      boolean containsKey = containsKey(key, EnumUtil.EMPTY_BIT_SET, ctx);
+      releaseReadContext(ctx);
+      return containsKey;
    }
 
    final boolean containsKey(Object key, long explicitFlags, InvocationContext ctx) {
@@ -516,7 +523,10 @@ public final boolean containsValue(Object value) {
 
    @Override
    public final V get(Object key) {
-      return get(key, EnumUtil.EMPTY_BIT_SET, invocationContextFactory.createInvocationContext(false, 1));
+      InvocationContext ctx = acquireReadContext();
+      V value = get(key, EnumUtil.EMPTY_BIT_SET, ctx);
+      releaseReadContext(ctx);
+      return value;
    }
 
    @SuppressWarnings("unchecked")
@@ -536,7 +546,39 @@ final CacheEntry getCacheEntry(Object key, long explicitFlags, InvocationContext
 
    @Override
    public final CacheEntry getCacheEntry(Object key) {
-      return getCacheEntry(key, EnumUtil.EMPTY_BIT_SET, invocationContextFactory.createInvocationContext(false, 1));
+      InvocationContext ctx = acquireReadContext();
+      CacheEntry entry = getCacheEntry(key, EnumUtil.EMPTY_BIT_SET, ctx);
+      releaseReadContext(ctx);
+      return entry;
+   }
+
+   /**
+    * Returns the context for a synchronous single key read, reusing the one of the previous read of the thread when
+    * possible.
+    * <p>
+    * A read started while the thread's context is in use, e.g. by a listener or an interceptor, gets a new context.
+    */
+   private InvocationContext acquireReadContext() {
+      if (readContexts != null) {
+         SingleKeyNonTxInvocationContext ctx = readContexts.get();
+         if (ctx != null) {
+            readContexts.set(null);
+            return ctx;
+         }
+      }
+      return invocationContextFactory.createInvocationContext(false, 1);
+   }
+
+   /**
+    * Makes the context available to the next read of the thread. It must only be invoked once the invocation has
+    * completed: when the invocation fails, it may still be referenced by a pending remote get, so it is dropped instead.
+    */
+   private void releaseReadContext(InvocationContext ctx) {
+      if (readContexts != null && ctx instanceof SingleKeyNonTxInvocationContext) {
+         SingleKeyNonTxInvocationContext singleKeyCtx = (SingleKeyNonTxInvocationContext) ctx;
+         singleKeyCtx.resetState();
+         readContexts.set(singleKeyCtx);
+      }
    }
 
    @Override
@@ -5,6 +5,7 @@
 import static org.infinispan.configuration.cache.ClusteringConfiguration.CACHE_MODE;
 import static org.infinispan.configuration.cache.ClusteringConfiguration.INVALIDATION_BATCH_SIZE;
 import static org.infinispan.configuration.cache.ClusteringConfiguration.REMOTE_TIMEOUT;
+import static org.infinispan.configuration.cache.ClusteringConfiguration.SEGMENT_LANES;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -114,6 +115,15 @@ public ClusteringConfigurationBuilder biasLifespan(long l, TimeUnit unit) {
       return this;
    }
 
+   /**
+    * If {@code true}, the backup writes received with the triangle algorithm are executed in a lane for each segment,
+    * in order within the lane and in parallel across lanes, instead of waiting for their turn in the remote executor.
+    */
+   public ClusteringConfigurationBuilder segmentLanes(boolean segmentLanes) {
+      attributes.attribute(SEGMENT_LANES).set(segmentLanes);
+      return this;
+   }
+
    /**
     * Configure hash sub element
     */
@@ -63,12 +63,13 @@ public boolean canRead(String enclosing, String nestingName, String nestedName,
    public static final AttributeDefinition<Long> SIZE = AttributeDefinition.builder("size", -1L).serializer(UNDER_STORAGE).build();
    public static final AttributeDefinition<EvictionType> EVICTION_TYPE = AttributeDefinition.builder("type", EvictionType.COUNT).xmlName(org.infinispan.configuration.parsing.Attribute.EVICTION.getLocalName()).serializer(UNDER_STORAGE).build();
    public static final AttributeDefinition<EvictionStrategy> EVICTION_STRATEGY = AttributeDefinition.builder("strategy", EvictionStrategy.NONE).serializer(UNDER_STORAGE).build();
+   public static final AttributeDefinition<Boolean> POOLED_ALLOCATION = AttributeDefinition.builder("pooled-allocation", false).serializer(UNDER_STORAGE).immutable().build();
 
    public static final ElementDefinition ELEMENT_DEFINITION = new DefaultElementDefinition(MEMORY.getLocalName());
 
    static public AttributeSet attributeDefinitionSet() {
       return new AttributeSet(MemoryConfiguration.class, AbstractTypedPropertiesConfiguration.attributeSet(),
-            STORAGE_TYPE, SIZE, EVICTION_TYPE, EVICTION_STRATEGY, ADDRESS_COUNT);
+            STORAGE_TYPE, SIZE, EVICTION_TYPE, EVICTION_STRATEGY, ADDRESS_COUNT, POOLED_ALLOCATION);
    }
 
    private final Attribute<Long> size;
@@ -76,6 +77,7 @@ static public AttributeSet attributeDefinitionSet() {
    private final Attribute<EvictionStrategy> evictionStrategy;
    private final Attribute<StorageType> storageType;
    private final Attribute<Integer> addressCount;
+   private final Attribute<Boolean> pooledAllocation;
    private final AttributeSet attributes;
 
    MemoryConfiguration(AttributeSet attributes) {
@@ -85,6 +87,7 @@ static public AttributeSet attributeDefinitionSet() {
       evictionType = attributes.attribute(EVICTION_TYPE);
       evictionStrategy = attributes.attribute(EVICTION_STRATEGY);
       addressCount = attributes.attribute(ADDRESS_COUNT);
+      pooledAllocation = attributes.attribute(POOLED_ALLOCATION);
    }
 
    @Override
@@ -144,6 +147,14 @@ public int addressCount() {
       return addressCount.get();
    }
 
+   /**
+    * Whether off heap memory is allocated from pooled slabs
+    * @return whether pooled allocation is enabled
+    */
+   public boolean pooledAllocation() {
+      return pooledAllocation.get();
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
@@ -3,6 +3,7 @@
 import static org.infinispan.configuration.cache.MemoryConfiguration.ADDRESS_COUNT;
 import static org.infinispan.configuration.cache.MemoryConfiguration.EVICTION_STRATEGY;
 import static org.infinispan.configuration.cache.MemoryConfiguration.EVICTION_TYPE;
+import static org.infinispan.configuration.cache.MemoryConfiguration.POOLED_ALLOCATION;
 import static org.infinispan.configuration.cache.MemoryConfiguration.SIZE;
 import static org.infinispan.configuration.cache.MemoryConfiguration.STORAGE_TYPE;
 
@@ -159,6 +160,29 @@ public int addressCount() {
       return attributes.attribute(ADDRESS_COUNT).get();
    }
 
+   /**
+    * Configuration setting when using off-heap that defines whether the memory of small entries is carved out of
+    * large pooled slabs of native memory, instead of being allocated and freed individually for every write. This
+    * reduces the allocation overhead and the fragmentation when entries are written frequently, but the memory
+    * of the slabs is only released when the cache is stopped. This is only used when OFF_HEAP storage type is
+    * configured {@link MemoryConfigurationBuilder#storageType(StorageType)}.
+    * @param pooledAllocation whether to allocate off heap memory from pooled slabs
+    * @return this
+    */
+   public MemoryConfigurationBuilder pooledAllocation(boolean pooledAllocation) {
+      attributes.attribute(POOLED_ALLOCATION).set(pooledAllocation);
+      return this;
+   }
+
+   /**
+    * Whether off heap memory is allocated from pooled slabs. See
+    * {@link MemoryConfigurationBuilder#pooledAllocation(boolean)} for more information.
+    * @return whether pooled allocation is enabled
+    */
+   public boolean pooledAllocation() {
+      return attributes.attribute(POOLED_ALLOCATION).get();
+   }
+
    @Override
    public void validate() {
       StorageType type = attributes.attribute(STORAGE_TYPE).get();
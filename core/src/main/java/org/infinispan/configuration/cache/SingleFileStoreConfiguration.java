@@ -27,8 +27,14 @@ public class SingleFileStoreConfiguration extends AbstractSegmentedStoreConfigur
    public static final AttributeDefinition<String> LOCATION = AttributeDefinition.builder("location", "Infinispan-SingleFileStore").immutable().xmlName("path").global(false).build();
    public static final AttributeDefinition<Integer> MAX_ENTRIES = AttributeDefinition.builder("maxEntries", -1).immutable().build();
    public static final AttributeDefinition<Float> FRAGMENTATION_FACTOR = AttributeDefinition.builder("fragmentationFactor", 0.75f).immutable().build();
+   public static final AttributeDefinition<Boolean> OFF_HEAP_INDEX = AttributeDefinition.builder("offHeapIndex", false).immutable().build();
+   public static final AttributeDefinition<Boolean> MEMORY_MAPPED_READS = AttributeDefinition.builder("memoryMappedReads", false).immutable().build();
+   public static final AttributeDefinition<Boolean> SYNC_WRITES = AttributeDefinition.builder("syncWrites", false).immutable().build();
+   public static final AttributeDefinition<Long> SYNC_WRITES_MAX_DELAY = AttributeDefinition.builder("syncWritesMaxDelay", 0L).immutable().build();
+   public static final AttributeDefinition<Integer> SYNC_WRITES_MAX_BYTES = AttributeDefinition.builder("syncWritesMaxBytes", 0).immutable().build();
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, MAX_ENTRIES, FRAGMENTATION_FACTOR);
+      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, MAX_ENTRIES, FRAGMENTATION_FACTOR, OFF_HEAP_INDEX, MEMORY_MAPPED_READS,
+            SYNC_WRITES, SYNC_WRITES_MAX_DELAY, SYNC_WRITES_MAX_BYTES);
    }
 
    static ElementDefinition ELEMENT_DEFINITION = new DefaultElementDefinition(FILE_STORE.getLocalName());
@@ -36,6 +42,11 @@ public static AttributeSet attributeDefinitionSet() {
    private final Attribute<String> location;
    private final Attribute<Integer> maxEntries;
    private final Attribute<Float> fragmentationFactor;
+   private final Attribute<Boolean> offHeapIndex;
+   private final Attribute<Boolean> memoryMappedReads;
+   private final Attribute<Boolean> syncWrites;
+   private final Attribute<Long> syncWritesMaxDelay;
+   private final Attribute<Integer> syncWritesMaxBytes;
 
    public SingleFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async,
                                        SingletonStoreConfiguration singletonStore) {
@@ -43,6 +54,11 @@ public SingleFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfigura
       location = attributes.attribute(LOCATION);
       maxEntries = attributes.attribute(MAX_ENTRIES);
       fragmentationFactor = attributes.attribute(FRAGMENTATION_FACTOR);
+      offHeapIndex = attributes.attribute(OFF_HEAP_INDEX);
+      memoryMappedReads = attributes.attribute(MEMORY_MAPPED_READS);
+      syncWrites = attributes.attribute(SYNC_WRITES);
+      syncWritesMaxDelay = attributes.attribute(SYNC_WRITES_MAX_DELAY);
+      syncWritesMaxBytes = attributes.attribute(SYNC_WRITES_MAX_BYTES);
    }
 
    @Override
@@ -77,6 +93,41 @@ public float fragmentationFactor () {
       return fragmentationFactor.get();
    }
 
+   /**
+    * Whether the index of keys and their position in the file is kept in native memory instead of the heap.
+    */
+   public boolean offHeapIndex() {
+      return offHeapIndex.get();
+   }
+
+   /**
+    * Whether entries are read through memory mapped windows of the data file instead of channel reads.
+    */
+   public boolean memoryMappedReads() {
+      return memoryMappedReads.get();
+   }
+
+   /**
+    * Whether writes are synced to disk before returning, batching the syncs of concurrent writes.
+    */
+   public boolean syncWrites() {
+      return syncWrites.get();
+   }
+
+   /**
+    * The maximum time in milliseconds a sync waits for concurrent writes to join its batch.
+    */
+   public long syncWritesMaxDelay() {
+      return syncWritesMaxDelay.get();
+   }
+
+   /**
+    * The number of written bytes after which a sync stops waiting for concurrent writes, 0 means no limit.
+    */
+   public int syncWritesMaxBytes() {
+      return syncWritesMaxBytes.get();
+   }
+
    @Override
    public AttributeSet attributes() {
       return attributes;
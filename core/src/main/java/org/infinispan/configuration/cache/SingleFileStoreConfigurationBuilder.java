@@ -3,11 +3,18 @@
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.LOCATION;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.MAX_ENTRIES;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.MEMORY_MAPPED_READS;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.OFF_HEAP_INDEX;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.SYNC_WRITES;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.SYNC_WRITES_MAX_BYTES;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.SYNC_WRITES_MAX_DELAY;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.ConfigurationBuilderInfo;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.commons.configuration.elements.ElementDefinition;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
 
 /**
  * Single file cache store configuration builder.
@@ -17,6 +24,7 @@
  */
 public class SingleFileStoreConfigurationBuilder
       extends AbstractStoreConfigurationBuilder<SingleFileStoreConfiguration, SingleFileStoreConfigurationBuilder> implements ConfigurationBuilderInfo {
+   private static final Log log = LogFactory.getLog(SingleFileStoreConfigurationBuilder.class, Log.class);
 
    public SingleFileStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
       this(builder, SingleFileStoreConfiguration.attributeDefinitionSet());
@@ -84,6 +92,66 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * Keeps the index of keys and their position in the file in native memory instead of the heap. This allows the
+    * store to hold a very large number of entries without growing the heap, at the cost of unmarshalling the stored
+    * key on every lookup. The off-heap index is always unbounded, so it can not be combined with
+    * {@link #maxEntries(int)}.
+    */
+   public SingleFileStoreConfigurationBuilder offHeapIndex(boolean offHeapIndex) {
+      attributes.attribute(OFF_HEAP_INDEX).set(offHeapIndex);
+      return this;
+   }
+
+   /**
+    * Reads entries through read-only memory mapped windows of the data file instead of positional reads on the file
+    * channel, which saves a system call and a kernel copy per load. The file is mapped in windows of 64MB, and a window
+    * is only mapped once the file covers it completely: a data file smaller than 64MB is never read through a mapping,
+    * and entries that are not fully covered by a window, e.g. those at the end of a growing file, are still read from
+    * the channel. Mapped windows count against the process address space, not against the heap.
+    */
+   public SingleFileStoreConfigurationBuilder memoryMappedReads(boolean memoryMappedReads) {
+      attributes.attribute(MEMORY_MAPPED_READS).set(memoryMappedReads);
+      return this;
+   }
+
+   /**
+    * Syncs the data file to disk before a write or delete returns. Concurrent operations share a single sync (group
+    * commit), so the throughput stays close to that of unsynced writes when there are many writers. Defaults to
+    * {@code false}, meaning the operating system decides when the data reaches the disk.
+    */
+   public SingleFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
+      attributes.attribute(SYNC_WRITES).set(syncWrites);
+      return this;
+   }
+
+   /**
+    * The maximum time in milliseconds a sync waits for concurrent writes to join its batch. Higher values make the
+    * batches bigger at the cost of a higher write latency. Defaults to 0, which only batches the writes that were issued
+    * while the previous sync was in progress. Only used if {@link #syncWrites(boolean)} is enabled.
+    */
+   public SingleFileStoreConfigurationBuilder syncWritesMaxDelay(long syncWritesMaxDelay) {
+      attributes.attribute(SYNC_WRITES_MAX_DELAY).set(syncWritesMaxDelay);
+      return this;
+   }
+
+   /**
+    * The number of written bytes after which a sync stops waiting for more writes, even if
+    * {@link #syncWritesMaxDelay(long)} has not elapsed yet. Defaults to 0, meaning no limit.
+    */
+   public SingleFileStoreConfigurationBuilder syncWritesMaxBytes(int syncWritesMaxBytes) {
+      attributes.attribute(SYNC_WRITES_MAX_BYTES).set(syncWritesMaxBytes);
+      return this;
+   }
+
+   @Override
+   protected void validate(boolean skipClassChecks) {
+      super.validate(skipClassChecks);
+      if (attributes.attribute(OFF_HEAP_INDEX).get() && attributes.attribute(MAX_ENTRIES).get() > 0) {
+         throw log.offHeapIndexWithMaxEntries();
+      }
+   }
+
    @Override
    public SingleFileStoreConfiguration create() {
       return new SingleFileStoreConfiguration(attributes.protect(), async.create(), singletonStore.create());
@@ -23,17 +23,21 @@ public class StateTransferConfiguration implements Matchable<StateTransferConfig
    public static final AttributeDefinition<Boolean> FETCH_IN_MEMORY_STATE = AttributeDefinition.builder("fetchInMemoryState", true).xmlName("enabled").immutable().build();
    public static final AttributeDefinition<Long> TIMEOUT = AttributeDefinition.builder("timeout", TimeUnit.MINUTES.toMillis(4)).immutable().build();
    public static final AttributeDefinition<Integer> CHUNK_SIZE = AttributeDefinition.builder("chunkSize", 512).immutable().build();
+   public static final AttributeDefinition<Integer> CHUNKS_IN_FLIGHT = AttributeDefinition.builder("chunksInFlight", 1).immutable().build();
+   public static final AttributeDefinition<Boolean> RAW_PERSISTENT_STATE = AttributeDefinition.builder("rawPersistentState", false).immutable().build();
 
    public static final ElementDefinition ELEMENT_DEFINITION = new DefaultElementDefinition(STATE_TRANSFER.getLocalName());
 
    static final AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(StateTransferConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER);
+      return new AttributeSet(StateTransferConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, CHUNKS_IN_FLIGHT, RAW_PERSISTENT_STATE, AWAIT_INITIAL_TRANSFER);
    }
 
    private final Attribute<Boolean> awaitInitialTransfer;
    private final Attribute<Boolean> fetchInMemoryState;
    private final Attribute<Long> timeout;
    private final Attribute<Integer> chunkSize;
+   private final Attribute<Integer> chunksInFlight;
+   private final Attribute<Boolean> rawPersistentState;
    private final AttributeSet attributes;
 
    StateTransferConfiguration(AttributeSet attributes) {
@@ -42,6 +46,8 @@ static final AttributeSet attributeDefinitionSet() {
       fetchInMemoryState = attributes.attribute(FETCH_IN_MEMORY_STATE);
       timeout = attributes.attribute(TIMEOUT);
       chunkSize = attributes.attribute(CHUNK_SIZE);
+      chunksInFlight = attributes.attribute(CHUNKS_IN_FLIGHT);
+      rawPersistentState = attributes.attribute(RAW_PERSISTENT_STATE);
    }
 
    /**
@@ -81,6 +87,24 @@ public int chunkSize() {
       return chunkSize.get();
    }
 
+   /**
+    * The maximum number of chunks sent to a node that it has not acknowledged yet. The node acknowledges a chunk once
+    * it has applied it, so this bounds the state waiting to be applied on the receiver.
+    * If chunksInFlight is equal to 1, each chunk is sent after the previous one has been applied.
+    */
+   public int chunksInFlight() {
+      return chunksInFlight.get();
+   }
+
+   /**
+    * If {@code true}, the entries that are only in the store are transferred in the marshalled form read from the
+    * store, and the receiver writes them to its own store without unmarshalling their values or loading them in memory.
+    * It only applies to non-shared stores with {@code fetchPersistentState} enabled.
+    */
+   public boolean rawPersistentState() {
+      return rawPersistentState.get();
+   }
+
    /**
     * If {@code true}, this will cause the first call to method {@code CacheManager.getCache()} on the joiner node to
     * block and wait until the joining is complete and the cache has finished receiving state from neighboring caches
@@ -1,8 +1,10 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.StateTransferConfiguration.AWAIT_INITIAL_TRANSFER;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNKS_IN_FLIGHT;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_SIZE;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.FETCH_IN_MEMORY_STATE;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.RAW_PERSISTENT_STATE;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.TIMEOUT;
 
 import java.util.concurrent.TimeUnit;
@@ -79,6 +81,26 @@ public StateTransferConfigurationBuilder chunkSize(int i) {
       return this;
    }
 
+   /**
+    * The maximum number of chunks sent to a node that it has not acknowledged yet. The node acknowledges a chunk once
+    * it has applied it, so this bounds the state waiting to be applied on the receiver.
+    * If chunksInFlight is equal to 1, each chunk is sent after the previous one has been applied.
+    */
+   public StateTransferConfigurationBuilder chunksInFlight(int i) {
+      attributes.attribute(CHUNKS_IN_FLIGHT).set(i);
+      return this;
+   }
+
+   /**
+    * If {@code true}, the entries that are only in the store are transferred in the marshalled form read from the
+    * store, and the receiver writes them to its own store without unmarshalling their values or loading them in memory.
+    * It only applies to non-shared stores with {@code fetchPersistentState} enabled.
+    */
+   public StateTransferConfigurationBuilder rawPersistentState(boolean b) {
+      attributes.attribute(RAW_PERSISTENT_STATE).set(b);
+      return this;
+   }
+
    /**
     * This is the maximum amount of time - in milliseconds - to wait for state from neighboring
     * caches, before throwing an exception and aborting startup.
@@ -102,6 +124,14 @@ public void validate() {
          throw new CacheConfigurationException("chunkSize can not be <= 0");
       }
 
+      if (attributes.attribute(CHUNKS_IN_FLIGHT).get() <= 0) {
+         throw new CacheConfigurationException("chunksInFlight can not be <= 0");
+      }
+
+      if (attributes.attribute(RAW_PERSISTENT_STATE).get() && clustering().cacheMode().isScattered()) {
+         throw new CacheConfigurationException("rawPersistentState is not supported in scattered mode");
+      }
+
       if (clustering().cacheMode().isInvalidation()) {
          Attribute<Boolean> fetchAttribute = attributes.attribute(FETCH_IN_MEMORY_STATE);
          if (fetchAttribute.isModified() && fetchAttribute.get()) {
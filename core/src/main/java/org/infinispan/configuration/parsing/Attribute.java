@@ -31,6 +31,7 @@ public enum Attribute {
     BEFORE,
     CAPACITY_FACTOR("capacity"),
     CHUNK_SIZE,
+    CHUNKS_IN_FLIGHT,
     CLASS,
     CLUSTER,
     COMPLETED_TX_TIMEOUT("complete-timeout"),
@@ -89,6 +90,7 @@ public enum Attribute {
     MBEAN_SERVER_LOOKUP,
     MERGE_POLICY,
     MEDIA_TYPE,
+    MEMORY_MAPPED_READS,
     MODE,
     NODE_NAME,
     MODIFICATION_QUEUE_SIZE,
@@ -96,12 +98,14 @@ public enum Attribute {
     NAME,
     NAMES,
     NOTIFICATIONS,
+    OFF_HEAP_INDEX,
     ON_REHASH("onRehash"),
     OWNERS,
     PATH,
     PASSIVATION,
     PERMISSIONS,
     PERSISTENCE_EXECUTOR,
+    POOLED_ALLOCATION,
     POSITION,
     PRELOAD,
     PRIORITY,
@@ -112,6 +116,7 @@ public enum Attribute {
     @Deprecated
     QUEUE_SIZE,
     RACK_ID("rack"),
+    RAW_PERSISTENT_STATE,
     READ_ONLY,
     REAPER_WAKE_UP_INTERVAL("reaper-interval"),
     RECOVERY_INFO_CACHE_NAME("recovery-cache"),
@@ -123,6 +128,7 @@ public enum Attribute {
     @Deprecated
     REPLICATION_QUEUE_EXECUTOR,
     ROLES,
+    SEGMENT_LANES,
     SEGMENTED,
     SEGMENTS,
     SHARED,
@@ -146,6 +152,9 @@ public enum Attribute {
     STRIPING,
     STACK,
     STOP_TIMEOUT,
+    SYNC_WRITES,
+    SYNC_WRITES_MAX_BYTES,
+    SYNC_WRITES_MAX_DELAY,
     TAKE_BACKUP_OFFLINE_AFTER_FAILURES("after-failures"),
     TAKE_BACKUP_OFFLINE_MIN_WAIT("min-wait"),
     THREAD_FACTORY,
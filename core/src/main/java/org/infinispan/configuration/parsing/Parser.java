@@ -1527,6 +1527,9 @@ private void parseOffHeapMemoryAttributes(final XMLExtendedStreamReader reader,
             case ADDRESS_COUNT:
                memoryBuilder.addressCount(Integer.parseInt(value));
                break;
+            case POOLED_ALLOCATION:
+               memoryBuilder.pooledAllocation(Boolean.parseBoolean(value));
+               break;
             case STRATEGY:
                memoryBuilder.evictionStrategy(EvictionStrategy.valueOf(value));
                break;
@@ -2015,6 +2018,14 @@ private void parseStateTransfer(XMLExtendedStreamReader reader, ConfigurationBui
                builder.clustering().stateTransfer().chunkSize(Integer.parseInt(value));
                break;
             }
+            case CHUNKS_IN_FLIGHT: {
+               builder.clustering().stateTransfer().chunksInFlight(Integer.parseInt(value));
+               break;
+            }
+            case RAW_PERSISTENT_STATE: {
+               builder.clustering().stateTransfer().rawPersistentState(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -2056,6 +2067,10 @@ private void parseDistributedCache(XMLExtendedStreamReader reader, Configuration
                builder.clustering().hash().capacityFactor(Float.parseFloat(value));
                break;
             }
+            case SEGMENT_LANES: {
+               builder.clustering().segmentLanes(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                this.parseSegmentedCacheAttribute(reader, i, attribute, value, builder, holder.getClassLoader(), baseCacheMode);
             }
@@ -2253,6 +2268,26 @@ protected void parseFileStore(XMLExtendedStreamReader reader, ConfigurationBuild
                storeBuilder.fragmentationFactor(Float.parseFloat(value));
                break;
             }
+            case OFF_HEAP_INDEX: {
+               storeBuilder.offHeapIndex(Boolean.parseBoolean(value));
+               break;
+            }
+            case MEMORY_MAPPED_READS: {
+               storeBuilder.memoryMappedReads(Boolean.parseBoolean(value));
+               break;
+            }
+            case SYNC_WRITES: {
+               storeBuilder.syncWrites(Boolean.parseBoolean(value));
+               break;
+            }
+            case SYNC_WRITES_MAX_DELAY: {
+               storeBuilder.syncWritesMaxDelay(Long.parseLong(value));
+               break;
+            }
+            case SYNC_WRITES_MAX_BYTES: {
+               storeBuilder.syncWritesMaxBytes(Integer.parseInt(value));
+               break;
+            }
             default: {
                parseStoreAttribute(reader, i, storeBuilder);
             }
@@ -354,6 +354,7 @@ private void writeDistributedCache(XMLExtendedStreamWriter writer, String name,
       writer.writeStartElement(Element.DISTRIBUTED_CACHE);
       configuration.clustering().hash().attributes().write(writer);
       configuration.clustering().l1().attributes().write(writer);
+      configuration.clustering().attributes().write(writer, ClusteringConfiguration.SEGMENT_LANES, Attribute.SEGMENT_LANES);
       writeCommonClusteredCacheAttributes(writer, configuration);
       writeCommonCacheAttributesElements(writer, name, configuration);
       GroupsConfiguration groups = configuration.clustering().hash().groups();
@@ -589,6 +590,7 @@ private void writeMemory(XMLExtendedStreamWriter writer, Configuration configura
          switch (memory.storageType()) {
             case OFF_HEAP:
                attributes.write(writer, MemoryConfiguration.ADDRESS_COUNT, Attribute.ADDRESS_COUNT);
+               attributes.write(writer, MemoryConfiguration.POOLED_ALLOCATION, Attribute.POOLED_ALLOCATION);
                attributes.write(writer, MemoryConfiguration.EVICTION_STRATEGY, Attribute.STRATEGY);
             case BINARY:
                attributes.write(writer, MemoryConfiguration.EVICTION_TYPE, Attribute.EVICTION);
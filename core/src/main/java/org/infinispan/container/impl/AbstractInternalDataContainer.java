@@ -157,11 +157,20 @@ public void put(int segment, K k, V v, Metadata metadata, long createdTimestamp,
          if (trace)
             log.tracef("Store %s in container", copy);
 
+         // The expiration index is updated while holding the lock of the key, so that it follows the order of the
+         // writes. An entry that could expire and is replaced concurrently by a plain put stays in the index, but the
+         // reaper skips it when it finds that the entry can't expire anymore.
+         boolean canExpire = copy.canExpire() || (e != null && e.canExpire());
          // Passivation should be non blocking at some point in https://issues.jboss.org/browse/ISPN-9723
-         if (hasPassivation) {
+         if (hasPassivation || canExpire) {
             entries.compute(k, (key, entry) -> {
-               computeEntryWritten(key, copy);
-               activator.onUpdate(key, entry == null);
+               if (hasPassivation) {
+                  computeEntryWritten(key, copy);
+                  activator.onUpdate(key, entry == null);
+               }
+               if (copy.canExpire() || (entry != null && entry.canExpire())) {
+                  expirationManager.registerExpiration(segment, copy);
+               }
                return copy;
             });
          } else {
@@ -205,6 +214,9 @@ public InternalCacheEntry<K, V> remove(int segment, Object k) {
             activator.onRemove(key, entry == null);
             if (entry != null) {
                computeEntryRemoved(key, entry);
+               if (entry.canExpire()) {
+                  expirationManager.unregisterExpiration(segment, key);
+               }
             }
             reference.set(entry);
             return null;
@@ -231,6 +243,9 @@ public void evict(int segment, K key) {
          entries.computeIfPresent(key, (o, entry) -> {
             passivator.running().passivate(entry);
             computeEntryRemoved(o, entry);
+            if (entry.canExpire()) {
+               expirationManager.unregisterExpiration(segment, o);
+            }
             return null;
          });
       }
@@ -251,10 +266,16 @@ public InternalCacheEntry<K, V> compute(int segment, K key, DataContainer.Comput
          } else if (newEntry == null) {
             computeEntryRemoved(k, oldEntry);
             activator.onRemove(k, false);
+            if (oldEntry.canExpire()) {
+               expirationManager.unregisterExpiration(segment, k);
+            }
             return null;
          }
          computeEntryWritten(k, newEntry);
          activator.onUpdate(k, oldEntry == null);
+         if (newEntry.canExpire() || (oldEntry != null && oldEntry.canExpire())) {
+            expirationManager.registerExpiration(segment, newEntry);
+         }
          if (trace)
             log.tracef("Store %s in container", newEntry);
          return newEntry;
@@ -537,6 +558,9 @@ public void onEntryEviction(Map<K, InternalCacheEntry<K, V>> evicted) {
       @Override
       public void onEntryChosenForEviction(Map.Entry<K, InternalCacheEntry<K, V>> entry) {
          passivator.running().passivate(entry.getValue());
+         if (entry.getValue().canExpire()) {
+            expirationManager.unregisterExpiration(getSegmentForKey(entry.getKey()), entry.getKey());
+         }
       }
 
       @Override
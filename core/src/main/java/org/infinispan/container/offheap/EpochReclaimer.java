@@ -0,0 +1,229 @@
+package org.infinispan.container.offheap;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.infinispan.commons.util.ProcessorInfo;
+import org.infinispan.commons.util.Util;
+
+/**
+ * Defers the deallocation of the entries removed from an {@link OffHeapConcurrentMap} until no reader can still be
+ * reading them, so that readers can traverse the map without acquiring a lock (epoch based reclamation).
+ * <p>
+ * Readers invoke {@link #enter()} before reading and {@link #exit(int)} afterwards, which only update a counter
+ * chosen by the current thread, so readers running on different cores don't write to the same cache line. Writers
+ * {@link #retire(long, long)} the memory of the entries they unlinked instead of deallocating it. Retired entries are
+ * first collected in a batch chosen by the current thread, and the counters are only checked when a batch is full.
+ * Retired memory is deallocated once the epoch was advanced twice, and the epoch can only be advanced after all the
+ * readers of the previous epoch exited. When there are no readers at all, a full batch is deallocated immediately.
+ * @since 10.0
+ */
+final class EpochReclaimer {
+   // Counters are 64 bytes apart, so that they don't share a cache line
+   private static final int PADDING = 8;
+   // How many entries a batch retires before checking the readers
+   static final int BATCH_SIZE = 64;
+   // How many retired entries are accumulated before trying to deallocate them
+   private static final int RECLAIM_THRESHOLD = 256;
+
+   private final OffHeapMemoryAllocator allocator;
+   private final int cellMask;
+   private final AtomicLongArray readers;
+   private final AtomicLong epoch = new AtomicLong();
+   private final Batch[] batches;
+
+   // Address, size and epoch of every retired entry that could not be deallocated with its batch, guarded by this
+   private long[] retired = new long[3 * RECLAIM_THRESHOLD];
+   private int retiredCount;
+   private int nextReclaim = RECLAIM_THRESHOLD;
+
+   EpochReclaimer(OffHeapMemoryAllocator allocator) {
+      this.allocator = allocator;
+      int cells = Util.findNextHighestPowerOfTwo(ProcessorInfo.availableProcessors());
+      this.cellMask = cells - 1;
+      // One set of counters for the readers of the even epochs and one for the odd epochs
+      this.readers = new AtomicLongArray(2 * cells * PADDING);
+      this.batches = new Batch[cells];
+      for (int i = 0; i < cells; ++i) {
+         batches[i] = new Batch();
+      }
+   }
+
+   /**
+    * Registers a reader. Memory retired after this method returns is not deallocated until {@link #exit(int)} is
+    * invoked.
+    * @return the token to pass to {@link #exit(int)}
+    */
+   int enter() {
+      int cell = cell();
+      while (true) {
+         long current = epoch.get();
+         int index = (((int) current & 1) * (cellMask + 1) + cell) * PADDING;
+         readers.incrementAndGet(index);
+         // If the epoch was advanced concurrently the counter may have already been checked, so try again
+         if (epoch.get() == current) {
+            return index;
+         }
+         readers.decrementAndGet(index);
+      }
+   }
+
+   /**
+    * Unregisters a reader.
+    * @param token the value returned by {@link #enter()}
+    */
+   void exit(int token) {
+      readers.decrementAndGet(token);
+   }
+
+   /**
+    * Deallocates the given memory once no reader can be reading it. The memory must already be unreachable for
+    * readers that enter after this method is invoked.
+    * @param address the address to deallocate
+    * @param size the size that was allocated
+    */
+   void retire(long address, long size) {
+      Batch batch = batches[cell()];
+      synchronized (batch) {
+         batch.entries[batch.count++] = address;
+         batch.entries[batch.count++] = size;
+         if (batch.count == batch.entries.length) {
+            flush(batch);
+         }
+      }
+   }
+
+   /**
+    * Deallocates the retired memory that no reader can be reading, without waiting for the readers.
+    */
+   void reclaim() {
+      for (Batch batch : batches) {
+         synchronized (batch) {
+            flush(batch);
+         }
+      }
+      synchronized (this) {
+         if (tryAdvance()) {
+            tryAdvance();
+         }
+         deallocateRetired(epoch.get() - 2);
+      }
+   }
+
+   /**
+    * Waits until all the readers that entered before this method was invoked exited, then deallocates all the
+    * retired memory. Entries must not be retired concurrently, and readers that enter concurrently must not
+    * read any of the retired memory.
+    */
+   void reclaimAll() {
+      for (Batch batch : batches) {
+         synchronized (batch) {
+            flush(batch);
+         }
+      }
+      synchronized (this) {
+         for (int i = 0; i < 2; ++i) {
+            while (!tryAdvance()) {
+               Thread.yield();
+            }
+         }
+         deallocateRetired(Long.MAX_VALUE);
+         nextReclaim = RECLAIM_THRESHOLD;
+      }
+   }
+
+   private int cell() {
+      return (int) Thread.currentThread().getId() & cellMask;
+   }
+
+   /**
+    * Deallocates the entries of the batch if there are no readers, and otherwise moves them to the retired entries.
+    * Must be invoked while holding the monitor of the batch.
+    */
+   private void flush(Batch batch) {
+      if (batch.count == 0) {
+         return;
+      }
+      // The entries were unlinked before they were retired, and the fence keeps those writes from being reordered
+      // after the reads of the counters. So a reader that enters after this check reads the buckets after the
+      // entries were unlinked and can't reach them, while a reader that entered before is seen here
+      UnsafeHolder.UNSAFE.fullFence();
+      if (!hasReaders(0) && !hasReaders(1)) {
+         for (int i = 0; i < batch.count; i += 2) {
+            allocator.deallocate(batch.entries[i], batch.entries[i + 1]);
+         }
+         batch.count = 0;
+         synchronized (this) {
+            if (retiredCount > 0) {
+               deallocateRetired(Long.MAX_VALUE);
+            }
+         }
+         return;
+      }
+      synchronized (this) {
+         // The current epoch is at least the epoch when the entries were retired
+         long current = epoch.get();
+         int needed = retiredCount + batch.count / 2 * 3;
+         if (needed > retired.length) {
+            retired = Arrays.copyOf(retired, Math.max(needed, retired.length << 1));
+         }
+         for (int i = 0; i < batch.count; i += 2) {
+            retired[retiredCount++] = batch.entries[i];
+            retired[retiredCount++] = batch.entries[i + 1];
+            retired[retiredCount++] = current;
+         }
+         batch.count = 0;
+         if (retiredCount / 3 >= nextReclaim) {
+            // Each advance allows the memory retired in an older epoch to be deallocated
+            if (tryAdvance()) {
+               tryAdvance();
+            }
+            deallocateRetired(epoch.get() - 2);
+            // If there are readers blocking the epoch, don't try again for every batch
+            nextReclaim = retiredCount / 3 + RECLAIM_THRESHOLD;
+         }
+      }
+   }
+
+   private boolean tryAdvance() {
+      long current = epoch.get();
+      // The counters of the next epoch are the ones of the previous epoch
+      if (hasReaders((int) (current + 1) & 1)) {
+         return false;
+      }
+      // The epoch is only advanced while holding the monitor
+      epoch.set(current + 1);
+      return true;
+   }
+
+   private boolean hasReaders(int parity) {
+      int offset = parity * (cellMask + 1) * PADDING;
+      for (int i = 0; i <= cellMask; ++i) {
+         if (readers.get(offset + i * PADDING) != 0) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private void deallocateRetired(long maxEpoch) {
+      int kept = 0;
+      for (int i = 0; i < retiredCount; i += 3) {
+         if (retired[i + 2] <= maxEpoch) {
+            allocator.deallocate(retired[i], retired[i + 1]);
+         } else {
+            retired[kept++] = retired[i];
+            retired[kept++] = retired[i + 1];
+            retired[kept++] = retired[i + 2];
+         }
+      }
+      retiredCount = kept;
+   }
+
+   private static final class Batch {
+      // Address and size of the retired entries, guarded by this
+      final long[] entries = new long[2 * BATCH_SIZE];
+      int count;
+   }
+}
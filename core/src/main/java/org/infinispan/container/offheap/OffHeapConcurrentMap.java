@@ -11,7 +11,6 @@
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.Lock;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.IntStream;
@@ -23,10 +22,17 @@
 import org.infinispan.commons.util.ProcessorInfo;
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.metadata.Metadata;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
 /**
+ * A {@link ConcurrentMap} that stores its entries off heap.
+ * <p>
+ * Writes hold the write lock of the {@link StripedLock} stripe of the key. Reads first try to find the entry without
+ * acquiring any lock, and only fall back to the read lock if a write to the same stripe happened concurrently. The
+ * memory of removed entries is deallocated by an {@link EpochReclaimer}, once no lock-free reader can still be
+ * reading it.
  * @author wburns
  * @since 9.4
  */
@@ -45,6 +51,7 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
 
    private final OffHeapMemoryAllocator allocator;
    private final OffHeapEntryFactory offHeapEntryFactory;
+   private final EpochReclaimer reclaimer;
 
    private final EntryListener listener;
 
@@ -52,8 +59,9 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
    private MemoryAddressHash memoryLookup;
 
    // Variable to make sure memory locations aren't read after being deallocated
-   // This variable should always be read first after acquiring either the read or write lock
-   private boolean dellocated = false;
+   // This variable should always be read first after acquiring either the read or write lock, or after entering
+   // the reclaimer for lock-free reads
+   private volatile boolean dellocated = false;
 
    /**
     * Listener interface that is notified when certain operations occur for various memory addresses. Note that when
@@ -72,7 +80,7 @@ public interface EntryListener {
        * Invoked when an entry is about to be removed.  You can read values from this but after this method is completed
        * this memory address may be freed. The write lock will already be acquired for the given segment the key mapped to.
        * <p>
-       * This method <b>MUST</b> free the removedAddress before returning
+       * This method must <b>NOT</b> free the removedAddress, the map frees it once no reader can access it
        * @param removedAddress the address about to be removed
        */
       void entryRemoved(long removedAddress);
@@ -82,7 +90,7 @@ public interface EntryListener {
        * however oldAddress may be freed after this method returns.  The write lock will already be acquired for the given
        * segment the key mapped to.
        * <p>
-       * This method <b>MUST</b> free the oldAddress before returning
+       * This method must <b>NOT</b> free the oldAddress, the map frees it once no reader can access it
        * @param newAddress the address just created that will be the new entry
        * @param oldAddress the old address for this entry that will be soon removed
        */
@@ -105,19 +113,24 @@ private void entryCreated(long newAddress) {
    private void entryRemoved(long removedAddress) {
       if (listener != null) {
          listener.entryRemoved(removedAddress);
-      } else {
-         allocator.deallocate(removedAddress, offHeapEntryFactory.getSize(removedAddress, false));
       }
    }
 
    private void entryReplaced(long newAddress, long oldAddress) {
       if (listener != null) {
          listener.entryReplaced(newAddress, oldAddress);
-      } else {
-         allocator.deallocate(oldAddress, offHeapEntryFactory.getSize(oldAddress, false));
       }
    }
 
+   /**
+    * Hands the memory of an entry to the reclaimer. The entry <b>must</b> already be unlinked, so that readers that
+    * start after this method is invoked can't reach it.
+    * @param address the address of the entry that was unlinked
+    */
+   private void retire(long address) {
+      reclaimer.retire(address, offHeapEntryFactory.getSize(address, false));
+   }
+
    private void entryRetrieved(long entryAddress) {
       if (listener != null) {
          listener.entryRetrieved(entryAddress);
@@ -129,6 +142,7 @@ public OffHeapConcurrentMap(int desiredSize, OffHeapMemoryAllocator allocator,
       this.allocator = Objects.requireNonNull(allocator);
       this.offHeapEntryFactory = Objects.requireNonNull(offHeapEntryFactory);
       this.listener = listener;
+      this.reclaimer = new EpochReclaimer(allocator);
 
       // Since these are segmented now, just use # of processors instead
       lockCount = Util.findNextHighestPowerOfTwo(ProcessorInfo.availableProcessors() << 1);
@@ -175,9 +189,12 @@ public void start() {
    public void stop() {
       locks.lockAll();
       try {
-         clear();
-         memoryLookup.deallocate();
+         checkDeallocation();
+         performClear();
          dellocated = true;
+         // Lock-free readers that entered before may still be reading the lookup table or the removed entries
+         reclaimer.reclaimAll();
+         memoryLookup.deallocate();
       } finally {
          locks.unlockAll();
       }
@@ -196,15 +213,15 @@ public boolean isEmpty() {
    @Override
    public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key, BiFunction<? super WrappedBytes,
          ? super InternalCacheEntry<WrappedBytes, WrappedBytes>, ? extends InternalCacheEntry<WrappedBytes, WrappedBytes>> remappingFunction) {
-      Lock lock = locks.getLock(key).writeLock();
-      lock.lock();
+      StripedLock.VersionedLock lock = locks.getLock(key);
+      lock.lockWrite();
       try {
          checkDeallocation();
          long bucketAddress = memoryLookup.getMemoryAddress(key);
          long actualAddress = bucketAddress == 0 ? 0 : performGet(bucketAddress, key);
          InternalCacheEntry<WrappedBytes, WrappedBytes> prev;
          if (actualAddress != 0) {
-            prev = offHeapEntryFactory.fromMemory(actualAddress);
+            prev = offHeapEntryFactory.fromMemory(actualAddress, key);
          } else {
             prev = null;
          }
@@ -212,7 +229,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key,
          if (prev == result) {
             // noop
          } else if (result != null) {
-            long newAddress = offHeapEntryFactory.create(key, result.getValue(), result.getMetadata());
+            long newAddress = createEntry(key, result.getValue(), result.getMetadata());
             // TODO: Technically actualAddress could be a 0 and bucketAddress != 0, which means we will loop through
             // entire bucket for no reason as it will never match (doing key equality checks)
             performPut(bucketAddress, actualAddress, newAddress, key, false);
@@ -222,45 +239,89 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key,
          }
          return result;
       } finally {
-         lock.unlock();
+         lock.unlockWrite();
       }
    }
 
+   /**
+    * Creates a new entry, making sure its contents are visible to lock-free readers before its address is published.
+    * @return the address of the new entry
+    */
+   private long createEntry(WrappedBytes key, WrappedBytes value, Metadata metadata) {
+      long newAddress = offHeapEntryFactory.create(key, value, metadata);
+      UnsafeHolder.UNSAFE.storeFence();
+      return newAddress;
+   }
+
    @Override
    public boolean containsKey(Object key) {
       if (!(key instanceof WrappedBytes)) {
          return false;
       }
-      Lock lock = locks.getLock(key).readLock();
-      lock.lock();
+      // Enter before reading the stamp, so that memory retired by a concurrent write can't be deallocated
+      int reader = reclaimer.enter();
       try {
-         checkDeallocation();
-         long address = memoryLookup.getMemoryAddress(key);
-         if (address == 0) {
-            return false;
-         }
-
-         while (address != 0) {
-            long nextAddress = offHeapEntryFactory.getNext(address);
-            if (offHeapEntryFactory.equalsKey(address, (WrappedBytes) key)) {
-               return !offHeapEntryFactory.isExpired(address);
+         long stamp = locks.tryOptimisticRead(key);
+         if (stamp != 0) {
+            checkDeallocation();
+            boolean contains = performContainsKey((WrappedBytes) key);
+            if (locks.validate(key, stamp)) {
+               return contains;
             }
-            address = nextAddress;
          }
-         return false;
       } finally {
-         lock.unlock();
+         reclaimer.exit(reader);
+      }
+      StripedLock.VersionedLock lock = locks.getLock(key);
+      lock.lockRead();
+      try {
+         checkDeallocation();
+         return performContainsKey((WrappedBytes) key);
+      } finally {
+         lock.unlockRead();
       }
    }
 
+   private boolean performContainsKey(WrappedBytes key) {
+      long address = memoryLookup.getMemoryAddress(key);
+      while (address != 0) {
+         long nextAddress = offHeapEntryFactory.getNext(address);
+         if (offHeapEntryFactory.equalsKey(address, key)) {
+            return !offHeapEntryFactory.isExpired(address);
+         }
+         address = nextAddress;
+      }
+      return false;
+   }
+
    @Override
    public boolean containsValue(Object value) {
       return false;
    }
 
    private InternalCacheEntry<WrappedBytes, WrappedBytes> peekOrGet(WrappedBytes k, boolean peek) {
-      Lock lock = locks.getLock(k).readLock();
-      lock.lock();
+      // A get has to notify the listener while the entry cannot be removed, so it always needs the read lock
+      if (peek || listener == null) {
+         // Enter before reading the stamp, so that memory retired by a concurrent write can't be deallocated
+         int reader = reclaimer.enter();
+         try {
+            long stamp = locks.tryOptimisticRead(k);
+            if (stamp != 0) {
+               checkDeallocation();
+               long bucketAddress = memoryLookup.getMemoryAddress(k);
+               long actualAddress = bucketAddress == 0 ? 0 : performGet(bucketAddress, k);
+               InternalCacheEntry<WrappedBytes, WrappedBytes> ice = actualAddress == 0 ? null :
+                     offHeapEntryFactory.fromMemory(actualAddress, k);
+               if (locks.validate(k, stamp)) {
+                  return ice;
+               }
+            }
+         } finally {
+            reclaimer.exit(reader);
+         }
+      }
+      StripedLock.VersionedLock lock = locks.getLock(k);
+      lock.lockRead();
       try {
          checkDeallocation();
          long bucketAddress = memoryLookup.getMemoryAddress(k);
@@ -270,14 +331,14 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> peekOrGet(WrappedBytes k,
 
          long actualAddress = performGet(bucketAddress, k);
          if (actualAddress != 0) {
-            InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(actualAddress);
+            InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(actualAddress, k);
             if (!peek) {
                entryRetrieved(actualAddress);
             }
             return ice;
          }
       } finally {
-         lock.unlock();
+         lock.unlockRead();
       }
       return null;
    }
@@ -320,15 +381,15 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> peek(Object key) {
    @Override
    public InternalCacheEntry<WrappedBytes, WrappedBytes> put(WrappedBytes key,
          InternalCacheEntry<WrappedBytes, WrappedBytes> value) {
-      Lock lock = locks.getLock(key).writeLock();
-      lock.lock();
+      StripedLock.VersionedLock lock = locks.getLock(key);
+      lock.lockWrite();
       try {
          checkDeallocation();
-         long newAddress = offHeapEntryFactory.create(key, value.getValue(), value.getMetadata());
+         long newAddress = createEntry(key, value.getValue(), value.getMetadata());
          long address = memoryLookup.getMemoryAddress(key);
          return performPut(address, 0, newAddress, key, true);
       } finally {
-         lock.unlock();
+         lock.unlockWrite();
       }
    }
 
@@ -354,6 +415,8 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> performPut(long bucketHea
       } else {
          boolean replaceHead = false;
          boolean foundPrevious = false;
+         // The replaced entry, which is only retired after it is unlinked
+         long replacedAddress = 0;
          // Whether the key was found or not - short circuit equality checks
          InternalCacheEntry<WrappedBytes, WrappedBytes> previousValue = null;
          long address = bucketHeadAddress;
@@ -367,9 +430,10 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> performPut(long bucketHea
                if (actualAddress == 0 ? offHeapEntryFactory.equalsKey(address, key) : actualAddress == address) {
                   foundPrevious = true;
                   if (requireReturn) {
-                     previousValue = offHeapEntryFactory.fromMemory(address);
+                     previousValue = offHeapEntryFactory.fromMemory(address, key);
                   }
                   entryReplaced(newAddress, address);
+                  replacedAddress = address;
                   // If this is true it means this was the first node in the linked list
                   if (prevAddress == 0) {
                      if (nextAddress == 0) {
@@ -404,6 +468,9 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> performPut(long bucketHea
             // Now prevAddress should be the last link so we fix our link
             offHeapEntryFactory.setNext(prevAddress, newAddress);
          }
+         if (replacedAddress != 0) {
+            retire(replacedAddress);
+         }
          return previousValue;
       }
    }
@@ -413,8 +480,8 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> remove(Object key) {
       if (!(key instanceof WrappedBytes)) {
          return null;
       }
-      Lock lock = locks.getLock(key).writeLock();
-      lock.lock();
+      StripedLock.VersionedLock lock = locks.getLock(key);
+      lock.lockWrite();
       try {
          checkDeallocation();
          long address = memoryLookup.getMemoryAddress(key);
@@ -423,7 +490,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> remove(Object key) {
          }
          return performRemove(address, 0, (WrappedBytes) key, null, true);
       } finally {
-         lock.unlock();
+         lock.unlockWrite();
       }
    }
 
@@ -467,7 +534,7 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> performRemove(long bucket
          removeThisAddress = actualAddress == 0 ? offHeapEntryFactory.equalsKey(address, key) : actualAddress == address;
          if (removeThisAddress) {
             if (value != null) {
-               ice = offHeapEntryFactory.fromMemory(address);
+               ice = offHeapEntryFactory.fromMemory(address, key);
                // If value doesn't match and was provided then don't remove it
                if (!value.equalsWrappedBytes(ice.getValue())) {
                   ice = null;
@@ -475,7 +542,7 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> performRemove(long bucket
                }
             }
             if (requireReturn && ice == null) {
-               ice = offHeapEntryFactory.fromMemory(address);
+               ice = offHeapEntryFactory.fromMemory(address, key);
             }
             entryRemoved(address);
             if (prevAddress != 0) {
@@ -483,6 +550,7 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> performRemove(long bucket
             } else {
                memoryLookup.putMemoryAddress(key, nextAddress);
             }
+            retire(address);
             size.decrementAndGet();
             break;
          }
@@ -504,25 +572,36 @@ public void clear() {
       locks.lockAll();
       try {
          checkDeallocation();
-         if (trace) {
-            log.trace("Clearing off heap data");
-         }
-         memoryLookup.toStreamRemoved().forEach(address -> {
-            while (address != 0) {
-               long nextAddress = offHeapEntryFactory.getNext(address);
-               entryRemoved(address);
-               address = nextAddress;
-            }
-         });
-         size.set(0);
-         if (trace) {
-            log.trace("Cleared off heap data");
-         }
+         performClear();
+         // Deallocate the entries that are still in a batch, unless a lock-free reader may be reading them
+         reclaimer.reclaim();
       } finally {
          locks.unlockAll();
       }
    }
 
+   /**
+    * Removes all the entries. All the write locks <b>must</b> be held before calling this method.
+    */
+   private void performClear() {
+      if (trace) {
+         log.trace("Clearing off heap data");
+      }
+      memoryLookup.toStreamRemoved().forEach(address -> {
+         while (address != 0) {
+            long nextAddress = offHeapEntryFactory.getNext(address);
+            entryRemoved(address);
+            // The head of the bucket was already cleared, so the whole chain is unreachable
+            retire(address);
+            address = nextAddress;
+         }
+      });
+      size.set(0);
+      if (trace) {
+         log.trace("Cleared off heap data");
+      }
+   }
+
    @Override
    public InternalCacheEntry<WrappedBytes, WrappedBytes> putIfAbsent(WrappedBytes key,
          InternalCacheEntry<WrappedBytes, WrappedBytes> value) {
@@ -543,36 +622,36 @@ public boolean remove(Object key, Object value) {
       if (!(innerValue instanceof WrappedBytes)) {
          return false;
       }
-      Lock lock = locks.getLock(key).writeLock();
-      lock.lock();
+      StripedLock.VersionedLock lock = locks.getLock(key);
+      lock.lockWrite();
       try {
          checkDeallocation();
          long address = memoryLookup.getMemoryAddress(key);
          return address != 0 && performRemove(address, 0, (WrappedBytes) key, (WrappedBytes) innerValue, true) != null;
       } finally {
-         lock.unlock();
+         lock.unlockWrite();
       }
    }
 
    @Override
    public boolean replace(WrappedBytes key, InternalCacheEntry<WrappedBytes, WrappedBytes> oldValue,
          InternalCacheEntry<WrappedBytes, WrappedBytes> newValue) {
-      Lock lock = locks.getLock(key).writeLock();
-      lock.lock();
+      StripedLock.VersionedLock lock = locks.getLock(key);
+      lock.lockWrite();
       try {
          checkDeallocation();
          long address = memoryLookup.getMemoryAddress(key);
          return address != 0 && performReplace(address, key, oldValue, newValue) != null;
       } finally {
-         lock.unlock();
+         lock.unlockWrite();
       }
    }
 
    @Override
    public InternalCacheEntry<WrappedBytes, WrappedBytes> replace(WrappedBytes key,
          InternalCacheEntry<WrappedBytes, WrappedBytes> value) {
-      Lock lock = locks.getLock(key).writeLock();
-      lock.lock();
+      StripedLock.VersionedLock lock = locks.getLock(key);
+      lock.lockWrite();
       try {
          checkDeallocation();
          long address = memoryLookup.getMemoryAddress(key);
@@ -581,7 +660,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> replace(WrappedBytes key,
          }
          return performReplace(address, key, null, value);
       } finally {
-         lock.unlock();
+         lock.unlockWrite();
       }
    }
 
@@ -598,7 +677,7 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> performReplace(long bucke
          // If the actualAddress was not known, check key equality otherwise just compare with the address
          if (offHeapEntryFactory.equalsKey(address, key)) {
             if (oldValue != null) {
-               ice = offHeapEntryFactory.fromMemory(address);
+               ice = offHeapEntryFactory.fromMemory(address, key);
                // If value doesn't match and was provided then don't replace it
                if (!ice.getValue().equalsWrappedBytes(oldValue.getValue())) {
                   ice = null;
@@ -607,10 +686,10 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> performReplace(long bucke
             }
             // Need to always return the previous, so make sure we read it
             if (ice == null) {
-               ice = offHeapEntryFactory.fromMemory(address);
+               ice = offHeapEntryFactory.fromMemory(address, key);
             }
 
-            long newAddress = offHeapEntryFactory.create(key, newValue.getValue(), newValue.getMetadata());
+            long newAddress = createEntry(key, newValue.getValue(), newValue.getMetadata());
 
             entryReplaced(newAddress, address);
             if (prevAddress != 0) {
@@ -621,6 +700,7 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> performReplace(long bucke
             // We always set the next address on the newly created address - this will be 0 if the previous value
             // was the end of the linked list
             offHeapEntryFactory.setNext(newAddress, nextAddress);
+            retire(address);
             break;
          }
          prevAddress = address;
@@ -674,8 +754,8 @@ public boolean remove(Object o) {
    private Stream<InternalCacheEntry<WrappedBytes, WrappedBytes>> entryStream() {
       return IntStream.range(0, memoryAddressCount)
             .mapToObj(a -> {
-               Lock lock = locks.getLockWithOffset(a % lockCount).readLock();
-               lock.lock();
+               StripedLock.VersionedLock lock = locks.getLockWithOffset(a % lockCount);
+               lock.lockRead();
                try {
                   checkDeallocation();
                   long address = memoryLookup.getMemoryAddressOffsetNoTraceIfAbsent(a);
@@ -690,7 +770,7 @@ private Stream<InternalCacheEntry<WrappedBytes, WrappedBytes>> entryStream() {
                   } while ((address = nextAddress) != 0);
                   return builder.build();
                } finally {
-                  lock.unlock();
+                  lock.unlockRead();
                }
             }).flatMap(Function.identity());
    }
@@ -66,6 +66,14 @@ public interface OffHeapEntryFactory extends KeyValueMetadataSizeCalculator<Wrap
     */
    InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address);
 
+   /**
+    * Create an entry from the off heap pointer, using the given key instead of copying the stored one
+    * @param address the address of the entry to read
+    * @param key a key equal to the key of the entry, or null to read it
+    * @return the entry created on heap from off heap
+    */
+   InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address, WrappedBytes key);
+
    /**
     * Returns whether the given key as bytes is the same key as the key stored in the entry for the given address.
     * @param address the address of the entry's key to check
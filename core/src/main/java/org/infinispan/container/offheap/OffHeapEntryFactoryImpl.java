@@ -258,6 +258,11 @@ public byte[] getKey(long address) {
     */
    @Override
    public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
+      return fromMemory(address, null);
+   }
+
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address, WrappedBytes key) {
       // 16 bytes for eviction if needed (optional)
       // 8 bytes for linked pointer
       int offset = evictionEnabled ? 24 : 8;
@@ -266,7 +271,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
       offset += 1;
       int hashCode = MEMORY.getInt(address, offset);
       offset += 4;
-      byte[] keyBytes = new byte[MEMORY.getInt(address, offset)];
+      int keyLength = MEMORY.getInt(address, offset);
       offset += 4;
 
       byte[] metadataBytes;
@@ -292,8 +297,12 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
       byte[] valueBytes = new byte[MEMORY.getInt(address, offset)];
       offset += 4;
 
-      MEMORY.getBytes(address, offset, keyBytes, 0, keyBytes.length);
-      offset += keyBytes.length;
+      if (key == null) {
+         byte[] keyBytes = new byte[keyLength];
+         MEMORY.getBytes(address, offset, keyBytes, 0, keyLength);
+         key = new WrappedByteArray(keyBytes, hashCode);
+      }
+      offset += keyLength;
       MEMORY.getBytes(address, offset, metadataBytes, 0, metadataBytes.length);
       offset += metadataBytes.length;
       MEMORY.getBytes(address, offset, valueBytes, 0, valueBytes.length);
@@ -307,7 +316,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
          } catch (IOException | ClassNotFoundException e) {
             throw new CacheException(e);
          }
-         return internalEntryFactory.create(new WrappedByteArray(keyBytes, hashCode),
+         return internalEntryFactory.create(key,
                new WrappedByteArray(valueBytes), metadata);
       } else {
          long lifespan;
@@ -349,13 +358,13 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
             try {
                EntryVersion version = (EntryVersion) marshaller.objectFromByteBuffer(metadataBytes, offset,
                      metadataBytes.length - offset);
-               return internalEntryFactory.create(new WrappedByteArray(keyBytes, hashCode),
+               return internalEntryFactory.create(key,
                      new WrappedByteArray(valueBytes), version, created, lifespan, lastUsed, maxIdle);
             } catch (IOException | ClassNotFoundException e) {
                throw new CacheException(e);
             }
          } else {
-            return internalEntryFactory.create(new WrappedByteArray(keyBytes, hashCode),
+            return internalEntryFactory.create(key,
                   new WrappedByteArray(valueBytes), (Metadata) null, created, lifespan, lastUsed, maxIdle);
          }
       }
@@ -132,6 +132,27 @@ long allocate(long size) {
       return address;
    }
 
+   /**
+    * Registers a block carved out of a larger allocation, so that its accesses can be checked like the ones of an
+    * allocated address.
+    */
+   void trackBlock(long address, long size) {
+      if (trace) {
+         Long prev = allocatedBlocks.put(address, size);
+         if (prev != null) {
+            throw new IllegalArgumentException();
+         }
+      }
+   }
+
+   void untrackBlock(long address) {
+      if (trace) {
+         if (allocatedBlocks.remove(address) == null) {
+            throw new IllegalArgumentException();
+         }
+      }
+   }
+
    void free(long address) {
       Long prev = allocatedBlocks.remove(address);
       if (trace) {
@@ -0,0 +1,248 @@
+package org.infinispan.container.offheap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Memory allocator that carves small allocations out of large slabs of native memory, instead of invoking malloc and
+ * free for every entry.
+ * <p>
+ * Allocations up to {@link #MAX_POOLED_SIZE} bytes are rounded up to a multiple of 16 bytes, which determines their
+ * size class. Every size class has its own slabs and its own list of free blocks, and every thread keeps a small
+ * cache of free blocks for each size class, so that most allocations and deallocations don't need any
+ * synchronization. Larger allocations are forwarded to the underlying allocator.
+ * <p>
+ * The memory of the slabs is never returned to the operating system while the allocator is running, it is only reused
+ * for allocations of the same size class. The allocated amount is estimated the same way as
+ * {@link UnpooledOffHeapMemoryAllocator} does, so that memory based eviction behaves the same with both allocators.
+ * @since 10.0
+ */
+public class PooledOffHeapMemoryAllocator implements OffHeapMemoryAllocator {
+   private static final Log log = LogFactory.getLog(PooledOffHeapMemoryAllocator.class, Log.class);
+   private static final boolean trace = log.isTraceEnabled();
+   private static final OffHeapMemory MEMORY = OffHeapMemory.INSTANCE;
+
+   // Blocks are aligned to 16 bytes, like the memory returned by malloc
+   private static final int ALIGNMENT = 16;
+   private static final int ALIGNMENT_SHIFT = 4;
+   // Largest allocation that is carved out of a slab
+   static final int MAX_POOLED_SIZE = 1024;
+   static final int SLAB_SIZE = 256 * 1024;
+   // Free blocks of each size class kept by every thread, half of them are moved at a time to or from the size class
+   private static final int THREAD_CACHE_SIZE = 32;
+
+   private final SizeClass[] sizeClasses = new SizeClass[MAX_POOLED_SIZE >> ALIGNMENT_SHIFT];
+   private final ThreadLocal<ThreadCache> threadCaches = new ThreadLocal<>();
+   private final LongAdder amountAllocated = new LongAdder();
+   // Guarded by itself
+   private final List<Long> slabs = new ArrayList<>();
+   // Incremented when the slabs are deallocated, so that threads discard the blocks they cached
+   private volatile int generation;
+
+   public PooledOffHeapMemoryAllocator() {
+      for (int i = 0; i < sizeClasses.length; ++i) {
+         sizeClasses[i] = new SizeClass((i + 1) << ALIGNMENT_SHIFT);
+      }
+   }
+
+   @Override
+   public long allocate(long memoryLength) {
+      long estimatedMemoryLength = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryLength);
+      long memoryLocation;
+      if (memoryLength > MAX_POOLED_SIZE) {
+         memoryLocation = MEMORY.allocate(memoryLength);
+      } else {
+         int sizeClass = sizeClass(memoryLength);
+         memoryLocation = threadCache().pop(sizeClass, sizeClasses[sizeClass]);
+         MEMORY.trackBlock(memoryLocation, sizeClasses[sizeClass].blockSize);
+      }
+      amountAllocated.add(estimatedMemoryLength);
+      if (trace) {
+         log.tracef("Allocated off heap memory at 0x%016x with %d bytes. Total size: %d", memoryLocation,
+               estimatedMemoryLength, amountAllocated.sum());
+      }
+      return memoryLocation;
+   }
+
+   @Override
+   public void deallocate(long memoryAddress, long size) {
+      long estimatedMemoryLength = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size);
+      amountAllocated.add(- estimatedMemoryLength);
+      if (trace) {
+         log.tracef("Deallocating off heap memory at 0x%016x with %d bytes. Total size: %d", memoryAddress,
+               estimatedMemoryLength, amountAllocated.sum());
+      }
+      if (size > MAX_POOLED_SIZE) {
+         MEMORY.free(memoryAddress);
+      } else {
+         int sizeClass = sizeClass(size);
+         MEMORY.untrackBlock(memoryAddress);
+         threadCache().push(sizeClass, sizeClasses[sizeClass], memoryAddress);
+      }
+   }
+
+   @Override
+   public long getAllocatedAmount() {
+      return amountAllocated.sum();
+   }
+
+   /**
+    * Returns how much native memory is reserved by the slabs, including the blocks that are not allocated.
+    * @return the size of all the slabs in bytes
+    */
+   public long getSlabAmount() {
+      synchronized (slabs) {
+         return (long) slabs.size() * SLAB_SIZE;
+      }
+   }
+
+   /**
+    * Deallocates the slabs. All the memory returned by this allocator must have been deallocated already, otherwise
+    * the slabs are kept so that the memory still in use stays valid.
+    */
+   @Stop
+   public void stop() {
+      long allocated = amountAllocated.sum();
+      if (allocated != 0) {
+         log.debugf("Not deallocating off heap slabs as %d bytes are still allocated", allocated);
+         return;
+      }
+      synchronized (slabs) {
+         generation++;
+         for (SizeClass sizeClass : sizeClasses) {
+            sizeClass.reset();
+         }
+         for (Long slab : slabs) {
+            MEMORY.free(slab);
+         }
+         slabs.clear();
+      }
+   }
+
+   private static int sizeClass(long size) {
+      // A 0 byte allocation still needs a distinct address
+      return size == 0 ? 0 : (int) ((size + ALIGNMENT - 1) >>> ALIGNMENT_SHIFT) - 1;
+   }
+
+   private ThreadCache threadCache() {
+      ThreadCache cache = threadCaches.get();
+      int currentGeneration = generation;
+      if (cache == null || cache.generation != currentGeneration) {
+         cache = new ThreadCache(currentGeneration, sizeClasses.length);
+         threadCaches.set(cache);
+      }
+      return cache;
+   }
+
+   private long allocateSlab() {
+      long slab = MEMORY.allocate(SLAB_SIZE);
+      synchronized (slabs) {
+         slabs.add(slab);
+      }
+      if (trace) {
+         log.tracef("Allocated off heap slab at 0x%016x with %d bytes", slab, SLAB_SIZE);
+      }
+      return slab;
+   }
+
+   /**
+    * The free blocks and the slab currently being carved for a given block size.
+    */
+   private final class SizeClass {
+      private final int blockSize;
+      // Guarded by this
+      private long[] freeBlocks = new long[THREAD_CACHE_SIZE];
+      private int freeCount;
+      private long slabPosition;
+      private long slabEnd;
+
+      SizeClass(int blockSize) {
+         this.blockSize = blockSize;
+      }
+
+      /**
+       * Moves up to {@code count} free blocks into the given array, carving new ones out of a slab if needed.
+       */
+      synchronized void take(long[] dest, int count) {
+         int taken = Math.min(count, freeCount);
+         freeCount -= taken;
+         System.arraycopy(freeBlocks, freeCount, dest, 0, taken);
+         while (taken < count) {
+            if (slabPosition + blockSize > slabEnd) {
+               long slab = allocateSlab();
+               // The first bytes are skipped, so that no block has the address of its slab
+               slabPosition = slab + ALIGNMENT;
+               slabEnd = slab + SLAB_SIZE;
+            }
+            dest[taken++] = slabPosition;
+            slabPosition += blockSize;
+         }
+      }
+
+      /**
+       * Adds {@code count} free blocks, starting at {@code offset} in the given array.
+       */
+      synchronized void give(long[] src, int offset, int count) {
+         if (freeCount + count > freeBlocks.length) {
+            long[] newFreeBlocks = new long[Math.max(freeBlocks.length << 1, freeCount + count)];
+            System.arraycopy(freeBlocks, 0, newFreeBlocks, 0, freeCount);
+            freeBlocks = newFreeBlocks;
+         }
+         System.arraycopy(src, offset, freeBlocks, freeCount, count);
+         freeCount += count;
+      }
+
+      synchronized void reset() {
+         freeBlocks = new long[THREAD_CACHE_SIZE];
+         freeCount = 0;
+         slabPosition = 0;
+         slabEnd = 0;
+      }
+   }
+
+   /**
+    * The free blocks cached by a single thread. It doesn't reference the allocator, so that it doesn't prevent the
+    * allocator and its thread local from being garbage collected.
+    */
+   private static final class ThreadCache {
+      private final int generation;
+      private final long[][] blocks;
+      private final int[] counts;
+
+      ThreadCache(int generation, int sizeClasses) {
+         this.generation = generation;
+         this.blocks = new long[sizeClasses][];
+         this.counts = new int[sizeClasses];
+      }
+
+      long pop(int index, SizeClass sizeClass) {
+         int count = counts[index];
+         if (count == 0) {
+            if (blocks[index] == null) {
+               blocks[index] = new long[THREAD_CACHE_SIZE];
+            }
+            count = THREAD_CACHE_SIZE / 2;
+            sizeClass.take(blocks[index], count);
+         }
+         counts[index] = --count;
+         return blocks[index][count];
+      }
+
+      void push(int index, SizeClass sizeClass, long address) {
+         int count = counts[index];
+         if (blocks[index] == null) {
+            blocks[index] = new long[THREAD_CACHE_SIZE];
+         } else if (count == THREAD_CACHE_SIZE) {
+            count = THREAD_CACHE_SIZE / 2;
+            sizeClass.give(blocks[index], count, THREAD_CACHE_SIZE - count);
+         }
+         blocks[index][count] = address;
+         counts[index] = count + 1;
+      }
+   }
+}
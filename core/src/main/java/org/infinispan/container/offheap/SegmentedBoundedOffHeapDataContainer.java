@@ -160,7 +160,7 @@ private void ensureSize() {
 
       while (true) {
          long addressToRemove;
-         Lock entryWriteLock;
+         StripedLock.VersionedLock entryWriteLock;
          OffHeapConcurrentMap map;
          lruLock.lock();
          try {
@@ -177,8 +177,8 @@ private void ensureSize() {
             if (map != null) {
                int hashCode = offHeapEntryFactory.getHashCode(firstAddress);
                // This is always non null
-               entryWriteLock = map.getLocks().getLockFromHashCode(hashCode).writeLock();
-               if (entryWriteLock.tryLock()) {
+               entryWriteLock = map.getLocks().getLockFromHashCode(hashCode);
+               if (entryWriteLock.tryLockWrite()) {
                   addressToRemove = firstAddress;
                } else {
                   addressToRemove = 0;
@@ -196,7 +196,7 @@ private void ensureSize() {
          // write lock and then acquire the lruLock, since they have to be acquired in that order (exception using
          // try lock as above)
          if (addressToRemove == 0) {
-            entryWriteLock.lock();
+            entryWriteLock.lockWrite();
             try {
                lruLock.lock();
                try {
@@ -209,7 +209,7 @@ private void ensureSize() {
                   OffHeapConcurrentMap protectedMap = getMapThatContainsKey(key);
                   if (protectedMap == map) {
                      int hashCode = offHeapEntryFactory.getHashCode(firstAddress);
-                     Lock innerLock = map.getLocks().getLockFromHashCode(hashCode).writeLock();
+                     StripedLock.VersionedLock innerLock = map.getLocks().getLockFromHashCode(hashCode);
                      if (innerLock == entryWriteLock) {
                         addressToRemove = firstAddress;
                      }
@@ -219,7 +219,7 @@ private void ensureSize() {
                }
             } finally {
                if (addressToRemove == 0) {
-                  entryWriteLock.unlock();
+                  entryWriteLock.unlockWrite();
                }
             }
          }
@@ -236,7 +236,7 @@ private void ensureSize() {
                CompletionStage<Void> evictionStage = evictionManager.onEntryEviction(Collections.singletonMap(ice.getKey(), ice));
                CompletionStages.join(CompletionStages.allOf(passivationStage, evictionStage));
             } finally {
-               entryWriteLock.unlock();
+               entryWriteLock.unlockWrite();
             }
          }
       }
@@ -310,7 +310,6 @@ public void entryRemoved(long removedAddress) {
             // Current size has to be updated in the lock
             currentSize -=  removedSize;
             removeNode(removedAddress);
-            allocator.deallocate(removedAddress, offHeapEntryFactory.getSize(removedAddress, false));
          } finally {
             lruLock.unlock();
          }
@@ -327,8 +326,6 @@ public void entryReplaced(long newAddress, long oldAddress) {
 
             currentSize += newSize;
             currentSize -= oldSize;
-            // Must only remove entry while holding lru lock now
-            allocator.deallocate(oldAddress, offHeapEntryFactory.getSize(oldAddress, false));
          } finally {
             lruLock.unlock();
          }
@@ -1,6 +1,6 @@
 package org.infinispan.container.offheap;
 
-import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.infinispan.commons.util.Util;
@@ -8,17 +8,29 @@
 /**
  * Holder for read write locks that provides ability to retrieve them by offset and hashCode
  * Note that locks protect entries
+ * <p>
+ * Every lock also has a version that is incremented when its write lock is acquired and again when it is released,
+ * so that readers can read optimistically without acquiring the read lock. This is similar to
+ * {@link java.util.concurrent.locks.StampedLock}, but the write lock is still reentrant and its owner can
+ * still acquire the read lock.
  * @author wburns
  * @since 9.0
  */
 public class StripedLock {
-   private final ReadWriteLock[] locks;
+   // Versions are 64 bytes apart, so that readers of different locks don't share a cache line
+   private static final int VERSION_PADDING = 8;
+
+   private final VersionedLock[] locks;
+   private final AtomicLongArray versions;
    private final OffsetCalculator offSetCalculator;
 
    public StripedLock(int lockCount, OffsetCalculator offSetCalculator) {
-      locks = new ReadWriteLock[Util.findNextHighestPowerOfTwo(lockCount)];
+      locks = new VersionedLock[Util.findNextHighestPowerOfTwo(lockCount)];
+      versions = new AtomicLongArray(locks.length * VERSION_PADDING);
       for (int i = 0; i< locks.length; ++i) {
-         locks[i] = new ReentrantReadWriteLock();
+         locks[i] = new VersionedLock(i * VERSION_PADDING);
+         // 0 is never a valid version, as it is returned by tryOptimisticRead when the write lock is held
+         versions.set(i * VERSION_PADDING, 2);
       }
       this.offSetCalculator = offSetCalculator;
    }
@@ -28,7 +40,7 @@ public StripedLock(int lockCount, OffsetCalculator offSetCalculator) {
     * @param obj the object to use to find the lock
     * @return the lock associated with the object
     */
-   public ReadWriteLock getLock(Object obj) {
+   VersionedLock getLock(Object obj) {
       return getLockFromHashCode(obj.hashCode());
    }
 
@@ -37,7 +49,7 @@ public ReadWriteLock getLock(Object obj) {
     * @param hashCode the hashCode to retrieve the lock for
     * @return the lock associated with the given hashCode
     */
-   public ReadWriteLock getLockFromHashCode(int hashCode) {
+   VersionedLock getLockFromHashCode(int hashCode) {
       int offset = offSetCalculator.calculateOffsetUsingHashCode(hashCode);
       return locks[offset];
    }
@@ -48,19 +60,47 @@ public ReadWriteLock getLockFromHashCode(int hashCode) {
     * @param offset the offset of the lock to find
     * @return the lock at the given offset
     */
-   public ReadWriteLock getLockWithOffset(int offset) {
+   VersionedLock getLockWithOffset(int offset) {
       if (offset >= locks.length) {
          throw new ArrayIndexOutOfBoundsException();
       }
       return locks[offset];
    }
 
+   /**
+    * Returns a stamp that can be later validated with {@link #validate(Object, long)} to verify that the write lock
+    * of the given object was not acquired in the meantime. Returns 0 if the write lock is currently held.
+    * @param obj the object to use to find the lock
+    * @return the stamp or 0 if the write lock is held
+    */
+   public long tryOptimisticRead(Object obj) {
+      long version = versions.get(versionIndex(obj));
+      return (version & 1) == 0 ? version : 0;
+   }
+
+   /**
+    * Returns whether the write lock of the given object was not acquired since the stamp was returned by
+    * {@link #tryOptimisticRead(Object)}. All the reads done before this method are consistent if it returns true.
+    * @param obj the object to use to find the lock
+    * @param stamp the stamp returned by {@link #tryOptimisticRead(Object)}
+    * @return whether the reads done since the stamp was returned are valid
+    */
+   public boolean validate(Object obj, long stamp) {
+      // Make sure the reads done since the stamp are not reordered after the version read
+      UnsafeHolder.UNSAFE.loadFence();
+      return stamp != 0 && versions.get(versionIndex(obj)) == stamp;
+   }
+
+   private int versionIndex(Object obj) {
+      return offSetCalculator.calculateOffsetUsingHashCode(obj.hashCode()) * VERSION_PADDING;
+   }
+
    /**
     * Locks all write locks.  Ensure that {@link StripedLock#unlockAll()} is called in a proper finally block
     */
    public void lockAll() {
-      for (ReadWriteLock rwLock : locks) {
-         rwLock.writeLock().lock();
+      for (VersionedLock lock : locks) {
+         lock.lockWrite();
       }
    }
 
@@ -68,8 +108,59 @@ public void lockAll() {
     * Unlocks all write locks, useful after {@link StripedLock#lockAll()} was invoked.
     */
    void unlockAll() {
-      for (ReadWriteLock rwLock : locks) {
+      for (VersionedLock lock : locks) {
+         lock.unlockWrite();
+      }
+   }
+
+   /**
+    * Read write lock whose write lock changes the version of the stripe. It only exposes the operations the off heap
+    * containers need, so that the write lock can't be acquired without changing the version.
+    */
+   class VersionedLock {
+      private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+      private final int versionIndex;
+
+      VersionedLock(int versionIndex) {
+         this.versionIndex = versionIndex;
+      }
+
+      void lockRead() {
+         rwLock.readLock().lock();
+      }
+
+      void unlockRead() {
+         rwLock.readLock().unlock();
+      }
+
+      /**
+       * Acquires the write lock. Only the outermost acquisition changes the version, so that the version is odd for
+       * as long as the lock is held.
+       */
+      void lockWrite() {
+         rwLock.writeLock().lock();
+         writeAcquired();
+      }
+
+      boolean tryLockWrite() {
+         if (rwLock.writeLock().tryLock()) {
+            writeAcquired();
+            return true;
+         }
+         return false;
+      }
+
+      void unlockWrite() {
+         if (rwLock.getWriteHoldCount() == 1) {
+            versions.incrementAndGet(versionIndex);
+         }
          rwLock.writeLock().unlock();
       }
+
+      private void writeAcquired() {
+         if (rwLock.getWriteHoldCount() == 1) {
+            versions.incrementAndGet(versionIndex);
+         }
+      }
    }
 }
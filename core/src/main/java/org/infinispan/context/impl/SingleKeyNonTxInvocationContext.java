@@ -175,6 +175,7 @@ public void resetState() {
       this.key = null;
       this.cacheEntry = null;
       this.isLocked = false;
+      this.lockOwner = null;
    }
 
    @Override
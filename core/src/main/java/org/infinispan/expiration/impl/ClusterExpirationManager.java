@@ -2,16 +2,13 @@
 
 import static org.infinispan.commons.util.Util.toStr;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.cache.impl.AbstractDelegatingCache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.remote.expiration.RetrieveLastAccessCommand;
-import org.infinispan.commons.util.Util;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
@@ -72,59 +69,34 @@ public void start() {
    }
 
    @Override
-   public void processExpiration() {
-      long start = 0;
-      if (!Thread.currentThread().isInterrupted()) {
-         try {
-            if (trace) {
-               log.trace("Purging data container of expired entries");
-               start = timeService.time();
-            }
-            // We limit it so there is only so many async expiration removals done at the same time
-            List<CompletableFuture> futures = new ArrayList<>(MAX_ASYNC_EXPIRATIONS);
-            long currentTimeMillis = timeService.wallClockTime();
-            dataContainer.running().forEachIncludingExpired((ice, segment) -> {
-               if (ice.canExpire()) {
-                  // Have to synchronize on the entry to make sure we see the value and metadata at the same time
-                  boolean expiredMortal;
-                  boolean expiredTransient;
-                  V value;
-                  long lifespan;
-                  long maxIdle;
-                  synchronized (ice) {
-                     value = ice.getValue();
-                     lifespan = ice.getLifespan();
-                     maxIdle = ice.getMaxIdle();
-                     expiredMortal = ExpiryHelper.isExpiredMortal(lifespan, ice.getCreated(), currentTimeMillis);
-                     expiredTransient = ExpiryHelper.isExpiredTransient(maxIdle, ice.getLastUsed(), currentTimeMillis);
-                  }
-                  // We check lifespan first as this is much less expensive to remove than max idle.
-                  if (expiredMortal) {
-                     addAndWaitIfFull(handleLifespanExpireEntry(ice.getKey(), value, lifespan, false), futures);
-                  } else if (expiredTransient) {
-                     addAndWaitIfFull(actualRemoveMaxIdleExpireEntry(ice.getKey(), value, maxIdle, false), futures);
-                  }
-               }
-            });
-            if (!futures.isEmpty()) {
-               // Make sure that all of the futures are complete before returning
-               futures.forEach(CompletableFuture::join);
-            }
-            if (trace) {
-               log.tracef("Purging data container completed in %s",
-                       Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
-            }
-         } catch (Exception e) {
-            log.exceptionPurgingDataContainer(e);
-         }
+   protected boolean expireEntry(InternalCacheEntry<K, V> ice, long currentTimeMillis,
+         List<CompletableFuture<?>> pending) {
+      // Have to synchronize on the entry to make sure we see the value and metadata at the same time
+      boolean expiredMortal;
+      boolean expiredTransient;
+      V value;
+      long lifespan;
+      long maxIdle;
+      synchronized (ice) {
+         value = ice.getValue();
+         lifespan = ice.getLifespan();
+         maxIdle = ice.getMaxIdle();
+         expiredMortal = ExpiryHelper.isExpiredMortal(lifespan, ice.getCreated(), currentTimeMillis);
+         expiredTransient = ExpiryHelper.isExpiredTransient(maxIdle, ice.getLastUsed(), currentTimeMillis);
       }
-
-      if (!Thread.currentThread().isInterrupted()) {
-         persistenceManager.purgeExpired();
+      // We check lifespan first as this is much less expensive to remove than max idle.
+      // We limit it so there is only so many async expiration removals done at the same time
+      if (expiredMortal) {
+         addAndWaitIfFull(handleLifespanExpireEntry(ice.getKey(), value, lifespan, false), pending);
+         return true;
+      } else if (expiredTransient) {
+         addAndWaitIfFull(actualRemoveMaxIdleExpireEntry(ice.getKey(), value, maxIdle, false), pending);
+         return true;
       }
+      return false;
    }
 
-   private void addAndWaitIfFull(CompletableFuture future, List<CompletableFuture> futures) {
+   private void addAndWaitIfFull(CompletableFuture<?> future, List<CompletableFuture<?>> futures) {
       futures.add(future);
       if (futures.size() == MAX_ASYNC_EXPIRATIONS) {
          // Wait for them to complete
@@ -0,0 +1,180 @@
+package org.infinispan.expiration.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+
+/**
+ * Index of the keys of the in-memory entries that can expire, ordered by the time they are due to expire.
+ * <p>
+ * Every segment has its own timing wheel: a sorted map of buckets, where each bucket holds the keys that expire
+ * within the same {@code granularity} milliseconds. The expiration reaper only has to visit the buckets that are due,
+ * instead of iterating over the whole data container.
+ * <p>
+ * Every segment also tracks the bucket of each key, so that a key is in a single bucket at a time: adding a key again
+ * moves it to its new bucket, and keys are removed from the index when their entry is removed from the data container.
+ * Keys are added while the data container holds the lock of the key, before the entry is visible to the reaper. A
+ * bucket is tracked by its instance rather than by its time, so when the reaper polls a bucket it doesn't take the keys
+ * that a writer just added again to a new bucket for the same time.
+ * The index is still only a hint, as an entry can be touched without being written again, so the reaper must always
+ * check the entry in the data container before expiring it. Keys whose entry is not due yet are added again with the
+ * new expiration time.
+ *
+ * @since 10.0
+ */
+final class ExpirationIndex<K> {
+   private final Function<Long, Set<K>> newBucket = s -> ConcurrentHashMap.newKeySet();
+
+   private final long granularity;
+   private final Segment<K>[] segments;
+
+   @SuppressWarnings("unchecked")
+   ExpirationIndex(int numSegments, long granularity) {
+      this.granularity = granularity;
+      this.segments = new Segment[numSegments];
+      for (int i = 0; i < numSegments; ++i) {
+         segments[i] = new Segment<>();
+      }
+   }
+
+   /**
+    * Adds a key to the index, or moves it to a new bucket if it was already present.
+    * @param segment the segment of the key
+    * @param key the key of the entry
+    * @param expiryTime the wall clock time when the entry expires
+    */
+   void add(int segment, K key, long expiryTime) {
+      Segment<K> s = segment(segment);
+      long bucket = bucketFor(expiryTime);
+      s.bucketOfKey.compute(key, (k, previous) -> {
+         Set<K> keys = addToBucket(s.buckets, k, bucket);
+         if (previous != null && previous != keys) {
+            // Empty buckets are left for the reaper, removing them here could lose a key added concurrently
+            previous.remove(k);
+         }
+         return keys;
+      });
+   }
+
+   /**
+    * Adds a key to the index again, after it was found not to be expired yet. The key is never added to a bucket that
+    * is already due at {@code currentTime}, so that the reaper doesn't visit it again in the same run. If the key was
+    * added by a writer in the meantime, its bucket is left unchanged, because it reflects a newer entry.
+    * @param segment the segment of the key
+    * @param key the key of the entry
+    * @param expiryTime the wall clock time when the entry expires
+    * @param currentTime the wall clock time of the reaper run
+    */
+   void addNotDue(int segment, K key, long expiryTime, long currentTime) {
+      Segment<K> s = segment(segment);
+      long bucket = Math.max(bucketFor(expiryTime), dueBucket(currentTime) + 1);
+      s.bucketOfKey.computeIfAbsent(key, k -> addToBucket(s.buckets, k, bucket));
+   }
+
+   /**
+    * Removes a key from the index, e.g. because its entry was removed from the data container.
+    * @param segment the segment of the key
+    * @param key the key of the entry
+    */
+   @SuppressWarnings("unchecked")
+   void remove(int segment, Object key) {
+      Segment<K> s = segment(segment);
+      s.bucketOfKey.computeIfPresent((K) key, (k, keys) -> {
+         keys.remove(k);
+         return null;
+      });
+   }
+
+   /**
+    * Returns the segments that have at least one bucket due at the given time.
+    * @param currentTime the wall clock time of the reaper run
+    * @return the segments with keys to be checked
+    */
+   IntSet dueSegments(long currentTime) {
+      long due = dueBucket(currentTime);
+      IntSet dueSegments = IntSets.mutableEmptySet(segments.length);
+      for (int i = 0; i < segments.length; ++i) {
+         Map.Entry<Long, Set<K>> first = segments[i].buckets.firstEntry();
+         if (first != null && first.getKey() <= due) {
+            dueSegments.set(i);
+         }
+      }
+      return dueSegments;
+   }
+
+   /**
+    * Removes the first bucket of the segment, if it is due at the given time. The returned keys are removed from the
+    * index, and the caller must add them again if their entry does not expire.
+    * @param segment the segment to check
+    * @param currentTime the wall clock time of the reaper run
+    * @return the keys in the bucket, or {@code null} if there is no bucket due
+    */
+   List<K> pollDue(int segment, long currentTime) {
+      Segment<K> s = segment(segment);
+      Map.Entry<Long, Set<K>> first = s.buckets.firstEntry();
+      if (first == null || first.getKey() > dueBucket(currentTime)) {
+         return null;
+      }
+      Set<K> bucket = first.getValue();
+      s.buckets.remove(first.getKey(), bucket);
+      List<K> keys = new ArrayList<>(bucket.size());
+      for (K key : bucket) {
+         // The key may have been moved to another bucket after it was added to this one
+         if (s.bucketOfKey.remove(key, bucket)) {
+            keys.add(key);
+         }
+      }
+      return keys;
+   }
+
+   /**
+    * @return how many keys are in the index
+    */
+   int size() {
+      int size = 0;
+      for (Segment<K> segment : segments) {
+         size += segment.bucketOfKey.size();
+      }
+      return size;
+   }
+
+   private Set<K> addToBucket(ConcurrentNavigableMap<Long, Set<K>> buckets, K key, long bucket) {
+      Set<K> keys;
+      do {
+         keys = buckets.computeIfAbsent(bucket, newBucket);
+         keys.add(key);
+         // The reaper may have removed the bucket before the key was added, in which case it may not have seen it
+      } while (buckets.get(bucket) != keys);
+      return keys;
+   }
+
+   private Segment<K> segment(int segment) {
+      // Non segmented containers ignore the segment, so any value outside the range can be safely mapped
+      return segments[Math.floorMod(segment, segments.length)];
+   }
+
+   // Both the expiration time and the current time are rounded down, so a bucket holds the keys expiring in
+   // [granularity * bucket, granularity * (bucket + 1)) and is due as soon as the first of them can be expired.
+   // The keys of the bucket that are not expired yet are added again to the next bucket.
+   private long bucketFor(long expiryTime) {
+      return expiryTime / granularity;
+   }
+
+   private long dueBucket(long currentTime) {
+      return currentTime / granularity;
+   }
+
+   private static final class Segment<K> {
+      final ConcurrentNavigableMap<Long, Set<K>> buckets = new ConcurrentSkipListMap<>();
+      final ConcurrentMap<K, Set<K>> bucketOfKey = new ConcurrentHashMap<>();
+   }
+}
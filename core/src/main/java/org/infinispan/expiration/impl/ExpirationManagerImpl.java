@@ -1,6 +1,8 @@
 package org.infinispan.expiration.impl;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -9,9 +11,12 @@
 import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.time.TimeService;
+import org.infinispan.commons.util.ByRef;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.impl.AbstractInternalDataContainer;
 import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.factories.KnownComponentNames;
@@ -22,6 +27,10 @@
 import org.infinispan.factories.impl.ComponentRef;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
@@ -34,6 +43,7 @@
 import net.jcip.annotations.ThreadSafe;
 
 @ThreadSafe
+@MBean(objectName = "ExpirationManager", description = "Reaper of the expired entries of the data container")
 @Scope(Scopes.NAMED_CACHE)
 public class ExpirationManagerImpl<K, V> implements InternalExpirationManager<K, V> {
    private static final Log log = LogFactory.getLog(ExpirationManagerImpl.class);
@@ -60,6 +70,14 @@
    protected ConcurrentMap<K, Object> expiring = new ConcurrentHashMap<>();
    protected ScheduledFuture<?> expirationTask;
 
+   /**
+    * Keys of the entries that can expire, ordered by expiration time. It is only created when the reaper is enabled and
+    * the entries are stored on the heap, and only used when the data container registers its entries.
+    */
+   protected volatile ExpirationIndex<K> expirationIndex;
+   private volatile int lastReaperRunExpired;
+   private volatile long lastReaperRunDuration;
+
    // used only for testing
    void initialize(ScheduledExecutorService executor, String cacheName, Configuration cfg) {
       this.executor = executor;
@@ -67,6 +85,17 @@ void initialize(ScheduledExecutorService executor, String cacheName, Configurati
       this.cacheName = cacheName;
    }
 
+   @Start(priority = 1)
+   // The index must exist before the data container is written to, e.g. by the preload
+   public void startExpirationIndex() {
+      long expWakeUpInt = configuration.expiration().wakeUpInterval();
+      // Off-heap containers would have to keep a copy of every key on the heap, so they use the full scan instead
+      if (configuration.expiration().reaperEnabled() && expWakeUpInt > 0 &&
+            configuration.memory().storageType() != StorageType.OFF_HEAP) {
+         expirationIndex = new ExpirationIndex<>(configuration.clustering().hash().numSegments(), expWakeUpInt);
+      }
+   }
+
    @Start(priority = 55)
    // make sure this starts after the PersistenceManager
    public void start() {
@@ -87,24 +116,19 @@ public void start() {
 
    @Override
    public void processExpiration() {
-      long start = 0;
       if (!Thread.currentThread().isInterrupted()) {
          try {
             if (trace) {
                log.trace("Purging data container of expired entries");
-               start = timeService.time();
-            }
-            long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.running().iteratorIncludingExpired();
-                 purgeCandidates.hasNext();) {
-               InternalCacheEntry<K, V> e = purgeCandidates.next();
-               if (e.isExpired(currentTimeMillis)) {
-                  entryExpiredInMemory(e, currentTimeMillis, false);
-               }
             }
+            long start = timeService.time();
+            int expired = purgeInMemory(timeService.wallClockTime());
+            long duration = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+            lastReaperRunExpired = expired;
+            lastReaperRunDuration = duration;
             if (trace) {
-               log.tracef("Purging data container completed in %s",
-                          Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
+               log.tracef("Purging data container completed in %s, %d entries expired",
+                          Util.prettyPrintTime(duration), expired);
             }
          } catch (Exception e) {
             log.exceptionPurgingDataContainer(e);
@@ -116,11 +140,118 @@ public void processExpiration() {
       }
    }
 
+   /**
+    * Expires the in-memory entries that are due at the given time. When the data container registers its entries in
+    * the expiration index, only the due entries are visited. Otherwise the entire data container is iterated.
+    * @param currentTimeMillis the wall clock time of the reaper run
+    * @return how many entries were expired
+    */
+   protected int purgeInMemory(long currentTimeMillis) {
+      ExpirationIndex<K> index = expirationIndex;
+      InternalDataContainer<K, V> container = dataContainer.running();
+      if (index != null && container instanceof AbstractInternalDataContainer) {
+         int expired = 0;
+         PrimitiveIterator.OfInt iterator = index.dueSegments(currentTimeMillis).iterator();
+         while (iterator.hasNext() && !Thread.currentThread().isInterrupted()) {
+            expired += purgeSegment(index, iterator.nextInt(), currentTimeMillis);
+         }
+         return expired;
+      }
+      ByRef.Integer expired = new ByRef.Integer(0);
+      List<CompletableFuture<?>> pending = new ArrayList<>();
+      container.forEachIncludingExpired((ice, segment) -> {
+         if (ice.canExpire() && expireEntry(ice, currentTimeMillis, pending)) {
+            expired.inc();
+         }
+      });
+      pending.forEach(CompletableFuture::join);
+      return expired.get();
+   }
+
+   /**
+    * Expires the given entry found by the reaper, if it is expired at the given time. If the expiration completes
+    * asynchronously, the future should be added to {@code pending} and the reaper will wait for it before completing.
+    * @param entry the entry to check, which can expire
+    * @param currentTimeMillis the wall clock time of the reaper run
+    * @param pending the expirations started by the reaper that have not completed yet
+    * @return whether the entry was expired
+    */
+   protected boolean expireEntry(InternalCacheEntry<K, V> entry, long currentTimeMillis,
+         List<CompletableFuture<?>> pending) {
+      if (entry.isExpired(currentTimeMillis)) {
+         entryExpiredInMemory(entry, currentTimeMillis, false);
+         return true;
+      }
+      return false;
+   }
+
+   private int purgeSegment(ExpirationIndex<K> index, int segment, long currentTimeMillis) {
+      InternalDataContainer<K, V> container = dataContainer.running();
+      List<CompletableFuture<?>> pending = new ArrayList<>();
+      int expired = 0;
+      List<K> dueKeys;
+      while ((dueKeys = index.pollDue(segment, currentTimeMillis)) != null) {
+         for (K key : dueKeys) {
+            InternalCacheEntry<K, V> ice = container.peek(segment, key);
+            if (ice != null && ice.canExpire() && expireEntry(ice, currentTimeMillis, pending)) {
+               expired++;
+               // The expiration may be asynchronous or may not happen at all, e.g. if the entry was accessed on
+               // another node, so the entry is checked again in the next run
+               ice = container.peek(segment, key);
+            }
+            if (ice != null && ice.canExpire()) {
+               index.addNotDue(segment, key, ice.getExpiryTime(), currentTimeMillis);
+            }
+         }
+      }
+      pending.forEach(CompletableFuture::join);
+      return expired;
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries expired by the last run of the expiration reaper",
+         displayName = "Entries expired by the last reaper run",
+         displayType = DisplayType.SUMMARY
+   )
+   public int getLastReaperRunExpired() {
+      return lastReaperRunExpired;
+   }
+
+   @ManagedAttribute(
+         description = "Time spent by the last run of the expiration reaper on the in-memory entries",
+         displayName = "Duration of the last reaper run",
+         units = Units.MILLISECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getLastReaperRunDuration() {
+      return lastReaperRunDuration;
+   }
+
    @Override
    public boolean isEnabled() {
       return enabled;
    }
 
+   @Override
+   public void registerExpiration(int segment, InternalCacheEntry<K, V> entry) {
+      ExpirationIndex<K> index = expirationIndex;
+      if (index != null) {
+         if (entry.canExpire()) {
+            index.add(segment, entry.getKey(), entry.getExpiryTime());
+         } else {
+            index.remove(segment, entry.getKey());
+         }
+      }
+   }
+
+   @Override
+   public void unregisterExpiration(int segment, Object key) {
+      ExpirationIndex<K> index = expirationIndex;
+      if (index != null) {
+         index.remove(segment, key);
+      }
+   }
+
    @Override
    public CompletableFuture<Boolean> entryExpiredInMemory(InternalCacheEntry<K, V> entry, long currentTime,
          boolean hasLock) {
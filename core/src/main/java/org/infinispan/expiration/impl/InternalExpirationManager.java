@@ -43,6 +43,25 @@
     */
    CompletableFuture<Boolean> entryExpiredInMemoryFromIteration(InternalCacheEntry<K, V> entry, long currentTime);
 
+   /**
+    * This should be invoked after an entry that can expire has been written to the data container. This allows the
+    * expiration reaper to find the entry when it is due, without having to iterate over the entire data container.
+    * <p>
+    * The entry must be registered again every time it is updated. An entry that cannot expire anymore is
+    * unregistered.
+    * @param segment the segment of the entry
+    * @param entry the entry that was written
+    */
+   default void registerExpiration(int segment, InternalCacheEntry<K, V> entry) { }
+
+   /**
+    * This should be invoked when an entry that can expire is removed or evicted from the data container, while the
+    * data container still holds the lock on the key, so that the expiration reaper doesn't keep a reference to it.
+    * @param segment the segment of the entry
+    * @param key the key of the entry that was removed
+    */
+   default void unregisterExpiration(int segment, Object key) { }
+
    /**
     * This is to be invoked when a store entry expires.  This method may attempt to lock this key to preserve atomicity.
     * <p>
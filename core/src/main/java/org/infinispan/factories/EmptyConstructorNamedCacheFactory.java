@@ -14,6 +14,7 @@
 import org.infinispan.container.offheap.OffHeapEntryFactory;
 import org.infinispan.container.offheap.OffHeapEntryFactoryImpl;
 import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.container.offheap.PooledOffHeapMemoryAllocator;
 import org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator;
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.context.impl.NonTransactionalInvocationContextFactory;
@@ -44,6 +45,7 @@
 import org.infinispan.persistence.manager.PersistenceManagerImpl;
 import org.infinispan.persistence.manager.PreloadManager;
 import org.infinispan.persistence.spi.MarshallableEntryFactory;
+import org.infinispan.persistence.support.GroupCommitStatistics;
 import org.infinispan.scattered.BiasManager;
 import org.infinispan.scattered.ScatteredVersionManager;
 import org.infinispan.scattered.impl.BiasManagerImpl;
@@ -84,7 +86,8 @@
                               XSiteStateTransferManager.class, XSiteStateConsumer.class, XSiteStateProvider.class,
                               FunctionalNotifier.class, CommandAckCollector.class, TriangleOrderManager.class,
                               OrderedUpdatesManager.class, ScatteredVersionManager.class, TransactionOriginatorChecker.class,
-                              BiasManager.class, OffHeapEntryFactory.class, OffHeapMemoryAllocator.class})
+                              BiasManager.class, OffHeapEntryFactory.class, OffHeapMemoryAllocator.class,
+                              GroupCommitStatistics.class})
 public class EmptyConstructorNamedCacheFactory extends AbstractNamedCacheComponentFactory implements AutoInstantiableFactory {
 
    @Override
@@ -197,7 +200,12 @@ public Object construct(String componentName) {
          } else if (componentName.equals(OffHeapEntryFactory.class.getName())) {
             return new OffHeapEntryFactoryImpl();
          } else if (componentName.equals(OffHeapMemoryAllocator.class.getName())) {
+            if (configuration.memory().pooledAllocation()) {
+               return new PooledOffHeapMemoryAllocator();
+            }
             return new UnpooledOffHeapMemoryAllocator();
+         } else if (componentName.equals(GroupCommitStatistics.class.getName())) {
+            return new GroupCommitStatistics();
          } else if (componentName.equals(ClusterCacheNotifier.class.getName())) {
             return ComponentAlias.of(CacheNotifier.class);
          } else if (componentName.equals(RemoteValueRetrievedListener.class.getName())) {
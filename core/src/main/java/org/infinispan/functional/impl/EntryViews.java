@@ -100,6 +100,21 @@ public static <R> R snapshot(R ret) {
       boolean isRead();
    }
 
+   @SuppressWarnings("unchecked")
+   private static <T extends MetaParam> Optional<T> findMetaParam(Metadata metadata, Class<T> type) {
+      if (metadata instanceof MetaParamsInternalMetadata) {
+         MetaParamsInternalMetadata metaParamsMetadata = (MetaParamsInternalMetadata) metadata;
+         return metaParamsMetadata.findMetaParam(type);
+      }
+
+      // TODO: Add interoperability support for the other params, e.g. able to retrieve lifespan for data stored in Cache via lifespan API
+      if (type == MetaParam.MetaEntryVersion.class && metadata != null && metadata.version() != null) {
+         return Optional.of((T) new MetaParam.MetaEntryVersion(metadata.version()));
+      }
+
+      return Optional.empty();
+   }
+
    private static final class EntryBackedReadOnlyView<K, V> implements ReadEntryView<K, V> {
       final CacheEntry<K, V> entry;
       private final DataConversion keyDataConversion;
@@ -132,14 +147,7 @@ public V get() throws NoSuchElementException {
       @Override
       public <T extends MetaParam> Optional<T> findMetaParam(Class<T> type) {
          Metadata metadata = entry.getMetadata();
-         if (metadata instanceof MetaParamsInternalMetadata) {
-            MetaParamsInternalMetadata metaParamsMetadata = (MetaParamsInternalMetadata) metadata;
-            return metaParamsMetadata.findMetaParam(type);
-         }
-
-         // TODO: Add interoperability support, e.g. able to retrieve lifespan for data stored in Cache via lifespan API
-
-         return Optional.empty();
+         return EntryViews.findMetaParam(metadata, type);
       }
 
       @Override
@@ -175,17 +183,9 @@ public Optional<V> find() {
          return Optional.ofNullable(value);
       }
 
-      // TODO: Duplication
       @Override
       public <T extends MetaParam> Optional<T> findMetaParam(Class<T> type) {
-         if (metadata instanceof MetaParamsInternalMetadata) {
-            MetaParamsInternalMetadata metaParamsMetadata = (MetaParamsInternalMetadata) metadata;
-            return metaParamsMetadata.findMetaParam(type);
-         }
-
-         // TODO: Add interoperability support, e.g. able to retrieve lifespan for data stored in Cache via lifespan API
-
-         return Optional.empty();
+         return EntryViews.findMetaParam(metadata, type);
       }
 
       @Override
@@ -336,14 +336,7 @@ public <T extends MetaParam> Optional<T> findMetaParam(Class<T> type) {
          if (type == MetaParam.MetaLoadedFromPersistence.class) {
             return Optional.of((T) MetaParam.MetaLoadedFromPersistence.of(entry.isLoaded()));
          }
-         if (metadata instanceof MetaParamsInternalMetadata) {
-            MetaParamsInternalMetadata metaParamsMetadata = (MetaParamsInternalMetadata) metadata;
-            return metaParamsMetadata.findMetaParam(type);
-         }
-
-         // TODO: Add interoperability support, e.g. able to retrieve lifespan for data stored in Cache via lifespan API
-
-         return Optional.empty();
+         return EntryViews.findMetaParam(metadata, type);
       }
 
       @Override
@@ -464,14 +457,7 @@ public <T extends MetaParam> Optional<T> findMetaParam(Class<T> type) {
             return Optional.of((T) MetaParam.MetaLoadedFromPersistence.of(entry.isLoaded()));
          }
          Metadata metadata = prevMetadata; // Use previous metadata
-         if (metadata instanceof MetaParamsInternalMetadata) {
-            MetaParamsInternalMetadata metaParamsMetadata = (MetaParamsInternalMetadata) metadata;
-            return metaParamsMetadata.findMetaParam(type);
-         }
-
-         // TODO: Add interoperability support, e.g. able to retrieve lifespan for data stored in Cache via lifespan API
-
-         return Optional.empty();
+         return EntryViews.findMetaParam(metadata, type);
       }
 
       @Override
@@ -563,17 +549,9 @@ public Optional<V> find() {
          return Optional.ofNullable(value);
       }
 
-      // TODO: Duplication
       @Override
       public <T extends MetaParam> Optional<T> findMetaParam(Class<T> type) {
-         if (metadata instanceof MetaParamsInternalMetadata) {
-            MetaParamsInternalMetadata metaParamsMetadata = (MetaParamsInternalMetadata) metadata;
-            return metaParamsMetadata.findMetaParam(type);
-         }
-
-         // TODO: Add interoperability support, e.g. able to retrieve lifespan for data stored in Cache via lifespan API
-
-         return Optional.empty();
+         return EntryViews.findMetaParam(metadata, type);
       }
 
       @Override
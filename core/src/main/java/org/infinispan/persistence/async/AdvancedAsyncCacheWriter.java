@@ -22,13 +22,15 @@ public void purge(Executor threadPool, PurgeListener task) {
 
    @Override
    public void clear() {
-      stateLock.writeLock(0);
+      enterProducer();
       try {
          assertNotStopped();
-         state.set(newState(true, state.get().next));
+         State s;
+         do {
+            s = state.get();
+         } while (!state.compareAndSet(s, newState(true, s.next)));
       } finally {
-         stateLock.reset(1);
-         stateLock.writeUnlock();
+         exitProducer();
       }
    }
 
@@ -14,9 +14,11 @@
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -61,6 +63,11 @@
  * <p/>
  * Write operations affecting same key are now coalesced so that only the final state is actually stored.
  * <p/>
+ * Writers never block each other: they add their modifications to the current {@link State} without locking and only
+ * wait when the state already holds {@code modificationQueueSize} modifications. The coordinator thread swaps the
+ * state atomically and partitions its modifications by key across {@code threadPoolSize} processors, so the
+ * modifications of a key are always applied by a single processor.
+ * <p/>
  *
  * @author Manik Surtani
  * @author Galder Zamarreño
@@ -79,11 +86,15 @@ public class AsyncCacheWriter extends DelegatingCacheWriter {
    private String cacheName;
    private String nodeName;
 
-   protected BufferLock stateLock;
-   @GuardedBy("stateLock")
    protected final AtomicReference<State> state = new AtomicReference<>();
-   @GuardedBy("stateLock")
-   private boolean stopped;
+   private volatile boolean stopped;
+   // writers that may still add modifications, the coordinator only quits after stop() once there are none left
+   private final AtomicInteger producers = new AtomicInteger();
+   private int modificationQueueSize;
+
+   // writers waiting for the coordinator to hand off a full state
+   private final Object capacity = new Object();
+   private volatile boolean coordinatorWaiting;
 
    private final Lock availabilityLock = new ReentrantLock();
    private final Condition availability = availabilityLock.newCondition();
@@ -113,7 +124,7 @@ public void start() {
       log.debugf("Async cache loader starting %s", this);
       state.set(newState(false, null));
       stopped = false;
-      stateLock = new BufferLock(asyncConfiguration.modificationQueueSize());
+      modificationQueueSize = asyncConfiguration.modificationQueueSize();
 
       // Create a thread pool with unbounded work queue, so that all work is accepted and eventually
       // executed. A bounded queue could throw RejectedExecutionException and thus lose data.
@@ -136,9 +147,11 @@ public void start() {
    @Override
    public void stop() {
       if (trace) log.tracef("Stop async store %s", this);
-      stateLock.writeLock(0);
       stopped = true;
-      stateLock.writeUnlock();
+      signalCoordinator();
+      synchronized (capacity) {
+         capacity.notifyAll();
+      }
 
       try {
          if (!asyncConfiguration.failSilently() && !delegateAvailable) {
@@ -193,8 +206,8 @@ public boolean isAvailable() {
       }
       // Available if actual == available || actual != available and queue has capacity
       // Worst case, bulkUpdate comes in before isAvailable is called by the PersistenceManager, in which case the batch
-      // will wait on writeLock until the stateLock is reset when the queue is finally flushed
-      return delegateAvailable || stateLock.hasCapacity();
+      // will wait for capacity until the queue is finally flushed
+      return delegateAvailable || !isFull(state.get());
    }
 
    @Override
@@ -259,25 +272,81 @@ void assertNotStopped() throws CacheException {
    }
 
    private void put(Modification mod, int count) {
-      stateLock.writeLock(count);
-      try {
-         if (trace)
-            log.tracef("Queue modification: %s", mod);
+      if (trace)
+         log.tracef("Queue modification: %s", mod);
 
-         assertNotStopped();
-         state.get().put(mod);
+      enterProducer();
+      try {
+         State previous = null;
+         for (;;) {
+            assertNotStopped();
+            State s = state.get();
+            if (count > 0 && isFull(s)) {
+               awaitCapacity(s);
+               continue;
+            }
+            if (previous == null) {
+               s.put(mod);
+            } else {
+               // Don't overwrite a modification that a writer added to the new state after the swap
+               s.putIfAbsent(mod, previous);
+            }
+            // If the coordinator swapped the state in the meantime it may have missed the modification, so add it to
+            // the new state as well. The old state may still apply it too, but only before the new state is applied,
+            // as the coordinator defers the conflicting keys of the new state until the processors of the old one are
+            // done.
+            if (state.get() == s)
+               break;
+            previous = s;
+         }
       } finally {
-         stateLock.writeUnlock();
+         exitProducer();
       }
    }
 
+   /**
+    * Must be invoked before checking whether the writer is stopped and modifying the state, so that the coordinator
+    * does not quit before the modification is added.
+    */
+   void enterProducer() {
+      producers.incrementAndGet();
+   }
+
+   /**
+    * Must be invoked once the modification has been added to the state, or it failed.
+    */
+   void exitProducer() {
+      producers.decrementAndGet();
+      signalCoordinator();
+   }
+
    private void putAll(List<Modification> mods) {
-      stateLock.writeLock(mods.size());
-      try {
-         state.get().put(new ModificationsList(mods));
-      } finally {
-         stateLock.writeUnlock();
+      put(new ModificationsList(mods), mods.size());
+   }
+
+   private boolean isFull(State s) {
+      return modificationQueueSize > 0 && s.modifications.size() >= modificationQueueSize;
+   }
+
+   private void awaitCapacity(State s) {
+      boolean interrupted = false;
+      synchronized (capacity) {
+         // The coordinator notifies after it hands the state off to the processors
+         while (state.get() == s && isFull(s) && !stopped) {
+            try {
+               capacity.wait();
+            } catch (InterruptedException e) {
+               interrupted = true;
+            }
+         }
       }
+      if (interrupted)
+         Thread.currentThread().interrupt();
+   }
+
+   void signalCoordinator() {
+      if (coordinatorWaiting)
+         LockSupport.unpark(coordinator);
    }
 
    public AtomicReference<State> getState() {
@@ -301,18 +370,17 @@ public void run() {
          LogFactory.pushNDC(cacheName, trace);
          try {
             for (;;) {
-               final State s, head, tail;
-               final boolean shouldStop;
-               stateLock.readLock();
+               final State s = awaitModifications();
+               if (s == null) {
+                  log.debugf("%s interrupted", this);
+                  return;
+               }
                if (!failSilently) {
                   availabilityLock.lock();
                   try {
-                     // If the delegate is unavailable, relinquish the readLock and await for the delegate to become available
+                     // If the delegate is unavailable, await for the delegate to become available
                      if (!delegateAvailable) {
-                        stateLock.readUnlock();
                         availability.await();
-
-                        // Restart the loop so that the readLock is reacquired
                         continue;
                      }
                   } catch (InterruptedException e) {
@@ -324,16 +392,16 @@ public void run() {
                   }
                }
 
-               try {
-                  s = state.get();
-                  shouldStop = stopped;
-                  tail = s.next;
-                  assert tail == null || tail.next == null : "State chain longer than 3 entries!";
-                  head = newState(false, s);
-                  state.set(head);
-                  stateLock.reset(0);
-               } finally {
-                  stateLock.readUnlock();
+               final boolean shouldStop = stopped;
+               final State tail = s.next;
+               assert tail == null || tail.next == null : "State chain longer than 3 entries!";
+               final State head = newState(false, s);
+               if (!state.compareAndSet(s, head)) {
+                  // clear() replaced the state
+                  continue;
+               }
+               synchronized (capacity) {
+                  capacity.notifyAll();
                }
 
                try {
@@ -379,7 +447,9 @@ public void run() {
                      executor.execute(processor);
 
                   // if this is the last state to process, wait for background threads, then quit
-                  if (shouldStop) {
+                  // writers that raced with stop() may still be adding modifications to the head, so only quit
+                  // once they are done (checked before the head, as they leave after adding their modification)
+                  if (shouldStop && producers.get() == 0 && isEmpty(head)) {
                      s.workerThreads.await();
                      return;
                   }
@@ -392,24 +462,64 @@ public void run() {
          }
       }
 
+      /**
+       * Waits until the current state has modifications to hand off, or the writer is stopped.
+       *
+       * @return the current state, or {@code null} if the coordinator was interrupted
+       */
+      private State awaitModifications() {
+         for (;;) {
+            State s = state.get();
+            if (stopped || !isEmpty(s))
+               return s;
+            coordinatorWaiting = true;
+            try {
+               // check again after publishing the flag, a writer may have missed it
+               s = state.get();
+               if (stopped || !isEmpty(s))
+                  return s;
+               LockSupport.park(this);
+               if (Thread.currentThread().isInterrupted())
+                  return null;
+            } finally {
+               coordinatorWaiting = false;
+            }
+         }
+      }
+
+      private boolean isEmpty(State s) {
+         return !s.clear && s.modifications.isEmpty();
+      }
+
       private List<AsyncStoreProcessor> createProcessors(State state, List<Modification> mods) {
          List<AsyncStoreProcessor> result = new ArrayList<>();
-         // distribute modifications evenly across worker threads
          int threads = Math.min(mods.size(), asyncConfiguration.threadPoolSize());
-         if (threads > 0) {
-            // create background threads
-            int start = 0;
-            int quotient = mods.size() / threads;
-            int remainder = mods.size() % threads;
-            for (int i = 0; i < threads; i++) {
-               int end = start + quotient + (i < remainder ? 1 : 0);
-               result.add(new AsyncStoreProcessor(mods.subList(start, end), state, failSilently));
-               start = end;
+         if (threads == 1) {
+            result.add(new AsyncStoreProcessor(mods, state, failSilently));
+         } else if (threads > 1) {
+            // partition the modifications by key, so that a key is only written by a single worker thread
+            List<Modification>[] partitions = new List[threads];
+            for (Modification mod : mods) {
+               int partition = (spread(keyOf(mod).hashCode()) & Integer.MAX_VALUE) % threads;
+               if (partitions[partition] == null)
+                  partitions[partition] = new ArrayList<>(mods.size() / threads + 1);
+               partitions[partition].add(mod);
+            }
+            for (List<Modification> partition : partitions) {
+               if (partition != null)
+                  result.add(new AsyncStoreProcessor(partition, state, failSilently));
             }
-            assert start == mods.size() : "Thread distribution is broken!";
          }
          return result;
       }
+
+      private Object keyOf(Modification mod) {
+         return mod.getType() == Modification.Type.STORE ? ((Store) mod).getKey() : ((Remove) mod).getKey();
+      }
+
+      private int spread(int h) {
+         return h ^ (h >>> 16);
+      }
    }
 
    private class AsyncStoreProcessor implements Runnable {
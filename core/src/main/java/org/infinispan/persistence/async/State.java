@@ -102,4 +102,36 @@ void put(Modification mod) {
             throw new IllegalArgumentException("Unknown modification type " + mod.getType());
       }
    }
+
+   /**
+    * Adds the Modification(s) again after the state they were added to was swapped, unless this state already
+    * holds a modification for the same key. That modification was added after the swap, so it is newer.
+    *
+    * @param mod
+    *           the Modification that was added to <code>previous</code>
+    * @param previous
+    *           the state the Modification was added to, which holds the latest modification before the swap
+    */
+   void putIfAbsent(Modification mod, State previous) {
+      switch (mod.getType()) {
+         case STORE:
+            putIfAbsent(((Store) mod).getKey(), mod, previous);
+            break;
+         case REMOVE:
+            putIfAbsent(((Remove) mod).getKey(), mod, previous);
+            break;
+         case LIST:
+            for (Modification m : ((ModificationsList) mod).getList())
+               putIfAbsent(m, previous);
+            break;
+         default:
+            throw new IllegalArgumentException("Unknown modification type " + mod.getType());
+      }
+   }
+
+   private void putIfAbsent(Object key, Modification mod, State previous) {
+      // A concurrent writer may have replaced our modification in the previous state with a newer one
+      Modification latest = previous.modifications.get(key);
+      modifications.putIfAbsent(key, latest != null ? latest : mod);
+   }
 }
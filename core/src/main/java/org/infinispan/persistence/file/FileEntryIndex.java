@@ -0,0 +1,62 @@
+package org.infinispan.persistence.file;
+
+import java.util.function.BiConsumer;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.persistence.file.SingleFileStore.FileEntry;
+
+/**
+ * In-memory index of a {@link SingleFileStore}, mapping every stored key to the position of its entry in the data
+ * file.
+ * <p>
+ * Implementations must be thread safe. The {@link FileEntry} instances returned may be copies, so callers must only
+ * compare them with {@link FileEntry#equals(Object)} and never rely on their identity.
+ *
+ * @since 10.0
+ */
+interface FileEntryIndex<K> {
+   /**
+    * @return the file entry of the given key, or {@code null} if the key is not in the index
+    */
+   FileEntry get(Object key);
+
+   /**
+    * Maps the given key to a new file entry.
+    * @param key the key
+    * @param keyBytes the serialized form of the key, as written to the data file
+    * @param entry the new file entry
+    * @return the file entry previously mapped to the key, or {@code null} if there was none
+    */
+   FileEntry put(K key, ByteBuffer keyBytes, FileEntry entry);
+
+   /**
+    * @return the file entry that was mapped to the key, or {@code null} if there was none
+    */
+   FileEntry remove(Object key);
+
+   /**
+    * Removes the key only if it is still mapped to the given file entry.
+    * @return whether the key was removed
+    */
+   boolean remove(Object key, FileEntry entry);
+
+   /**
+    * Evicts an entry if the index holds more entries than it is allowed to.
+    * @return the evicted file entry, or {@code null} if nothing needed to be evicted
+    */
+   FileEntry evict();
+
+   /**
+    * Invokes the action for every key and file entry in the index. The action must not modify the index.
+    */
+   void forEach(BiConsumer<? super K, FileEntry> action);
+
+   int size();
+
+   void clear();
+
+   /**
+    * Releases all the resources held by the index. The index can not be used afterwards.
+    */
+   void stop();
+}
@@ -0,0 +1,120 @@
+package org.infinispan.persistence.file;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.persistence.support.GroupCommitStatistics;
+
+/**
+ * Makes the writes of concurrent threads durable with a single {@link FileChannel#force(boolean)} call.
+ * <p>
+ * Writers call {@link #sync(long)} after their data was written to the channel. The first one becomes the leader of
+ * the batch: it waits for more writes until the batch is {@code maxDelay} old or {@code maxBytes} have been written,
+ * then it forces the channel on behalf of every write registered so far. Writes registered while the leader is forcing
+ * the channel form the next batch.
+ *
+ * @since 10.0
+ */
+class GroupCommitter {
+   private final FileChannel channel;
+   private final long maxDelayNanos;
+   private final long maxBytes;
+   private final GroupCommitStatistics statistics;
+
+   private final Object lock = new Object();
+   // all the fields below are guarded by lock
+   // sequence number of the last registered write
+   private long writeSeq;
+   // every write with a sequence number up to this one is durable
+   private long syncedSeq;
+   private long pendingBytes;
+   private boolean syncing;
+
+   GroupCommitter(FileChannel channel, long maxDelay, TimeUnit unit, long maxBytes, GroupCommitStatistics statistics) {
+      this.channel = channel;
+      this.maxDelayNanos = unit.toNanos(maxDelay);
+      this.maxBytes = maxBytes > 0 ? maxBytes : Long.MAX_VALUE;
+      this.statistics = statistics;
+   }
+
+   /**
+    * Blocks until the data written to the channel by the current thread is durable.
+    *
+    * @param bytes number of bytes written since the last call
+    */
+   void sync(long bytes) throws IOException {
+      long batchSeq;
+      long batchBytes;
+      int batchWrites;
+      synchronized (lock) {
+         long mySeq = ++writeSeq;
+         pendingBytes += bytes;
+         if (pendingBytes >= maxBytes) {
+            // wake up a leader waiting for more writes
+            lock.notifyAll();
+         }
+         try {
+            while (syncedSeq < mySeq && syncing) {
+               lock.wait();
+            }
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+         }
+         if (syncedSeq >= mySeq)
+            return;
+
+         syncing = true;
+         if (maxDelayNanos > 0) {
+            gatherWrites();
+         }
+         batchSeq = writeSeq;
+         batchBytes = pendingBytes;
+         batchWrites = (int) (batchSeq - syncedSeq);
+         pendingBytes = 0;
+      }
+
+      boolean success = false;
+      long start = System.nanoTime();
+      try {
+         channel.force(false);
+         success = true;
+      } finally {
+         synchronized (lock) {
+            syncing = false;
+            if (success) {
+               syncedSeq = batchSeq;
+            } else {
+               // the writes of the failed batch must be synced by the next leader
+               pendingBytes += batchBytes;
+            }
+            lock.notifyAll();
+         }
+      }
+      if (statistics != null) {
+         statistics.recordSync(batchWrites, batchBytes, System.nanoTime() - start);
+      }
+   }
+
+   /**
+    * Waits for more writes to join the batch, until the delay or the byte budget is exhausted.
+    * <p>
+    * Note: Caller must hold the lock.
+    */
+   private void gatherWrites() {
+      // The delay is physical, so it doesn't use the TimeService
+      long deadline = System.nanoTime() + maxDelayNanos;
+      long remaining;
+      while (pendingBytes < maxBytes && (remaining = deadline - System.nanoTime()) > 0) {
+         try {
+            TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+         } catch (InterruptedException e) {
+            // sync the batch right away, the followers are waiting for it
+            Thread.currentThread().interrupt();
+            return;
+         }
+      }
+   }
+}
@@ -0,0 +1,92 @@
+package org.infinispan.persistence.file;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.persistence.file.SingleFileStore.FileEntry;
+
+/**
+ * {@link FileEntryIndex} that keeps the key objects and their {@link FileEntry} instances on the heap.
+ * <p>
+ * When the store is unbounded the index is a {@link ConcurrentHashMap}. A bounded store needs a global LRU order and
+ * therefore uses a synchronized access-ordered map.
+ *
+ * @since 10.0
+ */
+class HeapFileEntryIndex<K> implements FileEntryIndex<K> {
+   private final Map<K, FileEntry> entries;
+   private final int maxEntries;
+
+   HeapFileEntryIndex(int maxEntries) {
+      this.maxEntries = maxEntries;
+      this.entries = maxEntries > 0 ?
+            Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true)) :
+            new ConcurrentHashMap<>();
+   }
+
+   @Override
+   public FileEntry get(Object key) {
+      return entries.get(key);
+   }
+
+   @Override
+   public FileEntry put(K key, ByteBuffer keyBytes, FileEntry entry) {
+      return entries.put(key, entry);
+   }
+
+   @Override
+   public FileEntry remove(Object key) {
+      return entries.remove(key);
+   }
+
+   @Override
+   public boolean remove(Object key, FileEntry entry) {
+      return entries.remove(key, entry);
+   }
+
+   @Override
+   public FileEntry evict() {
+      if (maxEntries > 0) {
+         synchronized (entries) {
+            if (entries.size() > maxEntries) {
+               Iterator<FileEntry> it = entries.values().iterator();
+               FileEntry fe = it.next();
+               it.remove();
+               return fe;
+            }
+         }
+      }
+      return null;
+   }
+
+   @Override
+   public void forEach(BiConsumer<? super K, FileEntry> action) {
+      // Collections.synchronizedMap already holds its monitor while iterating
+      entries.forEach(action);
+   }
+
+   @Override
+   public int size() {
+      return entries.size();
+   }
+
+   @Override
+   public void clear() {
+      entries.clear();
+   }
+
+   @Override
+   public void stop() {
+      entries.clear();
+   }
+
+   @Override
+   public String toString() {
+      return entries.toString();
+   }
+}
@@ -0,0 +1,401 @@
+package org.infinispan.persistence.file;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator;
+import org.infinispan.container.offheap.UnsafeHolder;
+import org.infinispan.persistence.file.SingleFileStore.FileEntry;
+import org.infinispan.persistence.spi.PersistenceException;
+
+import sun.misc.Unsafe;
+
+/**
+ * {@link FileEntryIndex} that keeps the serialized keys, their hashes and their file positions in native memory, so
+ * the heap usage of the index does not grow with the number of entries in the store.
+ * <p>
+ * The index is a chained hash table whose bucket array and nodes are allocated through an
+ * {@link OffHeapMemoryAllocator}. Each node is laid out as follows:
+ * <ul>
+ * <li>8 bytes: address of the next node in the bucket, 0 if it is the last one</li>
+ * <li>8 bytes: {@link FileEntry#offset}</li>
+ * <li>8 bytes: {@link FileEntry#expiryTime}</li>
+ * <li>4 bytes: hash code of the key object</li>
+ * <li>4 bytes: {@link FileEntry#keyLen}</li>
+ * <li>4 bytes: {@link FileEntry#size}</li>
+ * <li>4 bytes: {@link FileEntry#dataLen}</li>
+ * <li>4 bytes: {@link FileEntry#metadataLen}</li>
+ * <li>{@link FileEntry#keyLen} bytes: serialized key</li>
+ * </ul>
+ * A lookup marshalls the key once and compares its bytes with the stored key of the nodes with a matching hash code,
+ * relying on the persistence marshaller producing the same bytes for equal keys like the other stores that index
+ * serialized keys. Buckets are guarded by a fixed number of striped read write locks, and the bucket array doubles in
+ * size while holding all the locks once the load factor is exceeded.
+ *
+ * @since 10.0
+ */
+class OffHeapFileEntryIndex<K> implements FileEntryIndex<K> {
+   private static final Unsafe UNSAFE = UnsafeHolder.UNSAFE;
+   private static final int BYTE_ARRAY_BASE_OFFSET = Unsafe.ARRAY_BYTE_BASE_OFFSET;
+
+   private static final int NEXT_OFFSET = 0;
+   private static final int FILE_OFFSET_OFFSET = 8;
+   private static final int EXPIRY_OFFSET = 16;
+   private static final int HASH_OFFSET = 24;
+   private static final int KEY_LENGTH_OFFSET = 28;
+   private static final int SIZE_OFFSET = 32;
+   private static final int DATA_LENGTH_OFFSET = 36;
+   private static final int METADATA_LENGTH_OFFSET = 40;
+   private static final int KEY_OFFSET = 44;
+
+   // usable bits of normal node hash (only allow positive numbers)
+   private static final int HASH_BITS = 0x7fffffff;
+   private static final int LOCK_COUNT = 256;
+   private static final int INITIAL_BUCKETS = 1 << 16;
+   private static final int MAX_BUCKETS = 1 << 30;
+
+   private final OffHeapMemoryAllocator allocator = new UnpooledOffHeapMemoryAllocator();
+   private final StreamingMarshaller marshaller;
+   private final ReadWriteLock[] locks;
+   private final AtomicLong size = new AtomicLong();
+
+   // Only modified while holding all the write locks
+   private long buckets;
+   private int bucketCount;
+
+   OffHeapFileEntryIndex(StreamingMarshaller marshaller) {
+      this.marshaller = marshaller;
+      this.locks = new ReadWriteLock[LOCK_COUNT];
+      for (int i = 0; i < locks.length; ++i) {
+         locks[i] = new ReentrantReadWriteLock();
+      }
+      this.bucketCount = INITIAL_BUCKETS;
+      this.buckets = allocateBuckets(INITIAL_BUCKETS);
+   }
+
+   @Override
+   public FileEntry get(Object key) {
+      int hash = key.hashCode();
+      ByteBuffer keyBytes = toKeyBytes(key);
+      Lock lock = lockFor(hash).readLock();
+      lock.lock();
+      try {
+         long address = bucketHead(hash);
+         while (address != 0) {
+            if (matches(address, keyBytes, hash)) {
+               return toFileEntry(address);
+            }
+            address = UNSAFE.getLong(address + NEXT_OFFSET);
+         }
+         return null;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   @Override
+   public FileEntry put(K key, ByteBuffer keyBytes, FileEntry entry) {
+      int hash = key.hashCode();
+      Lock lock = lockFor(hash).writeLock();
+      lock.lock();
+      try {
+         long address = bucketHead(hash);
+         while (address != 0) {
+            if (matches(address, keyBytes, hash)) {
+               // Same key, so the serialized form is already in the node
+               FileEntry prev = toFileEntry(address);
+               writeFileEntry(address, entry);
+               return prev;
+            }
+            address = UNSAFE.getLong(address + NEXT_OFFSET);
+         }
+
+         int keyLength = keyBytes.getLength();
+         long newAddress = allocator.allocate(KEY_OFFSET + keyLength);
+         UNSAFE.putInt(newAddress + HASH_OFFSET, hash);
+         UNSAFE.putInt(newAddress + KEY_LENGTH_OFFSET, keyLength);
+         writeFileEntry(newAddress, entry);
+         UNSAFE.copyMemory(keyBytes.getBuf(), BYTE_ARRAY_BASE_OFFSET + keyBytes.getOffset(), null,
+               newAddress + KEY_OFFSET, keyLength);
+
+         long bucket = bucketAddress(hash);
+         UNSAFE.putLong(newAddress + NEXT_OFFSET, UNSAFE.getLong(bucket));
+         UNSAFE.putLong(bucket, newAddress);
+      } finally {
+         lock.unlock();
+      }
+      if (size.incrementAndGet() > ((long) bucketCount * 3) >>> 2) {
+         resize();
+      }
+      return null;
+   }
+
+   @Override
+   public FileEntry remove(Object key) {
+      return remove(key, null, true);
+   }
+
+   @Override
+   public boolean remove(Object key, FileEntry entry) {
+      return remove(key, entry, false) != null;
+   }
+
+   private FileEntry remove(Object key, FileEntry expected, boolean unconditional) {
+      int hash = key.hashCode();
+      ByteBuffer keyBytes = toKeyBytes(key);
+      Lock lock = lockFor(hash).writeLock();
+      lock.lock();
+      try {
+         long prevAddress = 0;
+         long address = bucketHead(hash);
+         while (address != 0) {
+            long next = UNSAFE.getLong(address + NEXT_OFFSET);
+            if (matches(address, keyBytes, hash)) {
+               FileEntry fe = toFileEntry(address);
+               if (!unconditional && !fe.equals(expected)) {
+                  return null;
+               }
+               if (prevAddress == 0) {
+                  UNSAFE.putLong(bucketAddress(hash), next);
+               } else {
+                  UNSAFE.putLong(prevAddress + NEXT_OFFSET, next);
+               }
+               deallocateNode(address);
+               size.decrementAndGet();
+               return fe;
+            }
+            prevAddress = address;
+            address = next;
+         }
+         return null;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   @Override
+   public FileEntry evict() {
+      // The off heap index is always unbounded
+      return null;
+   }
+
+   @Override
+   public void forEach(BiConsumer<? super K, FileEntry> action) {
+      // Bucket i is always guarded by lock i % LOCK_COUNT, and a resize only moves nodes between buckets guarded by
+      // the same lock, so every node is visited exactly once even if the index is resized concurrently
+      for (int i = 0; i < locks.length; ++i) {
+         Lock lock = locks[i].readLock();
+         lock.lock();
+         try {
+            for (int bucket = i; bucket < bucketCount; bucket += locks.length) {
+               long address = UNSAFE.getLong(buckets + (((long) bucket) << 3));
+               while (address != 0) {
+                  action.accept(readKey(address), toFileEntry(address));
+                  address = UNSAFE.getLong(address + NEXT_OFFSET);
+               }
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+   }
+
+   @Override
+   public int size() {
+      return (int) Math.min(size.get(), Integer.MAX_VALUE);
+   }
+
+   @Override
+   public void clear() {
+      lockAll();
+      try {
+         clearNodes();
+      } finally {
+         unlockAll();
+      }
+   }
+
+   @Override
+   public void stop() {
+      lockAll();
+      try {
+         clearNodes();
+         allocator.deallocate(buckets, ((long) bucketCount) << 3);
+         buckets = 0;
+         bucketCount = 0;
+      } finally {
+         unlockAll();
+      }
+   }
+
+   /**
+    * @return the amount of native memory currently used by the index
+    */
+   long getAllocatedAmount() {
+      return allocator.getAllocatedAmount();
+   }
+
+   private void clearNodes() {
+      for (int bucket = 0; bucket < bucketCount; ++bucket) {
+         long bucketAddress = buckets + (((long) bucket) << 3);
+         long address = UNSAFE.getLong(bucketAddress);
+         while (address != 0) {
+            long next = UNSAFE.getLong(address + NEXT_OFFSET);
+            deallocateNode(address);
+            address = next;
+         }
+         UNSAFE.putLong(bucketAddress, 0);
+      }
+      size.set(0);
+   }
+
+   private void resize() {
+      lockAll();
+      try {
+         int oldCount = bucketCount;
+         // Check again, another thread might have resized while we were waiting for the locks
+         if (oldCount >= MAX_BUCKETS || oldCount == 0 || size.get() <= ((long) oldCount * 3) >>> 2) {
+            return;
+         }
+         int newCount = oldCount << 1;
+         long oldBuckets = buckets;
+         long newBuckets = allocateBuckets(newCount);
+         for (int bucket = 0; bucket < oldCount; ++bucket) {
+            long address = UNSAFE.getLong(oldBuckets + (((long) bucket) << 3));
+            while (address != 0) {
+               long next = UNSAFE.getLong(address + NEXT_OFFSET);
+               long newBucket = newBuckets + (((long) bucketIndex(UNSAFE.getInt(address + HASH_OFFSET), newCount)) << 3);
+               UNSAFE.putLong(address + NEXT_OFFSET, UNSAFE.getLong(newBucket));
+               UNSAFE.putLong(newBucket, address);
+               address = next;
+            }
+         }
+         buckets = newBuckets;
+         bucketCount = newCount;
+         allocator.deallocate(oldBuckets, ((long) oldCount) << 3);
+      } finally {
+         unlockAll();
+      }
+   }
+
+   private long allocateBuckets(int count) {
+      long bytes = ((long) count) << 3;
+      long address = allocator.allocate(bytes);
+      // Have to clear out bytes to make sure no bad stuff was read in
+      UNSAFE.setMemory(address, bytes, (byte) 0);
+      return address;
+   }
+
+   private void deallocateNode(long address) {
+      allocator.deallocate(address, KEY_OFFSET + UNSAFE.getInt(address + KEY_LENGTH_OFFSET));
+   }
+
+   private static boolean matches(long address, ByteBuffer keyBytes, int hash) {
+      if (UNSAFE.getInt(address + HASH_OFFSET) != hash) {
+         return false;
+      }
+      int keyLength = keyBytes.getLength();
+      if (UNSAFE.getInt(address + KEY_LENGTH_OFFSET) != keyLength) {
+         return false;
+      }
+      byte[] buf = keyBytes.getBuf();
+      long arrayOffset = BYTE_ARRAY_BASE_OFFSET + keyBytes.getOffset();
+      long keyAddress = address + KEY_OFFSET;
+      int i = 0;
+      for (; i + 8 <= keyLength; i += 8) {
+         if (UNSAFE.getLong(buf, arrayOffset + i) != UNSAFE.getLong(keyAddress + i)) {
+            return false;
+         }
+      }
+      for (; i < keyLength; ++i) {
+         if (UNSAFE.getByte(buf, arrayOffset + i) != UNSAFE.getByte(keyAddress + i)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private ByteBuffer toKeyBytes(Object key) {
+      try {
+         return marshaller.objectToBuffer(key);
+      } catch (IOException | InterruptedException e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   private K readKey(long address) {
+      int keyLength = UNSAFE.getInt(address + KEY_LENGTH_OFFSET);
+      byte[] keyBytes = new byte[keyLength];
+      UNSAFE.copyMemory(null, address + KEY_OFFSET, keyBytes, BYTE_ARRAY_BASE_OFFSET, keyLength);
+      try {
+         return (K) marshaller.objectFromByteBuffer(keyBytes);
+      } catch (IOException | ClassNotFoundException e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   private static FileEntry toFileEntry(long address) {
+      return new FileEntry(UNSAFE.getLong(address + FILE_OFFSET_OFFSET), UNSAFE.getInt(address + SIZE_OFFSET),
+            UNSAFE.getInt(address + KEY_LENGTH_OFFSET), UNSAFE.getInt(address + DATA_LENGTH_OFFSET),
+            UNSAFE.getInt(address + METADATA_LENGTH_OFFSET), UNSAFE.getLong(address + EXPIRY_OFFSET));
+   }
+
+   private static void writeFileEntry(long address, FileEntry entry) {
+      UNSAFE.putLong(address + FILE_OFFSET_OFFSET, entry.offset);
+      UNSAFE.putLong(address + EXPIRY_OFFSET, entry.expiryTime);
+      UNSAFE.putInt(address + SIZE_OFFSET, entry.size);
+      UNSAFE.putInt(address + DATA_LENGTH_OFFSET, entry.dataLen);
+      UNSAFE.putInt(address + METADATA_LENGTH_OFFSET, entry.metadataLen);
+   }
+
+   private ReadWriteLock lockFor(int hash) {
+      return locks[spread(hash) & (locks.length - 1)];
+   }
+
+   /**
+    * Must be invoked while holding the lock for the hash
+    */
+   private long bucketHead(int hash) {
+      return UNSAFE.getLong(bucketAddress(hash));
+   }
+
+   /**
+    * Must be invoked while holding the lock for the hash
+    */
+   private long bucketAddress(int hash) {
+      return buckets + (((long) bucketIndex(hash, bucketCount)) << 3);
+   }
+
+   private static int bucketIndex(int hash, int bucketCount) {
+      return spread(hash) & (bucketCount - 1);
+   }
+
+   private static int spread(int h) {
+      return (h ^ (h >>> 16)) & HASH_BITS;
+   }
+
+   private void lockAll() {
+      for (ReadWriteLock rwLock : locks) {
+         rwLock.writeLock().lock();
+      }
+   }
+
+   private void unlockAll() {
+      for (ReadWriteLock rwLock : locks) {
+         rwLock.writeLock().unlock();
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "OffHeapFileEntryIndex{size=" + size.get() + ", buckets=" + bucketCount + ", allocated=" +
+            allocator.getAllocatedAmount() + "}";
+   }
+}
@@ -7,15 +7,18 @@
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.NavigableSet;
 import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
@@ -31,9 +34,11 @@
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.MarshallableEntryFactory;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.support.GroupCommitStatistics;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
+import org.reactivestreams.Publisher;
 
 import io.reactivex.Flowable;
 
@@ -44,7 +49,9 @@
  * <p/>
  * Note: this CacheStore implementation keeps keys and file positions in memory!
  * The current implementation needs about 100 bytes per cache entry, plus the
- * memory for the key objects.
+ * memory for the key objects. Alternatively the index can be kept in native memory
+ * (see {@link SingleFileStoreConfiguration#offHeapIndex()}), in which case it only needs
+ * the serialized key plus about 60 bytes per entry, and does not use any heap.
  * <p/>
  * So, the space taken by this cache store is both the space in the file
  * itself plus the in-memory index with the keys and their file positions.
@@ -59,7 +66,12 @@
  * source.
  * <p/>
  * This class is fully thread safe, yet allows for concurrent load / store
- * of individual cache entries.
+ * of individual cache entries. Free space is allocated from a {@link ConcurrentSkipListSet} and
+ * the index is only locked per key (see {@link FileEntryIndex} implementations), so loads, writes
+ * and deletes of different keys do not contend on a shared monitor unless the store is bounded.
+ * <p/>
+ * By default the file is never synced explicitly. With {@link SingleFileStoreConfiguration#syncWrites()} every write
+ * waits until its data reaches the disk, and concurrent writes share a single sync (see {@link GroupCommitter}).
  *
  * @author Karsten Blees
  * @author Mircea Markus
@@ -78,19 +90,34 @@
    // bytes required by created and lastUsed timestamps
    private static final int TIMESTAMP_BYTES = 8 + 8;
    private static final int SMALLEST_ENTRY_SIZE = 128;
+   // number of reader counters, padded so that each counter sits in its own cache line
+   private static final int READER_STRIPES = 1024;
+   private static final int READER_PADDING = 16;
+   // size of the read-only windows the file is mapped in when memory mapped reads are enabled. A window is only mapped
+   // once the file covers it completely, so a file smaller than one window is always read through the channel
+   private static final int MAPPED_WINDOW_SIZE = 64 * 1024 * 1024;
+   private static final ByteBuffer[] NO_WINDOWS = new ByteBuffer[0];
 
    private SingleFileStoreConfiguration configuration;
 
    protected InitializationContext ctx;
 
    private FileChannel channel;
-   private Map<K, FileEntry> entries;
-   private SortedSet<FileEntry> freeList;
-   private long filePos = MAGIC.length;
+   private FileEntryIndex<K> entries;
+   private NavigableSet<FileEntry> freeList;
+   private final AtomicLong filePos = new AtomicLong(MAGIC.length);
    private File file;
    private float fragmentationFactor = .75f;
    // Prevent clear() from truncating the file after a write() allocated the entry but before it wrote the data
    private ReadWriteLock resizeLock = new ReentrantReadWriteLock();
+   // Number of readers currently reading file blocks, striped by the block offset, prevents allocate() from reusing
+   // a block that is still being read
+   private final AtomicIntegerArray readers = new AtomicIntegerArray(READER_STRIPES * READER_PADDING);
+   private boolean memoryMappedReads;
+   // Mapped window i covers the file from i * MAPPED_WINDOW_SIZE to (i + 1) * MAPPED_WINDOW_SIZE, null if not mapped yet
+   private volatile ByteBuffer[] mappedWindows = NO_WINDOWS;
+   // Syncs the file after writes, null unless syncWrites is enabled
+   private GroupCommitter groupCommitter;
    private TimeService timeService;
    private MarshallableEntryFactory<K, V> entryFactory;
 
@@ -119,12 +146,11 @@ public void start() {
          }
          channel = new RandomAccessFile(file, "rw").getChannel();
 
-         // initialize data structures. Only use LinkedHashMap (LRU) for entries when cache store is bounded
-         Map<K, FileEntry> entryMap = configuration.maxEntries() > 0 ?
-               new LinkedHashMap<>(16, 0.75f, true) :
-               new HashMap<>();
-         entries = Collections.synchronizedMap(entryMap);
-         freeList = Collections.synchronizedSortedSet(new TreeSet<>());
+         // initialize data structures
+         entries = configuration.offHeapIndex() ?
+               new OffHeapFileEntryIndex<>(ctx.getMarshaller()) :
+               new HeapFileEntryIndex<>(configuration.maxEntries());
+         freeList = new ConcurrentSkipListSet<>();
 
          // check file format and read persistent state if enabled for the cache
          byte[] header = new byte[MAGIC.length];
@@ -137,6 +163,13 @@ public void start() {
 
          // Initialize the fragmentation factor
          fragmentationFactor = configuration.fragmentationFactor();
+         memoryMappedReads = configuration.memoryMappedReads();
+         if (configuration.syncWrites()) {
+            GroupCommitStatistics statistics = ctx.getCache().getAdvancedCache().getComponentRegistry()
+                  .getComponent(GroupCommitStatistics.class);
+            groupCommitter = new GroupCommitter(channel, configuration.syncWritesMaxDelay(), TimeUnit.MILLISECONDS,
+                  configuration.syncWritesMaxBytes(), statistics);
+         }
       } catch (Exception e) {
          throw new PersistenceException(e);
       }
@@ -151,9 +184,12 @@ public void stop() {
             // reset state
             channel.close();
             channel = null;
+            groupCommitter = null;
+            mappedWindows = NO_WINDOWS;
+            entries.stop();
             entries = null;
             freeList = null;
-            filePos = MAGIC.length;
+            filePos.set(MAGIC.length);
          }
       } catch (Exception e) {
          throw new PersistenceException(e);
@@ -180,13 +216,16 @@ public boolean isAvailable() {
     */
    private void rebuildIndex() throws Exception {
       ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
+      long filePos = this.filePos.get();
       for (; ; ) {
          // read FileEntry fields from file (size, keyLen etc.)
          buf.clear().limit(KEY_POS);
          channel.read(buf, filePos);
          // return if end of file is reached
-         if (buf.remaining() > 0)
+         if (buf.remaining() > 0) {
+            this.filePos.set(filePos);
             return;
+         }
          buf.flip();
 
          // initialize FileEntry from buffer
@@ -217,7 +256,7 @@ private void rebuildIndex() throws Exception {
             // deserialize key and add to entries map
             // Marshaller should allow for provided type return for safety
             K key = (K) ctx.getMarshaller().objectFromByteBuffer(buf.array(), 0, fe.keyLen);
-            entries.put(key, fe);
+            entries.put(key, ctx.getByteBufferFactory().newByteBuffer(buf.array(), 0, fe.keyLen), fe);
          } else {
             // add to free list
             freeList.add(fe);
@@ -242,34 +281,32 @@ public boolean contains(Object key) {
     * @return allocated file position and length as FileEntry object
     */
    private FileEntry allocate(int len) {
-      synchronized (freeList) {
-         // lookup a free entry of sufficient size
-         SortedSet<FileEntry> candidates = freeList.tailSet(new FileEntry(0, len));
-         for (Iterator<FileEntry> it = candidates.iterator(); it.hasNext(); ) {
-            FileEntry free = it.next();
-            // ignore entries that are still in use by concurrent readers
-            if (free.isLocked())
-               continue;
-
-            // There's no race condition risk between locking the entry on
-            // loading and checking whether it's locked (or store allocation),
-            // because for the entry to be lockable, it needs to be in the
-            // entries collection, in which case it's not in the free list.
-            // The only way an entry can be found in the free list is if it's
-            // been removed, and to remove it, lock on "entries" needs to be
-            // acquired, which is also a pre-requisite for loading data.
-
-            // found one, remove from freeList
-            it.remove();
-            return allocateExistingEntry(free, len);
-         }
+      // lookup a free entry of sufficient size
+      for (FileEntry free : freeList.tailSet(new FileEntry(0, len))) {
+         // ignore entries that are still in use by concurrent readers
+         if (isLocked(free))
+            continue;
+
+         // found one, claim it by removing it from freeList: only one thread can succeed
+         if (!freeList.remove(free))
+            continue;
 
-         // no appropriate free section available, append at end of file
-         FileEntry fe = new FileEntry(filePos, len);
-         filePos += len;
-         if (trace) log.tracef("New entry allocated at %d:%d, %d free entries, file size is %d", fe.offset, fe.size, freeList.size(), filePos);
-         return fe;
+         // The block could have been allocated, freed again and locked by a reader since the check above,
+         // so check again now that it is claimed. There's no race condition risk with readers locking it
+         // afterwards, because an entry can only be found in the free list after it has been removed from
+         // the entries index, and a reader that locks an entry re-validates that it is still mapped before
+         // reading from the file (see _load).
+         if (isLocked(free)) {
+            freeList.add(free);
+            continue;
+         }
+         return allocateExistingEntry(free, len);
       }
+
+      // no appropriate free section available, append at end of file
+      FileEntry fe = new FileEntry(filePos.getAndAdd(len), len);
+      if (trace) log.tracef("New entry allocated at %d:%d, file size is %d", fe.offset, fe.size, fe.offset + len);
+      return fe;
    }
 
    private FileEntry allocateExistingEntry(FileEntry free, int len) {
@@ -281,16 +318,15 @@ private FileEntry allocateExistingEntry(FileEntry free, int len) {
             FileEntry newFreeEntry = new FileEntry(free.offset + len, remainder);
             addNewFreeEntry(newFreeEntry);
             FileEntry newEntry = new FileEntry(free.offset, len);
-            if (trace) log.tracef("Split entry at %d:%d, allocated %d:%d, free %d:%d, %d free entries",
-                  free.offset, free.size, newEntry.offset, newEntry.size, newFreeEntry.offset, newFreeEntry.size,
-                  freeList.size());
+            if (trace) log.tracef("Split entry at %d:%d, allocated %d:%d, free %d:%d",
+                  free.offset, free.size, newEntry.offset, newEntry.size, newFreeEntry.offset, newFreeEntry.size);
             return newEntry;
          } catch (IOException e) {
             throw new PersistenceException("Cannot add new free entry", e);
          }
       }
 
-      if (trace) log.tracef("Existing free entry allocated at %d:%d, %d free entries", free.offset, free.size, freeList.size());
+      if (trace) log.tracef("Existing free entry allocated at %d:%d", free.offset, free.size);
       return free;
    }
 
@@ -323,12 +359,36 @@ private void free(FileEntry fe) throws IOException {
          if (!freeList.add(fe)) {
             throw new IllegalStateException(String.format("Trying to free an entry that was not allocated: %s", fe));
          }
-         if (trace) log.tracef("Deleted entry at %d:%d, there are now %d free entries", fe.offset, fe.size, freeList.size());
+         if (trace) log.tracef("Deleted entry at %d:%d", fe.offset, fe.size);
       }
    }
 
    @Override
    public void write(MarshallableEntry<? extends K, ? extends V> marshalledEntry) {
+      sync(writeEntry(marshalledEntry));
+   }
+
+   @Override
+   public CompletionStage<Void> bulkUpdate(Publisher<MarshallableEntry<? extends K, ? extends V>> publisher) {
+      CompletableFuture<Void> future = new CompletableFuture<>();
+      try {
+         // Write all the entries first, so that they can be synced at once
+         long[] bytes = new long[1];
+         Flowable.fromPublisher(publisher).blockingForEach(entry -> bytes[0] += writeEntry(entry));
+         sync(bytes[0]);
+         future.complete(null);
+      } catch (Throwable t) {
+         future.completeExceptionally(t);
+      }
+      return future;
+   }
+
+   /**
+    * Writes the entry to the file, without syncing it.
+    *
+    * @return the number of bytes written
+    */
+   private int writeEntry(MarshallableEntry<? extends K, ? extends V> marshalledEntry) {
       try {
          // serialize cache value
          org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
@@ -367,11 +427,11 @@ public void write(MarshallableEntry<? extends K, ? extends V> marshalledEntry) {
             if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
 
             // add the new entry to in-memory index
-            oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
+            oldEntry = entries.put(marshalledEntry.getKey(), key, newEntry);
 
             // if we added an entry, check if we need to evict something
             if (oldEntry == null)
-               oldEntry = evict();
+               oldEntry = entries.evict();
          } finally {
             // in case we replaced or evicted an entry, add to freeList
             try {
@@ -380,62 +440,113 @@ public void write(MarshallableEntry<? extends K, ? extends V> marshalledEntry) {
                resizeLock.readLock().unlock();
             }
          }
+         return len;
       } catch (Exception e) {
          throw new PersistenceException(e);
       }
    }
 
    /**
-    * Try to evict an entry if the capacity of the cache store is reached.
-    *
-    * @return FileEntry to evict, or null (if unbounded or capacity is not yet reached)
+    * Blocks until the bytes written by the current thread reach the disk, if {@code syncWrites} is enabled.
+    * <p/>
+    * Note: Caller must not hold the {@code resizeLock}, a sync can take a long time.
     */
-   private FileEntry evict() {
-      if (configuration.maxEntries() > 0) {
-         synchronized (entries) {
-            if (entries.size() > configuration.maxEntries()) {
-               Iterator<FileEntry> it = entries.values().iterator();
-               FileEntry fe = it.next();
-               it.remove();
-               return fe;
-            }
+   private void sync(long bytes) {
+      if (groupCommitter != null) {
+         try {
+            groupCommitter.sync(bytes);
+         } catch (IOException e) {
+            throw new PersistenceException(e);
+         }
+      }
+   }
+
+   /**
+    * Marks the file block of the entry as being read, so that it can't be reallocated.
+    */
+   private void lockForRead(FileEntry fe) {
+      readers.incrementAndGet(readerStripe(fe));
+   }
+
+   private void unlockForRead(FileEntry fe) {
+      readers.decrementAndGet(readerStripe(fe));
+   }
+
+   /**
+    * @return whether a reader might be reading the file block of the entry. Can return false positives when
+    * another block that shares the same stripe is being read.
+    */
+   private boolean isLocked(FileEntry fe) {
+      return readers.get(readerStripe(fe)) > 0;
+   }
+
+   /**
+    * Waits until no file block is being read.
+    * <p/>
+    * Note: Caller must hold the {@code resizeLock} in exclusive mode, so that no new reader can start.
+    */
+   private void waitUnlocked() {
+      for (int i = 0; i < READER_STRIPES; i++) {
+         while (readers.get(i * READER_PADDING) > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
          }
       }
-      return null;
+   }
+
+   private static int readerStripe(FileEntry fe) {
+      int h = Long.hashCode(fe.offset);
+      return ((h ^ (h >>> 16)) & (READER_STRIPES - 1)) * READER_PADDING;
    }
 
    @Override
    public void clear() {
       resizeLock.writeLock().lock();
       try {
-         synchronized (entries) {
-            synchronized (freeList) {
-               // wait until all readers are done reading file entries
-               for (FileEntry fe : entries.values())
-                  fe.waitUnlocked();
-               for (FileEntry fe : freeList)
-                  fe.waitUnlocked();
-
-               // clear in-memory state
-               entries.clear();
-               freeList.clear();
-
-               // reset file
-               if (trace) log.tracef("Truncating file, current size is %d", filePos);
-               channel.truncate(0);
-               channel.write(ByteBuffer.wrap(MAGIC), 0);
-               filePos = MAGIC.length;
-            }
-         }
+         // The write lock excludes all writers, allocations and lookups, so the index can be reset safely
+         // wait until all readers are done reading file entries
+         waitUnlocked();
+
+         // clear in-memory state
+         entries.clear();
+         freeList.clear();
+
+         // reset file
+         if (trace) log.tracef("Truncating file, current size is %d", filePos.get());
+         channel.truncate(0);
+         unmapWindowsAfter(0);
+         channel.write(ByteBuffer.wrap(MAGIC), 0);
+         filePos.set(MAGIC.length);
       } catch (Exception e) {
          throw new PersistenceException(e);
       } finally {
          resizeLock.writeLock().unlock();
       }
+      sync(MAGIC.length);
    }
 
    @Override
    public boolean delete(Object key) {
+      boolean deleted = deleteEntry(key);
+      if (deleted) {
+         sync(ZERO_INT.length);
+      }
+      return deleted;
+   }
+
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      long bytes = 0;
+      for (Object key : keys) {
+         if (deleteEntry(key)) {
+            bytes += ZERO_INT.length;
+         }
+      }
+      if (bytes > 0) {
+         sync(bytes);
+      }
+   }
+
+   private boolean deleteEntry(Object key) {
       resizeLock.readLock().lock();
       try {
          FileEntry fe = entries.remove(key);
@@ -454,22 +565,29 @@ public MarshallableEntry<K, V> loadEntry(Object key) {
    }
 
    private MarshallableEntry<K, V> _load(Object key, boolean loadValue, boolean loadMetadata) {
-      final FileEntry fe;
+      FileEntry fe;
       resizeLock.readLock().lock();
       try {
-         synchronized (entries) {
+         for (; ; ) {
             // lookup FileEntry of the key
             fe = entries.get(key);
             if (fe == null)
                return null;
 
             // Entries are removed due to expiration from {@link SingleFileStore#purge}
-            if (fe.isExpired(timeService.wallClockTime())) {
+            if (fe.isExpired(timeService.wallClockTime()))
                return null;
-            } else {
-               // lock entry for reading before releasing entries monitor
-               fe.lock();
+
+            // lock entry for reading, then make sure it wasn't replaced or removed (and possibly re-allocated)
+            // before the lock was acquired
+            lockForRead(fe);
+            FileEntry current = entries.get(key);
+            if (fe.equals(current)) {
+               // the index may return copies, use the latest one as the block could have been rewritten in place
+               fe = current;
+               break;
             }
+            unlockForRead(fe);
          }
       } finally {
          resizeLock.readLock().unlock();
@@ -483,7 +601,7 @@ private MarshallableEntry<K, V> _load(Object key, boolean loadValue, boolean loa
          try {
             return entryFactory.create(key);
          } finally {
-            fe.unlock();
+            unlockForRead(fe);
          }
       }
 
@@ -492,13 +610,13 @@ private MarshallableEntry<K, V> _load(Object key, boolean loadValue, boolean loa
          // load serialized data from disk
          data = new byte[fe.keyLen + fe.dataLen + (loadMetadata ? fe.metadataLen : 0)];
          // The entry lock will prevent clear() from truncating the file at this point
-         channel.read(ByteBuffer.wrap(data), fe.offset + KEY_POS);
+         read(data, fe.offset + KEY_POS);
       } catch (Exception e) {
          throw new PersistenceException(e);
       } finally {
          // No need to keep the lock for deserialization.
          // FileEntry is immutable, so its members can't be changed by another thread.
-         fe.unlock();
+         unlockForRead(fe);
       }
 
       if (trace) log.tracef("Read entry %s at %d:%d", key, fe.offset, fe.actualSize());
@@ -520,19 +638,76 @@ private MarshallableEntry<K, V> _load(Object key, boolean loadValue, boolean loa
       return entryFactory.create(keyBb, valueBb);
    }
 
+   /**
+    * Reads {@code data.length} bytes starting at the given file position, from a mapped window if possible.
+    */
+   private void read(byte[] data, long position) throws IOException {
+      if (memoryMappedReads) {
+         ByteBuffer window = mappedWindow(position, data.length);
+         if (window != null) {
+            // duplicate() so that concurrent readers don't share the position
+            ByteBuffer source = window.duplicate();
+            source.position((int) (position % MAPPED_WINDOW_SIZE));
+            source.get(data);
+            return;
+         }
+      }
+      channel.read(ByteBuffer.wrap(data), position);
+   }
+
+   /**
+    * @return the mapped window containing the given range, or {@code null} if the range crosses a window boundary or
+    * the window is not completely backed by the file yet
+    */
+   private ByteBuffer mappedWindow(long position, int length) throws IOException {
+      long index = position / MAPPED_WINDOW_SIZE;
+      if (length == 0 || index != (position + length - 1) / MAPPED_WINDOW_SIZE)
+         return null;
+      ByteBuffer[] windows = mappedWindows;
+      if (index < windows.length && windows[(int) index] != null)
+         return windows[(int) index];
+      return mapWindow((int) index);
+   }
+
+   private synchronized ByteBuffer mapWindow(int index) throws IOException {
+      ByteBuffer[] windows = mappedWindows;
+      if (index < windows.length && windows[index] != null)
+         return windows[index];
+
+      long start = (long) index * MAPPED_WINDOW_SIZE;
+      // Accessing a read-only mapping beyond the end of the file crashes the JVM, only map fully written windows
+      if (channel.size() < start + MAPPED_WINDOW_SIZE)
+         return null;
+
+      windows = Arrays.copyOf(windows, Math.max(windows.length, index + 1));
+      windows[index] = channel.map(FileChannel.MapMode.READ_ONLY, start, MAPPED_WINDOW_SIZE);
+      if (trace) log.tracef("Mapped file window %d:%d", start, MAPPED_WINDOW_SIZE);
+      mappedWindows = windows;
+      return windows[index];
+   }
+
+   /**
+    * Forgets the mapped windows that are not completely backed by the file anymore. The mappings are released when they
+    * are garbage collected, so readers that still hold them are not affected: the blocks they read are locked and are
+    * never truncated.
+    */
+   private synchronized void unmapWindowsAfter(long fileSize) {
+      int windowCount = (int) (fileSize / MAPPED_WINDOW_SIZE);
+      if (windowCount < mappedWindows.length) {
+         mappedWindows = Arrays.copyOf(mappedWindows, windowCount);
+      }
+   }
+
    @Override
    public Flowable<K> publishKeys(Predicate<? super K> filter) {
       return Flowable.fromIterable(() -> {
          List<K> keys = new ArrayList<>(entries.size());
          long now = ctx.getTimeService().wallClockTime();
-         synchronized (entries) {
-            for (Map.Entry<K, FileEntry> e : entries.entrySet()) {
-               K key = e.getKey();
-               if (!e.getValue().isExpired(now)  && (filter == null || filter.test(key))) {
-                  keys.add(key);
-               }
+         entries.forEach((key, fe) -> {
+            if (!fe.isExpired(now) && (filter == null || filter.test(key))) {
+               keys.add(key);
             }
-         }
+         });
          // This way each invocation is a new copy
          return keys.iterator();
       });
@@ -545,13 +720,11 @@ public Flowable<MarshallableEntry<K, V>> entryPublisher(Predicate<? super K> fil
             // This way the sorting of entries is lazily done on each invocation of the publisher
             List<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>(entries.size());
             long now = ctx.getTimeService().wallClockTime();
-            synchronized (entries) {
-               for (Map.Entry<K, FileEntry> e : entries.entrySet()) {
-                  if ((filter == null || filter.test(e.getKey())) && !e.getValue().isExpired(now)) {
-                     keysToLoad.add(new KeyValuePair<>(e.getKey(), e.getValue()));
-                  }
+            entries.forEach((key, fe) -> {
+               if ((filter == null || filter.test(key)) && !fe.isExpired(now)) {
+                  keysToLoad.add(new KeyValuePair<>(key, fe));
                }
-            }
+            });
 
             keysToLoad.sort((o1, o2) -> {
                long offset1 = o1.getValue().offset;
@@ -603,9 +776,9 @@ private void truncateFile(List<FileEntry> entries) {
          // Till we have free entries at the end of the file,
          // we can remove them and contract the file to release disk
          // space.
-         if (!fe.isLocked() && ((fe.offset + fe.size) == filePos)) {
+         if (!isLocked(fe) && ((fe.offset + fe.size) == filePos.get())) {
             truncateOffset = fe.offset;
-            filePos = fe.offset;
+            filePos.set(fe.offset);
             freeList.remove(fe);
             it.remove();
             reclaimedSpace += fe.size;
@@ -618,6 +791,7 @@ private void truncateFile(List<FileEntry> entries) {
       if (truncateOffset > 0) {
          try {
             channel.truncate(truncateOffset);
+            unmapWindowsAfter(truncateOffset);
          } catch (IOException e) {
             throw new PersistenceException("Error while truncating file", e);
          }
@@ -639,7 +813,7 @@ private void mergeFreeEntries(List<FileEntry> entries) {
       FileEntry newEntry = null;
       int mergeCounter = 0;
       for (FileEntry fe : entries) {
-         if (fe.isLocked())
+         if (isLocked(fe))
             continue;
 
          // Merge any holes created (consecutive free entries) in the file
@@ -680,41 +854,37 @@ private void mergeAndLogEntry(FileEntry entry, int mergeCounter) {
    @Override
    public void purge(Executor threadPool, final PurgeListener task) {
       long now = timeService.wallClockTime();
-      List<KeyValuePair<Object, FileEntry>> entriesToPurge = new ArrayList<>();
-      synchronized (entries) {
-         for (Iterator<Map.Entry<K, FileEntry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
-            Map.Entry<K, FileEntry> next = it.next();
-            FileEntry fe = next.getValue();
-            if (fe.isExpired(now)) {
-               it.remove();
-               entriesToPurge.add(new KeyValuePair<>(next.getKey(), fe));
-            }
-         }
-      }
-
+      List<KeyValuePair<K, FileEntry>> entriesToPurge = new ArrayList<>();
       resizeLock.readLock().lock();
       try {
-         for (Iterator<KeyValuePair<Object, FileEntry>> it = entriesToPurge.iterator(); it.hasNext(); ) {
-            KeyValuePair<Object, FileEntry> next = it.next();
-            FileEntry fe = next.getValue();
+         entries.forEach((key, fe) -> {
             if (fe.isExpired(now)) {
-               it.remove();
+               entriesToPurge.add(new KeyValuePair<>(key, fe));
+            }
+         });
+
+         for (KeyValuePair<K, FileEntry> next : entriesToPurge) {
+            // Only free the entry if it wasn't concurrently replaced or removed
+            if (entries.remove(next.getKey(), next.getValue())) {
                try {
-                  free(fe);
+                  free(next.getValue());
                } catch (Exception e) {
                   throw new PersistenceException(e);
                }
                if (task != null) task.entryPurged(next.getKey());
             }
          }
-
-         // Disk space optimizations
-         synchronized (freeList) {
-           processFreeEntries();
-         }
       } finally {
          resizeLock.readLock().unlock();
       }
+
+      // Disk space optimizations need exclusive access to the free list and the end of the file
+      resizeLock.writeLock().lock();
+      try {
+         processFreeEntries();
+      } finally {
+         resizeLock.writeLock().unlock();
+      }
    }
 
    @Override
@@ -722,7 +892,7 @@ public int size() {
       return entries.size();
    }
 
-   Map<K, FileEntry> getEntries() {
+   FileEntryIndex<K> getEntries() {
       return entries;
    }
 
@@ -731,7 +901,16 @@ SortedSet<FileEntry> getFreeList() {
    }
 
    long getFileSize() {
-      return filePos;
+      return filePos.get();
+   }
+
+   int getMappedWindowCount() {
+      int count = 0;
+      for (ByteBuffer window : mappedWindows) {
+         if (window != null)
+            count++;
+      }
+      return count;
    }
 
    public SingleFileStoreConfiguration getConfiguration() {
@@ -753,7 +932,7 @@ public SingleFileStoreConfiguration getConfiguration() {
     * <li>{@link #metadataLen} bytes: serialized key</li>
     * </ul>
     */
-   private static class FileEntry implements Comparable<FileEntry> {
+   static class FileEntry implements Comparable<FileEntry> {
       /**
        * File offset of this block.
        */
@@ -784,11 +963,6 @@ private static class FileEntry implements Comparable<FileEntry> {
        */
       final long expiryTime;
 
-      /**
-       * Number of current readers.
-       */
-      transient int readers = 0;
-
       FileEntry(long offset, int size) {
          this(offset, size, 0, 0, 0, -1);
       }
@@ -802,30 +976,6 @@ private static class FileEntry implements Comparable<FileEntry> {
          this.expiryTime = expiryTime;
       }
 
-      synchronized boolean isLocked() {
-         return readers > 0;
-      }
-
-      synchronized void lock() {
-         readers++;
-      }
-
-      synchronized void unlock() {
-         readers--;
-         if (readers == 0)
-            notifyAll();
-      }
-
-      synchronized void waitUnlocked() {
-         while (readers > 0) {
-            try {
-               wait();
-            } catch (InterruptedException e) {
-               Thread.currentThread().interrupt();
-            }
-         }
-      }
-
       boolean isExpired(long now) {
          return expiryTime > 0 && expiryTime < now;
       }
@@ -0,0 +1,103 @@
+package org.infinispan.persistence.support;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+
+/**
+ * Collects the statistics of the file stores that batch the writes of concurrent operations into a single
+ * {@link java.nio.channels.FileChannel#force(boolean)} call (group commit).
+ * <p>
+ * There is a single instance per cache, shared by all its file stores (and their segments).
+ *
+ * @since 10.0
+ */
+@MBean(objectName = "GroupCommit", description = "Statistics of the batched synchronization of the cache store files")
+@Scope(Scopes.NAMED_CACHE)
+public class GroupCommitStatistics {
+   private final LongAdder syncs = new LongAdder();
+   private final LongAdder writes = new LongAdder();
+   private final LongAdder bytes = new LongAdder();
+   private final LongAdder syncTime = new LongAdder();
+
+   /**
+    * Records a batch made durable by a single synchronization of the file.
+    *
+    * @param batchWrites number of writes in the batch
+    * @param batchBytes number of bytes written by the batch
+    * @param syncNanos time spent synchronizing the file, in nanoseconds
+    */
+   public void recordSync(int batchWrites, long batchBytes, long syncNanos) {
+      syncs.increment();
+      writes.add(batchWrites);
+      bytes.add(batchBytes);
+      syncTime.add(syncNanos);
+   }
+
+   @ManagedAttribute(
+         description = "Number of synchronizations of the store files",
+         displayName = "Number of syncs",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getSyncs() {
+      return syncs.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of writes made durable by the synchronizations",
+         displayName = "Number of synced writes",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getSyncedWrites() {
+      return writes.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Average number of writes made durable by a single synchronization",
+         displayName = "Average batch size",
+         displayType = DisplayType.SUMMARY
+   )
+   public double getAverageBatchWrites() {
+      long count = syncs.sum();
+      return count == 0 ? 0 : (double) writes.sum() / count;
+   }
+
+   @ManagedAttribute(
+         description = "Average number of bytes made durable by a single synchronization",
+         displayName = "Average batch bytes",
+         displayType = DisplayType.SUMMARY
+   )
+   public long getAverageBatchBytes() {
+      long count = syncs.sum();
+      return count == 0 ? 0 : bytes.sum() / count;
+   }
+
+   @ManagedAttribute(
+         description = "Average time spent synchronizing the store files",
+         displayName = "Average sync time",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getAverageSyncTime() {
+      long count = syncs.sum();
+      return count == 0 ? 0 : syncTime.sum() / count;
+   }
+
+   @ManagedOperation(
+         description = "Resets statistics gathered by this component",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      syncs.reset();
+      writes.reset();
+      bytes.reset();
+      syncTime.reset();
+   }
+}
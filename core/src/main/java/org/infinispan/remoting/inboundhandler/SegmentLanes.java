@@ -0,0 +1,185 @@
+package org.infinispan.remoting.inboundhandler;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import org.infinispan.util.concurrent.BlockingRunnable;
+import org.infinispan.util.concurrent.BlockingTaskAwareExecutorService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import net.jcip.annotations.GuardedBy;
+
+/**
+ * Executes the {@link BlockingRunnable}s that are ordered per segment in a lane for each segment.
+ * <p>
+ * A lane runs one task at a time, the first of its pending tasks that is ready, and the lanes run in parallel. A lane
+ * is only checked when one of its tasks is added or completes, instead of the whole queue of blocked tasks of the
+ * remote executor, which is checked every time a task may have become ready. The thread draining a lane keeps running
+ * the next task as long as the previous one completes synchronously, so consecutive commands for the same segment do
+ * not go through the executor's queue.
+ * <p>
+ * The tasks must invoke {@link #completed(int)} once they are finished and the next task of their segment can run. When
+ * the pending tasks of a lane are waiting for something else (e.g. a new topology), the lane waits in the remote
+ * executor until it is ready.
+ *
+ * @since 10.0
+ */
+class SegmentLanes {
+
+   private static final Log log = LogFactory.getLog(SegmentLanes.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final BlockingTaskAwareExecutorService executor;
+   private final Lane[] lanes;
+
+   SegmentLanes(int numSegments, BlockingTaskAwareExecutorService executor) {
+      this.executor = executor;
+      this.lanes = new Lane[numSegments];
+      for (int i = 0; i < numSegments; i++) {
+         lanes[i] = new Lane(i);
+      }
+   }
+
+   /**
+    * Executes the task after the previous tasks of the segment have completed, once it is ready.
+    */
+   void execute(int segment, BlockingRunnable task) {
+      lanes[segment].add(task);
+   }
+
+   /**
+    * Signals that the running task of the segment has finished.
+    */
+   void completed(int segment) {
+      lanes[segment].completed();
+   }
+
+   private class Lane implements BlockingRunnable {
+      private final int segment;
+      @GuardedBy("this")
+      private final ArrayDeque<BlockingRunnable> pending = new ArrayDeque<>();
+      // A task of the lane is running and did not complete yet
+      @GuardedBy("this")
+      private boolean running;
+      // The lane was handed to the executor or a thread is draining it
+      @GuardedBy("this")
+      private boolean scheduled;
+      // The lane is waiting in the executor for a pending task to become ready
+      @GuardedBy("this")
+      private boolean parked;
+
+      Lane(int segment) {
+         this.segment = segment;
+      }
+
+      void add(BlockingRunnable task) {
+         boolean schedule;
+         boolean wakeUp;
+         synchronized (this) {
+            pending.addLast(task);
+            schedule = !running && !scheduled;
+            if (schedule) {
+               scheduled = true;
+            }
+            wakeUp = parked;
+         }
+         if (schedule) {
+            executor.execute(this);
+         } else if (wakeUp) {
+            // The new task may be the one the lane is waiting for
+            executor.checkForReadyTasks();
+         }
+      }
+
+      void completed() {
+         boolean schedule;
+         synchronized (this) {
+            running = false;
+            schedule = !scheduled && !pending.isEmpty();
+            if (schedule) {
+               scheduled = true;
+            }
+         }
+         if (schedule) {
+            executor.execute(this);
+         }
+      }
+
+      @Override
+      public synchronized boolean isReady() {
+         // Nothing to wait for when a task is running or there are no pending tasks, the lane will just stop
+         parked = !running && !pending.isEmpty() && !hasReadyTask();
+         return !parked;
+      }
+
+      @Override
+      public void run() {
+         while (true) {
+            BlockingRunnable task;
+            synchronized (this) {
+               parked = false;
+               task = running ? null : pollReady();
+               if (task == null) {
+                  if (running || pending.isEmpty()) {
+                     scheduled = false;
+                     return;
+                  }
+                  // The pending tasks are waiting for something else than the tasks of the lane
+                  break;
+               }
+               running = true;
+            }
+            if (trace) {
+               log.tracef("Running %s in lane of segment %d", task, segment);
+            }
+            task.run();
+         }
+         executor.execute(this);
+      }
+
+      @GuardedBy("this")
+      private boolean hasReadyTask() {
+         for (BlockingRunnable task : pending) {
+            if (isReady(task)) {
+               return true;
+            }
+         }
+         return false;
+      }
+
+      @GuardedBy("this")
+      private BlockingRunnable pollReady() {
+         for (Iterator<BlockingRunnable> iterator = pending.iterator(); iterator.hasNext(); ) {
+            BlockingRunnable task = iterator.next();
+            boolean ready;
+            try {
+               ready = task.isReady();
+            } catch (Exception e) {
+               log.debugf(e, "Failed to check ready state of %s, dropping.", task);
+               iterator.remove();
+               continue;
+            }
+            if (ready) {
+               iterator.remove();
+               return task;
+            }
+         }
+         return null;
+      }
+
+      private boolean isReady(BlockingRunnable task) {
+         try {
+            return task.isReady();
+         } catch (Exception e) {
+            // Let pollReady() drop it
+            return true;
+         }
+      }
+
+      @Override
+      public String toString() {
+         return "Lane{segment=" + segment + '}';
+      }
+   }
+}
@@ -48,6 +48,10 @@
 /**
  * A {@link PerCacheInboundInvocationHandler} implementation for non-transactional and distributed caches that uses the
  * triangle algorithm.
+ * <p>
+ * The backup writes are ordered per segment by the {@link TriangleOrderManager}. By default they wait for their turn in
+ * the remote executor, and with {@link org.infinispan.configuration.cache.ClusteringConfiguration#segmentLanes()} they
+ * are executed by {@link SegmentLanes}.
  *
  * @author Pedro Ruivo
  * @since 9.0
@@ -69,6 +73,7 @@ public class TrianglePerCacheInboundInvocationHandler extends BasePerCacheInboun
    private Address localAddress;
    private boolean isLocking;
    private boolean syncCache;
+   private SegmentLanes segmentLanes;
 
    @Override
    @Start
@@ -78,6 +83,9 @@ public void start() {
       localAddress = rpcManager.getAddress();
       isLocking = !configuration.clustering().cacheMode().isScattered();
       syncCache = configuration.clustering().cacheMode().isSynchronous();
+      if (configuration.clustering().segmentLanes()) {
+         segmentLanes = new SegmentLanes(configuration.clustering().hash().numSegments(), remoteCommandsExecutor);
+      }
    }
 
    @Override
@@ -141,6 +149,13 @@ public BlockingTaskAwareExecutorService getRemoteExecutor() {
       return remoteCommandsExecutor;
    }
 
+   /**
+    * @return {@code true} if the backup writes are executed by {@link SegmentLanes} instead of the remote executor.
+    */
+   public boolean usesSegmentLanes() {
+      return segmentLanes != null;
+   }
+
    @Override
    public void onFinally(ActionState state) {
       //no-op
@@ -188,14 +203,28 @@ private void handleMultiKeyBackupCommand(BackupWriteCommand command) {
       ReadyAction readyAction = createTriangleOrderAction(command, topologyId, command.getSequence(),
             command.getSegmentId());
       BlockingRunnable runnable = createMultiKeyBackupRunnable(command, topologyId, readyAction);
-      remoteCommandsExecutor.execute(runnable);
+      executeBackup(command.getSegmentId(), runnable);
    }
 
    private void handleSingleKeyBackupCommand(BackupWriteCommand command) {
       final int topologyId = command.getTopologyId();
       ReadyAction readyAction = createTriangleOrderAction(command, topologyId, command.getSequence(), command.getSegmentId());
       BlockingRunnable runnable = createSingleKeyBackupRunnable(command, topologyId, readyAction);
-      remoteCommandsExecutor.execute(runnable);
+      executeBackup(command.getSegmentId(), runnable);
+   }
+
+   private void executeBackup(int segmentId, BlockingRunnable runnable) {
+      if (segmentLanes != null) {
+         segmentLanes.execute(segmentId, runnable);
+      } else {
+         remoteCommandsExecutor.execute(runnable);
+      }
+   }
+
+   private void onBackupFinally(BackupWriteCommand command) {
+      if (segmentLanes != null) {
+         segmentLanes.completed(command.getSegmentId());
+      }
    }
 
    private void handleExceptionAck(ExceptionAckCommand command) {
@@ -267,7 +296,9 @@ private void onBackupException(BackupWriteCommand command, Throwable throwable,
 
    private BlockingRunnable createSingleKeyBackupRunnable(BackupWriteCommand command, int commandTopologyId,
                                                          ReadyAction readyAction) {
-      readyAction.addListener(remoteCommandsExecutor::checkForReadyTasks);
+      if (segmentLanes == null) {
+         readyAction.addListener(remoteCommandsExecutor::checkForReadyTasks);
+      }
       return new DefaultTopologyRunnable(this, command, Reply.NO_OP, TopologyMode.READY_TX_DATA, commandTopologyId,
             false) {
          @Override
@@ -288,6 +319,12 @@ protected void afterInvoke() {
             BackupWriteCommand backupCommand = (BackupWriteCommand) command;
             sendBackupAck(backupCommand.getCommandInvocationId(), commandTopologyId, backupCommand.getFlags());
          }
+
+         @Override
+         protected void onFinally() {
+            super.onFinally();
+            onBackupFinally((BackupWriteCommand) command);
+         }
       };
    }
 
@@ -313,7 +350,9 @@ private void sendMultiKeyAck(CommandInvocationId id, int topologyId, int segment
 
    private BlockingRunnable createMultiKeyBackupRunnable(BackupWriteCommand command, int commandTopologyId,
                                                        ReadyAction readyAction) {
-      readyAction.addListener(remoteCommandsExecutor::checkForReadyTasks);
+      if (segmentLanes == null) {
+         readyAction.addListener(remoteCommandsExecutor::checkForReadyTasks);
+      }
       return new DefaultTopologyRunnable(this, command, Reply.NO_OP, TopologyMode.READY_TX_DATA, commandTopologyId,
             false) {
          @Override
@@ -335,6 +374,12 @@ protected void afterInvoke() {
             sendMultiKeyAck(backupCommand.getCommandInvocationId(), commandTopologyId, backupCommand.getSegmentId(),
                   backupCommand.getFlags());
          }
+
+         @Override
+         protected void onFinally() {
+            super.onFinally();
+            onBackupFinally((BackupWriteCommand) command);
+         }
       };
    }
 
@@ -39,6 +39,9 @@ public ActionStatus check(ActionState state) {
    @Override
    public void onFinally(ActionState state) {
       handler.getTriangleOrderManager().markDelivered(segmentId, sequenceNumber, state.getCommandTopologyId());
-      handler.getRemoteExecutor().checkForReadyTasks();
+      if (!handler.usesSegmentLanes()) {
+         // the lane of the segment runs the next command when this one finishes
+         handler.getRemoteExecutor().checkForReadyTasks();
+      }
    }
 }
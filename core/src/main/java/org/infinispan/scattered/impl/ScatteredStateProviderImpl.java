@@ -79,14 +79,14 @@ private CompletableFuture<Void> replicateAndInvalidate(CacheTopology cacheTopolo
          AtomicInteger outboundInvalidations = new AtomicInteger(1);
          CompletableFuture<Void> outboundTaskFuture = new CompletableFuture<>();
          OutboundTransferTask outboundTransferTask = new OutboundTransferTask(nextMember, oldSegments,
-            cacheTopology.getCurrentCH().getNumSegments(), chunkSize, cacheTopology.getTopologyId(), keyPartitioner,
+            cacheTopology.getCurrentCH().getNumSegments(), chunkSize, chunksInFlight, cacheTopology.getTopologyId(), keyPartitioner,
             task -> {
                if (outboundInvalidations.decrementAndGet() == 0) {
                   outboundTaskFuture.complete(null);
                }
             }, chunks -> invalidateChunks(chunks, otherMembers, outboundInvalidations, outboundTaskFuture, cacheTopology),
             OutboundTransferTask::defaultMapEntryFromDataContainer, OutboundTransferTask::defaultMapEntryFromStore,
-            dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName, true, true);
+            dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName, true, true, false);
          outboundTransferTask.execute(executorService);
          return outboundTaskFuture;
       } else {
@@ -163,7 +163,7 @@ public void startKeysTransfer(IntSet segments, Address origin) {
       CacheTopology cacheTopology = distributionManager.getCacheTopology();
       Address localAddress = rpcManager.getAddress();
       OutboundTransferTask outboundTransferTask = new OutboundTransferTask(origin, segments,
-         cacheTopology.getCurrentCH().getNumSegments(), chunkSize, cacheTopology.getTopologyId(), keyPartitioner,
+         cacheTopology.getCurrentCH().getNumSegments(), chunkSize, chunksInFlight, cacheTopology.getTopologyId(), keyPartitioner,
          this::onTaskCompletion, list -> {},
          (ice, ef) -> {
             Metadata metadata = ice.getMetadata();
@@ -180,7 +180,7 @@ public void startKeysTransfer(IntSet segments, Address origin) {
             } else {
                return null;
             }
-         }, dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName, true, false);
+         }, dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName, true, false, false);
       addTransfer(outboundTransferTask);
       outboundTransferTask.execute(executorService);
    }
@@ -1,14 +1,19 @@
 package org.infinispan.statetransfer;
 
 import static org.infinispan.commons.util.Util.toStr;
+import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.PRIVATE;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import org.infinispan.commons.time.TimeService;
+import org.infinispan.commons.util.ByRef;
 import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.ReadCommittedEntry;
 import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.context.Flag;
@@ -17,6 +22,8 @@
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.persistence.spi.MarshallableEntryFactory;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -38,6 +45,7 @@ public class CommitManager {
 
    @Inject InternalDataContainer dataContainer;
    @Inject PersistenceManager persistenceManager;
+   @Inject MarshallableEntryFactory marshallableEntryFactory;
    @Inject TimeService timeService;
 
    private volatile boolean trackStateTransfer;
@@ -64,7 +72,8 @@ public final void stopTrack(Flag track) {
          if (trace) {
             log.tracef("Tracking is disabled. Clear tracker: %s", tracker);
          }
-         tracker.clear();
+         // The keys with a pending store write are removed once it completes, to release the waiting operations
+         tracker.values().removeIf(discardPolicy -> !(discardPolicy instanceof PendingStoreWrite));
       } else {
          for (Iterator<Map.Entry<Object, DiscardPolicy>> iterator = tracker.entrySet().iterator();
               iterator.hasNext(); ) {
@@ -78,6 +87,8 @@ public final void stopTrack(Flag track) {
    /**
     * It tries to commit the cache entry. The entry is not committed if it is originated from state transfer and other
     * operation already has updated it.
+    * <p>
+    * If a state transfer store write of the key is pending, it waits for it first, even if the tracking already stopped.
     * @param entry     the entry to commit
     * @param operation if {@code null}, it identifies this commit as originated from a normal operation. Otherwise, it
     * @param ctx
@@ -88,7 +99,9 @@ public final void commit(final CacheEntry entry, final Flag operation, int segme
          log.tracef("Trying to commit. Key=%s. Operation Flag=%s, L1 write/invalidation=%s", toStr(entry.getKey()),
                operation, l1Only);
       }
-      if (l1Only || (operation == null && !trackStateTransfer && !trackXSiteStateTransfer)) {
+      boolean untracked = l1Only || (operation == null && !trackStateTransfer && !trackXSiteStateTransfer);
+      // After the tracking stopped, the tracker only holds the keys with a pending state transfer store write
+      if (untracked && tracker.isEmpty()) {
          //track == null means that it is a normal put and the tracking is not enabled!
          //if it is a L1 invalidation, commit without track it.
          if (trace) {
@@ -98,7 +111,7 @@ public final void commit(final CacheEntry entry, final Flag operation, int segme
          commitEntry(entry, segment, ctx);
          return;
       }
-      if (isTrackDisabled(operation)) {
+      if (!untracked && isTrackDisabled(operation)) {
          //this a put for state transfer but we are not tracking it. This means that the state transfer has ended
          //or canceled due to a clear command.
          if (trace) {
@@ -107,22 +120,196 @@ public final void commit(final CacheEntry entry, final Flag operation, int segme
          }
          return;
       }
-      tracker.compute(entry.getKey(), (o, discardPolicy) -> {
-         if (discardPolicy != null && discardPolicy.ignore(operation)) {
+      boolean waited = false;
+      PendingStoreWrite pending;
+      do {
+         ByRef<PendingStoreWrite> pendingRef = new ByRef<>(null);
+         tracker.compute(entry.getKey(), (o, discardPolicy) -> {
+            if (discardPolicy instanceof PendingStoreWrite) {
+               // Wait outside of the tracker, so that the other keys can still be committed
+               pendingRef.set((PendingStoreWrite) discardPolicy);
+               return discardPolicy;
+            }
+            if (untracked) {
+               commitEntry(entry, segment, ctx);
+               return discardPolicy;
+            }
+            return commitTracked(entry, operation, segment, ctx, discardPolicy);
+         });
+         pending = pendingRef.get();
+         if (pending != null) {
+            if (trace) {
+               log.tracef("Waiting for the state transfer store write of key=%s", toStr(entry.getKey()));
+            }
+            pending.await();
+            waited = true;
+         }
+      } while (pending != null);
+      if (waited && !l1Only && operation == null) {
+         // The operation wrote the stores before committing, so the state transfer may have overwritten its value
+         rewriteToStores(entry, segment);
+      }
+   }
+
+   /**
+    * Writes a committed entry to the private stores again, after a state transfer store write of the same key.
+    */
+   private void rewriteToStores(CacheEntry entry, int segment) {
+      Object key = entry.getKey();
+      if (trace) {
+         log.tracef("Writing key=%s to the stores again after the state transfer store write", toStr(key));
+      }
+      if (entry.isRemoved() || entry.getValue() == null) {
+         persistenceManager.deleteFromAllStores(key, segment, PRIVATE);
+      } else {
+         persistenceManager.writeToAllNonTxStores(marshallableEntryFactory.create(key, entry.getValue(),
+               entry.getMetadata(), entry.getCreated(), entry.getLastUsed()), segment, PRIVATE);
+      }
+   }
+
+   private DiscardPolicy commitTracked(CacheEntry entry, Flag operation, int segment, InvocationContext ctx,
+                                       DiscardPolicy discardPolicy) {
+      if (discardPolicy != null && discardPolicy.ignore(operation)) {
+         if (trace) {
+            log.tracef("Not committing key=%s. It was already overwritten! Discard policy=%s",
+                  toStr(entry.getKey()), discardPolicy);
+         }
+         return discardPolicy;
+      }
+      commitEntry(entry, segment, ctx);
+      DiscardPolicy newDiscardPolicy = calculateDiscardPolicy(operation);
+      if (trace) {
+         log.tracef("Committed key=%s. Old discard policy=%s. New discard policy=%s", toStr(entry.getKey()),
+                    discardPolicy, newDiscardPolicy);
+      }
+      return newDiscardPolicy;
+   }
+
+   /**
+    * It tries to commit an entry received by state transfer directly in the data container, without a command. The
+    * entry is not committed if the state transfer is not tracked anymore or if other operation already has updated it.
+    * <p>
+    * If {@code writeToStores} is {@code true}, the committed entry must then be passed to
+    * {@link #writeStateTransferEntries(Collection, long)}. Until then, an operation committing the same key waits. It
+    * then writes its entry to the stores again, since the state transfer may have overwritten its own store write.
+    *
+    * @param entry         the entry received by state transfer
+    * @param segment       the segment of the entry's key
+    * @param writeToStores whether the entry is written to the stores after it is committed
+    * @return {@code true} if the entry was committed, {@code false} if it was discarded.
+    */
+   public final boolean commitStateTransferEntry(InternalCacheEntry entry, int segment, boolean writeToStores) {
+      if (isTrackDisabled(Flag.PUT_FOR_STATE_TRANSFER)) {
+         if (trace) {
+            log.tracef("Not committing key=%s. It is a state transfer key but no track is enabled!",
+                  toStr(entry.getKey()));
+         }
+         return false;
+      }
+      ByRef.Boolean committed = new ByRef.Boolean(false);
+      tracker.compute(entry.getKey(), (key, discardPolicy) -> {
+         if (discardPolicy != null && discardPolicy.ignore(Flag.PUT_FOR_STATE_TRANSFER)) {
             if (trace) {
                log.tracef("Not committing key=%s. It was already overwritten! Discard policy=%s",
-                     toStr(entry.getKey()), discardPolicy);
+                     toStr(key), discardPolicy);
             }
             return discardPolicy;
          }
-         commitEntry(entry, segment, ctx);
-         DiscardPolicy newDiscardPolicy = calculateDiscardPolicy(operation);
+         dataContainer.put(segment, key, entry.getValue(), entry.getMetadata(), entry.getCreated(), entry.getLastUsed());
+         committed.set(true);
+         return writeToStores ? new PendingStoreWrite() : calculateDiscardPolicy(Flag.PUT_FOR_STATE_TRANSFER);
+      });
+      return committed.get();
+   }
+
+   /**
+    * Writes the entries committed by {@link #commitStateTransferEntry(InternalCacheEntry, int, boolean)} to the private
+    * stores with a single batch, and then lets the operations waiting for their keys commit.
+    * <p>
+    * The stores are written outside of the tracker, so that the operations committing other keys don't wait for them.
+    *
+    * @param entries the committed entries
+    * @param flags   the flags to write the stores with
+    */
+   public final void writeStateTransferEntries(Collection<InternalCacheEntry> entries, long flags) {
+      Iterable<MarshallableEntry> marshallableEntries = () -> entries.stream()
+            .map(e -> marshallableEntryFactory.create(e.getKey(), e.getValue(), e.getMetadata(), e.getCreated(),
+                  e.getLastUsed()))
+            .iterator();
+      try {
+         persistenceManager.writeBatchToAllNonTxStores(marshallableEntries, PRIVATE, flags);
+      } finally {
+         for (InternalCacheEntry e : entries) {
+            completeStoreWrite(e.getKey(), -1, false);
+         }
+      }
+   }
+
+   /**
+    * It tries to commit an entry received by state transfer in the marshalled form of a store, by writing it to the
+    * private stores without a command. The entry is not committed if the state transfer is not tracked anymore or if
+    * other operation already has updated it. Otherwise, any copy received in memory is removed from the data container,
+    * so that the entry is loaded from the store.
+    * <p>
+    * The store is written outside of the tracker, but an operation committing the key meanwhile waits for it, and then
+    * writes its entry to the stores again.
+    *
+    * @param entry   the entry received by state transfer
+    * @param segment the segment of the entry's key
+    * @param flags   the flags to write the stores with
+    * @return {@code true} if the entry was committed, {@code false} if it was discarded.
+    */
+   public final boolean commitStateTransferStoreEntry(MarshallableEntry entry, int segment, long flags) {
+      if (isTrackDisabled(Flag.PUT_FOR_STATE_TRANSFER)) {
          if (trace) {
-            log.tracef("Committed key=%s. Old discard policy=%s. New discard policy=%s", toStr(entry.getKey()),
-                       discardPolicy, newDiscardPolicy);
+            log.tracef("Not committing key=%s. It is a state transfer key but no track is enabled!",
+                  toStr(entry.getKey()));
+         }
+         return false;
+      }
+      Object key = entry.getKey();
+      ByRef.Boolean committed = new ByRef.Boolean(false);
+      tracker.compute(key, (k, discardPolicy) -> {
+         if (discardPolicy != null && discardPolicy.ignore(Flag.PUT_FOR_STATE_TRANSFER)) {
+            if (trace) {
+               log.tracef("Not committing key=%s. It was already overwritten! Discard policy=%s",
+                     toStr(k), discardPolicy);
+            }
+            return discardPolicy;
+         }
+         committed.set(true);
+         return new PendingStoreWrite();
+      });
+      if (!committed.get()) {
+         return false;
+      }
+      boolean written = false;
+      try {
+         persistenceManager.writeToAllNonTxStores(entry, segment, PRIVATE, flags);
+         written = true;
+      } finally {
+         // The copy in memory is only removed once the entry can be loaded from the store
+         completeStoreWrite(key, segment, written);
+      }
+      return true;
+   }
+
+   private void completeStoreWrite(Object key, int segment, boolean removeFromMemory) {
+      ByRef<PendingStoreWrite> pendingRef = new ByRef<>(null);
+      tracker.computeIfPresent(key, (k, discardPolicy) -> {
+         if (discardPolicy instanceof PendingStoreWrite) {
+            if (removeFromMemory) {
+               dataContainer.remove(segment, k);
+            }
+            pendingRef.set((PendingStoreWrite) discardPolicy);
+            return calculateDiscardPolicy(Flag.PUT_FOR_STATE_TRANSFER);
          }
-         return newDiscardPolicy;
+         return discardPolicy;
       });
+      PendingStoreWrite pending = pendingRef.get();
+      if (pending != null) {
+         pending.complete();
+      }
    }
 
    private void commitEntry(CacheEntry entry, int segment, InvocationContext ctx) {
@@ -236,4 +423,47 @@ public String toString() {
                '}';
       }
    }
+
+   /**
+    * Tracks a key committed by state transfer while the stores are written. Other state transfer entries for the key
+    * are discarded, the other operations committing the key wait for it to complete instead.
+    */
+   private static class PendingStoreWrite extends DiscardPolicy {
+      private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+      private PendingStoreWrite() {
+         super(true, false);
+      }
+
+      @Override
+      public boolean update(boolean discardST, boolean discardXSiteST) {
+         // Only removed once the stores are written
+         return false;
+      }
+
+      void await() {
+         written.join();
+      }
+
+      void complete() {
+         written.complete(null);
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         return this == o;
+      }
+
+      @Override
+      public int hashCode() {
+         return System.identityHashCode(this);
+      }
+
+      @Override
+      public String toString() {
+         return "PendingStoreWrite{" +
+               "written=" + written.isDone() +
+               '}';
+      }
+   }
 }
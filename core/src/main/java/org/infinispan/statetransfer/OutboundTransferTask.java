@@ -5,29 +5,35 @@
 import java.util.List;
 import java.util.Map;
 import java.util.PrimitiveIterator;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
+import org.infinispan.configuration.cache.StoreConfiguration;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.container.impl.InternalEntryFactory;
 import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.persistence.manager.PersistenceManager;
-import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.rpc.RpcOptions;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.impl.VoidResponseCollector;
 import org.infinispan.remoting.transport.jgroups.SuspectException;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -37,6 +43,13 @@
  * Outbound state transfer task. Pushes data segments to another cluster member on request. Instances of
  * OutboundTransferTask are created and managed by StateTransferManagerImpl. There should be at most
  * one such task per destination at any time.
+ * <p>
+ * Up to {@code chunksInFlight} chunks can be sent without waiting for the destination to acknowledge them. The
+ * destination acknowledges a chunk only after applying it, so each acknowledgement grants the credit to send another
+ * chunk. The last chunk is only sent after all the others have been acknowledged.
+ * <p>
+ * The entries that are only in the store are read from the requested segments only, if the store is segmented. With
+ * {@code rawStoreEntries} they are sent in the marshalled form read from the store, as {@link RawStoreEntry} instances.
  *
  * @author anistor@redhat.com
  * @since 5.2
@@ -45,6 +58,8 @@ public class OutboundTransferTask implements Runnable {
 
    private static final Log log = LogFactory.getLog(OutboundTransferTask.class);
 
+   private static final Predicate<StoreConfiguration> STATE_TRANSFER_STORE = c -> c.fetchPersistentState() && !c.shared();
+
    private final boolean trace = log.isTraceEnabled();
 
    private final Consumer<OutboundTransferTask> onCompletion;
@@ -63,6 +78,13 @@ public class OutboundTransferTask implements Runnable {
 
    private final int chunkSize;
 
+   private final int chunksInFlight;
+
+   /**
+    * One permit for each chunk that can be sent before the destination acknowledges the previous ones.
+    */
+   private final Semaphore credits;
+
    private final KeyPartitioner keyPartitioner;
 
    private final InternalDataContainer<Object, Object> dataContainer;
@@ -81,8 +103,12 @@ public class OutboundTransferTask implements Runnable {
 
    private final boolean pushTransfer;
 
+   private final boolean rawStoreEntries;
+
    private final Map<Integer, List<InternalCacheEntry>> entriesBySegment = new ConcurrentHashMap<>();
 
+   private final Map<Integer, List<RawStoreEntry>> storeEntriesBySegment = new ConcurrentHashMap<>();
+
    /**
     * The total number of entries from all segments accumulated in entriesBySegment.
     */
@@ -93,18 +119,24 @@ public class OutboundTransferTask implements Runnable {
     */
    private FutureTask<Void> runnableFuture;
 
+   /**
+    * Set either when the task starts running or when it is cancelled before running, whichever happens first. The
+    * task is completed by the thread that sets it, so that a running task only completes after its last chunk.
+    */
+   private final AtomicBoolean started = new AtomicBoolean();
+
    private final RpcOptions rpcOptions;
 
    private InternalEntryFactory entryFactory;
 
    public OutboundTransferTask(Address destination, IntSet segments, int segmentCount, int chunkSize,
-                               int topologyId, KeyPartitioner keyPartitioner,
+                               int chunksInFlight, int topologyId, KeyPartitioner keyPartitioner,
                                Consumer<OutboundTransferTask> onCompletion, Consumer<List<StateChunk>> onChunkReplicated,
                                BiFunction<InternalCacheEntry, InternalEntryFactory, InternalCacheEntry> mapEntryFromDataContainer,
                                BiFunction<MarshallableEntry, InternalEntryFactory, InternalCacheEntry> mapEntryFromStore, InternalDataContainer dataContainer,
                                PersistenceManager persistenceManager, RpcManager rpcManager,
                                CommandsFactory commandsFactory, InternalEntryFactory ef, long timeout, String cacheName,
-                               boolean applyState, boolean pushTransfer) {
+                               boolean applyState, boolean pushTransfer, boolean rawStoreEntries) {
       if (segments == null || segments.isEmpty()) {
          throw new IllegalArgumentException("Segments must not be null or empty");
       }
@@ -114,6 +146,9 @@ public OutboundTransferTask(Address destination, IntSet segments, int segmentCou
       if (chunkSize <= 0) {
          throw new IllegalArgumentException("chunkSize must be greater than 0");
       }
+      if (chunksInFlight <= 0) {
+         throw new IllegalArgumentException("chunksInFlight must be greater than 0");
+      }
       this.onCompletion = onCompletion;
       this.onChunkReplicated = onChunkReplicated;
       this.mapEntryFromDataContainer = mapEntryFromDataContainer;
@@ -121,6 +156,8 @@ public OutboundTransferTask(Address destination, IntSet segments, int segmentCou
       this.destination = destination;
       this.segments = IntSets.concurrentCopyFrom(segments, segmentCount);
       this.chunkSize = chunkSize;
+      this.chunksInFlight = chunksInFlight;
+      this.credits = new Semaphore(chunksInFlight);
       this.topologyId = topologyId;
       this.keyPartitioner = keyPartitioner;
       this.dataContainer = dataContainer;
@@ -132,6 +169,7 @@ public OutboundTransferTask(Address destination, IntSet segments, int segmentCou
       this.cacheName = cacheName;
       this.applyState = applyState;
       this.pushTransfer = pushTransfer;
+      this.rawStoreEntries = rawStoreEntries;
       //the rpc options does not change in runtime. re-use the same instance
       this.rpcOptions = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS)
             .timeout(timeout, TimeUnit.MILLISECONDS).build();
@@ -144,7 +182,10 @@ public void execute(ExecutorService executorService) {
       runnableFuture = new FutureTask<Void>(this, null) {
          @Override
          protected void done() {
-            onCompletion.accept(OutboundTransferTask.this);
+            // a running task completes at the end of run(), even if it is cancelled
+            if (started.compareAndSet(false, true)) {
+               onCompletion.accept(OutboundTransferTask.this);
+            }
          }
       };
       executorService.submit(runnableFuture);
@@ -164,6 +205,10 @@ public int getTopologyId() {
 
    //todo [anistor] check thread interrupt status in loops to implement faster cancellation
    public void run() {
+      if (!started.compareAndSet(false, true)) {
+         // cancelled and already completed
+         return;
+      }
       try {
          // TODO: need to change to SDC.forEachSegment
          // send data container entries
@@ -178,17 +223,22 @@ public void run() {
             }
          }
 
-         AdvancedCacheLoader<Object, Object> stProvider = persistenceManager.getStateTransferProvider();
-         if (stProvider != null) {
+         // send the entries that are only in the store, a segmented store only reads the requested segments
+         if (persistenceManager.getStateTransferProvider() != null) {
             try {
-               Flowable.fromPublisher(stProvider.entryPublisher(k -> !dataContainer.containsKey(k), true, true))
+               Flowable.fromPublisher(persistenceManager.<Object, Object>publishEntries(segments,
+                     k -> !dataContainer.containsKey(k), true, true, STATE_TRANSFER_STORE))
                      .blockingForEach(me -> {
                         int segmentId = keyPartitioner.getSegment(me.getKey());
                         if (segments.contains(segmentId)) {
                            try {
-                              InternalCacheEntry entry = mapEntryFromStore.apply(me, entryFactory);
-                              if (entry != null) {
-                                 sendEntry(entry, segmentId);
+                              if (rawStoreEntries) {
+                                 sendStoreEntry(RawStoreEntry.fromStore(me), segmentId);
+                              } else {
+                                 InternalCacheEntry entry = mapEntryFromStore.apply(me, entryFactory);
+                                 if (entry != null) {
+                                    sendEntry(entry, segmentId);
+                                 }
                               }
                            } catch (CacheException e) {
                               log.failedLoadingValueFromCacheStore(me.getKey(), e);
@@ -213,30 +263,54 @@ public void run() {
             log.failedOutBoundTransferExecution(t);
          }
       }
+      // wait for the acknowledgement of the chunks sent asynchronously, cancelled or not, so that all the chunks were
+      // either replicated or failed when the task completes
+      credits.acquireUninterruptibly(chunksInFlight);
+      credits.release(chunksInFlight);
       if (trace) {
          log.tracef("Completed outbound transfer to node %s, segments %s", destination, segments);
       }
+      onCompletion.accept(this);
    }
 
    private void sendEntry(InternalCacheEntry ice, int segmentId) {
+      sendIfFull();
+      List<InternalCacheEntry> entries = entriesBySegment.computeIfAbsent(segmentId, k -> new ArrayList<>());
+      entries.add(ice);
+      accumulatedEntries++;
+   }
+
+   private void sendStoreEntry(RawStoreEntry entry, int segmentId) {
+      sendIfFull();
+      // the segment must have a list of cache entries too, sendEntries only creates chunks for those segments
+      entriesBySegment.computeIfAbsent(segmentId, k -> new ArrayList<>());
+      List<RawStoreEntry> entries = storeEntriesBySegment.computeIfAbsent(segmentId, k -> new ArrayList<>());
+      entries.add(entry);
+      accumulatedEntries++;
+   }
+
+   private void sendIfFull() {
       // send if we have a full chunk
       if (accumulatedEntries >= chunkSize) {
          sendEntries(false);
          accumulatedEntries = 0;
       }
-
-      List<InternalCacheEntry> entries = entriesBySegment.computeIfAbsent(segmentId, k -> new ArrayList<>());
-      entries.add(ice);
-      accumulatedEntries++;
    }
 
    private void sendEntries(boolean isLast) {
       List<StateChunk> chunks = new ArrayList<>();
       for (Map.Entry<Integer, List<InternalCacheEntry>> e : entriesBySegment.entrySet()) {
          List<InternalCacheEntry> entries = e.getValue();
-         if (!entries.isEmpty() || isLast) {
-            chunks.add(new StateChunk(e.getKey(), new ArrayList<>(entries), isLast));
+         // the entries of a segment must be sent in the same chunk, so they are applied before the last chunk completes it
+         List<RawStoreEntry> storeEntries = storeEntriesBySegment.get(e.getKey());
+         boolean hasStoreEntries = storeEntries != null && !storeEntries.isEmpty();
+         if (!entries.isEmpty() || hasStoreEntries || isLast) {
+            chunks.add(new StateChunk(e.getKey(), new ArrayList<>(entries),
+                  hasStoreEntries ? new ArrayList<>(storeEntries) : null, isLast));
             entries.clear();
+            if (hasStoreEntries) {
+               storeEntries.clear();
+            }
          }
       }
 
@@ -260,23 +334,58 @@ private void sendEntries(boolean isLast) {
          }
 
          StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(rpcManager.getAddress(), topologyId, chunks, applyState, pushTransfer);
-         // send synchronously, in order. it is important that the last chunk is received last in order to correctly detect completion of the stream of chunks
-         try {
-            rpcManager.invokeRemotely(Collections.singleton(destination), cmd, rpcOptions);
-            onChunkReplicated.accept(chunks);
-         } catch (SuspectException e) {
-            log.debugf("Node %s left cache %s while we were sending state to it, cancelling transfer.", destination, cacheName);
-            cancel();
-         } catch (Exception e) {
-            if (isCancelled()) {
-               log.debugf("Stopping cancelled transfer to node %s, segments %s", destination, segments);
-            } else {
-               log.errorf(e, "Failed to send entries to node %s: %s", destination, e.getMessage());
+         if (isLast || chunksInFlight == 1) {
+            // send synchronously, after all the previous chunks were acknowledged. it is important that the last chunk
+            // is received last in order to correctly detect completion of the stream of chunks
+            acquireCredits(chunksInFlight);
+            try {
+               rpcManager.invokeRemotely(Collections.singleton(destination), cmd, rpcOptions);
+               onChunkReplicated.accept(chunks);
+            } catch (Exception e) {
+               onSendFailure(e);
+            } finally {
+               credits.release(chunksInFlight);
             }
+         } else {
+            acquireCredits(1);
+            rpcManager.invokeCommand(destination, cmd, VoidResponseCollector.validOnly(), rpcOptions)
+                  .whenComplete((ignored, t) -> {
+                     // the credit is returned last, so the last chunk is only sent after the callback
+                     try {
+                        if (t == null) {
+                           onChunkReplicated.accept(chunks);
+                        } else {
+                           onSendFailure(CompletableFutures.extractException(t));
+                        }
+                     } finally {
+                        credits.release();
+                     }
+                  });
          }
       }
    }
 
+   private void acquireCredits(int permits) {
+      try {
+         credits.acquire(permits);
+      } catch (InterruptedException e) {
+         // only cancellation interrupts the task, stop iterating over the entries
+         Thread.currentThread().interrupt();
+         throw new CancellationException();
+      }
+   }
+
+   private void onSendFailure(Throwable t) {
+      if (t instanceof SuspectException) {
+         log.debugf("Node %s left cache %s while we were sending state to it, cancelling transfer.", destination, cacheName);
+         cancel();
+      } else if (isCancelled()) {
+         log.debugf("Stopping cancelled transfer to node %s, segments %s", destination, segments);
+      } else {
+         log.errorf(t, "Failed to send entries to node %s: %s", destination, t.getMessage());
+      }
+   }
+
    /**
     * Cancel some of the segments. If all segments get cancelled then the whole task will be cancelled.
     *
@@ -288,6 +397,7 @@ public void cancelSegments(IntSet cancelledSegments) {
             log.tracef("Cancelling outbound transfer to node %s, segments %s (remaining segments %s)",
                        destination, cancelledSegments, segments);
          }
+         storeEntriesBySegment.keySet().removeAll(cancelledSegments);
          entriesBySegment.keySet().removeAll(cancelledSegments);  // here we do not update accumulatedEntries but this inaccuracy does not cause any harm
          if (segments.isEmpty()) {
             cancel();
@@ -316,6 +426,8 @@ public String toString() {
             ", destination=" + destination +
             ", segments=" + segments +
             ", chunkSize=" + chunkSize +
+            ", chunksInFlight=" + chunksInFlight +
+            ", rawStoreEntries=" + rawStoreEntries +
             ", timeout=" + timeout +
             ", cacheName='" + cacheName + '\'' +
             '}';
@@ -0,0 +1,103 @@
+package org.infinispan.statetransfer;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ByteBufferImpl;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.persistence.spi.MarshallableEntry;
+
+/**
+ * An entry read from a store, in the marshalled form the store keeps it. It is sent during state transfer so that the
+ * receiver can write it to its own store without unmarshalling its value and metadata.
+ *
+ * @since 10.0
+ */
+public class RawStoreEntry {
+
+   private final ByteBuffer key;
+   private final ByteBuffer value;
+   private final ByteBuffer metadata;
+   private final long created;
+   private final long lastUsed;
+
+   public RawStoreEntry(ByteBuffer key, ByteBuffer value, ByteBuffer metadata, long created, long lastUsed) {
+      this.key = key;
+      this.value = value;
+      this.metadata = metadata;
+      this.created = created;
+      this.lastUsed = lastUsed;
+   }
+
+   public static RawStoreEntry fromStore(MarshallableEntry<?, ?> entry) {
+      return new RawStoreEntry(entry.getKeyBytes(), entry.getValueBytes(), entry.getMetadataBytes(), entry.created(),
+            entry.lastUsed());
+   }
+
+   public ByteBuffer getKey() {
+      return key;
+   }
+
+   public ByteBuffer getValue() {
+      return value;
+   }
+
+   public ByteBuffer getMetadata() {
+      return metadata;
+   }
+
+   public long getCreated() {
+      return created;
+   }
+
+   public long getLastUsed() {
+      return lastUsed;
+   }
+
+   static void writeTo(ObjectOutput output, RawStoreEntry entry) throws IOException {
+      writeBuffer(output, entry.key);
+      writeBuffer(output, entry.value);
+      writeBuffer(output, entry.metadata);
+      output.writeLong(entry.created);
+      output.writeLong(entry.lastUsed);
+   }
+
+   static RawStoreEntry readFrom(ObjectInput input) throws IOException {
+      ByteBuffer key = readBuffer(input);
+      ByteBuffer value = readBuffer(input);
+      ByteBuffer metadata = readBuffer(input);
+      long created = input.readLong();
+      long lastUsed = input.readLong();
+      return new RawStoreEntry(key, value, metadata, created, lastUsed);
+   }
+
+   private static void writeBuffer(ObjectOutput output, ByteBuffer buffer) throws IOException {
+      if (buffer == null) {
+         MarshallUtil.marshallSize(output, -1);
+      } else {
+         MarshallUtil.marshallSize(output, buffer.getLength());
+         output.write(buffer.getBuf(), buffer.getOffset(), buffer.getLength());
+      }
+   }
+
+   private static ByteBuffer readBuffer(ObjectInput input) throws IOException {
+      int length = MarshallUtil.unmarshallSize(input);
+      if (length < 0) {
+         return null;
+      }
+      byte[] bytes = new byte[length];
+      input.readFully(bytes);
+      return new ByteBufferImpl(bytes);
+   }
+
+   @Override
+   public String toString() {
+      return "RawStoreEntry{" +
+            "key=" + key +
+            ", created=" + created +
+            ", lastUsed=" + lastUsed +
+            '}';
+   }
+}
@@ -3,11 +3,13 @@
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
 
 import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.marshall.MarshallUtil;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.marshall.core.Ids;
 
@@ -30,14 +32,25 @@ public class StateChunk {
     */
    private final Collection<InternalCacheEntry> cacheEntries;
 
+   /**
+    * The entries read from a store in their marshalled form, or {@code null}. They belong to segmentId too.
+    */
+   private final Collection<RawStoreEntry> storeEntries;
+
    /**
     * Indicates to receiver if there are more chunks to come for this segment.
     */
    private final boolean isLastChunk;
 
    public StateChunk(int segmentId, Collection<InternalCacheEntry> cacheEntries, boolean isLastChunk) {
+      this(segmentId, cacheEntries, null, isLastChunk);
+   }
+
+   public StateChunk(int segmentId, Collection<InternalCacheEntry> cacheEntries, Collection<RawStoreEntry> storeEntries,
+                     boolean isLastChunk) {
       this.segmentId = segmentId;
       this.cacheEntries = cacheEntries;
+      this.storeEntries = storeEntries;
       this.isLastChunk = isLastChunk;
    }
 
@@ -49,6 +62,10 @@ public Collection<InternalCacheEntry> getCacheEntries() {
       return cacheEntries;
    }
 
+   public Collection<RawStoreEntry> getStoreEntries() {
+      return storeEntries;
+   }
+
    public boolean isLastChunk() {
       return isLastChunk;
    }
@@ -58,6 +75,7 @@ public String toString() {
       return "StateChunk{" +
             "segmentId=" + segmentId +
             ", cacheEntries=" + cacheEntries.size() +
+            (storeEntries != null ? ", storeEntries=" + storeEntries.size() : "") +
             ", isLastChunk=" + isLastChunk +
             '}';
    }
@@ -78,6 +96,7 @@ public Set<Class<? extends StateChunk>> getTypeClasses() {
       public void writeObject(ObjectOutput output, StateChunk object) throws IOException {
          output.writeInt(object.segmentId);
          output.writeObject(object.cacheEntries);
+         MarshallUtil.marshallCollection(object.storeEntries, output, RawStoreEntry::writeTo);
          output.writeBoolean(object.isLastChunk);
       }
 
@@ -86,8 +105,9 @@ public void writeObject(ObjectOutput output, StateChunk object) throws IOExcepti
       public StateChunk readObject(ObjectInput input) throws IOException, ClassNotFoundException {
          int segmentId = input.readInt();
          Collection<InternalCacheEntry> cacheEntries = (Collection<InternalCacheEntry>) input.readObject();
+         Collection<RawStoreEntry> storeEntries = MarshallUtil.unmarshallCollection(input, ArrayList::new, RawStoreEntry::readFrom);
          boolean isLastChunk = input.readBoolean();
-         return new StateChunk(segmentId, cacheEntries, isLastChunk);
+         return new StateChunk(segmentId, cacheEntries, storeEntries, isLastChunk);
       }
    }
 }
@@ -70,6 +70,9 @@
 import org.infinispan.notifications.cachelistener.annotation.DataRehashed;
 import org.infinispan.notifications.cachelistener.cluster.ClusterListenerReplicateCallable;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.persistence.spi.MarshallableEntryFactory;
+import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.reactive.publisher.impl.LocalPublisherManager;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
 import org.infinispan.remoting.responses.CacheNotFoundResponse;
@@ -141,6 +144,7 @@ public class StateConsumerImpl implements StateConsumer {
    @Inject protected KeyPartitioner keyPartitioner;
    @Inject InternalConflictManager conflictManager;
    @Inject LocalPublisherManager<Object, Object> localPublisherManager;
+   @Inject MarshallableEntryFactory marshallableEntryFactory;
 
    protected String cacheName;
    protected long timeout;
@@ -148,6 +152,8 @@ public class StateConsumerImpl implements StateConsumer {
    protected boolean isTransactional;
    protected boolean isInvalidationMode;
    protected boolean isTotalOrder;
+   private boolean applyStateInBulk;
+   private boolean writeStateToStores;
    protected volatile KeyInvalidationListener keyInvalidationListener; //for test purpose only!
 
    protected volatile CacheTopology cacheTopology;
@@ -631,6 +637,9 @@ private void applyChunk(Address sender, IntSet mySegments, StateChunk stateChunk
          if (stateChunk.getCacheEntries() != null) {
             doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries());
          }
+         if (stateChunk.getStoreEntries() != null) {
+            doApplyStoreEntries(sender, stateChunk.getSegmentId(), stateChunk.getStoreEntries());
+         }
 
          inboundTransfer.onStateReceived(stateChunk.getSegmentId(), stateChunk.isLastChunk());
       } else {
@@ -644,6 +653,12 @@ private void doApplyState(Address sender, int segmentId, Collection<InternalCach
       if (trace) log.tracef("Applying new state chunk for segment %d of cache %s from node %s: received %d cache entries",
             segmentId, cacheName, sender, cacheEntries.size());
 
+      if (applyStateInBulk) {
+         doApplyStateInBulk(segmentId, cacheEntries);
+         if (trace) log.tracef("Finished applying chunk of segment %d of cache %s", segmentId, cacheName);
+         return;
+      }
+
       // CACHE_MODE_LOCAL avoids handling by StateTransferInterceptor and any potential locks in StateTransferLock
       boolean transactional = transactionManager != null;
       for (InternalCacheEntry e : cacheEntries) {
@@ -688,6 +703,82 @@ private void doApplyState(Address sender, int segmentId, Collection<InternalCach
       if (trace) log.tracef("Finished applying chunk of segment %d of cache %s", segmentId, cacheName);
    }
 
+   /**
+    * Inserts the received entries directly in the data container instead of invoking a command for each of them, and
+    * writes them to the private stores with a single batch. The entries are still committed through the
+    * {@link CommitManager}, so an entry is discarded if a concurrent write already updated its key, and a concurrent
+    * write of a committed key waits for the batch to be written to the stores.
+    */
+   private void doApplyStateInBulk(int segmentId, Collection<InternalCacheEntry> cacheEntries) {
+      if (!cache.wired().getStatus().allowInvocations()) {
+         log.debugf("Cache %s is shutting down, stopping state transfer", cacheName);
+         return;
+      }
+      List<InternalCacheEntry> committed = new ArrayList<>(cacheEntries.size());
+      try {
+         // Don't allow the topology to change (and state transfer to remove the segment) while committing the entries
+         stateTransferLock.acquireSharedTopologyLock();
+         try {
+            if (!distributionManager.getCacheTopology().isSegmentWriteOwner(segmentId)) {
+               log.debugf("Discarding received cache entries for segment %d of cache %s because they do not belong to this node.",
+                     segmentId, cacheName);
+               return;
+            }
+            for (InternalCacheEntry e : cacheEntries) {
+               if (commitManager.commitStateTransferEntry(e, segmentId, writeStateToStores)) {
+                  committed.add(e);
+               }
+            }
+         } finally {
+            stateTransferLock.releaseSharedTopologyLock();
+         }
+      } finally {
+         // Also after a failure, the writes waiting for the committed keys are only released by the store write
+         if (writeStateToStores && !committed.isEmpty()) {
+            try {
+               // Shared stores are written by the owners that already have the entries
+               commitManager.writeStateTransferEntries(committed, STATE_TRANSFER_FLAGS);
+            } catch (PersistenceException ex) {
+               log.errorf(ex, "Failed to write %d received cache entries of segment %d of cache %s to the stores",
+                     committed.size(), segmentId, cacheName);
+            }
+         }
+      }
+   }
+
+   /**
+    * Writes the entries received in the marshalled form of the sender's store to the private stores, without
+    * unmarshalling their values and without loading them in memory. Only the keys are unmarshalled.
+    */
+   private void doApplyStoreEntries(Address sender, int segmentId, Collection<RawStoreEntry> storeEntries) {
+      if (trace) log.tracef("Applying store entries for segment %d of cache %s from node %s: received %d entries",
+            segmentId, cacheName, sender, storeEntries.size());
+
+      for (RawStoreEntry e : storeEntries) {
+         if (!cache.wired().getStatus().allowInvocations()) {
+            log.debugf("Cache %s is shutting down, stopping state transfer", cacheName);
+            return;
+         }
+         MarshallableEntry entry = marshallableEntryFactory.create(e.getKey(), e.getValue(), e.getMetadata(),
+               e.getCreated(), e.getLastUsed());
+         // Don't allow the topology to change (and state transfer to remove the segment) while writing the entry
+         stateTransferLock.acquireSharedTopologyLock();
+         try {
+            if (!distributionManager.getCacheTopology().isSegmentWriteOwner(segmentId)) {
+               log.debugf("Discarding received store entries for segment %d of cache %s because they do not belong to this node.",
+                     segmentId, cacheName);
+               return;
+            }
+            commitManager.commitStateTransferStoreEntry(entry, segmentId, STATE_TRANSFER_FLAGS);
+         } catch (PersistenceException ex) {
+            log.problemApplyingStateForKey(ex.getMessage(), entry.getKey(), ex);
+         } finally {
+            stateTransferLock.releaseSharedTopologyLock();
+         }
+      }
+      if (trace) log.tracef("Finished applying store entries of segment %d of cache %s", segmentId, cacheName);
+   }
+
    private void applyTransactions(Address sender, Collection<TransactionInfo> transactions, int topologyId) {
       log.debugf("Applying %d transactions for cache %s transferred from node %s", transactions.size(), cacheName, sender);
       if (isTransactional) {
@@ -728,6 +819,10 @@ public void start() {
       isTransactional = configuration.transaction().transactionMode().isTransactional();
       isTotalOrder = configuration.transaction().transactionProtocol().isTotalOrder();
       timeout = configuration.clustering().stateTransfer().timeout();
+      // Transactional, scattered and indexed caches and the caches with custom interceptors need the commands
+      applyStateInBulk = !isTransactional && !configuration.clustering().cacheMode().isScattered() &&
+            !configuration.indexing().index().isEnabled() && configuration.customInterceptors().interceptors().isEmpty();
+      writeStateToStores = configuration.persistence().usingStores() && !configuration.persistence().passivation();
 
       CacheMode mode = configuration.clustering().cacheMode();
       isFetchEnabled = mode.needsStateTransfer() &&
@@ -81,6 +81,8 @@ public class StateProviderImpl implements StateProvider {
 
    protected long timeout;
    protected int chunkSize;
+   protected int chunksInFlight;
+   private boolean rawPersistentState;
 
    /**
     * A map that keeps track of current outbound state transfers by destination address. There could be multiple transfers
@@ -124,6 +126,8 @@ public CompletableFuture<Void> onTopologyUpdate(CacheTopology cacheTopology, boo
    public void start() {
       timeout = configuration.clustering().stateTransfer().timeout();
       chunkSize = configuration.clustering().stateTransfer().chunkSize();
+      chunksInFlight = configuration.clustering().stateTransfer().chunksInFlight();
+      rawPersistentState = configuration.clustering().stateTransfer().rawPersistentState();
    }
 
    @Stop(priority = 0)
@@ -276,10 +280,11 @@ public void startOutboundTransfer(Address destination, int requestTopologyId, In
 
       // the destination node must already have an InboundTransferTask waiting for these segments
       OutboundTransferTask outboundTransfer = new OutboundTransferTask(destination, segments,
-            this.configuration.clustering().hash().numSegments(), chunkSize, requestTopologyId,
+            this.configuration.clustering().hash().numSegments(), chunkSize, chunksInFlight, requestTopologyId,
             keyPartitioner, this::onTaskCompletion, chunks -> {},
             OutboundTransferTask::defaultMapEntryFromDataContainer, OutboundTransferTask::defaultMapEntryFromStore,
-            dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName, applyState, false);
+            dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName, applyState, false,
+            applyState && rawPersistentState);
       addTransfer(outboundTransfer);
       outboundTransfer.execute(executorService);
    }
@@ -1869,4 +1869,7 @@ CacheConfigurationException offHeapMemoryEvictionSizeNotLargeEnoughForAddresses(
 
    @Message(value = "Invalidation mode only supports when-split=ALLOW_READ_WRITES", id = 550)
    CacheConfigurationException invalidationPartitionHandlingNotSuported();
+
+   @Message(value = "The off-heap index of the file store is unbounded and can not be combined with max-entries", id = 551)
+   CacheConfigurationException offHeapIndexWithMaxEntries();
 }
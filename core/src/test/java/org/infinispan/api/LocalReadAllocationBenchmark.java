@@ -0,0 +1,82 @@
+package org.infinispan.api;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.test.AbstractCacheBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.testng.annotations.Test;
+
+/**
+ * Measures the allocations of the reads of a local non-transactional cache, with the {@code gc.alloc.rate.norm}
+ * metric of the GC profiler.
+ * <p>
+ * The reads through a {@link org.infinispan.cache.impl.DecoratedCache} allocate a new invocation context every time,
+ * while the plain reads reuse the context of the previous read of the thread, so the difference between the two shows
+ * the bytes saved per operation.
+ *
+ * @since 10.0
+ */
+@Test(groups = "profiling", testName = "api.LocalReadAllocationBenchmark")
+public class LocalReadAllocationBenchmark extends AbstractCacheBenchmark {
+
+   public void performReadAllocationBenchmark() throws Exception {
+      run(options()
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.NANOSECONDS)
+            .addProfiler(GCProfiler.class));
+   }
+
+   @State(Scope.Benchmark)
+   public static class BenchmarkState extends CacheState {
+
+      private Cache<String, String> cache;
+      private AdvancedCache<String, String> decoratedCache;
+      private String[] keys;
+
+      @Override
+      protected ConfigurationBuilder configuration() {
+         return new ConfigurationBuilder();
+      }
+
+      @Override
+      protected void populate() {
+         cache = cacheManager.getCache();
+         decoratedCache = cache.getAdvancedCache().withFlags(Flag.SKIP_LISTENER_NOTIFICATION);
+         keys = new String[numberOfKeys];
+         for (int i = 0; i < numberOfKeys; i++) {
+            keys[i] = key(i);
+            cache.put(keys[i], "value-" + i);
+         }
+      }
+
+      @Override
+      public String randomKey() {
+         // The keys are created in advance, so that only the read allocates
+         return keys[ThreadLocalRandom.current().nextInt(numberOfKeys)];
+      }
+   }
+
+   @Benchmark
+   public String measureGet(BenchmarkState state) {
+      return state.cache.get(state.randomKey());
+   }
+
+   @Benchmark
+   public boolean measureContainsKey(BenchmarkState state) {
+      return state.cache.containsKey(state.randomKey());
+   }
+
+   @Benchmark
+   public String measureDecoratedGet(BenchmarkState state) {
+      return state.decoratedCache.get(state.randomKey());
+   }
+}
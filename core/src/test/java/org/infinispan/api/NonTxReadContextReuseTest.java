@@ -0,0 +1,84 @@
+package org.infinispan.api;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryVisited;
+import org.infinispan.notifications.cachelistener.event.CacheEntryVisitedEvent;
+import org.infinispan.test.Exceptions;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the reads of a non-transactional cache, which reuse the invocation context of the previous read of the
+ * thread, are not affected by reads nested in a listener or by a failed read.
+ *
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "api.NonTxReadContextReuseTest")
+@CleanupAfterMethod
+public class NonTxReadContextReuseTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager(new ConfigurationBuilder());
+   }
+
+   public void testReadFromListener() {
+      cache.put("k1", "v1");
+      cache.put("k2", "v2");
+      NestedReadListener listener = new NestedReadListener(cache);
+      cache.addListener(listener);
+
+      assertEquals("v1", cache.get("k1"));
+      assertEquals("v2", listener.nestedValue);
+      assertEquals("v1", cache.getCacheEntry("k1").getValue());
+      assertTrue(cache.containsKey("k1"));
+      assertFalse(cache.containsKey("k3"));
+   }
+
+   public void testReadAfterFailure() {
+      cache.put("k1", "v1");
+      cache.put("fail", "v");
+      cache.addListener(new FailingListener());
+
+      Exceptions.expectExceptionNonStrict(RuntimeException.class, () -> cache.get("fail"));
+      assertEquals("v1", cache.get("k1"));
+      assertNull(cache.get("k2"));
+   }
+
+   @Listener
+   public static class NestedReadListener {
+      private final Cache<Object, Object> cache;
+      volatile Object nestedValue;
+
+      NestedReadListener(Cache<Object, Object> cache) {
+         this.cache = cache;
+      }
+
+      @CacheEntryVisited
+      public void entryVisited(CacheEntryVisitedEvent<Object, Object> event) {
+         if (event.isPre() && "k1".equals(event.getKey())) {
+            nestedValue = cache.get("k2");
+         }
+      }
+   }
+
+   @Listener
+   public static class FailingListener {
+      @CacheEntryVisited
+      public void entryVisited(CacheEntryVisitedEvent<Object, Object> event) {
+         if ("fail".equals(event.getKey())) {
+            throw new IllegalStateException("Induced failure");
+         }
+      }
+   }
+}
@@ -146,6 +146,11 @@ public void check(ConfigurationBuilderHolder holder) {
                   assertEquals(proto1.getProtocolName(), proto1.getProperties(), proto2.getProperties());
                }
             }
+
+            Configuration c = getConfiguration(holder, "dist");
+            assertEquals(4, c.clustering().stateTransfer().chunksInFlight());
+            assertTrue(c.clustering().stateTransfer().rawPersistentState());
+            assertTrue(c.clustering().segmentLanes());
          }
       },
 
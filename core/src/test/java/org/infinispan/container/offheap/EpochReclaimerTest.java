@@ -0,0 +1,79 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+/**
+ * @since 10.0
+ */
+@Test(groups = "unit", testName = "container.offheap.EpochReclaimerTest")
+public class EpochReclaimerTest {
+
+   public void testBatchDeallocatedWithoutReaders() {
+      RecordingAllocator allocator = new RecordingAllocator();
+      EpochReclaimer reclaimer = new EpochReclaimer(allocator);
+
+      for (int i = 1; i < EpochReclaimer.BATCH_SIZE; ++i) {
+         reclaimer.retire(i, 16);
+      }
+      assertEquals(0, allocator.deallocated.size());
+
+      reclaimer.retire(EpochReclaimer.BATCH_SIZE, 16);
+      assertEquals(EpochReclaimer.BATCH_SIZE, allocator.deallocated.size());
+   }
+
+   public void testDeallocationDeferredWhileReading() {
+      RecordingAllocator allocator = new RecordingAllocator();
+      EpochReclaimer reclaimer = new EpochReclaimer(allocator);
+
+      int token = reclaimer.enter();
+      for (int i = 1; i <= 1000; ++i) {
+         reclaimer.retire(i, 16);
+      }
+      // The reader may still be reading any of the retired entries
+      reclaimer.reclaim();
+      assertEquals(0, allocator.deallocated.size());
+
+      reclaimer.exit(token);
+      reclaimer.reclaim();
+      assertEquals(1000, allocator.deallocated.size());
+   }
+
+   public void testReclaimAll() {
+      RecordingAllocator allocator = new RecordingAllocator();
+      EpochReclaimer reclaimer = new EpochReclaimer(allocator);
+
+      int token = reclaimer.enter();
+      reclaimer.retire(1, 16);
+      reclaimer.retire(2, 16);
+      reclaimer.exit(token);
+
+      reclaimer.reclaimAll();
+      assertEquals(2, allocator.deallocated.size());
+   }
+
+   private static class RecordingAllocator implements OffHeapMemoryAllocator {
+      private final Set<Long> deallocated = new HashSet<>();
+
+      @Override
+      public long allocate(long memoryLength) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void deallocate(long memoryAddress, long size) {
+         if (!deallocated.add(memoryAddress)) {
+            throw new IllegalStateException("Deallocated twice: " + memoryAddress);
+         }
+      }
+
+      @Override
+      public long getAllocatedAmount() {
+         return 0;
+      }
+   }
+}
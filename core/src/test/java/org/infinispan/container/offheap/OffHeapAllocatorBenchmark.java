@@ -0,0 +1,79 @@
+package org.infinispan.container.offheap;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.test.AbstractCacheBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.testng.annotations.Test;
+
+/**
+ * Compares the put and replace throughput of an off heap cache with the pooled and the unpooled allocator, while
+ * entries of different sizes are constantly replaced.
+ *
+ * @since 10.0
+ */
+@Test(groups = "profiling", testName = "container.offheap.OffHeapAllocatorBenchmark")
+public class OffHeapAllocatorBenchmark extends AbstractCacheBenchmark {
+
+   public void performAllocatorBenchmark() throws Exception {
+      run(options()
+            .mode(Mode.Throughput)
+            .timeUnit(TimeUnit.MILLISECONDS)
+            .param("numberOfKeys", "100000"));
+   }
+
+   @State(Scope.Benchmark)
+   public static class BenchmarkState extends CacheState {
+
+      @Param({"false", "true"})
+      public boolean pooledAllocation;
+
+      @Param({"512"})
+      public int maxValueSize;
+
+      private Cache<String, byte[]> cache;
+      private byte[][] values;
+
+      @Override
+      protected ConfigurationBuilder configuration() {
+         ConfigurationBuilder builder = new ConfigurationBuilder();
+         builder.memory().storageType(StorageType.OFF_HEAP).pooledAllocation(pooledAllocation);
+         return builder;
+      }
+
+      @Override
+      protected void populate() {
+         cache = cacheManager.getCache();
+         // Values of every size class, so that replacing an entry usually changes its size
+         values = new byte[maxValueSize / 16][];
+         for (int i = 0; i < values.length; i++) {
+            values[i] = new byte[(i + 1) * 16];
+         }
+         for (int i = 0; i < numberOfKeys; i++) {
+            cache.put(key(i), randomValue());
+         }
+      }
+
+      byte[] randomValue() {
+         return values[ThreadLocalRandom.current().nextInt(values.length)];
+      }
+   }
+
+   @Benchmark
+   public byte[] measurePut(BenchmarkState state) {
+      return state.cache.put(state.randomKey(), state.randomValue());
+   }
+
+   @Benchmark
+   public byte[] measureReplace(BenchmarkState state) {
+      return state.cache.replace(state.randomKey(), state.randomValue());
+   }
+}
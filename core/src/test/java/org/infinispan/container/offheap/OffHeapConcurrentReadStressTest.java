@@ -0,0 +1,124 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.infinispan.commons.util.MemoryUnit;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+/**
+ * Reads off-heap entries without locks while other threads replace, remove, evict and clear them. A reader that
+ * followed a freed or reused entry would return a value written for another key.
+ *
+ * @since 10.0
+ */
+@Test(groups = "stress", testName = "container.offheap.OffHeapConcurrentReadStressTest", timeOut = 15 * 60 * 1000)
+public class OffHeapConcurrentReadStressTest extends SingleCacheManagerTest {
+   private static final int KEYS = 1000;
+   private static final int READERS = 4;
+   private static final int WRITERS = 4;
+   private static final long DURATION = TimeUnit.SECONDS.toMillis(30);
+
+   private boolean bounded;
+
+   @Factory
+   public Object[] factory() {
+      return new Object[]{
+            new OffHeapConcurrentReadStressTest(),
+            new OffHeapConcurrentReadStressTest().bounded(true),
+      };
+   }
+
+   OffHeapConcurrentReadStressTest bounded(boolean bounded) {
+      this.bounded = bounded;
+      return this;
+   }
+
+   @Override
+   protected String parameters() {
+      return bounded ? "[bounded]" : null;
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory().storageType(StorageType.OFF_HEAP);
+      if (bounded) {
+         // Smaller than the entries, so that writes also evict entries
+         builder.memory().evictionType(EvictionType.MEMORY).size(MemoryUnit.KILOBYTES.toBytes(64));
+      }
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testReadsWithConcurrentWrites() throws Exception {
+      OffHeapMemoryAllocator allocator = TestingUtil.extractComponent(cache, OffHeapMemoryAllocator.class);
+      long allocatedWhenEmpty = allocator.getAllocatedAmount();
+      AtomicBoolean running = new AtomicBoolean(true);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < READERS; i++) {
+         futures.add(fork(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (running.get()) {
+               String key = key(random.nextInt(KEYS));
+               String value = (String) cache.get(key);
+               assertTrue("Read " + value + " for " + key, value == null || value.startsWith(key + "="));
+               cache.containsKey(key);
+            }
+         }));
+      }
+      for (int i = 0; i < WRITERS; i++) {
+         futures.add(fork(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (long version = 0; running.get(); version++) {
+               String key = key(random.nextInt(KEYS));
+               switch (random.nextInt(10)) {
+                  case 0:
+                     cache.remove(key);
+                     break;
+                  case 1:
+                     cache.replace(key, key + "=" + version);
+                     break;
+                  default:
+                     // Values of different lengths, so that a replaced entry does not fit in the freed memory
+                     cache.put(key, key + "=" + version + new String(new char[random.nextInt(64)]));
+               }
+            }
+         }));
+      }
+      futures.add(fork(() -> {
+         while (running.get()) {
+            Thread.sleep(100);
+            cache.clear();
+         }
+      }));
+
+      Thread.sleep(DURATION);
+      running.set(false);
+      for (Future<?> future : futures) {
+         future.get(10, TimeUnit.SECONDS);
+      }
+
+      // Everything that was removed is deallocated once there are no readers left
+      cache.clear();
+      assertEquals(allocatedWhenEmpty, allocator.getAllocatedAmount());
+   }
+
+   private static String key(int i) {
+      return "k" + i;
+   }
+}
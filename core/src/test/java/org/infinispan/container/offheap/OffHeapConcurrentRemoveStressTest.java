@@ -0,0 +1,229 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Reads entries of an {@link OffHeapConcurrentMap} without locks while other threads remove and replace them. The
+ * memory deallocated by the map is only released at the end of the test, so that a reader that follows a deallocated
+ * entry is detected instead of reading reused memory.
+ *
+ * @since 10.0
+ */
+@Test(groups = "stress", testName = "container.offheap.OffHeapConcurrentRemoveStressTest", timeOut = 15 * 60 * 1000)
+public class OffHeapConcurrentRemoveStressTest extends SingleCacheManagerTest {
+   // Few keys in few buckets, so that readers traverse entries that are concurrently removed
+   private static final int KEYS = 64;
+   private static final int BUCKETS = 16;
+   private static final int READERS = 4;
+   private static final int WRITERS = 4;
+   private static final int OPERATIONS = 200_000;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory().storageType(StorageType.OFF_HEAP);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testReadsWithConcurrentRemoves() throws Exception {
+      DeferringAllocator allocator =
+            new DeferringAllocator(TestingUtil.extractComponent(cache, OffHeapMemoryAllocator.class));
+      CheckingEntryFactory entryFactory =
+            new CheckingEntryFactory(TestingUtil.extractComponent(cache, OffHeapEntryFactory.class), allocator);
+      OffHeapConcurrentMap map = new OffHeapConcurrentMap(BUCKETS, allocator, entryFactory, null);
+      map.start();
+      try {
+         AtomicBoolean running = new AtomicBoolean(true);
+         List<Future<?>> readers = new ArrayList<>();
+         for (int i = 0; i < READERS; i++) {
+            readers.add(fork(() -> {
+               ThreadLocalRandom random = ThreadLocalRandom.current();
+               while (running.get()) {
+                  WrappedBytes key = key(random.nextInt(KEYS));
+                  InternalCacheEntry<WrappedBytes, WrappedBytes> entry = map.peek(key);
+                  if (entry != null) {
+                     String value = new String(entry.getValue().getBytes(), StandardCharsets.UTF_8);
+                     assertTrue("Read " + value + " for " + key, value.startsWith(asString(key) + "="));
+                  }
+                  map.containsKey(key);
+               }
+            }));
+         }
+         List<Future<?>> writers = new ArrayList<>();
+         for (int i = 0; i < WRITERS; i++) {
+            writers.add(fork(() -> {
+               ThreadLocalRandom random = ThreadLocalRandom.current();
+               for (int version = 0; version < OPERATIONS; version++) {
+                  WrappedBytes key = key(random.nextInt(KEYS));
+                  if (random.nextBoolean()) {
+                     map.remove(key);
+                  } else {
+                     map.put(key, entry(key, version));
+                  }
+               }
+            }));
+         }
+         for (Future<?> writer : writers) {
+            writer.get(5, TimeUnit.MINUTES);
+         }
+         running.set(false);
+         for (Future<?> reader : readers) {
+            reader.get(10, TimeUnit.SECONDS);
+         }
+
+         assertEquals("Deallocated entries were read", 0, entryFactory.useAfterFree.get());
+      } finally {
+         map.stop();
+         allocator.release();
+      }
+   }
+
+   private static WrappedBytes key(int i) {
+      return new WrappedByteArray(("k" + i).getBytes(StandardCharsets.UTF_8));
+   }
+
+   private static String asString(WrappedBytes bytes) {
+      return new String(bytes.getBytes(), StandardCharsets.UTF_8);
+   }
+
+   @SuppressWarnings("unchecked")
+   private static InternalCacheEntry<WrappedBytes, WrappedBytes> entry(WrappedBytes key, int version) {
+      byte[] value = (asString(key) + "=" + version).getBytes(StandardCharsets.UTF_8);
+      return new ImmortalCacheEntry(key, new WrappedByteArray(value));
+   }
+
+   /**
+    * Records the deallocated memory instead of releasing it, so that it can't be reused while the test runs.
+    */
+   private static class DeferringAllocator implements OffHeapMemoryAllocator {
+      private final OffHeapMemoryAllocator delegate;
+      final Map<Long, Long> deallocated = new ConcurrentHashMap<>();
+
+      DeferringAllocator(OffHeapMemoryAllocator delegate) {
+         this.delegate = delegate;
+      }
+
+      @Override
+      public long allocate(long memoryLength) {
+         return delegate.allocate(memoryLength);
+      }
+
+      @Override
+      public void deallocate(long memoryAddress, long size) {
+         Long previous = deallocated.put(memoryAddress, size);
+         assertEquals("Deallocated twice: " + memoryAddress, null, previous);
+      }
+
+      @Override
+      public long getAllocatedAmount() {
+         return delegate.getAllocatedAmount();
+      }
+
+      void release() {
+         deallocated.forEach(delegate::deallocate);
+         deallocated.clear();
+      }
+   }
+
+   /**
+    * Counts the reads of entries that were already deallocated.
+    */
+   private static class CheckingEntryFactory implements OffHeapEntryFactory {
+      private final OffHeapEntryFactory delegate;
+      private final Set<Long> deallocated;
+      final AtomicLong useAfterFree = new AtomicLong();
+
+      CheckingEntryFactory(OffHeapEntryFactory delegate, DeferringAllocator allocator) {
+         this.delegate = delegate;
+         this.deallocated = allocator.deallocated.keySet();
+      }
+
+      private long check(long address) {
+         if (deallocated.contains(address)) {
+            useAfterFree.incrementAndGet();
+         }
+         return address;
+      }
+
+      @Override
+      public long create(WrappedBytes key, WrappedBytes value, Metadata metadata) {
+         return delegate.create(key, value, metadata);
+      }
+
+      @Override
+      public long getSize(long address, boolean includeAllocationOverhead) {
+         return delegate.getSize(check(address), includeAllocationOverhead);
+      }
+
+      @Override
+      public long getNext(long address) {
+         return delegate.getNext(check(address));
+      }
+
+      @Override
+      public void setNext(long address, long value) {
+         delegate.setNext(check(address), value);
+      }
+
+      @Override
+      public int getHashCode(long address) {
+         return delegate.getHashCode(check(address));
+      }
+
+      @Override
+      public byte[] getKey(long address) {
+         return delegate.getKey(check(address));
+      }
+
+      @Override
+      public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
+         return delegate.fromMemory(check(address));
+      }
+
+      @Override
+      public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address, WrappedBytes key) {
+         return delegate.fromMemory(check(address), key);
+      }
+
+      @Override
+      public boolean equalsKey(long address, WrappedBytes wrappedBytes) {
+         return delegate.equalsKey(check(address), wrappedBytes);
+      }
+
+      @Override
+      public boolean isExpired(long address) {
+         return delegate.isExpired(check(address));
+      }
+
+      @Override
+      public long calculateSize(WrappedBytes key, WrappedBytes value, Metadata metadata) {
+         return delegate.calculateSize(key, value, metadata);
+      }
+   }
+}
@@ -0,0 +1,83 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+/**
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "container.offheap.PooledOffHeapMemoryAllocatorTest")
+public class PooledOffHeapMemoryAllocatorTest {
+
+   public void testAllocatedAmountMatchesUnpooled() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      try {
+         long small = allocator.allocate(23);
+         long large = allocator.allocate(PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE + 1);
+         assertEquals(UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(23) +
+               UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE + 1),
+               allocator.getAllocatedAmount());
+
+         allocator.deallocate(small, 23);
+         allocator.deallocate(large, PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE + 1);
+         assertEquals(0, allocator.getAllocatedAmount());
+      } finally {
+         allocator.stop();
+      }
+   }
+
+   public void testBlocksAreDistinctAndReused() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      try {
+         int count = PooledOffHeapMemoryAllocator.SLAB_SIZE / 64;
+         long[] addresses = new long[count];
+         Set<Long> distinct = new HashSet<>();
+         for (int i = 0; i < count; ++i) {
+            addresses[i] = allocator.allocate(64);
+            assertEquals(0, addresses[i] & 15);
+            assertTrue(distinct.add(addresses[i]));
+            // Write the whole block, so that overlapping blocks would corrupt each other
+            for (int j = 0; j < 64; j += 8) {
+               UnsafeHolder.UNSAFE.putLong(addresses[i] + j, i);
+            }
+         }
+         for (int i = 0; i < count; ++i) {
+            assertEquals(i, UnsafeHolder.UNSAFE.getLong(addresses[i] + 56));
+         }
+         long slabs = allocator.getSlabAmount();
+         assertTrue(slabs > 0);
+
+         for (long address : addresses) {
+            allocator.deallocate(address, 64);
+         }
+         for (int i = 0; i < count; ++i) {
+            addresses[i] = allocator.allocate(64);
+         }
+         // The freed blocks are reused instead of carving new slabs
+         assertEquals(slabs, allocator.getSlabAmount());
+         for (long address : addresses) {
+            allocator.deallocate(address, 64);
+         }
+      } finally {
+         allocator.stop();
+      }
+      assertEquals(0, allocator.getSlabAmount());
+   }
+
+   public void testSlabsKeptWhileAllocated() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      long address = allocator.allocate(100);
+      allocator.stop();
+      assertFalse(allocator.getSlabAmount() == 0);
+
+      allocator.deallocate(address, 100);
+      allocator.stop();
+      assertEquals(0, allocator.getSlabAmount());
+   }
+}
@@ -0,0 +1,54 @@
+package org.infinispan.distribution;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the {@link DistSyncFuncTest} tests with the backup writes executed in a lane for each segment.
+ *
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "distribution.DistSyncSegmentLanesFuncTest")
+public class DistSyncSegmentLanesFuncTest extends DistSyncFuncTest {
+
+   @Override
+   protected ConfigurationBuilder buildConfiguration() {
+      ConfigurationBuilder builder = super.buildConfiguration();
+      builder.clustering().segmentLanes(true);
+      return builder;
+   }
+
+   public void testConcurrentWritesAreOrderedOnBackups() throws Exception {
+      int numKeys = 20;
+      int numWrites = 100;
+      List<Future<Void>> futures = new ArrayList<>();
+      for (Cache<Object, String> cache : caches) {
+         futures.add(fork(() -> {
+            for (int i = 0; i < numWrites; i++) {
+               cache.put("k" + (i % numKeys), "v" + i);
+            }
+            return null;
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get();
+      }
+
+      for (int i = 0; i < numKeys; i++) {
+         String key = "k" + i;
+         Cache<Object, String>[] owners = getOwners(key);
+         String value = owners[0].getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).get(key);
+         for (Cache<Object, String> owner : owners) {
+            assertEquals(key, value, owner.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).get(key));
+         }
+      }
+   }
+}
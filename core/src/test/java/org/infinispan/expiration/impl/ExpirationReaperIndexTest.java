@@ -0,0 +1,178 @@
+package org.infinispan.expiration.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.ControlledTimeService;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the expiration reaper only expires the due entries registered in the expiration index.
+ */
+@Test(groups = "functional", testName = "expiration.impl.ExpirationReaperIndexTest")
+public class ExpirationReaperIndexTest extends SingleCacheManagerTest {
+
+   private static final int SIZE = 10;
+   // The reaper must not run on its own during the test
+   private static final long WAKE_UP_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+   private final ControlledTimeService timeService = new ControlledTimeService();
+   private StorageType storage;
+   private ExpirationManagerImpl<Object, Object> expirationManager;
+   private InternalDataContainer<Object, Object> dataContainer;
+
+   @Factory
+   public Object[] factory() {
+      return new Object[]{
+            new ExpirationReaperIndexTest().withStorage(StorageType.OBJECT),
+            new ExpirationReaperIndexTest().withStorage(StorageType.OFF_HEAP),
+      };
+   }
+
+   private ExpirationReaperIndexTest withStorage(StorageType storage) {
+      this.storage = storage;
+      return this;
+   }
+
+   @Override
+   protected String parameters() {
+      return "[" + storage + "]";
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.expiration().wakeUpInterval(WAKE_UP_INTERVAL).memory().storageType(storage);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+      TestingUtil.replaceComponent(cm, TimeService.class, timeService, true);
+      cache = cm.getCache();
+      expirationManager = (ExpirationManagerImpl) TestingUtil.extractComponent(cache, InternalExpirationManager.class);
+      dataContainer = TestingUtil.extractComponent(cache, InternalDataContainer.class);
+      return cm;
+   }
+
+   public void testOnlyDueEntriesExpire() {
+      for (int i = 0; i < SIZE; i++) {
+         cache.put("short-" + i, "value", 2, TimeUnit.HOURS);
+         cache.put("long-" + i, "value", 4, TimeUnit.HOURS);
+         cache.put("immortal-" + i, "value");
+      }
+
+      timeService.advance(TimeUnit.HOURS.toMillis(1));
+      expirationManager.processExpiration();
+      assertEquals(0, expirationManager.getLastReaperRunExpired());
+      assertEquals(3 * SIZE, dataContainer.sizeIncludingExpired());
+
+      timeService.advance(TimeUnit.HOURS.toMillis(2));
+      expirationManager.processExpiration();
+      assertEquals(SIZE, expirationManager.getLastReaperRunExpired());
+      assertEquals(2 * SIZE, dataContainer.sizeIncludingExpired());
+
+      timeService.advance(TimeUnit.HOURS.toMillis(2));
+      expirationManager.processExpiration();
+      assertEquals(SIZE, expirationManager.getLastReaperRunExpired());
+      assertEquals(SIZE, dataContainer.sizeIncludingExpired());
+   }
+
+   public void testUpdatedEntryIsNotExpired() {
+      cache.put("key", "value", 2, TimeUnit.HOURS);
+      cache.put("key", "value2", 4, TimeUnit.HOURS);
+
+      timeService.advance(TimeUnit.HOURS.toMillis(3));
+      expirationManager.processExpiration();
+      assertEquals(0, expirationManager.getLastReaperRunExpired());
+      assertEquals(1, dataContainer.sizeIncludingExpired());
+
+      timeService.advance(TimeUnit.HOURS.toMillis(2));
+      expirationManager.processExpiration();
+      assertEquals(1, expirationManager.getLastReaperRunExpired());
+      assertEquals(0, dataContainer.sizeIncludingExpired());
+   }
+
+   public void testTouchedEntryIsNotExpired() {
+      cache.put("key", "value", -1, TimeUnit.HOURS, 3, TimeUnit.HOURS);
+
+      timeService.advance(TimeUnit.HOURS.toMillis(2));
+      assertNotNull(cache.get("key"));
+
+      timeService.advance(TimeUnit.HOURS.toMillis(2));
+      expirationManager.processExpiration();
+      assertEquals(0, expirationManager.getLastReaperRunExpired());
+      assertEquals(1, dataContainer.sizeIncludingExpired());
+
+      timeService.advance(TimeUnit.HOURS.toMillis(2));
+      expirationManager.processExpiration();
+      assertEquals(1, expirationManager.getLastReaperRunExpired());
+      assertEquals(0, dataContainer.sizeIncludingExpired());
+   }
+
+   public void testRemovedEntryIsSkipped() {
+      for (int i = 0; i < SIZE; i++) {
+         cache.put("key-" + i, "value", 2, TimeUnit.HOURS);
+      }
+      for (int i = 0; i < SIZE; i += 2) {
+         cache.remove("key-" + i);
+      }
+
+      timeService.advance(TimeUnit.HOURS.toMillis(3));
+      expirationManager.processExpiration();
+      assertEquals(SIZE / 2, expirationManager.getLastReaperRunExpired());
+      assertEquals(0, dataContainer.sizeIncludingExpired());
+   }
+
+   public void testEntryExpiresInTheFirstRunAfterItsLifespan() {
+      // The clock does not start at a multiple of the wake up interval
+      cache.put("key", "value", 2, TimeUnit.HOURS);
+
+      timeService.advance(TimeUnit.HOURS.toMillis(2) + 1);
+      expirationManager.processExpiration();
+      assertEquals(1, expirationManager.getLastReaperRunExpired());
+      assertEquals(0, dataContainer.sizeIncludingExpired());
+   }
+
+   public void testRemovedKeysLeaveTheIndex() {
+      ExpirationIndex<Object> index = expirationManager.expirationIndex;
+      if (storage == StorageType.OFF_HEAP) {
+         // The keys of off-heap entries are never copied to the heap
+         assertNull(index);
+         return;
+      }
+
+      for (int i = 0; i < SIZE; i++) {
+         cache.put("key-" + i, "value", 2, TimeUnit.HOURS);
+      }
+      assertEquals(SIZE, index.size());
+
+      // Updating an entry moves its key instead of adding it again
+      for (int i = 0; i < SIZE; i++) {
+         cache.put("key-" + i, "value2", 4, TimeUnit.HOURS);
+      }
+      assertEquals(SIZE, index.size());
+
+      cache.put("key-0", "immortal");
+      assertEquals(SIZE - 1, index.size());
+      cache.remove("key-1");
+      assertEquals(SIZE - 2, index.size());
+      cache.evict("key-2");
+      assertEquals(SIZE - 3, index.size());
+      dataContainer.compute("key-3", (k, oldEntry, factory) -> null);
+      assertEquals(SIZE - 4, index.size());
+
+      timeService.advance(TimeUnit.HOURS.toMillis(5));
+      expirationManager.processExpiration();
+      assertEquals(SIZE - 4, expirationManager.getLastReaperRunExpired());
+      assertEquals(0, index.size());
+   }
+}
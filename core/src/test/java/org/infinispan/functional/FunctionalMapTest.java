@@ -60,6 +60,7 @@
 import org.infinispan.functional.impl.ReadOnlyMapImpl;
 import org.infinispan.functional.impl.ReadWriteMapImpl;
 import org.infinispan.functional.impl.WriteOnlyMapImpl;
+import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.test.CacheManagerCallable;
 import org.infinispan.test.fwk.InTransactionMode;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
@@ -220,6 +221,16 @@ <K> void doReadWriteGetsEmpty(Supplier<K> keySupplier, ReadWriteMap<K, String> m
       await(map.eval(key, returnReadWriteFind()).thenAccept(v -> assertEquals(Optional.empty(), v)));
    }
 
+   public void testLocalReadWriteFindsVersionOfCacheEntry() {
+      Integer key = supplyIntKey().get();
+      getAdvancedCache(cacheManagers.get(0), null).put(key, "one",
+            new EmbeddedMetadata.Builder().version(new NumericVersion(7)).build());
+      Optional<MetaEntryVersion> version = await(rw(fmapL1).eval(key,
+            (SerializableFunction<ReadWriteEntryView<Integer, String>, Optional<MetaEntryVersion>>) view -> view.findMetaParam(MetaEntryVersion.class)));
+      assertTrue(version.isPresent());
+      assertEquals(EQUAL, version.get().get().compareTo(new NumericVersion(7)));
+   }
+
    public void testLocalReadWriteValuesReturnPrevious() {
       doReadWriteConstantReturnPrev(supplyIntKey(), rw(fmapL1), rw(fmapL2));
    }
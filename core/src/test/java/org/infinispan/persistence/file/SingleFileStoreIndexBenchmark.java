@@ -0,0 +1,90 @@
+package org.infinispan.persistence.file;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.marshall.persistence.impl.MarshalledEntryUtil;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.test.AbstractCacheBenchmark;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.testng.annotations.Test;
+
+/**
+ * Compares the heap footprint and the load latency of the {@link SingleFileStore} with its index on the heap and in
+ * native memory. The heap used by the populated store is logged after each setup.
+ *
+ * @since 10.0
+ */
+@Test(groups = "profiling", testName = "persistence.file.SingleFileStoreIndexBenchmark")
+public class SingleFileStoreIndexBenchmark extends AbstractCacheBenchmark {
+   private static final Log log = LogFactory.getLog(SingleFileStoreIndexBenchmark.class);
+
+   public void performIndexBenchmark() throws Exception {
+      run(options()
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.NANOSECONDS)
+            .shouldDoGC(true)
+            .param("numberOfKeys", "1000000"));
+   }
+
+   @State(Scope.Benchmark)
+   public static class BenchmarkState extends CacheState {
+
+      @Param({"false", "true"})
+      public boolean offHeapIndex;
+
+      private String location;
+      private SingleFileStore<String, String> store;
+
+      @Override
+      protected ConfigurationBuilder configuration() {
+         location = TestingUtil.tmpDirectory(SingleFileStoreIndexBenchmark.class);
+         ConfigurationBuilder builder = new ConfigurationBuilder();
+         builder.persistence().addSingleFileStore().location(location).offHeapIndex(offHeapIndex).purgeOnStartup(true);
+         return builder;
+      }
+
+      @Override
+      protected void populate() {
+         Cache<String, String> cache = cacheManager.getCache();
+         store = TestingUtil.getFirstWriter(cache);
+
+         MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+         System.gc();
+         long heapBefore = memory.getHeapMemoryUsage().getUsed();
+         for (int i = 0; i < numberOfKeys; i++) {
+            store.write(MarshalledEntryUtil.create(key(i), "value-" + i, cache));
+         }
+         System.gc();
+         long heapAfter = memory.getHeapMemoryUsage().getUsed();
+         log.infof("Index footprint with offHeapIndex=%s: heap %d bytes (%d bytes/entry)", offHeapIndex,
+               heapAfter - heapBefore, (heapAfter - heapBefore) / numberOfKeys);
+      }
+
+      @Override
+      protected void afterStop() {
+         Util.recursiveFileRemove(location);
+      }
+   }
+
+   @Benchmark
+   public MarshallableEntry<String, String> measureLoad(BenchmarkState state) {
+      return state.store.loadEntry(state.randomKey());
+   }
+
+   @Benchmark
+   public boolean measureContains(BenchmarkState state) {
+      return state.store.contains(state.randomKey());
+   }
+}
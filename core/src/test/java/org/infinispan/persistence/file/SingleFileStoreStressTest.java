@@ -92,6 +92,39 @@ public void testReadsAndWrites() throws ExecutionException, InterruptedException
       }
    }
 
+   public void testConcurrentReadsWritesAndDeletes() throws ExecutionException, InterruptedException {
+      final int threads = 4;
+
+      Cache<String, String> cache = cacheManager.getCache(CACHE_NAME);
+      final SingleFileStore store = TestingUtil.getFirstWriter(cache);
+      assertEquals(0, store.size());
+
+      final List<String> keys = populateStore(20, 0, store, cache);
+
+      final CountDownLatch stopLatch = new CountDownLatch(1);
+      Future[] futures = new Future[threads * 3];
+      for (int i = 0; i < threads; i++) {
+         futures[3 * i] = fork(stopOnException(new WriteTask(store, cache, keys, stopLatch), stopLatch));
+         futures[3 * i + 1] = fork(stopOnException(new ReadTask(store, keys, true, stopLatch), stopLatch));
+         futures[3 * i + 2] = fork(stopOnException(new DeleteTask(store, keys, stopLatch), stopLatch));
+      }
+
+      stopLatch.await(2, SECONDS);
+      stopLatch.countDown();
+
+      for (Future future : futures) {
+         future.get();
+      }
+
+      // Every remaining entry must still be readable
+      for (String key : keys) {
+         MarshallableEntry entry = store.loadEntry(key);
+         if (entry != null) {
+            assertTrue(((String) entry.getValue()).startsWith(key));
+         }
+      }
+   }
+
    public void testWritesAndClear() throws ExecutionException, InterruptedException {
       final int writerThreads = 2;
       final int readerThreads = 2;
@@ -382,6 +415,28 @@ public Random call() throws Exception {
       }
    }
 
+   private class DeleteTask implements Callable<Object> {
+      final CountDownLatch stopLatch;
+      final List<String> keys;
+      final SingleFileStore store;
+
+      DeleteTask(SingleFileStore store, List<String> keys, CountDownLatch stopLatch) {
+         this.stopLatch = stopLatch;
+         this.keys = keys;
+         this.store = store;
+      }
+
+      @Override
+      public Object call() throws Exception {
+         Random random = new Random();
+         while (stopLatch.getCount() != 0) {
+            store.delete(keys.get(random.nextInt(keys.size())));
+            MILLISECONDS.sleep(1);
+         }
+         return null;
+      }
+   }
+
    private class ClearTask implements Callable<Object> {
       final CountDownLatch stopLatch;
       final SingleFileStore store;
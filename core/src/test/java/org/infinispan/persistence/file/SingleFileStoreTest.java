@@ -1,13 +1,24 @@
 package org.infinispan.persistence.file;
 
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.Future;
+
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
 import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.marshall.persistence.impl.MarshalledEntryUtil;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.support.GroupCommitStatistics;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.SkipException;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Factory;
@@ -24,10 +35,15 @@ public class SingleFileStoreTest extends BaseStoreTest {
 
    protected String tmpDirectory;
    protected StorageType storage;
+   protected boolean offHeapIndex;
+   protected boolean memoryMappedReads;
+   protected boolean syncWrites;
+   private GroupCommitStatistics statistics;
 
    @Override
    protected String parameters() {
-      return "[" + storage + "]";
+      return "[" + storage + (offHeapIndex ? ", offHeapIndex" : "") + (memoryMappedReads ? ", memoryMappedReads" : "") +
+            (syncWrites ? ", syncWrites" : "") + "]";
    }
 
    @Factory
@@ -36,6 +52,12 @@ public Object[] factory() {
             new SingleFileStoreTest().withStorageType(StorageType.OFF_HEAP),
             new SingleFileStoreTest().withStorageType(StorageType.BINARY),
             new SingleFileStoreTest().withStorageType(StorageType.OBJECT),
+            new SingleFileStoreTest().withStorageType(StorageType.OFF_HEAP).offHeapIndex(true),
+            new SingleFileStoreTest().withStorageType(StorageType.OBJECT).offHeapIndex(true),
+            new SingleFileStoreTest().withStorageType(StorageType.OFF_HEAP).memoryMappedReads(true),
+            new SingleFileStoreTest().withStorageType(StorageType.OBJECT).memoryMappedReads(true),
+            new SingleFileStoreTest().withStorageType(StorageType.OFF_HEAP).syncWrites(true),
+            new SingleFileStoreTest().withStorageType(StorageType.OBJECT).syncWrites(true),
       };
    }
 
@@ -44,6 +66,21 @@ SingleFileStoreTest withStorageType(StorageType storage) {
       return this;
    }
 
+   SingleFileStoreTest offHeapIndex(boolean offHeapIndex) {
+      this.offHeapIndex = offHeapIndex;
+      return this;
+   }
+
+   SingleFileStoreTest memoryMappedReads(boolean memoryMappedReads) {
+      this.memoryMappedReads = memoryMappedReads;
+      return this;
+   }
+
+   SingleFileStoreTest syncWrites(boolean syncWrites) {
+      this.syncWrites = syncWrites;
+      return this;
+   }
+
    @BeforeClass(alwaysRun = true)
    protected void setUpTempDir() {
       tmpDirectory = TestingUtil.tmpDirectory(getClass());
@@ -63,9 +100,97 @@ protected AdvancedLoadWriteStore createStore() {
             .persistence()
                .addStore(SingleFileStoreConfigurationBuilder.class)
                   .location(this.tmpDirectory)
+                  .offHeapIndex(offHeapIndex)
+                  .memoryMappedReads(memoryMappedReads)
+                  .syncWrites(syncWrites)
+                  .syncWritesMaxDelay(10)
             .memory()
                .storageType(storage);
-      store.init(createContext(configurationBuilder.build()));
+      InitializationContext ctx = createContext(configurationBuilder.build());
+      statistics = ctx.getCache().getAdvancedCache().getComponentRegistry().getComponent(GroupCommitStatistics.class);
+      store.init(ctx);
       return store;
    }
+
+   public void testOffHeapIndexResizeAndRebuild() {
+      if (!offHeapIndex)
+         throw new SkipException("Only applies to the off-heap index");
+
+      SingleFileStore store = (SingleFileStore) cl;
+      int numKeys = 100_000;
+      for (int i = 0; i < numKeys; i++) {
+         store.write(MarshalledEntryUtil.create("k" + i, "v" + i, getMarshaller()));
+      }
+      assertEquals(numKeys, store.size());
+
+      // Restart to rebuild the index from the file
+      store.stop();
+      store.start();
+      assertEquals(numKeys, store.size());
+      for (int i = 0; i < numKeys; i += 997) {
+         assertEquals("v" + i, store.loadEntry("k" + i).getValue());
+      }
+      assertTrue(store.getEntries() instanceof OffHeapFileEntryIndex);
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testOffHeapIndexWithMaxEntriesNotAllowed() {
+      ConfigurationBuilder configurationBuilder = new ConfigurationBuilder();
+      configurationBuilder.persistence()
+            .addStore(SingleFileStoreConfigurationBuilder.class)
+               .offHeapIndex(true)
+               .maxEntries(10);
+      configurationBuilder.build();
+   }
+
+   public void testReadsFromMappedWindowsAfterClear() {
+      if (!memoryMappedReads)
+         throw new SkipException("Only applies to memory mapped reads");
+
+      SingleFileStore store = (SingleFileStore) cl;
+      // Big enough for the file to span more than one mapped window, smaller files are never mapped
+      int numKeys = 80;
+      for (int round = 0; round < 2; round++) {
+         for (int i = 0; i < numKeys; i++) {
+            store.write(MarshalledEntryUtil.create("k" + i, mappedValue(round, i), getMarshaller()));
+         }
+         for (int i = 0; i < numKeys; i++) {
+            assertEquals(mappedValue(round, i), store.loadEntry("k" + i).getValue());
+         }
+         assertTrue(store.getMappedWindowCount() > 0);
+         store.clear();
+         assertEquals(0, store.getMappedWindowCount());
+      }
+   }
+
+   private static String mappedValue(int round, int i) {
+      char[] chars = new char[1024 * 1024];
+      Arrays.fill(chars, (char) ('a' + (round * 7 + i) % 26));
+      return new String(chars);
+   }
+
+   public void testConcurrentWritesShareSyncs() throws Exception {
+      if (!syncWrites)
+         throw new SkipException("Only applies to synced writes");
+
+      int threads = 8;
+      int writesPerThread = 20;
+      statistics.resetStatistics();
+      Future<?>[] futures = new Future[threads];
+      for (int t = 0; t < threads; t++) {
+         String prefix = "k" + t + "-";
+         futures[t] = fork(() -> {
+            for (int i = 0; i < writesPerThread; i++) {
+               cl.write(MarshalledEntryUtil.create(prefix + i, "v" + i, getMarshaller()));
+            }
+         });
+      }
+      for (Future<?> future : futures) {
+         future.get();
+      }
+
+      assertEquals(threads * writesPerThread, statistics.getSyncedWrites());
+      assertTrue(statistics.getSyncs() < statistics.getSyncedWrites());
+      assertEquals(threads * writesPerThread, cl.size());
+   }
 }
@@ -15,6 +15,7 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -273,6 +274,32 @@ public void testThreadSafetyWritingDiffValuesForKey(Method m) throws Exception {
       }
    }
 
+   @Test(timeOut=30000)
+   public void testConcurrentWriters() throws Exception {
+      TestResourceTracker.testThreadStarted(this);
+      createStore();
+
+      final int writers = 8;
+      final int number = 500;
+      Future<?>[] futures = new Future[writers];
+      for (int w = 0; w < writers; w++) {
+         String key = "testConcurrentWriters-" + w + "-k-";
+         String value = "testConcurrentWriters-" + w + "-v-";
+         futures[w] = fork(() -> doTestPut(number, key, value));
+      }
+      for (Future<?> future : futures) future.get(10, TimeUnit.SECONDS);
+
+      // every write must eventually reach the underlying store
+      writer.stop();
+      for (int w = 0; w < writers; w++) {
+         for (int i = 0; i < number; i++) {
+            MarshallableEntry me = loader.undelegate().loadEntry("testConcurrentWriters-" + w + "-k-" + i);
+            assertNotNull(me);
+            assertEquals("testConcurrentWriters-" + w + "-v-" + i, me.getValue());
+         }
+      }
+   }
+
    @Test(timeOut=30000)
    public void testConcurrentWriteAndStop() throws Exception {
       TestResourceTracker.testThreadStarted(this);
@@ -306,6 +333,45 @@ public void run() {
       assertEquals(me.getValue(), key + lastValue[0]);
    }
 
+   @Test(timeOut=30000)
+   public void testConcurrentWritersAndStop() throws Exception {
+      TestResourceTracker.testThreadStarted(this);
+      createStore();
+
+      // several threads keep writing new keys until the store is stopped
+      final int writers = 8;
+      final int[] written = new int[writers];
+      Future<?>[] futures = new Future[writers];
+      for (int w = 0; w < writers; w++) {
+         int id = w;
+         futures[w] = fork(() -> {
+            try {
+               for (int i = 0; ; i++) {
+                  writer.write(MarshalledEntryUtil.create(key(id, i), "v" + i, marshaller));
+                  written[id] = i + 1;
+               }
+            } catch (CacheException expected) {
+            }
+         });
+      }
+
+      // wait until the threads have written some values
+      Thread.sleep(500);
+      writer.stop();
+      for (Future<?> future : futures) future.get(10, TimeUnit.SECONDS);
+
+      // every write that returned successfully must have reached the underlying store
+      for (int w = 0; w < writers; w++) {
+         for (int i = 0; i < written[w]; i++) {
+            assertNotNull(key(w, i), loader.undelegate().loadEntry(key(w, i)));
+         }
+      }
+   }
+
+   private static String key(int writer, int i) {
+      return "testConcurrentWritersAndStop-" + writer + "-k-" + i;
+   }
+
    @Test(timeOut=30000)
    public void testConcurrentClearAndStop() throws Exception {
       TestResourceTracker.testThreadStarted(this);
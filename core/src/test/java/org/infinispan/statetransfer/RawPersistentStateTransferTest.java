@@ -0,0 +1,81 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the entries that are only in the store are transferred in their marshalled form when
+ * {@code rawPersistentState} is enabled, and that the joiner writes them to its store without loading them in memory.
+ *
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "statetransfer.RawPersistentStateTransferTest")
+@CleanupAfterMethod
+public class RawPersistentStateTransferTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 500;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      for (int i = 0; i < 2; i++) {
+         addClusterEnabledCacheManager(getConfig(i));
+      }
+      waitForClusterToForm();
+   }
+
+   private ConfigurationBuilder getConfig(int index) {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().stateTransfer().chunkSize(20).rawPersistentState(true);
+      builder.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .storeName(getClass().getSimpleName() + index)
+            .fetchPersistentState(true);
+      return builder;
+   }
+
+   public void testJoinerStoresEntriesOnlyInStore() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i, 1, TimeUnit.HOURS);
+      }
+      // The entries are now only in the stores
+      advancedCache(0).getDataContainer().clear();
+      advancedCache(1).getDataContainer().clear();
+
+      addClusterEnabledCacheManager(getConfig(2));
+      TestingUtil.waitForNoRebalance(cache(0), cache(1), cache(2));
+
+      AdvancedCache<Object, Object> joiner = advancedCache(2);
+      LocalizedCacheTopology cacheTopology = joiner.getDistributionManager().getCacheTopology();
+      DummyInMemoryStore store = TestingUtil.getFirstWriter(joiner);
+      int owned = 0;
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         if (cacheTopology.isWriteOwner(key)) {
+            owned++;
+            assertTrue(key, store.contains(key));
+            assertNull(key, joiner.getDataContainer().peek(key));
+            CacheEntry<Object, Object> entry = joiner.withFlags(Flag.CACHE_MODE_LOCAL).getCacheEntry(key);
+            assertNotNull(key, entry);
+            assertEquals("v" + i, entry.getValue());
+            assertEquals(TimeUnit.HOURS.toMillis(1), entry.getLifespan());
+         }
+      }
+      assertTrue(owned > 0);
+   }
+}
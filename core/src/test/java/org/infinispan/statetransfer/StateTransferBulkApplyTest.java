@@ -0,0 +1,172 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.commons.configuration.BuiltBy;
+import org.infinispan.commons.configuration.ConfigurationFor;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.configuration.cache.AsyncStoreConfiguration;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.configuration.cache.SingletonStoreConfiguration;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfiguration;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.test.Exceptions;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.reactivestreams.Publisher;
+import org.testng.annotations.Test;
+
+import io.reactivex.Flowable;
+
+/**
+ * Tests that the state received by a non-transactional cache, which is applied without commands, is inserted in the
+ * data container with its metadata and written to the private store of the joiner.
+ *
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "statetransfer.StateTransferBulkApplyTest")
+@CleanupAfterMethod
+public class StateTransferBulkApplyTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 500;
+
+   // The stores are created by the configuration, so the test reaches them through static fields
+   private static volatile CompletableFuture<List<Object>> blockedBatch;
+   private static volatile CountDownLatch resumeBatch;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      for (int i = 0; i < 2; i++) {
+         addClusterEnabledCacheManager(getConfig(i));
+      }
+      waitForClusterToForm();
+   }
+
+   private ConfigurationBuilder getConfig(int index) {
+      return getConfig(index, DummyInMemoryStoreConfigurationBuilder.class);
+   }
+
+   private ConfigurationBuilder getConfig(int index, Class<? extends DummyInMemoryStoreConfigurationBuilder> storeBuilder) {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().stateTransfer().chunkSize(20);
+      builder.persistence().addStore(storeBuilder)
+            .storeName(getClass().getSimpleName() + index);
+      return builder;
+   }
+
+   public void testJoinerStoresState() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i, 1, TimeUnit.HOURS);
+      }
+
+      addClusterEnabledCacheManager(getConfig(2));
+      TestingUtil.waitForNoRebalance(cache(0), cache(1), cache(2));
+
+      AdvancedCache<Object, Object> joiner = advancedCache(2);
+      LocalizedCacheTopology cacheTopology = joiner.getDistributionManager().getCacheTopology();
+      DummyInMemoryStore store = TestingUtil.getFirstWriter(joiner);
+      int owned = 0;
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         if (cacheTopology.isWriteOwner(key)) {
+            owned++;
+            InternalCacheEntry entry = joiner.getDataContainer().peek(key);
+            assertNotNull(key, entry);
+            assertEquals("v" + i, entry.getValue());
+            assertEquals(TimeUnit.HOURS.toMillis(1), entry.getLifespan());
+            assertTrue(key, store.contains(key));
+         }
+      }
+      assertTrue(owned > 0);
+   }
+
+   public void testConcurrentWriteDuringStoreWrite() throws Exception {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+
+      blockedBatch = new CompletableFuture<>();
+      resumeBatch = new CountDownLatch(1);
+      addClusterEnabledCacheManager(getConfig(2, BlockingStoreConfigurationBuilder.class));
+      Future<Cache<Object, Object>> joinerFuture = fork(() -> cache(2));
+      Future<Object> putFuture;
+      Object key;
+      try {
+         // The joiner committed the chunk in memory and is writing it to the store
+         key = blockedBatch.get(10, TimeUnit.SECONDS).get(0);
+         putFuture = fork(() -> cache(0).put(key, "updated"));
+         // The write waits for the store write of the state transfer, so it can't be overwritten by it
+         Exceptions.expectException(TimeoutException.class, () -> putFuture.get(100, TimeUnit.MILLISECONDS));
+      } finally {
+         resumeBatch.countDown();
+      }
+      assertEquals(value(key), putFuture.get(10, TimeUnit.SECONDS));
+      AdvancedCache<Object, Object> joiner = joinerFuture.get(10, TimeUnit.SECONDS).getAdvancedCache();
+      TestingUtil.waitForNoRebalance(cache(0), cache(1), cache(2));
+
+      assertEquals("updated", joiner.getDataContainer().peek(key).getValue());
+      DummyInMemoryStore store = TestingUtil.getFirstWriter(joiner);
+      assertEquals("updated", store.loadEntry(key).getValue());
+   }
+
+   private static String value(Object key) {
+      return "v" + ((String) key).substring(1);
+   }
+
+   public static class BlockingStoreConfigurationBuilder extends DummyInMemoryStoreConfigurationBuilder {
+      public BlockingStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
+         super(builder);
+      }
+
+      @Override
+      public BlockingStoreConfiguration create() {
+         return new BlockingStoreConfiguration(attributes.protect(), async.create(), singletonStore.create());
+      }
+   }
+
+   @ConfigurationFor(BlockingStore.class)
+   @BuiltBy(BlockingStoreConfigurationBuilder.class)
+   public static class BlockingStoreConfiguration extends DummyInMemoryStoreConfiguration {
+      public BlockingStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async, SingletonStoreConfiguration singletonStore) {
+         super(attributes, async, singletonStore);
+      }
+   }
+
+   /**
+    * Blocks the first batch written to the store until the test resumes it.
+    */
+   public static class BlockingStore extends DummyInMemoryStore {
+      @Override
+      public CompletionStage<Void> bulkUpdate(Publisher publisher) {
+         List<MarshallableEntry> entries = Flowable.<MarshallableEntry>fromPublisher(publisher).toList().blockingGet();
+         if (blockedBatch.complete(entries.stream().map(MarshallableEntry::getKey).collect(Collectors.toList()))) {
+            try {
+               resumeBatch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+         return super.bulkUpdate(Flowable.fromIterable(entries));
+      }
+   }
+}
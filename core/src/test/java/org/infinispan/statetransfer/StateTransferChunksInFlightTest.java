@@ -0,0 +1,59 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.InCacheMode;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that state transfer with several chunks in flight transfers all the entries to the joiners.
+ *
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "statetransfer.StateTransferChunksInFlightTest")
+@CleanupAfterMethod
+@InCacheMode({ CacheMode.DIST_SYNC, CacheMode.REPL_SYNC })
+public class StateTransferChunksInFlightTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 1000;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      createClusteredCaches(2, getConfig());
+   }
+
+   private ConfigurationBuilder getConfig() {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(cacheMode, false);
+      builder.clustering().stateTransfer().chunkSize(10).chunksInFlight(4);
+      return builder;
+   }
+
+   public void testJoin() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+
+      addClusterEnabledCacheManager(getConfig());
+      addClusterEnabledCacheManager(getConfig());
+      TestingUtil.waitForNoRebalance(cache(0), cache(1), cache(2), cache(3));
+
+      for (int n = 0; n < 4; n++) {
+         AdvancedCache<Object, Object> cache = advancedCache(n).withFlags(Flag.CACHE_MODE_LOCAL);
+         LocalizedCacheTopology cacheTopology = cache.getDistributionManager().getCacheTopology();
+         for (int i = 0; i < NUM_KEYS; i++) {
+            String key = "k" + i;
+            if (cacheTopology.isReadOwner(key)) {
+               assertEquals("v" + i, cache.get(key));
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,83 @@
+package org.infinispan.test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Base class of the JMH benchmarks that measure the operations of a local cache, run from a profiling test method.
+ *
+ * @since 10.0
+ */
+public abstract class AbstractCacheBenchmark {
+
+   private static final int MEASUREMENT_ITERATIONS_COUNT = 10;
+   private static final int WARMUP_ITERATIONS_COUNT = 5;
+
+   /**
+    * @return the options running all the benchmarks of this class, with 4 threads in a single fork
+    */
+   protected ChainedOptionsBuilder options() {
+      return new OptionsBuilder()
+            .include(this.getClass().getName() + ".*")
+            .warmupIterations(WARMUP_ITERATIONS_COUNT)
+            .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+            .threads(4)
+            .forks(1)
+            .shouldFailOnError(true);
+   }
+
+   protected void run(ChainedOptionsBuilder options) throws Exception {
+      new Runner(options.build()).run();
+   }
+
+   /**
+    * Starts a cache manager with the configuration of the benchmark and populates its cache with
+    * {@code numberOfKeys} entries. The concrete subclasses are annotated with {@link org.openjdk.jmh.annotations.State}.
+    */
+   public abstract static class CacheState {
+
+      @Param({"10000"})
+      public int numberOfKeys;
+
+      protected EmbeddedCacheManager cacheManager;
+
+      @Setup
+      public void setup() {
+         cacheManager = TestCacheManagerFactory.createCacheManager(configuration());
+         populate();
+      }
+
+      @TearDown
+      public void tearDown() {
+         TestingUtil.killCacheManagers(cacheManager);
+         afterStop();
+      }
+
+      protected abstract ConfigurationBuilder configuration();
+
+      protected abstract void populate();
+
+      /**
+       * Invoked after the cache manager was stopped.
+       */
+      protected void afterStop() {
+      }
+
+      public String randomKey() {
+         return key(ThreadLocalRandom.current().nextInt(numberOfKeys));
+      }
+
+      protected static String key(int i) {
+         return "key-" + i;
+      }
+   }
+}
@@ -22,6 +22,7 @@
 import org.infinispan.commons.util.CloseableIteratorSet;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.query.dsl.Query;
+import org.reactivestreams.Publisher;
 
 /**
  * Base class for building wrappers over remote cache instances.
@@ -559,6 +560,26 @@ public CloseableIterator<Entry<Object, Object>> retrieveEntries(String filterCon
       return delegate.retrieveEntries(filterConverterFactory, filterConverterParams, segments, batchSize);
    }
 
+   @Override
+   public CloseableIterator<Entry<Object, Object>> retrieveEntriesParallel(String filterConverterFactory, Object[] filterConverterParams, Set<Integer> segments, int batchSize) {
+      return delegate.retrieveEntriesParallel(filterConverterFactory, filterConverterParams, segments, batchSize);
+   }
+
+   @Override
+   public Publisher<Entry<Object, Object>> publishEntries(String filterConverterFactory, Object[] filterConverterParams, Set<Integer> segments, int batchSize) {
+      return delegate.publishEntries(filterConverterFactory, filterConverterParams, segments, batchSize);
+   }
+
+   @Override
+   public Publisher<Entry<Object, Object>> publishEntriesByQuery(Query filterQuery, Set<Integer> segments, int batchSize) {
+      return delegate.publishEntriesByQuery(filterQuery, segments, batchSize);
+   }
+
+   @Override
+   public Publisher<K> publishKeys(Set<Integer> segments, int batchSize) {
+      return delegate.publishKeys(segments, batchSize);
+   }
+
    @Override
    public CloseableIterator<Entry<Object, Object>> retrieveEntriesByQuery(Query filterQuery, Set<Integer> segments, int batchSize) {
       return delegate.retrieveEntriesByQuery(filterQuery, segments, batchSize);
@@ -7,6 +7,7 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -26,6 +27,10 @@
 /**
  * Provides resource management for files - only limited amount of files may be opened in one moment, and opened file
  * should not be deleted. Also allows to generate file indexes.
+ * <p>
+ * When memory mapped reads are enabled, files that are no longer appended to are mapped in full when they are opened
+ * and {@link Handle#read(ByteBuffer, long)} copies straight from the mapping instead of issuing a read on the channel.
+ * The mapping is released together with the channel when the file is closed.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
@@ -35,6 +40,7 @@ public class FileProvider {
 
    private final File dataDir;
    private final int openFileLimit;
+   private final boolean memoryMapped;
    private final ArrayBlockingQueue<Record> recordQueue;
    private final ConcurrentMap<Integer, Record> openFiles = new ConcurrentHashMap<Integer, Record>();
    private final AtomicInteger currentOpenFiles = new AtomicInteger(0);
@@ -45,7 +51,12 @@ public class FileProvider {
    private int nextFileId = 0;
 
    public FileProvider(String dataDir, int openFileLimit) {
+      this(dataDir, openFileLimit, false);
+   }
+
+   public FileProvider(String dataDir, int openFileLimit, boolean memoryMapped) {
       this.openFileLimit = openFileLimit;
+      this.memoryMapped = memoryMapped;
       this.recordQueue = new ArrayBlockingQueue<Record>(openFileLimit);
       this.dataDir = new File(dataDir);
       this.dataDir.mkdirs();
@@ -78,7 +89,7 @@ public Handle getFile(int fileId) throws IOException {
                      log.debugf(e, "File %d was not found", fileId);
                      return null;
                   }
-                  Record newRecord = new Record(fileChannel, fileId);
+                  Record newRecord = new Record(fileChannel, fileId, mapIfImmutable(fileChannel, fileId));
                   Record other = openFiles.putIfAbsent(fileId, newRecord);
                   if (other != null) {
                      fileChannel.close();
@@ -157,6 +168,24 @@ private boolean tryCloseFile() throws IOException {
       return false;
    }
 
+   /**
+    * Maps the whole file if memory mapped reads are enabled and the file is not being written to anymore.
+    * <p>
+    * Note: Caller must hold the {@code lock} in shared mode.
+    */
+   private ByteBuffer mapIfImmutable(FileChannel fileChannel, int fileId) throws IOException {
+      if (!memoryMapped || logFiles.contains(fileId)) {
+         return null;
+      }
+      long size = fileChannel.size();
+      if (size == 0 || size > Integer.MAX_VALUE) {
+         return null;
+      }
+      MappedByteBuffer mapped = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      log.tracef("Mapped file %d with %d bytes", fileId, size);
+      return mapped;
+   }
+
    protected FileChannel openChannel(int fileId) throws FileNotFoundException {
       return new RandomAccessFile(new File(dataDir, String.valueOf(fileId)), "r").getChannel();
    }
@@ -302,9 +331,25 @@ private Handle(Record record) {
 
       public int read(ByteBuffer buffer, long offset) throws IOException {
          if (!usable) throw new IllegalStateException();
+         ByteBuffer mapped = record.mappedBuffer;
+         if (mapped != null) {
+            return readMapped(mapped, buffer, offset);
+         }
          return record.getFileChannel().read(buffer, offset);
       }
 
+      private static int readMapped(ByteBuffer mapped, ByteBuffer buffer, long offset) {
+         if (offset >= mapped.limit()) {
+            return -1;
+         }
+         // duplicate() so that concurrent readers don't share the position and limit
+         ByteBuffer source = mapped.duplicate();
+         int length = Math.min(buffer.remaining(), mapped.limit() - (int) offset);
+         source.limit((int) offset + length).position((int) offset);
+         buffer.put(source);
+         return length;
+      }
+
       @Override
       public void close() throws IOException {
          usable = false;
@@ -320,17 +365,28 @@ public long getFileSize() throws IOException {
       public int getFileId() {
          return record.getFileId();
       }
+
+      boolean isMapped() {
+         return record.mappedBuffer != null;
+      }
    }
 
    private class Record {
       private final int fileId;
       private FileChannel fileChannel;
+      // the whole file mapped read-only, or null when memory mapped reads are disabled or the file is still written
+      private volatile ByteBuffer mappedBuffer;
       private int handleCount;
       private boolean deleteOnClose = false;
 
       private Record(FileChannel fileChannel, int fileId) {
+         this(fileChannel, fileId, null);
+      }
+
+      private Record(FileChannel fileChannel, int fileId, ByteBuffer mappedBuffer) {
          this.fileChannel = fileChannel;
          this.fileId = fileId;
+         this.mappedBuffer = mappedBuffer;
       }
 
       FileChannel getFileChannel() {
@@ -348,6 +404,7 @@ void decreaseHandleCount() throws IOException {
             // but physically close and delete the file
             fileChannel.close();
             fileChannel = null;
+            mappedBuffer = null;
             openFiles.remove(fileId, this);
             delete();
          }
@@ -368,6 +425,8 @@ public int getFileId() {
       public void close() throws IOException {
          fileChannel.close();
          fileChannel = null;
+         // the mapping itself is released once the buffer is garbage collected
+         mappedBuffer = null;
          if (deleteOnClose) {
             delete();
          }
@@ -383,6 +442,7 @@ public void deleteOnClose() throws IOException {
             if (fileChannel != null) {
                fileChannel.close();
                fileChannel = null;
+               mappedBuffer = null;
             }
             openFiles.remove(fileId, this);
             delete();
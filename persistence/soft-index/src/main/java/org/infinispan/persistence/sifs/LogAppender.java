@@ -1,8 +1,11 @@
 package org.infinispan.persistence.sifs;
 
+import java.io.IOException;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.persistence.support.GroupCommitStatistics;
 import org.infinispan.util.logging.LogFactory;
 
 /**
@@ -18,18 +21,26 @@ public class LogAppender extends Thread {
    private final SyncProcessingQueue<LogRequest> queue;
    private final BlockingQueue<IndexRequest> indexQueue;
    private final boolean syncWrites;
+   private final long syncWritesMaxDelayNanos;
+   private final long syncWritesMaxBytes;
+   private final GroupCommitStatistics statistics;
    private final TemporaryTable temporaryTable;
    private final int maxFileSize;
    private final Compactor compactor;
    private final FileProvider fileProvider;
    private LogRequest pausedRequest;
    private long seqId = 0;
+   // writes appended since the last sync, only tracked with syncWrites
+   private int unsyncedWrites;
+   private long unsyncedBytes;
+   private long batchStart;
 
    LogAppender(SyncProcessingQueue<LogRequest> inboundQueue,
                BlockingQueue<IndexRequest> indexQueue,
                TemporaryTable temporaryTable,
                Compactor compactor,
-               FileProvider fileProvider, boolean syncWrites, int maxFileSize) {
+               FileProvider fileProvider, boolean syncWrites, long syncWritesMaxDelay, int syncWritesMaxBytes,
+               int maxFileSize, GroupCommitStatistics statistics) {
       super("BCS-LogAppender");
       this.setDaemon(true);
       this.queue = inboundQueue;
@@ -38,6 +49,9 @@ public class LogAppender extends Thread {
       this.compactor = compactor;
       this.fileProvider = fileProvider;
       this.syncWrites = syncWrites;
+      this.syncWritesMaxDelayNanos = TimeUnit.MILLISECONDS.toNanos(syncWritesMaxDelay);
+      this.syncWritesMaxBytes = syncWritesMaxBytes > 0 ? syncWritesMaxBytes : Long.MAX_VALUE;
+      this.statistics = statistics;
       this.maxFileSize = maxFileSize;
       start();
    }
@@ -69,8 +83,13 @@ public void run() {
          FileProvider.Log logFile = fileProvider.getFileForLog();
          int currentOffset = 0;
          while (true) {
-            LogRequest request = queue.pop();
+            // Once the byte budget is exhausted, stop taking requests and sync the ones already written
+            LogRequest request = unsyncedBytes < syncWritesMaxBytes ? queue.pop() : null;
             if (request != null) {
+               if (request.isClear() || request.isStop() || request.isPause()) {
+                  // the producers are notified below, their writes must be synced first
+                  syncPending(logFile);
+               }
                if (request.isClear()) {
                   logFile.close();
                   queue.notifyNoWait();
@@ -88,7 +107,8 @@ public void run() {
                   continue;
                }
                if (currentOffset + request.length() > maxFileSize) {
-                  // switch to next file
+                  // switch to next file, syncing the writes that wait for it first
+                  syncPending(logFile);
                   logFile.close();
                   compactor.completeFile(logFile.fileId);
                   currentOffset = 0;
@@ -105,9 +125,22 @@ public void run() {
                request.setIndexRequest(indexRequest);
                indexQueue.put(indexRequest);
                currentOffset += request.length();
-            } else {
                if (syncWrites) {
-                  logFile.fileChannel.force(false);
+                  if (unsyncedWrites == 0) {
+                     batchStart = System.nanoTime();
+                  }
+                  unsyncedWrites++;
+                  unsyncedBytes += request.length();
+               }
+            } else {
+               if (unsyncedWrites > 0) {
+                  long remaining = syncWritesMaxDelayNanos - (System.nanoTime() - batchStart);
+                  if (unsyncedBytes < syncWritesMaxBytes && remaining > 0) {
+                     // give concurrent writers a chance to join the batch before syncing
+                     queue.waitForElement(remaining, TimeUnit.NANOSECONDS);
+                     continue;
+                  }
+                  syncPending(logFile);
                }
                queue.notifyAndWait();
             }
@@ -118,6 +151,22 @@ public void run() {
       }
    }
 
+   /**
+    * Syncs the log file if it holds writes whose producers have not been notified yet.
+    */
+   private void syncPending(FileProvider.Log logFile) throws IOException {
+      if (unsyncedWrites == 0)
+         return;
+
+      long start = System.nanoTime();
+      logFile.fileChannel.force(false);
+      if (statistics != null) {
+         statistics.recordSync(unsyncedWrites, unsyncedBytes, System.nanoTime() - start);
+      }
+      unsyncedWrites = 0;
+      unsyncedBytes = 0;
+   }
+
    private byte[] raw(ByteBuffer buffer) {
       if (buffer.getBuf().length == buffer.getLength()) {
          return buffer.getBuf();
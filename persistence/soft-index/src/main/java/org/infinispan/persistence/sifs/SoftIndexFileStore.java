@@ -23,6 +23,7 @@
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.MarshallableEntryFactory;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.support.GroupCommitStatistics;
 import org.infinispan.util.logging.LogFactory;
 import org.reactivestreams.Publisher;
 
@@ -121,6 +122,7 @@ public class SoftIndexFileStore implements AdvancedLoadWriteStore {
    private ByteBufferFactory byteBufferFactory;
    private MarshallableEntryFactory marshallableEntryFactory;
    private TimeService timeService;
+   private GroupCommitStatistics groupCommitStatistics;
    private int maxKeyLength;
 
    @Override
@@ -130,6 +132,10 @@ public void init(InitializationContext ctx) {
       marshallableEntryFactory = ctx.getMarshallableEntryFactory();
       byteBufferFactory = ctx.getByteBufferFactory();
       timeService = ctx.getTimeService();
+      if (configuration.syncWrites()) {
+         groupCommitStatistics = ctx.getCache().getAdvancedCache().getComponentRegistry()
+               .getComponent(GroupCommitStatistics.class);
+      }
       maxKeyLength = configuration.maxNodeSize() - IndexNode.RESERVED_SPACE;
    }
 
@@ -142,9 +148,11 @@ public void start() {
       temporaryTable = new TemporaryTable(configuration.indexQueueLength() * configuration.indexSegments());
       storeQueue = new SyncProcessingQueue<>();
       indexQueue = new IndexQueue(configuration.indexSegments(), configuration.indexQueueLength());
-      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit());
+      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit(), configuration.memoryMappedReads());
       compactor = new Compactor(fileProvider, temporaryTable, indexQueue, marshaller, timeService, configuration.maxFileSize(), configuration.compactionThreshold());
-      logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider, configuration.syncWrites(), configuration.maxFileSize());
+      logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider,
+            configuration.syncWrites(), configuration.syncWritesMaxDelay(), configuration.syncWritesMaxBytes(),
+            configuration.maxFileSize(), groupCommitStatistics);
       try {
          index = new Index(fileProvider, configuration.indexLocation(), configuration.indexSegments(),
                configuration.minNodeSize(), configuration.maxNodeSize(),
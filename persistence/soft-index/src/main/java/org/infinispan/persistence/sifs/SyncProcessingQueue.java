@@ -1,6 +1,7 @@
 package org.infinispan.persistence.sifs;
 
 import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Multiple producer-single consumer queue. The producers are expected to call pushAndWait(),
@@ -48,7 +49,9 @@ public void pushAndWait(T element) throws InterruptedException {
 
    public long push(T element) {
       synchronized (queue) {
-         queue.push(element);
+         // FIFO: the consumer may notify the producers before the queue is empty, and popIndex must then
+         // only cover the elements pushed first
+         queue.addLast(element);
          queue.notify();
          pushIndex++;
          return pushIndex;
@@ -101,6 +104,17 @@ public void notifyAndWait() {
       }
    }
 
+   /**
+    * Waits until an element is pushed or the timeout elapses, without notifying the producers.
+    */
+   public void waitForElement(long timeout, TimeUnit unit) throws InterruptedException {
+      synchronized (queue) {
+         if (queue.isEmpty()) {
+            unit.timedWait(queue, timeout);
+         }
+      }
+   }
+
    public void notifyNoWait() {
       poppedInRow = 0;
       popIndex = processorPopIndex;
@@ -16,10 +16,13 @@ public enum Attribute {
    INDEX_QUEUE_LENGTH("max-queue-length"),
    SEGMENTS("segments"),
    MAX_FILE_SIZE("max-file-size"),
+   MEMORY_MAPPED_READS("memory-mapped-reads"),
    MAX_NODE_SIZE("max-node-size"),
    MIN_NODE_SIZE("min-node-size"),
    OPEN_FILES_LIMIT("open-files-limit"),
-   SYNC_WRITES("sync-writes")
+   SYNC_WRITES("sync-writes"),
+   SYNC_WRITES_MAX_BYTES("sync-writes-max-bytes"),
+   SYNC_WRITES_MAX_DELAY("sync-writes-max-delay")
    ;
 
    private final String name;
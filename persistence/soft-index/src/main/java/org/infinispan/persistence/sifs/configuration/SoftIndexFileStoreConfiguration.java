@@ -39,12 +39,15 @@ public class SoftIndexFileStoreConfiguration extends AbstractSegmentedStoreConfi
    public static final AttributeDefinition<Integer> MAX_NODE_SIZE = AttributeDefinition.builder("maxNodeSize", 4096).immutable().serializer(UNDER_INDEX).autoPersist(false).build();
    public static final AttributeDefinition<Integer> INDEX_QUEUE_LENGTH = AttributeDefinition.builder("indexQueueLength", 1000).immutable().serializer(UNDER_INDEX).autoPersist(false).xmlName("max-queue-length").build();
    public static final AttributeDefinition<Boolean> SYNC_WRITES = AttributeDefinition.builder("syncWrites", false).immutable().serializer(UNDER_DATA).autoPersist(false).build();
+   public static final AttributeDefinition<Long> SYNC_WRITES_MAX_DELAY = AttributeDefinition.builder("syncWritesMaxDelay", 0L).immutable().serializer(UNDER_DATA).autoPersist(false).build();
+   public static final AttributeDefinition<Integer> SYNC_WRITES_MAX_BYTES = AttributeDefinition.builder("syncWritesMaxBytes", 0).immutable().serializer(UNDER_DATA).autoPersist(false).build();
+   public static final AttributeDefinition<Boolean> MEMORY_MAPPED_READS = AttributeDefinition.builder("memoryMappedReads", false).immutable().serializer(UNDER_DATA).autoPersist(false).build();
    public static final AttributeDefinition<Integer> OPEN_FILES_LIMIT = AttributeDefinition.builder("openFilesLimit", 1000).immutable().build();
    public static final AttributeDefinition<Double> COMPACTION_THRESHOLD = AttributeDefinition.builder("compactionThreshold", 0.5d).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), DATA_LOCATION, INDEX_LOCATION, INDEX_SEGMENTS, MAX_FILE_SIZE,
-            MIN_NODE_SIZE, MAX_NODE_SIZE, INDEX_QUEUE_LENGTH, SYNC_WRITES, OPEN_FILES_LIMIT, COMPACTION_THRESHOLD);
+            MIN_NODE_SIZE, MAX_NODE_SIZE, INDEX_QUEUE_LENGTH, SYNC_WRITES, SYNC_WRITES_MAX_DELAY, SYNC_WRITES_MAX_BYTES, MEMORY_MAPPED_READS, OPEN_FILES_LIMIT, COMPACTION_THRESHOLD);
    }
 
    public static ElementDefinition ELEMENT_DEFINITION = new DefaultElementDefinition(SOFT_INDEX_FILE_STORE.getLocalName());
@@ -102,6 +105,18 @@ public boolean syncWrites() {
       return attributes.attribute(SYNC_WRITES).get();
    }
 
+   public long syncWritesMaxDelay() {
+      return attributes.attribute(SYNC_WRITES_MAX_DELAY).get();
+   }
+
+   public int syncWritesMaxBytes() {
+      return attributes.attribute(SYNC_WRITES_MAX_BYTES).get();
+   }
+
+   public boolean memoryMappedReads() {
+      return attributes.attribute(MEMORY_MAPPED_READS).get();
+   }
+
    public int openFilesLimit() {
       return attributes.attribute(OPEN_FILES_LIMIT).get();
    }
@@ -8,8 +8,11 @@
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MAX_FILE_SIZE;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MAX_NODE_SIZE;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MIN_NODE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MEMORY_MAPPED_READS;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.OPEN_FILES_LIMIT;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.SYNC_WRITES;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.SYNC_WRITES_MAX_BYTES;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.SYNC_WRITES_MAX_DELAY;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.ConfigurationBuilderInfo;
@@ -79,6 +82,35 @@ public SoftIndexFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   /**
+    * The maximum time in milliseconds the log appender waits for more writes before syncing the data file, when
+    * {@link #syncWrites(boolean)} is enabled. Writers block until their data is synced, so a longer delay trades
+    * latency for fewer syncs. Defaults to 0: the file is synced as soon as there are no more queued writes.
+    */
+   public SoftIndexFileStoreConfigurationBuilder syncWritesMaxDelay(long syncWritesMaxDelay) {
+      attributes.attribute(SYNC_WRITES_MAX_DELAY).set(syncWritesMaxDelay);
+      return this;
+   }
+
+   /**
+    * The number of bytes appended to the data file after which it is synced, even if there are more queued writes or
+    * {@link #syncWritesMaxDelay(long)} has not elapsed yet. Defaults to 0, meaning no limit.
+    */
+   public SoftIndexFileStoreConfigurationBuilder syncWritesMaxBytes(int syncWritesMaxBytes) {
+      attributes.attribute(SYNC_WRITES_MAX_BYTES).set(syncWritesMaxBytes);
+      return this;
+   }
+
+   /**
+    * Reads entries from completed data files through memory mapped buffers instead of positional reads on the file
+    * channel, which saves a system call per read. The file that is currently being appended to is always read from
+    * the channel. Mapped files count against the process address space, not against the heap.
+    */
+   public SoftIndexFileStoreConfigurationBuilder memoryMappedReads(boolean memoryMappedReads) {
+      attributes.attribute(MEMORY_MAPPED_READS).set(memoryMappedReads);
+      return this;
+   }
+
    public SoftIndexFileStoreConfigurationBuilder openFilesLimit(int openFilesLimit) {
       attributes.attribute(OPEN_FILES_LIMIT).set(openFilesLimit);
       return this;
@@ -99,6 +99,15 @@ private void parseData(XMLExtendedStreamReader reader, SoftIndexFileStoreConfigu
             case SYNC_WRITES:
                builder.syncWrites(Boolean.parseBoolean(value));
                break;
+            case SYNC_WRITES_MAX_DELAY:
+               builder.syncWritesMaxDelay(Long.parseLong(value));
+               break;
+            case SYNC_WRITES_MAX_BYTES:
+               builder.syncWritesMaxBytes(Integer.parseInt(value));
+               break;
+            case MEMORY_MAPPED_READS:
+               builder.memoryMappedReads(Boolean.parseBoolean(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
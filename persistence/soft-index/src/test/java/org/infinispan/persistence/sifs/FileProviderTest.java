@@ -0,0 +1,97 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.infinispan.commons.util.Util;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the memory mapped reads of the {@link FileProvider}: data files are only mapped once they are not appended to
+ * anymore, and reads from the mapping return the same bytes as reads from the channel.
+ *
+ * @since 10.0
+ */
+@Test(groups = "unit", testName = "persistence.sifs.FileProviderTest")
+public class FileProviderTest extends AbstractInfinispanTest {
+   private static final int FILE_SIZE = 4096;
+
+   private String tmpDirectory;
+
+   @BeforeMethod
+   protected void setUpTempDir() {
+      tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+   }
+
+   @AfterMethod(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   public void testOnlyCompletedFilesAreMapped() throws IOException {
+      FileProvider fileProvider = new FileProvider(tmpDirectory, 10, true);
+      try {
+         FileProvider.Log completed = writeLog(fileProvider, (byte) 1);
+         completed.close();
+         FileProvider.Log current = writeLog(fileProvider, (byte) 2);
+
+         try (FileProvider.Handle handle = fileProvider.getFile(completed.fileId)) {
+            assertTrue(handle.isMapped());
+            assertContent(handle, (byte) 1);
+         }
+         try (FileProvider.Handle handle = fileProvider.getFile(current.fileId)) {
+            assertFalse(handle.isMapped());
+            assertContent(handle, (byte) 2);
+         }
+         current.close();
+      } finally {
+         fileProvider.stop();
+      }
+   }
+
+   public void testNoMappingWhenDisabled() throws IOException {
+      FileProvider fileProvider = new FileProvider(tmpDirectory, 10, false);
+      try {
+         FileProvider.Log completed = writeLog(fileProvider, (byte) 1);
+         completed.close();
+
+         try (FileProvider.Handle handle = fileProvider.getFile(completed.fileId)) {
+            assertFalse(handle.isMapped());
+            assertContent(handle, (byte) 1);
+         }
+      } finally {
+         fileProvider.stop();
+      }
+   }
+
+   private static FileProvider.Log writeLog(FileProvider fileProvider, byte fill) throws IOException {
+      FileProvider.Log log = fileProvider.getFileForLog();
+      byte[] data = new byte[FILE_SIZE];
+      for (int i = 0; i < data.length; i++) {
+         data[i] = (byte) (fill + i);
+      }
+      log.fileChannel.write(ByteBuffer.wrap(data));
+      return log;
+   }
+
+   private static void assertContent(FileProvider.Handle handle, byte fill) throws IOException {
+      // A read spanning the end of the file is truncated
+      ByteBuffer buffer = ByteBuffer.allocate(100);
+      int offset = FILE_SIZE - 60;
+      assertEquals(60, handle.read(buffer, offset));
+      for (int i = 0; i < 60; i++) {
+         assertEquals((byte) (fill + offset + i), buffer.get(i));
+      }
+      // A read past the end of the file returns -1
+      buffer.clear();
+      assertEquals(-1, handle.read(buffer, FILE_SIZE));
+   }
+}
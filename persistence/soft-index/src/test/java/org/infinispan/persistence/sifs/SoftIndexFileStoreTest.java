@@ -6,6 +6,7 @@
 import static org.testng.AssertJUnit.assertTrue;
 
 import java.io.File;
+import java.util.concurrent.Future;
 
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
@@ -15,12 +16,16 @@
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.support.GroupCommitStatistics;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
+import org.testng.SkipException;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Factory;
 import org.testng.annotations.Test;
 
 /**
@@ -36,6 +41,26 @@ public class SoftIndexFileStoreTest extends BaseStoreTest {
    String tmpDirectory;
    boolean startIndex = true;
    boolean keepIndex = false;
+   boolean syncWrites;
+   GroupCommitStatistics statistics;
+
+   @Override
+   protected String parameters() {
+      return syncWrites ? "[syncWrites]" : null;
+   }
+
+   @Factory
+   public Object[] factory() {
+      return new Object[]{
+            new SoftIndexFileStoreTest(),
+            new SoftIndexFileStoreTest().syncWrites(true),
+      };
+   }
+
+   SoftIndexFileStoreTest syncWrites(boolean syncWrites) {
+      this.syncWrites = syncWrites;
+      return this;
+   }
 
    @BeforeClass
    protected void setUpTempDir() {
@@ -86,9 +111,13 @@ public void stop() {
       builder.persistence()
             .addStore(SoftIndexFileStoreConfigurationBuilder.class)
             .indexLocation(tmpDirectory).dataLocation(tmpDirectory + "/data")
-            .maxFileSize(1000);
+            .maxFileSize(1000)
+            .syncWrites(syncWrites)
+            .syncWritesMaxDelay(10);
 
-      store.init(createContext(builder.build()));
+      InitializationContext ctx = createContext(builder.build());
+      statistics = ctx.getCache().getAdvancedCache().getComponentRegistry().getComponent(GroupCommitStatistics.class);
+      store.init(ctx);
       return store;
    }
 
@@ -194,6 +223,35 @@ public void testStopStartWithLoadDoesNotNukeValues() throws InterruptedException
       }
    }
 
+   public void testConcurrentWritesShareSyncs() throws Exception {
+      if (!syncWrites)
+         throw new SkipException("Only applies to synced writes");
+
+      int threads = 8;
+      int writesPerThread = 50;
+      statistics.resetStatistics();
+      Future<?>[] futures = new Future[threads];
+      for (int t = 0; t < threads; t++) {
+         int thread = t;
+         futures[t] = fork(() -> {
+            for (int i = 0; i < writesPerThread; i++) {
+               String key = key(thread * writesPerThread + i);
+               store.write(marshalledEntry(internalCacheEntry(key, "value" + i, -1)));
+               // The producer is only notified once its write is synced
+               assertNotNull(key, store.loadEntry(key));
+            }
+         });
+      }
+      for (Future<?> future : futures) {
+         future.get();
+      }
+
+      // Every write was synced before it returned, and concurrent writes shared syncs
+      assertEquals(threads * writesPerThread, statistics.getSyncedWrites());
+      assertTrue(statistics.getSyncs() < statistics.getSyncedWrites());
+      assertEquals(threads * writesPerThread, store.size());
+   }
+
    private void writeGibberish() {
       for (int i = 0; i < 100; ++i) {
          store.write(marshalledEntry(internalCacheEntry("foo", "bar", -1)));
@@ -47,6 +47,8 @@
    private MBeanServer mbeanServer;
    private ThreadPoolExecutor executor;
    private ObjectName executorObjName;
+   private String jmxDomain;
+   private String groupName;
 
 
    protected AbstractProtocolServer(String protocolName) {
@@ -147,8 +149,8 @@ protected void registerServerMBeans() {
       GlobalJmxStatisticsConfiguration jmxConfig = globalCfg.globalJmxStatistics();
       if (jmxConfig.enabled()) {
          mbeanServer = JmxUtil.lookupMBeanServer(jmxConfig.mbeanServerLookup(), jmxConfig.properties());
-         String groupName = String.format("type=Server,name=%s", getQualifiedName());
-         String jmxDomain = JmxUtil.buildJmxDomain(jmxConfig.domain(), mbeanServer, groupName);
+         groupName = String.format("type=Server,name=%s", getQualifiedName());
+         jmxDomain = JmxUtil.buildJmxDomain(jmxConfig.domain(), mbeanServer, groupName);
 
          try {
             transportObjName = registerMBean(transport, jmxDomain, groupName, null);
@@ -159,6 +161,21 @@ protected void registerServerMBeans() {
       }
    }
 
+   /**
+    * Registers an additional component of the server, annotated with {@link org.infinispan.jmx.annotations.MBean}, in
+    * the same group as the transport MBean. Must be invoked from {@link #registerServerMBeans()}, after the super call.
+    *
+    * @return the name of the registered MBean, or {@code null} if JMX is disabled
+    */
+   protected ObjectName registerServerMBean(Object instance, String name) throws Exception {
+      return mbeanServer != null && jmxDomain != null ? registerMBean(instance, jmxDomain, groupName, name) : null;
+   }
+
+   protected void unregisterServerMBean(ObjectName objectName) throws Exception {
+      if (objectName != null)
+         JmxUtil.unregisterMBean(objectName, mbeanServer);
+   }
+
    private ObjectName registerMBean(Object instance, String jmxDomain, String groupName, String name) throws Exception {
       // Pick up metadata from the component metadata repository
       ManageableComponentMetadata meta = LifecycleCallbacks.componentMetadataRepo
@@ -35,5 +35,7 @@ private ExternalizerIds() { }
    public static final int PREPARED_FUNCTION = 1120;
    public static final int XID_PREDICATE = 1121;
    public static final int CONDITIONAL_MARK_ROLLBACK_FUNCTION = 1122;
+   public static final int CONDITIONAL_WRITE_FUNCTION = 1123;
+   public static final int CONDITIONAL_WRITE_RESULT = 1124;
 
 }
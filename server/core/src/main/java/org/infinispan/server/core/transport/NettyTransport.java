@@ -181,6 +181,11 @@ public long getTotalBytesRead() {
       return connectionStats.getTotalBytesRead();
    }
 
+   @Override
+   public double getAverageResponsesPerFlush() {
+      return connectionStats.getAverageWritesPerFlush();
+   }
+
    @Override
    public String getHostName() {
       return address.getHostName();
@@ -237,6 +242,10 @@ public void updateTotalBytesWritten(int bytes) {
       connectionStats.incrementTotalBytesWritten(bytes);
    }
 
+   public void updateFlushes(int writes) {
+      connectionStats.incrementFlushes(writes);
+   }
+
    public void updateTotalBytesRead(int bytes) {
       connectionStats.incrementTotalBytesRead(bytes);
    }
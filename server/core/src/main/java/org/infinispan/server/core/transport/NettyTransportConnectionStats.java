@@ -30,6 +30,8 @@ class NettyTransportConnectionStats {
    private final String threadNamePrefix;
    private final AtomicLong totalBytesWritten = new AtomicLong();
    private final AtomicLong totalBytesRead = new AtomicLong();
+   private final AtomicLong totalFlushes = new AtomicLong();
+   private final AtomicLong totalFlushedWrites = new AtomicLong();
 
    public NettyTransportConnectionStats(EmbeddedCacheManager cacheManager, ChannelGroup acceptedChannels, String threadNamePrefix) {
       this.cacheManager = cacheManager;
@@ -52,6 +54,18 @@ public void incrementTotalBytesRead(long bytes) {
       increment(totalBytesRead, bytes);
    }
 
+   public void incrementFlushes(long writes) {
+      if (isGlobalStatsEnabled) {
+         totalFlushes.incrementAndGet();
+         totalFlushedWrites.addAndGet(writes);
+      }
+   }
+
+   public double getAverageWritesPerFlush() {
+      long flushes = totalFlushes.get();
+      return flushes == 0 ? 0 : (double) totalFlushedWrites.get() / flushes;
+   }
+
    public long getTotalBytesWritten() {
       return totalBytesWritten.get();
    }
@@ -15,6 +15,7 @@
  */
 public class StatsChannelHandler extends ChannelDuplexHandler {
    private final NettyTransport transport;
+   private int pendingWrites;
 
    public StatsChannelHandler(NettyTransport transport) {
       this.transport = transport;
@@ -37,9 +38,19 @@ public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
       int writable = getByteSize(msg);
 
       transport.updateTotalBytesWritten(writable);
+      pendingWrites++;
       super.write(ctx, msg, promise);
    }
 
+   @Override
+   public void flush(ChannelHandlerContext ctx) throws Exception {
+      if (pendingWrites > 0) {
+         transport.updateFlushes(pendingWrites);
+         pendingWrites = 0;
+      }
+      super.flush(ctx);
+   }
+
    int getByteSize(Object msg) {
       if (msg instanceof ByteBuf) {
          return ((ByteBuf) msg).readableBytes();
@@ -40,6 +40,13 @@ public interface Transport {
    )
    long getTotalBytesRead();
 
+   @ManagedAttribute(description = "Returns the average number of responses written to clients " +
+         "with each flush of the socket.",
+         displayName = "Average responses per flush",
+         displayType = DisplayType.SUMMARY
+   )
+   double getAverageResponsesPerFlush();
+
    @ManagedAttribute(
          description = "Returns the host to which the transport binds.",
          displayName = "Host name",
@@ -14,6 +14,8 @@
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.versioning.NumericVersion;
 import org.infinispan.context.Flag;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.ReadWriteMapImpl;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.server.hotrod.HotRodServer.CacheInfo;
@@ -45,6 +47,38 @@ private boolean isBlockingWrite(CacheInfo cacheInfo, HotRodHeader header) {
       return cacheInfo.persistence || cacheInfo.indexing && !header.isSkipIndexing() || cacheInfo.syncListener;
    }
 
+   private boolean isSingleCommandWrite(CacheInfo cacheInfo, HotRodHeader header) {
+      // Functional commands bypass the authorization checks of the secure cache, transactions already read the entry
+      // before writing it, and older clients may ignore the return value of the operation
+      return !cacheInfo.transactional && !cacheInfo.configuration.security().authorization().enabled() &&
+            HotRodVersion.HOTROD_20.isAtLeast(header.version);
+   }
+
+   private void conditionalWrite(HotRodHeader header, AdvancedCache<byte[], byte[]> cache, byte[] key, byte operation,
+                                 byte[] value, Metadata metadata, long version) {
+      ReadWriteMapImpl.create(FunctionalMapImpl.create(cache))
+            .eval(key, new ConditionalWriteFunction(operation, value, metadata, version))
+            .whenComplete((result, throwable) -> handleConditionalWrite(header, operation, result, throwable));
+   }
+
+   private void handleConditionalWrite(HotRodHeader header, byte operation, ConditionalWriteFunction.Result result, Throwable throwable) {
+      if (throwable != null) {
+         writeException(header, throwable);
+      } else if (result.executed) {
+         if (operation == ConditionalWriteFunction.PUT_IF_ABSENT) {
+            writeSuccess(header);
+         } else {
+            writeSuccess(header, result.previous);
+         }
+      } else if (operation == ConditionalWriteFunction.REPLACE) {
+         writeNotExecuted(header);
+      } else if (result.previous == null) {
+         writeNotExist(header);
+      } else {
+         writeNotExecuted(header, result.previous);
+      }
+   }
+
    void ping(HotRodHeader header, Subject subject) {
       // we need to throw an exception when this cache is inaccessible, but ignore the empty cache name if no default cache has been configured
       if (!header.cacheName.isEmpty() || server.getCacheManager().getCacheManagerConfiguration().defaultCacheName().isPresent()) {
@@ -204,14 +238,19 @@ void replaceIfUnmodified(HotRodHeader header, Subject subject, byte[] key, long
       CacheInfo cacheInfo = server.getCacheInfo(header);
       AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
       metadata.version(cacheInfo.versionGenerator.generateNew());
+      boolean singleCommand = isSingleCommandWrite(cacheInfo, header);
       if (isBlockingWrite(cacheInfo, header)) {
-         executor.execute(() -> replaceIfUnmodifiedInternal(header, cache, key, version, value, metadata.build()));
+         executor.execute(() -> replaceIfUnmodifiedInternal(header, cache, key, version, value, metadata.build(), singleCommand));
       } else {
-         replaceIfUnmodifiedInternal(header, cache, key, version, value, metadata.build());
+         replaceIfUnmodifiedInternal(header, cache, key, version, value, metadata.build(), singleCommand);
       }
    }
 
-   private void replaceIfUnmodifiedInternal(HotRodHeader header, AdvancedCache<byte[], byte[]> cache, byte[] key, long version, byte[] value, Metadata metadata) {
+   private void replaceIfUnmodifiedInternal(HotRodHeader header, AdvancedCache<byte[], byte[]> cache, byte[] key, long version, byte[] value, Metadata metadata, boolean singleCommand) {
+      if (singleCommand) {
+         conditionalWrite(header, cache, key, ConditionalWriteFunction.REPLACE_IF_UNMODIFIED, value, metadata, version);
+         return;
+      }
       cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getCacheEntryAsync(key)
             .whenComplete((entry, throwable) -> handleGetForReplaceIfUnmodified(header, cache, entry, version, value, metadata, throwable));
    }
@@ -245,14 +284,19 @@ void replace(HotRodHeader header, Subject subject, byte[] key, byte[] value, Met
       CacheInfo cacheInfo = server.getCacheInfo(header);
       AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
       metadata.version(cacheInfo.versionGenerator.generateNew());
+      boolean singleCommand = isSingleCommandWrite(cacheInfo, header);
       if (isBlockingWrite(cacheInfo, header)) {
-         executor.execute(() -> replaceInternal(header, cache, key, value, metadata.build()));
+         executor.execute(() -> replaceInternal(header, cache, key, value, metadata.build(), singleCommand));
       } else {
-         replaceInternal(header, cache, key, value, metadata.build());
+         replaceInternal(header, cache, key, value, metadata.build(), singleCommand);
       }
    }
 
-   private void replaceInternal(HotRodHeader header, AdvancedCache<byte[], byte[]> cache, byte[] key, byte[] value, Metadata metadata) {
+   private void replaceInternal(HotRodHeader header, AdvancedCache<byte[], byte[]> cache, byte[] key, byte[] value, Metadata metadata, boolean singleCommand) {
+      if (singleCommand) {
+         conditionalWrite(header, cache, key, ConditionalWriteFunction.REPLACE, value, metadata, 0);
+         return;
+      }
       // Avoid listener notification for a simple optimization
       // on whether a new version should be calculated or not.
       cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getAsync(key)
@@ -285,14 +329,19 @@ void putIfAbsent(HotRodHeader header, Subject subject, byte[] key, byte[] value,
       CacheInfo cacheInfo = server.getCacheInfo(header);
       AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
       metadata.version(cacheInfo.versionGenerator.generateNew());
+      boolean singleCommand = isSingleCommandWrite(cacheInfo, header);
       if (isBlockingWrite(cacheInfo, header)) {
-         executor.execute(() -> putIfAbsentInternal(header, cache, key, value, metadata.build()));
+         executor.execute(() -> putIfAbsentInternal(header, cache, key, value, metadata.build(), singleCommand));
       } else {
-         putIfAbsentInternal(header, cache, key, value, metadata.build());
+         putIfAbsentInternal(header, cache, key, value, metadata.build(), singleCommand);
       }
    }
 
-   private void putIfAbsentInternal(HotRodHeader header, AdvancedCache<byte[], byte[]> cache, byte[] key, byte[] value, Metadata metadata) {
+   private void putIfAbsentInternal(HotRodHeader header, AdvancedCache<byte[], byte[]> cache, byte[] key, byte[] value, Metadata metadata, boolean singleCommand) {
+      if (singleCommand) {
+         conditionalWrite(header, cache, key, ConditionalWriteFunction.PUT_IF_ABSENT, value, metadata, 0);
+         return;
+      }
       cache.getAsync(key).whenComplete((prev, throwable) -> handleGetForPutIfAbsent(header, cache, key, prev, value, metadata, throwable));
    }
 
@@ -345,14 +394,19 @@ private void handleRemove(HotRodHeader header, byte[] prev, Throwable throwable)
    void removeIfUnmodified(HotRodHeader header, Subject subject, byte[] key, long version) {
       CacheInfo cacheInfo = server.getCacheInfo(header);
       AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
+      boolean singleCommand = isSingleCommandWrite(cacheInfo, header);
       if (isBlockingWrite(cacheInfo, header)) {
-         executor.execute(() -> removeIfUnmodifiedInternal(header, cache, key, version));
+         executor.execute(() -> removeIfUnmodifiedInternal(header, cache, key, version, singleCommand));
       } else {
-         removeIfUnmodifiedInternal(header, cache, key, version);
+         removeIfUnmodifiedInternal(header, cache, key, version, singleCommand);
       }
    }
 
-   private void removeIfUnmodifiedInternal(HotRodHeader header, AdvancedCache<byte[], byte[]> cache, byte[] key, long version) {
+   private void removeIfUnmodifiedInternal(HotRodHeader header, AdvancedCache<byte[], byte[]> cache, byte[] key, long version, boolean singleCommand) {
+      if (singleCommand) {
+         conditionalWrite(header, cache, key, ConditionalWriteFunction.REMOVE_IF_UNMODIFIED, null, null, version);
+         return;
+      }
       cache.getCacheEntryAsync(key)
             .whenComplete((entry, throwable) -> handleGetForRemoveIfUnmodified(header, cache, entry, key, version, throwable));
    }
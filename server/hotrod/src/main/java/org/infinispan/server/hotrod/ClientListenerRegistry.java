@@ -3,12 +3,14 @@
 import static org.infinispan.commons.dataconversion.MediaType.APPLICATION_OBJECT;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
@@ -17,11 +19,12 @@
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
-import org.infinispan.commons.CacheException;
 import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.commons.dataconversion.TranscoderMarshallerAdapter;
 import org.infinispan.commons.logging.LogFactory;
@@ -30,7 +33,13 @@
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.versioning.NumericVersion;
 import org.infinispan.encoding.DataConversion;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.factories.threads.DefaultThreadFactory;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.marshall.core.EncoderRegistry;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.Listener;
@@ -49,28 +58,41 @@
 import org.infinispan.notifications.cachelistener.filter.CacheEventFilterConverterFactory;
 import org.infinispan.notifications.cachelistener.filter.CacheEventFilterFactory;
 import org.infinispan.notifications.cachelistener.filter.KeyValueFilterConverterAsCacheEventFilterConverter;
+import org.infinispan.server.hotrod.configuration.ClientListenerOverflowPolicy;
+import org.infinispan.server.hotrod.configuration.HotRodServerConfiguration;
 import org.infinispan.server.hotrod.logging.Log;
 import org.infinispan.util.KeyValuePair;
-import org.infinispan.util.concurrent.TimeoutException;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
-import io.netty.channel.EventLoop;
 
 /**
  * @author Galder Zamarreño
  */
+@Scope(Scopes.GLOBAL) // So that annotation parser detects this as a cache manager level component
+@MBean(objectName = "ClientListeners",
+       description = "Manages the remote listeners registered by the clients and the queues of their events.")
 class ClientListenerRegistry {
+   // Maximum number of events encoded in a single buffer
+   private static final int EVENT_BATCH_SIZE = 64;
+
    private final EncoderRegistry encoderRegistry;
+   private final int queueSize;
+   private final ClientListenerOverflowPolicy overflowPolicy;
 
-   ClientListenerRegistry(EncoderRegistry encoderRegistry) {
+   ClientListenerRegistry(EncoderRegistry encoderRegistry, HotRodServerConfiguration configuration) {
       this.encoderRegistry = encoderRegistry;
+      this.queueSize = configuration.listenerQueueSize();
+      this.overflowPolicy = configuration.listenerOverflowPolicy();
    }
 
    private final static Log log = LogFactory.getLog(ClientListenerRegistry.class, Log.class);
    private final static boolean isTrace = log.isTraceEnabled();
 
    private final ConcurrentMap<WrappedByteArray, Object> eventSenders = new ConcurrentHashMap<>();
+   // Totals of all the listeners, including the ones already removed
+   private final LongAdder coalescedEvents = new LongAdder();
+   private final LongAdder droppedEvents = new LongAdder();
    private final ConcurrentMap<String, CacheEventFilterFactory> cacheEventFilterFactories = new ConcurrentHashMap<>(4, 0.9f, 16);
    private final ConcurrentMap<String, CacheEventConverterFactory> cacheEventConverterFactories = new ConcurrentHashMap<>(4, 0.9f, 16);
    private final ConcurrentMap<String, CacheEventFilterConverterFactory> cacheEventFilterConverterFactories = new ConcurrentHashMap<>(4, 0.9f, 16);
@@ -245,13 +267,83 @@ private List<?> unmarshallParams(DataConversion valueDataConversion, MediaType r
    }
 
    boolean removeClientListener(byte[] listenerId, Cache cache) {
-      Object sender = eventSenders.get(new WrappedByteArray(listenerId));
+      Object sender = eventSenders.remove(new WrappedByteArray(listenerId));
       if (sender != null) {
          cache.removeListener(sender);
          return true;
       } else return false;
    }
 
+   /**
+    * @return the number of events of the given listener waiting to be sent, or -1 if the listener doesn't exist
+    */
+   int getEventQueueSize(byte[] listenerId) {
+      BaseClientEventSender sender = (BaseClientEventSender) eventSenders.get(new WrappedByteArray(listenerId));
+      return sender != null ? sender.getQueueSize() : -1;
+   }
+
+   /**
+    * @return the number of events of the given listener that were replaced by a later event of the same key before
+    * being sent, or -1 if the listener doesn't exist
+    */
+   long getCoalescedEvents(byte[] listenerId) {
+      BaseClientEventSender sender = (BaseClientEventSender) eventSenders.get(new WrappedByteArray(listenerId));
+      return sender != null ? sender.coalescedEvents.sum() : -1;
+   }
+
+   /**
+    * @return the number of events of the given listener that were discarded because its queue was full, or -1 if the
+    * listener doesn't exist
+    */
+   long getDroppedEvents(byte[] listenerId) {
+      BaseClientEventSender sender = (BaseClientEventSender) eventSenders.get(new WrappedByteArray(listenerId));
+      return sender != null ? sender.droppedEvents.sum() : -1;
+   }
+
+   /**
+    * @return the channel to which the events of the given listener are sent, or null if the listener doesn't exist
+    */
+   Channel getListenerChannel(byte[] listenerId) {
+      BaseClientEventSender sender = (BaseClientEventSender) eventSenders.get(new WrappedByteArray(listenerId));
+      return sender != null ? sender.ch : null;
+   }
+
+   @ManagedAttribute(description = "Returns the number of events waiting to be sent to the clients, over all the listeners.",
+         displayName = "Queued events",
+         displayType = DisplayType.SUMMARY)
+   public int getTotalQueuedEvents() {
+      int total = 0;
+      for (Object sender : eventSenders.values()) {
+         total += ((BaseClientEventSender) sender).getQueueSize();
+      }
+      return total;
+   }
+
+   @ManagedAttribute(description = "Returns the number of events that were replaced by a later event of the same key " +
+         "before being sent, because the queue of the listener was full.",
+         displayName = "Coalesced events",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY)
+   public long getTotalCoalescedEvents() {
+      return coalescedEvents.sum();
+   }
+
+   @ManagedAttribute(description = "Returns the number of events that were discarded because the queue of the " +
+         "listener was full. The connection of the listener is closed when its events are discarded.",
+         displayName = "Dropped events",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY)
+   public long getTotalDroppedEvents() {
+      return droppedEvents.sum();
+   }
+
+   @ManagedAttribute(description = "Returns the number of remote listeners registered by the clients.",
+         displayName = "Number of listeners",
+         displayType = DisplayType.SUMMARY)
+   public int getNumberOfListeners() {
+      return eventSenders.size();
+   }
+
    public void stop() {
       eventSenders.clear();
       cacheEventFilterFactories.clear();
@@ -302,9 +394,22 @@ private abstract class BaseClientEventSender {
       protected final ClientEventType targetEventType;
       protected final Cache cache;
 
-      BlockingQueue<Events.Event> eventQueue = new LinkedBlockingQueue<>(100);
-
-      private final Runnable writeEventsIfPossible = this::writeEventsIfPossible;
+      // Guarded by this
+      private final ArrayDeque<QueuedEvent> eventQueue = new ArrayDeque<>();
+      // The last queued event of every key, guarded by this
+      private final Map<WrappedByteArray, QueuedEvent> lastEvents = new HashMap<>();
+      // Set when the queue overflowed and the channel is being closed, guarded by this
+      private boolean overflowed;
+      // Number of threads waiting for space in the queue, guarded by this
+      private int waitingForSpace;
+      private final AtomicBoolean writeScheduled = new AtomicBoolean();
+      final LongAdder coalescedEvents = new LongAdder();
+      final LongAdder droppedEvents = new LongAdder();
+
+      private final Runnable writeEventsIfPossible = () -> {
+         writeScheduled.set(false);
+         writeEventsIfPossible();
+      };
 
       BaseClientEventSender(Cache cache, Channel ch, VersionedEncoder encoder, byte[] listenerId, byte version, ClientEventType targetEventType) {
          this.cache = cache;
@@ -316,27 +421,43 @@ private abstract class BaseClientEventSender {
       }
 
       void init() {
-         ch.closeFuture().addListener(f ->
-               // Remove the listener, but do it on another thread pool to not exhaust the IO thread pool
-               addListenerExecutor.submit(() -> {
-                  log.debug("Channel disconnected, removing event sender listener for id: " + Util.printArray(listenerId));
-                  cache.removeListener(this);
-               }));
+         ch.closeFuture().addListener(f -> {
+            // Don't keep the current state waiting for a client that is gone
+            wakeUpWaiting();
+            // Remove the listener, but do it on another thread pool to not exhaust the IO thread pool
+            addListenerExecutor.submit(() -> {
+               log.debug("Channel disconnected, removing event sender listener for id: " + Util.printArray(listenerId));
+               eventSenders.remove(new WrappedByteArray(listenerId), this);
+               cache.removeListener(this);
+            });
+         });
       }
 
       boolean hasChannel(Channel channel) {
          return ch == channel;
       }
 
+      synchronized int getQueueSize() {
+         return eventQueue.size();
+      }
+
       // This method can only be invoked from the Event Loop thread!
       void writeEventsIfPossible() {
          boolean written = false;
-         while (!eventQueue.isEmpty() && ch.isWritable()) {
-            Events.Event event = eventQueue.poll();
-            if (isTrace) log.tracef("Write event: %s to channel %s", event, ch);
+         Events.Event[] batch = new Events.Event[EVENT_BATCH_SIZE];
+         while (ch.isWritable()) {
+            int count = pollEvents(batch);
+            if (count == 0) {
+               break;
+            }
+            // Encode several events in the same buffer, so that they are sent with a single write
             ByteBuf buf = ch.alloc().ioBuffer();
-            encoder.writeEvent(event, buf);
-            ch.write(buf);
+            for (int i = 0; i < count; ++i) {
+               if (isTrace) log.tracef("Write event: %s to channel %s", batch[i], ch);
+               encoder.writeEvent(batch[i], buf);
+               batch[i] = null;
+            }
+            ch.write(buf, ch.voidPromise());
             written = true;
          }
          if (written) {
@@ -344,6 +465,81 @@ void writeEventsIfPossible() {
          }
       }
 
+      private synchronized int pollEvents(Events.Event[] batch) {
+         int count = 0;
+         QueuedEvent queued;
+         while (count < batch.length && (queued = eventQueue.poll()) != null) {
+            lastEvents.remove(queued.key, queued);
+            batch[count++] = queued.event;
+         }
+         if (count > 0 && waitingForSpace > 0) {
+            notifyAll();
+         }
+         return count;
+      }
+
+      private synchronized void wakeUpWaiting() {
+         notifyAll();
+      }
+
+      /**
+       * Waits until the queue has space for another event, the queue overflowed or the channel is closed. Must be
+       * invoked while holding the monitor.
+       */
+      private void awaitQueueSpace() {
+         waitingForSpace++;
+         try {
+            while (eventQueue.size() >= queueSize && !overflowed && ch.isOpen()) {
+               wait();
+            }
+         } catch (InterruptedException e) {
+            // The event is handled by the overflow policy instead
+            Thread.currentThread().interrupt();
+         } finally {
+            waitingForSpace--;
+         }
+      }
+
+      /**
+       * Queues the event. If the queue is full, the event is coalesced with the last queued event of the same key, or
+       * the channel is closed, depending on the overflow policy. Only events of the current state wait for space in
+       * the queue instead.
+       * @return whether the event was queued or coalesced
+       */
+      private synchronized boolean queueEvent(WrappedByteArray key, Events.Event event, boolean currentState) {
+         if (currentState) {
+            // The current state is sent by the thread that adds the listener, so it can wait for the client.
+            // Otherwise a cache with more entries than the queue size would always overflow it.
+            awaitQueueSpace();
+         }
+         if (overflowed) {
+            droppedEvents.increment();
+            ClientListenerRegistry.this.droppedEvents.increment();
+            return false;
+         }
+         if (eventQueue.size() < queueSize) {
+            QueuedEvent queued = new QueuedEvent(key, event);
+            eventQueue.add(queued);
+            lastEvents.put(key, queued);
+            return true;
+         }
+         if (overflowPolicy == ClientListenerOverflowPolicy.COALESCE) {
+            QueuedEvent queued = lastEvents.get(key);
+            if (queued != null) {
+               // The client only misses the intermediate state of the key
+               queued.event = event;
+               coalescedEvents.increment();
+               ClientListenerRegistry.this.coalescedEvents.increment();
+               return true;
+            }
+         }
+         // The client can't get a consistent view of the cache anymore, it has to reconnect and resynchronize
+         overflowed = true;
+         droppedEvents.increment();
+         ClientListenerRegistry.this.droppedEvents.increment();
+         return false;
+      }
+
       @CacheEntryCreated
       @CacheEntryModified
       @CacheEntryRemoved
@@ -390,39 +586,21 @@ boolean isChannelDisconnected() {
       void sendEvent(byte[] key, byte[] value, long dataVersion, CacheEntryEvent event) {
          Events.Event remoteEvent = createRemoteEvent(key, value, dataVersion, event);
          if (isTrace)
-            log.tracef("Queue event %s, before queuing event queue size is %d", remoteEvent, eventQueue.size());
-
-         EventLoop loop = ch.eventLoop();
-         // We shouldn't be in the event loop, but just in case we can't get stuck blocking on putting into the queue
-         // so we offer and try to catch up on events if possible
-         if (loop.inEventLoop()) {
-            boolean offered = eventQueue.offer(remoteEvent);
-            while (!offered) {
-               // If the event queue is full, we have to try to write some events to free up space since we are in the
-               // event loop and no other thread can drain this queue but us
-               writeEventsIfPossible();
-               // We again try to offer, but if we weren't able to write any events this will not offer - so we
-               // have to wait for the client to catch up to us - we put a little wait to not cause CPU to spin
-               try {
-                  offered = eventQueue.offer(remoteEvent, 1, TimeUnit.MILLISECONDS);
-               } catch (InterruptedException e) {
-                  throw new CacheException(e);
-               }
-            }
-         } else {
-            try {
-               // TODO: replace with a better number
-               if (!eventQueue.offer(remoteEvent, 30, TimeUnit.SECONDS)) {
-                  throw new TimeoutException("Timed out attempting to offer remote event into queue");
-               }
-            } catch (InterruptedException e) {
-               throw new CacheException(e);
+            log.tracef("Queue event %s, before queuing event queue size is %d", remoteEvent, getQueueSize());
+
+         // Never block the thread that modified the cache, a slow client must not delay the writes of other clients
+         if (!queueEvent(new WrappedByteArray(key), remoteEvent, event.isCurrentState())) {
+            if (ch.isOpen()) {
+               log.closingSlowListenerChannel(ch, Util.printArray(listenerId));
+               ch.close();
             }
+            return;
          }
 
-         if (ch.isWritable()) {
+         // A single write task is enough to send all the events queued until it runs
+         if (ch.isWritable() && writeScheduled.compareAndSet(false, true)) {
             // Make sure we write any event in main event loop
-            loop.submit(writeEventsIfPossible);
+            ch.eventLoop().execute(writeEventsIfPossible);
          }
       }
 
@@ -478,6 +656,16 @@ private KeyValuePair<HotRodOperation, Boolean> getEventResponseType(CacheEntryEv
       }
    }
 
+   private static final class QueuedEvent {
+      final WrappedByteArray key;
+      Events.Event event;
+
+      QueuedEvent(WrappedByteArray key, Events.Event event) {
+         this.key = key;
+         this.event = event;
+      }
+   }
+
    private Object getClientEventSender(boolean includeState, Channel ch, VersionedEncoder encoder, byte version,
                                        Cache cache, byte[] listenerId, ClientEventType eventType, long messageId) {
       BaseClientEventSender bces;
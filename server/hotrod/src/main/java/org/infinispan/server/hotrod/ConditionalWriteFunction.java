@@ -0,0 +1,129 @@
+package org.infinispan.server.hotrod;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.functional.EntryView.ReadWriteEntryView;
+import org.infinispan.functional.MetaParam;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * Performs a conditional write of the Hot Rod protocol in a single read-write command, instead of reading the entry
+ * and writing it with a second command.
+ * <p>
+ * The function returns whether the write was executed together with the previous value, so that the response can be
+ * written without another read.
+ *
+ * @since 10.0
+ */
+class ConditionalWriteFunction implements Function<ReadWriteEntryView<byte[], byte[]>, ConditionalWriteFunction.Result> {
+   static final byte REPLACE = 0;
+   static final byte PUT_IF_ABSENT = 1;
+   static final byte REPLACE_IF_UNMODIFIED = 2;
+   static final byte REMOVE_IF_UNMODIFIED = 3;
+
+   private final byte operation;
+   private final byte[] value;
+   private final Metadata metadata;
+   private final long version;
+
+   ConditionalWriteFunction(byte operation, byte[] value, Metadata metadata, long version) {
+      this.operation = operation;
+      this.value = value;
+      this.metadata = metadata;
+      this.version = version;
+   }
+
+   @Override
+   public Result apply(ReadWriteEntryView<byte[], byte[]> view) {
+      Optional<byte[]> prev = view.find();
+      switch (operation) {
+         case REPLACE:
+            if (!prev.isPresent()) return Result.NOT_EXECUTED;
+            view.set(value, metadata);
+            return new Result(true, prev.get());
+         case PUT_IF_ABSENT:
+            if (prev.isPresent()) return new Result(false, prev.get());
+            view.set(value, metadata);
+            return Result.EXECUTED;
+         case REPLACE_IF_UNMODIFIED:
+         case REMOVE_IF_UNMODIFIED:
+            if (!prev.isPresent()) return Result.NOT_EXECUTED;
+            NumericVersion expected = new NumericVersion(version);
+            boolean unmodified = view.findMetaParam(MetaParam.MetaEntryVersion.class)
+                  .map(v -> expected.equals(v.get())).orElse(false);
+            if (!unmodified) return new Result(false, prev.get());
+            if (operation == REPLACE_IF_UNMODIFIED) {
+               view.set(value, metadata);
+            } else {
+               view.remove();
+            }
+            return new Result(true, prev.get());
+         default:
+            throw new IllegalStateException("Unknown operation " + operation);
+      }
+   }
+
+   /**
+    * Whether a conditional write was executed, and the value of the entry before the write.
+    */
+   static class Result {
+      static final Result EXECUTED = new Result(true, null);
+      static final Result NOT_EXECUTED = new Result(false, null);
+
+      final boolean executed;
+      final byte[] previous;
+
+      Result(boolean executed, byte[] previous) {
+         this.executed = executed;
+         this.previous = previous;
+      }
+   }
+
+   static class Externalizer extends AbstractExternalizer<ConditionalWriteFunction> {
+      @Override
+      public Set<Class<? extends ConditionalWriteFunction>> getTypeClasses() {
+         return Collections.singleton(ConditionalWriteFunction.class);
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, ConditionalWriteFunction object) throws IOException {
+         output.writeByte(object.operation);
+         MarshallUtil.marshallByteArray(object.value, output);
+         output.writeObject(object.metadata);
+         output.writeLong(object.version);
+      }
+
+      @Override
+      public ConditionalWriteFunction readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         return new ConditionalWriteFunction(input.readByte(), MarshallUtil.unmarshallByteArray(input),
+               (Metadata) input.readObject(), input.readLong());
+      }
+   }
+
+   static class ResultExternalizer extends AbstractExternalizer<Result> {
+      @Override
+      public Set<Class<? extends Result>> getTypeClasses() {
+         return Collections.singleton(Result.class);
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, Result object) throws IOException {
+         output.writeBoolean(object.executed);
+         MarshallUtil.marshallByteArray(object.previous, output);
+      }
+
+      @Override
+      public Result readObject(ObjectInput input) throws IOException {
+         return new Result(input.readBoolean(), MarshallUtil.unmarshallByteArray(input));
+      }
+   }
+}
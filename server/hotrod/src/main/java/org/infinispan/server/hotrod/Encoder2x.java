@@ -111,7 +111,7 @@ public ByteBuf valueResponse(HotRodHeader header, HotRodServer server, ByteBufAl
       if (prev == null) {
          ExtendedByteBuf.writeUnsignedInt(0, buf);
       } else {
-         ExtendedByteBuf.writeRangedBytes(prev, buf);
+         buf = ExtendedByteBuf.writeLastRangedBytes(prev, buf);
       }
       if (trace) {
          log.tracef("Write response to %s messageId=%d status=%s prev=%s", header.op, header.messageId, status, Util.printArray(prev));
@@ -221,8 +221,7 @@ private void writePair(ByteBuf buf, String key, String value) {
    public ByteBuf valueWithVersionResponse(HotRodHeader header, HotRodServer server, ByteBufAllocator alloc, byte[] value, long version) {
       ByteBuf buf = writeHeader(header, server, alloc, OperationStatus.Success);
       buf.writeLong(version);
-      ExtendedByteBuf.writeRangedBytes(value, buf);
-      return buf;
+      return ExtendedByteBuf.writeLastRangedBytes(value, buf);
    }
 
 
@@ -231,8 +230,7 @@ public ByteBuf getWithMetadataResponse(HotRodHeader header, HotRodServer server,
       ByteBuf buf = writeHeader(header, server, alloc, OperationStatus.Success);
       MetadataUtils.writeMetadata(MetadataUtils.extractLifespan(entry), MetadataUtils.extractMaxIdle(entry),
             MetadataUtils.extractCreated(entry), MetadataUtils.extractLastUsed(entry), MetadataUtils.extractVersion(entry), buf);
-      ExtendedByteBuf.writeRangedBytes(entry.getValue(), buf);
-      return buf;
+      return ExtendedByteBuf.writeLastRangedBytes(entry.getValue(), buf);
    }
 
    @Override
@@ -26,6 +26,7 @@
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
+import javax.management.ObjectName;
 import javax.security.auth.Subject;
 import javax.security.sasl.SaslServerFactory;
 
@@ -91,6 +92,7 @@
 import org.infinispan.server.hotrod.iteration.IterationManager;
 import org.infinispan.server.hotrod.logging.HotRodAccessLogging;
 import org.infinispan.server.hotrod.logging.Log;
+import org.infinispan.server.hotrod.transport.FlushConsolidationInitializer;
 import org.infinispan.server.hotrod.transport.TimeoutEnabledChannelInitializer;
 import org.infinispan.upgrade.RollingUpgradeManager;
 import org.infinispan.util.KeyValuePair;
@@ -122,6 +124,7 @@ public class HotRodServer extends AbstractProtocolServer<HotRodServerConfigurati
    private QueryFacade queryFacade;
    private Map<String, SaslServerFactory> saslMechFactories = new ConcurrentHashMap<>(4, 0.9f, 16);
    private ClientListenerRegistry clientListenerRegistry;
+   private ObjectName clientListenersObjName;
    private Marshaller marshaller;
    private ClusterExecutor clusterExecutor;
    private CrashedMemberDetectorListener viewChangeListener;
@@ -227,7 +230,8 @@ protected void startInternal(HotRodServerConfiguration configuration, EmbeddedCa
       // These are also initialized by super.startInternal, but we need them before
       this.configuration = configuration;
       this.cacheManager = cacheManager;
-      this.iterationManager = new DefaultIterationManager(cacheManager.getGlobalComponentRegistry().getTimeService());
+      this.iterationManager = new DefaultIterationManager(cacheManager.getGlobalComponentRegistry().getTimeService(),
+            configuration.iterationBatchBytes());
       this.hasDefaultCache = configuration.defaultCacheName() != null || cacheManager.getCacheManagerConfiguration().defaultCacheName().isPresent();
 
       // populate the sasl factories based on the required mechs
@@ -237,7 +241,7 @@ protected void startInternal(HotRodServerConfiguration configuration, EmbeddedCa
       List<QueryFacade> queryFacades = loadQueryFacades();
       queryFacade = queryFacades.size() > 0 ? queryFacades.get(0) : null;
       clientListenerRegistry = new ClientListenerRegistry(
-         cacheManager.getGlobalComponentRegistry().getComponent(EncoderRegistry.class));
+         cacheManager.getGlobalComponentRegistry().getComponent(EncoderRegistry.class), configuration);
       clientCounterNotificationManager = new ClientCounterManagerNotificationManager(asCounterManager(cacheManager));
 
       addKeyValueFilterConverterFactory(ToEmptyBytesKeyValueFilterConverter.class.getName(), new ToEmptyBytesFactory());
@@ -275,9 +279,11 @@ protected void startInternal(HotRodServerConfiguration configuration, EmbeddedCa
    public ChannelInitializer<Channel> getInitializer() {
       if (configuration.idleTimeout() > 0)
          return new NettyInitializers(new NettyChannelInitializer(this, transport, getEncoder(), getDecoder()),
+                                      new FlushConsolidationInitializer(this),
                                       new TimeoutEnabledChannelInitializer<>(this));
       else // Idle timeout logic is disabled with -1 or 0 values
-         return new NettyInitializers(new NettyChannelInitializer(this, transport, getEncoder(), getDecoder()));
+         return new NettyInitializers(new NettyChannelInitializer(this, transport, getEncoder(), getDecoder()),
+                                      new FlushConsolidationInitializer(this));
    }
 
    private <T> void loadFilterConverterFactories(Class<T> c, BiConsumer<String, T> biConsumer) {
@@ -304,6 +310,23 @@ protected void startTransport() {
       super.startTransport();
    }
 
+   @Override
+   protected void registerServerMBeans() {
+      super.registerServerMBeans();
+      try {
+         clientListenersObjName = registerServerMBean(clientListenerRegistry, null);
+      } catch (Exception e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   @Override
+   protected void unregisterServerMBeans() throws Exception {
+      super.unregisterServerMBeans();
+      unregisterServerMBean(clientListenersObjName);
+      clientListenersObjName = null;
+   }
+
    @Override
    protected void startDefaultCache() {
       if (hasDefaultCache) {
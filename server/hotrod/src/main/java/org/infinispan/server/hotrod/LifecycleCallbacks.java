@@ -4,6 +4,8 @@
 import static org.infinispan.server.core.ExternalizerIds.CLIENT_ADDRESS;
 import static org.infinispan.server.core.ExternalizerIds.COMPLETE_FUNCTION;
 import static org.infinispan.server.core.ExternalizerIds.CONDITIONAL_MARK_ROLLBACK_FUNCTION;
+import static org.infinispan.server.core.ExternalizerIds.CONDITIONAL_WRITE_FUNCTION;
+import static org.infinispan.server.core.ExternalizerIds.CONDITIONAL_WRITE_RESULT;
 import static org.infinispan.server.core.ExternalizerIds.CREATE_STATE_FUNCTION;
 import static org.infinispan.server.core.ExternalizerIds.DECISION_FUNCTION;
 import static org.infinispan.server.core.ExternalizerIds.ITERATION_FILTER;
@@ -83,6 +85,8 @@ public void cacheManagerStarting(GlobalComponentRegistry gcr, GlobalConfiguratio
       externalizers.put(PREPARED_FUNCTION, SetPreparedFunction.EXTERNALIZER);
       externalizers.put(XID_PREDICATE, XidPredicate.EXTERNALIZER);
       externalizers.put(CONDITIONAL_MARK_ROLLBACK_FUNCTION, ConditionalMarkAsRollbackFunction.EXTERNALIZER);
+      externalizers.put(CONDITIONAL_WRITE_FUNCTION, new ConditionalWriteFunction.Externalizer());
+      externalizers.put(CONDITIONAL_WRITE_RESULT, new ConditionalWriteFunction.ResultExternalizer());
 
       registerGlobalTxTable(gcr);
    }
@@ -48,4 +48,24 @@ public HotRodServerChildConfigurationBuilder topologyStateTransfer(boolean topol
       return builder.topologyStateTransfer(topologyStateTransfer);
    }
 
+   @Override
+   public HotRodServerChildConfigurationBuilder listenerQueueSize(int listenerQueueSize) {
+      return builder.listenerQueueSize(listenerQueueSize);
+   }
+
+   @Override
+   public HotRodServerChildConfigurationBuilder listenerOverflowPolicy(ClientListenerOverflowPolicy listenerOverflowPolicy) {
+      return builder.listenerOverflowPolicy(listenerOverflowPolicy);
+   }
+
+   @Override
+   public HotRodServerChildConfigurationBuilder iterationBatchBytes(int iterationBatchBytes) {
+      return builder.iterationBatchBytes(iterationBatchBytes);
+   }
+
+   @Override
+   public HotRodServerChildConfigurationBuilder flushBatchSize(int flushBatchSize) {
+      return builder.flushBatchSize(flushBatchSize);
+   }
+
 }
@@ -0,0 +1,20 @@
+package org.infinispan.server.hotrod.configuration;
+
+/**
+ * What the server does when the events of a client listener can't be sent as fast as they are generated and the
+ * listener's event queue is full.
+ *
+ * @since 10.0
+ */
+public enum ClientListenerOverflowPolicy {
+   /**
+    * Replaces the queued event of the same key with the new event. If no event of the same key is queued, the
+    * channel is closed as with {@link #DISCONNECT}.
+    */
+   COALESCE,
+   /**
+    * Closes the channel of the listener. The client fails over and registers the listener again, notifying the
+    * application with a client cache failover event so that it can resynchronize its state.
+    */
+   DISCONNECT
+}
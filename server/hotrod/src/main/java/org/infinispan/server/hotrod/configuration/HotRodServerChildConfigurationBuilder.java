@@ -51,4 +51,30 @@ public interface HotRodServerChildConfigurationBuilder {
     */
    HotRodServerChildConfigurationBuilder topologyStateTransfer(boolean topologyStateTransfer);
 
+   /**
+    * Sets the maximum number of events queued for each client listener while they are waiting to be sent to the
+    * client. Defaults to 1000
+    */
+   HotRodServerChildConfigurationBuilder listenerQueueSize(int listenerQueueSize);
+
+   /**
+    * Sets what happens when the event queue of a client listener is full. Defaults to
+    * {@link ClientListenerOverflowPolicy#COALESCE}
+    */
+   HotRodServerChildConfigurationBuilder listenerOverflowPolicy(ClientListenerOverflowPolicy listenerOverflowPolicy);
+
+   /**
+    * Sets the approximate maximum size in bytes of the keys and values in each batch of a remote iteration. A batch
+    * is sent once it reaches this size, even if it holds fewer entries than the batch size requested by the client.
+    * Keys and values stored as byte arrays are counted with their length, other objects with an estimate.
+    * Defaults to 1 MiB
+    */
+   HotRodServerChildConfigurationBuilder iterationBatchBytes(int iterationBatchBytes);
+
+   /**
+    * Sets the maximum number of responses written to a channel before they are flushed, while the server is still
+    * reading pipelined requests from that channel. Defaults to 256
+    */
+   HotRodServerChildConfigurationBuilder flushBatchSize(int flushBatchSize);
+
 }
@@ -20,6 +20,10 @@ public class HotRodServerConfiguration extends ProtocolServerConfiguration {
    public static final AttributeDefinition<Long> TOPOLOGY_LOCK_TIMEOUT = AttributeDefinition.builder("topology-lock-timeout", 10000L).immutable().build();
    public static final AttributeDefinition<Long> TOPOLOGY_REPL_TIMEOUT = AttributeDefinition.builder("topology-repl-timeout", 10000L).immutable().build();
    public static final AttributeDefinition<Boolean> TOPOLOGY_STATE_TRANSFER = AttributeDefinition.builder("topology-state-transfer", true).immutable().build();
+   public static final AttributeDefinition<Integer> LISTENER_QUEUE_SIZE = AttributeDefinition.builder("listener-queue-size", 1000).immutable().build();
+   public static final AttributeDefinition<ClientListenerOverflowPolicy> LISTENER_OVERFLOW_POLICY = AttributeDefinition.builder("listener-overflow-policy", ClientListenerOverflowPolicy.COALESCE).immutable().build();
+   public static final AttributeDefinition<Integer> ITERATION_BATCH_BYTES = AttributeDefinition.builder("iteration-batch-bytes", 1024 * 1024).immutable().build();
+   public static final AttributeDefinition<Integer> FLUSH_BATCH_SIZE = AttributeDefinition.builder("flush-batch-size", 256).immutable().build();
 
    private final Attribute<String> proxyHost;
    private final Attribute<Integer> proxyPort;
@@ -27,11 +31,16 @@ public class HotRodServerConfiguration extends ProtocolServerConfiguration {
    private final Attribute<Long> topologyReplTimeout;
    private final Attribute<Boolean> topologyAwaitInitialTransfer;
    private final Attribute<Boolean> topologyStateTransfer;
+   private final Attribute<Integer> listenerQueueSize;
+   private final Attribute<ClientListenerOverflowPolicy> listenerOverflowPolicy;
+   private final Attribute<Integer> iterationBatchBytes;
+   private final Attribute<Integer> flushBatchSize;
    private final AuthenticationConfiguration authentication;
 
    public static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(HotRodServerConfiguration.class, ProtocolServerConfiguration.attributeDefinitionSet(),
-            PROXY_HOST, PROXY_PORT, TOPOLOGY_STATE_TRANSFER, TOPOLOGY_AWAIT_INITIAL_TRANSFER, TOPOLOGY_LOCK_TIMEOUT, TOPOLOGY_REPL_TIMEOUT);
+            PROXY_HOST, PROXY_PORT, TOPOLOGY_STATE_TRANSFER, TOPOLOGY_AWAIT_INITIAL_TRANSFER, TOPOLOGY_LOCK_TIMEOUT, TOPOLOGY_REPL_TIMEOUT,
+            LISTENER_QUEUE_SIZE, LISTENER_OVERFLOW_POLICY, ITERATION_BATCH_BYTES, FLUSH_BATCH_SIZE);
    }
 
    HotRodServerConfiguration(AttributeSet attributes, SslConfiguration ssl, AuthenticationConfiguration authentication) {
@@ -44,6 +53,10 @@ public static AttributeSet attributeDefinitionSet() {
       topologyReplTimeout = attributes.attribute(TOPOLOGY_REPL_TIMEOUT);
       topologyAwaitInitialTransfer = attributes.attribute(TOPOLOGY_AWAIT_INITIAL_TRANSFER);
       topologyStateTransfer = attributes.attribute(TOPOLOGY_STATE_TRANSFER);
+      listenerQueueSize = attributes.attribute(LISTENER_QUEUE_SIZE);
+      listenerOverflowPolicy = attributes.attribute(LISTENER_OVERFLOW_POLICY);
+      iterationBatchBytes = attributes.attribute(ITERATION_BATCH_BYTES);
+      flushBatchSize = attributes.attribute(FLUSH_BATCH_SIZE);
    }
 
    public String proxyHost() {
@@ -83,6 +96,22 @@ public boolean topologyStateTransfer() {
       return topologyStateTransfer.get();
    }
 
+   public int listenerQueueSize() {
+      return listenerQueueSize.get();
+   }
+
+   public ClientListenerOverflowPolicy listenerOverflowPolicy() {
+      return listenerOverflowPolicy.get();
+   }
+
+   public int iterationBatchBytes() {
+      return iterationBatchBytes.get();
+   }
+
+   public int flushBatchSize() {
+      return flushBatchSize.get();
+   }
+
    public AuthenticationConfiguration authentication() {
       return authentication;
    }
@@ -1,6 +1,10 @@
 package org.infinispan.server.hotrod.configuration;
 
 import static org.infinispan.server.core.configuration.ProtocolServerConfiguration.HOST;
+import static org.infinispan.server.hotrod.configuration.HotRodServerConfiguration.FLUSH_BATCH_SIZE;
+import static org.infinispan.server.hotrod.configuration.HotRodServerConfiguration.ITERATION_BATCH_BYTES;
+import static org.infinispan.server.hotrod.configuration.HotRodServerConfiguration.LISTENER_OVERFLOW_POLICY;
+import static org.infinispan.server.hotrod.configuration.HotRodServerConfiguration.LISTENER_QUEUE_SIZE;
 import static org.infinispan.server.hotrod.configuration.HotRodServerConfiguration.PROXY_HOST;
 import static org.infinispan.server.hotrod.configuration.HotRodServerConfiguration.PROXY_PORT;
 import static org.infinispan.server.hotrod.configuration.HotRodServerConfiguration.TOPOLOGY_AWAIT_INITIAL_TRANSFER;
@@ -101,6 +105,48 @@ public HotRodServerConfigurationBuilder topologyStateTransfer(boolean topologySt
       return this;
    }
 
+   /**
+    * Sets the maximum number of events queued for each client listener while they are waiting to be sent to the
+    * client. Defaults to 1000
+    */
+   @Override
+   public HotRodServerConfigurationBuilder listenerQueueSize(int listenerQueueSize) {
+      attributes.attribute(LISTENER_QUEUE_SIZE).set(listenerQueueSize);
+      return this;
+   }
+
+   /**
+    * Sets what happens when the event queue of a client listener is full. Defaults to
+    * {@link ClientListenerOverflowPolicy#COALESCE}
+    */
+   @Override
+   public HotRodServerConfigurationBuilder listenerOverflowPolicy(ClientListenerOverflowPolicy listenerOverflowPolicy) {
+      attributes.attribute(LISTENER_OVERFLOW_POLICY).set(listenerOverflowPolicy);
+      return this;
+   }
+
+   /**
+    * Sets the approximate maximum size in bytes of the keys and values in each batch of a remote iteration. A batch
+    * is sent once it reaches this size, even if it holds fewer entries than the batch size requested by the client.
+    * Keys and values stored as byte arrays are counted with their length, other objects with an estimate.
+    * Defaults to 1 MiB
+    */
+   @Override
+   public HotRodServerConfigurationBuilder iterationBatchBytes(int iterationBatchBytes) {
+      attributes.attribute(ITERATION_BATCH_BYTES).set(iterationBatchBytes);
+      return this;
+   }
+
+   /**
+    * Sets the maximum number of responses written to a channel before they are flushed, while the server is still
+    * reading pipelined requests from that channel. Defaults to 256
+    */
+   @Override
+   public HotRodServerConfigurationBuilder flushBatchSize(int flushBatchSize) {
+      attributes.attribute(FLUSH_BATCH_SIZE).set(flushBatchSize);
+      return this;
+   }
+
    @Override
    public HotRodServerConfiguration create() {
       return new HotRodServerConfiguration(attributes.protect(), ssl.create(), authentication.create());
@@ -119,6 +165,15 @@ public void validate() {
       if (attributes.attribute(PROXY_HOST).isNull() && attributes.attribute(HOST).isNull()) {
          throw log.missingHostAddress();
       }
+      if (attributes.attribute(LISTENER_QUEUE_SIZE).get() < 1) {
+         throw log.invalidListenerQueueSize(attributes.attribute(LISTENER_QUEUE_SIZE).get());
+      }
+      if (attributes.attribute(ITERATION_BATCH_BYTES).get() < 1) {
+         throw log.invalidIterationBatchBytes(attributes.attribute(ITERATION_BATCH_BYTES).get());
+      }
+      if (attributes.attribute(FLUSH_BATCH_SIZE).get() < 1) {
+         throw log.invalidFlushBatchSize(attributes.attribute(FLUSH_BATCH_SIZE).get());
+      }
       authentication.validate();
    }
 
@@ -27,6 +27,7 @@
 import org.infinispan.commons.dataconversion.IdentityEncoder;
 import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.WrappedBytes;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.time.TimeServiceTicker;
 import org.infinispan.commons.util.Util;
@@ -126,8 +127,14 @@ public class DefaultIterationManager implements IterationManager {
    private final com.github.benmanes.caffeine.cache.Cache<String, DefaultIterationState> iterationStateMap;
    private final Map<String, KeyValueFilterConverterFactory> filterConverterFactoryMap =
          new ConcurrentHashMap<>();
+   // The size counted for a key or value whose size can't be estimated cheaply, so that they still end a batch
+   static final int OBJECT_SIZE_ESTIMATE = 64;
+   static final int PRIMITIVE_SIZE_ESTIMATE = 8;
 
-   public DefaultIterationManager(TimeService timeService) {
+   private final int batchBytes;
+
+   public DefaultIterationManager(TimeService timeService, int batchBytes) {
+      this.batchBytes = batchBytes;
       Caffeine<Object, Object> builder = Caffeine.newBuilder();
       builder.expireAfterAccess(5, TimeUnit.MINUTES).removalListener(new RemovalListener<String, DefaultIterationState>() {
          @Override
@@ -217,10 +224,14 @@ private KeyValuePair<KeyValueFilterConverter, Boolean> buildFilter(KeyValueFilte
    public IterableIterationResult next(String iterationId) {
       DefaultIterationState iterationState = iterationStateMap.getIfPresent(iterationId);
       if (iterationState != null) {
-         int i = 0;
-         List<CacheEntry> entries = new ArrayList<>(iterationState.batch);
-         while (i++ < iterationState.batch && iterationState.iterator.hasNext()) {
-            entries.add(iterationState.iterator.next());
+         // The batch ends at the requested number of entries or at the byte budget, whichever comes first, so that
+         // batches of large values don't make responses that take much longer to build and send than the others
+         List<CacheEntry> entries = new ArrayList<>(Math.min(iterationState.batch, 1024));
+         long bytes = 0;
+         while (entries.size() < iterationState.batch && bytes < batchBytes && iterationState.iterator.hasNext()) {
+            CacheEntry entry = iterationState.iterator.next();
+            entries.add(entry);
+            bytes += estimateSize(entry.getKey()) + estimateSize(entry.getValue());
          }
          return new IterableIterationResult(iterationState.listener.getFinished(entries.isEmpty()), OperationStatus.Success,
                entries, iterationState.metadata, iterationState.resultFunction);
@@ -230,6 +241,31 @@ public IterableIterationResult next(String iterationId) {
       }
    }
 
+   /**
+    * Estimates the size of a key or a value in the response. Entries are usually stored as byte arrays, the other
+    * types are estimated from their content when it's cheap to do so, or counted as {@link #OBJECT_SIZE_ESTIMATE}.
+    */
+   static int estimateSize(Object o) {
+      if (o == null) {
+         return 0;
+      } else if (o instanceof byte[]) {
+         return ((byte[]) o).length;
+      } else if (o instanceof WrappedBytes) {
+         return ((WrappedBytes) o).getLength();
+      } else if (o instanceof String) {
+         return ((String) o).length();
+      } else if (o instanceof Number || o instanceof Boolean || o instanceof Character) {
+         return PRIMITIVE_SIZE_ESTIMATE;
+      } else if (o instanceof Object[]) {
+         int size = 0;
+         for (Object projection : (Object[]) o) {
+            size += estimateSize(projection);
+         }
+         return size;
+      }
+      return OBJECT_SIZE_ESTIMATE;
+   }
+
    @Override
    public IterationState close(String iterationId) {
       DefaultIterationState iterationState = iterationStateMap.getIfPresent(iterationId);
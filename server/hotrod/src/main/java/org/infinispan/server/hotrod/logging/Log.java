@@ -102,4 +102,17 @@ public interface Log extends BasicLogger {
    @LogMessage(level = WARN)
    @Message(value = "Removed unclosed iterator '%s'", id = 28026)
    void removedUnclosedIterator(String iteratorId);
+
+   @Message(value = "The listener queue size must be greater than 0, but was %d", id = 28027)
+   CacheConfigurationException invalidListenerQueueSize(int size);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Closing channel %s as client listener '%s' could not keep up with the cache events", id = 28028)
+   void closingSlowListenerChannel(Object channel, String listenerId);
+
+   @Message(value = "The flush batch size must be greater than 0, but was %d", id = 28029)
+   CacheConfigurationException invalidFlushBatchSize(int size);
+
+   @Message(value = "The iteration batch bytes must be greater than 0, but was %d", id = 28030)
+   CacheConfigurationException invalidIterationBatchBytes(int size);
 }
@@ -14,6 +14,9 @@
 import io.netty.util.CharsetUtil;
 
 public class ExtendedByteBuf {
+   // Arrays at least this large are wrapped instead of being copied into the response buffer
+   static final int WRAP_THRESHOLD = 8192;
+
    public static ByteBuf wrappedBuffer(byte[]... arrays) {
       return Unpooled.wrappedBuffer(arrays);
    }
@@ -275,6 +278,21 @@ public static void writeRangedBytes(byte[] src, ByteBuf bf) {
          bf.writeBytes(src);
    }
 
+   /**
+    * Writes the array as the last field of a buffer. Large arrays are not copied, the result is a composite of the
+    * buffer and the wrapped array instead, so nothing may be written after it and the array must not be modified.
+    *
+    * @return the buffer holding all the content
+    */
+   public static ByteBuf writeLastRangedBytes(byte[] src, ByteBuf bf) {
+      if (src.length < WRAP_THRESHOLD) {
+         writeRangedBytes(src, bf);
+         return bf;
+      }
+      writeUnsignedInt(src.length, bf);
+      return Unpooled.wrappedBuffer(bf, Unpooled.wrappedBuffer(src));
+   }
+
    public static void writeRangedBytes(byte[] src, int offset, ByteBuf bf) {
       int l = src.length - offset;
       writeUnsignedInt(l, bf);
@@ -0,0 +1,31 @@
+package org.infinispan.server.hotrod.transport;
+
+import org.infinispan.server.core.transport.NettyInitializer;
+import org.infinispan.server.hotrod.HotRodServer;
+
+import io.netty.channel.Channel;
+import io.netty.handler.flush.FlushConsolidationHandler;
+
+/**
+ * Consolidates the flushes of the responses to pipelined requests. While the server is reading requests from a
+ * channel their responses are only written, and they are flushed when the read cycle completes or after
+ * {@link org.infinispan.server.hotrod.configuration.HotRodServerConfiguration#flushBatchSize()} responses. Responses
+ * completed outside of a read cycle are flushed by a task on the event loop, so that the responses of requests that
+ * complete together are flushed together too.
+ *
+ * @since 10.0
+ */
+public class FlushConsolidationInitializer implements NettyInitializer {
+   private final HotRodServer hotRodServer;
+
+   public FlushConsolidationInitializer(HotRodServer hotRodServer) {
+      this.hotRodServer = hotRodServer;
+   }
+
+   @Override
+   public void initializeChannel(Channel ch) throws Exception {
+      // Must see the reads of the decoder, and is placed after any SSL handler so that it consolidates its flushes too
+      ch.pipeline().addBefore("decoder", "flushConsolidation",
+            new FlushConsolidationHandler(hotRodServer.getConfiguration().flushBatchSize(), true));
+   }
+}
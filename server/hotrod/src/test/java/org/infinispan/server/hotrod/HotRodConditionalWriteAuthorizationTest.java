@@ -0,0 +1,103 @@
+package org.infinispan.server.hotrod;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.startHotRodServer;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.security.PrivilegedAction;
+import java.security.PrivilegedExceptionAction;
+import java.util.HashMap;
+
+import javax.security.auth.Subject;
+import javax.security.sasl.Sasl;
+import javax.security.sasl.SaslClient;
+import javax.security.sasl.SaslException;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.security.AuthorizationPermission;
+import org.infinispan.security.Security;
+import org.infinispan.security.impl.IdentityRoleMapper;
+import org.infinispan.server.core.security.simple.SimpleServerAuthenticationProvider;
+import org.infinispan.server.hotrod.configuration.HotRodServerConfigurationBuilder;
+import org.infinispan.server.hotrod.test.HotRodClient;
+import org.infinispan.server.hotrod.test.HotRodTestingUtil;
+import org.infinispan.server.hotrod.test.TestCallbackHandler;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the conditional writes of a Hot Rod server on a cache with authorization, which read the entry before writing
+ * it so that both operations are authorized.
+ *
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "server.hotrod.HotRodConditionalWriteAuthorizationTest")
+public class HotRodConditionalWriteAuthorizationTest extends HotRodConditionalWriteTest {
+   private static final Subject ADMIN = TestingUtil.makeSubject("admin");
+
+   @Override
+   protected EmbeddedCacheManager createTestCacheManager() {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder().nonClusteredDefault().defaultCacheName(cacheName);
+      global.security().authorization().enable().principalRoleMapper(new IdentityRoleMapper())
+            .role("admin").permission(AuthorizationPermission.ALL)
+            .role("user").permission(AuthorizationPermission.READ).permission(AuthorizationPermission.WRITE);
+      ConfigurationBuilder config = hotRodCacheConfiguration();
+      config.security().authorization().enable().role("admin").role("user");
+      return TestCacheManagerFactory.createCacheManager(global, config);
+   }
+
+   @Override
+   protected HotRodServer createStartHotRodServer(EmbeddedCacheManager cacheManager) {
+      SimpleServerAuthenticationProvider ssap = new SimpleServerAuthenticationProvider();
+      ssap.addUser("user", "realm", "password".toCharArray());
+      HotRodServerConfigurationBuilder builder = new HotRodServerConfigurationBuilder();
+      builder.authentication().enable().addAllowedMech("CRAM-MD5").serverAuthenticationProvider(ssap)
+             .serverName("localhost");
+      return startHotRodServer(cacheManager, HotRodTestingUtil.serverPort(), 0, builder);
+   }
+
+   @Override
+   protected HotRodClient connectClient() {
+      HotRodClient client = super.connectClient();
+      try {
+         SaslClient sc = Sasl.createSaslClient(new String[]{"CRAM-MD5"}, null, "hotrod", "localhost", new HashMap<>(),
+               new TestCallbackHandler("user", "realm", "password".toCharArray()));
+         assertTrue(client.auth(sc).complete);
+      } catch (SaslException e) {
+         throw new AssertionError(e);
+      }
+      return client;
+   }
+
+   @Override
+   protected void setup() throws Exception {
+      Security.doAs(ADMIN, (PrivilegedExceptionAction<Void>) () -> {
+         HotRodConditionalWriteAuthorizationTest.super.setup();
+         return null;
+      });
+   }
+
+   @Override
+   protected void teardown() {
+      Security.doAs(ADMIN, (PrivilegedAction<Void>) () -> {
+         HotRodConditionalWriteAuthorizationTest.super.teardown();
+         return null;
+      });
+   }
+
+   @Override
+   protected void clearContent() {
+      Security.doAs(ADMIN, (PrivilegedAction<Void>) () -> {
+         HotRodConditionalWriteAuthorizationTest.super.clearContent();
+         return null;
+      });
+   }
+
+   @Override
+   protected boolean expectSingleCommand() {
+      return false;
+   }
+}
@@ -0,0 +1,22 @@
+package org.infinispan.server.hotrod;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests the conditional writes of a Hot Rod server with a 1.x client, which read the entry before writing it.
+ *
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "server.hotrod.HotRodConditionalWriteLegacyClientTest")
+public class HotRodConditionalWriteLegacyClientTest extends HotRodConditionalWriteTest {
+
+   @Override
+   protected byte protocolVersion() {
+      return 13;
+   }
+
+   @Override
+   protected boolean expectSingleCommand() {
+      return false;
+   }
+}
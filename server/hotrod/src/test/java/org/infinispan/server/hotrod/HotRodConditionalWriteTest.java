@@ -0,0 +1,189 @@
+package org.infinispan.server.hotrod;
+
+import static org.infinispan.server.hotrod.OperationStatus.KeyDoesNotExist;
+import static org.infinispan.server.hotrod.OperationStatus.NotExecutedWithPrevious;
+import static org.infinispan.server.hotrod.OperationStatus.OperationNotExecuted;
+import static org.infinispan.server.hotrod.OperationStatus.Success;
+import static org.infinispan.server.hotrod.OperationStatus.SuccessWithPrevious;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.assertByteArrayEquals;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.assertKeyDoesNotExist;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.assertStatus;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.assertSuccess;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.k;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.v;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.infinispan.commands.functional.ReadWriteKeyCommand;
+import org.infinispan.commands.read.GetCacheEntryCommand;
+import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.AsyncInterceptorChain;
+import org.infinispan.interceptors.DDAsyncInterceptor;
+import org.infinispan.server.hotrod.test.TestGetWithVersionResponse;
+import org.infinispan.server.hotrod.test.TestResponse;
+import org.infinispan.server.hotrod.test.TestResponseWithPrevious;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the conditional writes of a Hot Rod server, which are executed as a single read-write command unless the
+ * cache or the client requires reading the entry before writing it.
+ *
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "server.hotrod.HotRodConditionalWriteTest")
+public class HotRodConditionalWriteTest extends HotRodSingleNodeTest {
+   private static final int FORCE_RETURN_PREVIOUS_VALUE = 1;
+
+   private final CommandCountingInterceptor commandCounter = new CommandCountingInterceptor();
+
+   @Override
+   protected void setup() throws Exception {
+      super.setup();
+      TestingUtil.extractComponent(advancedCache, AsyncInterceptorChain.class).addInterceptor(commandCounter, 1);
+   }
+
+   /**
+    * @return whether the conditional writes are expected to be executed as a single read-write command
+    */
+   protected boolean expectSingleCommand() {
+      return true;
+   }
+
+   public void testReplace(Method m) {
+      client().assertPut(m);
+      TestResponse resp = conditionalWrite(() ->
+            client().replace(k(m), 0, 0, v(m, "v2-"), FORCE_RETURN_PREVIOUS_VALUE));
+      assertPrevious(resp, SuccessWithPrevious, v(m));
+      assertSuccess(client().assertGet(m), v(m, "v2-"));
+   }
+
+   public void testReplaceNotExecuted(Method m) {
+      TestResponse resp = conditionalWrite(() -> client().replace(k(m), 0, 0, v(m), 0));
+      assertStatus(resp, OperationNotExecuted);
+      assertKeyDoesNotExist(client().assertGet(m));
+   }
+
+   public void testPutIfAbsent(Method m) {
+      TestResponse resp = conditionalWrite(() -> client().putIfAbsent(k(m), 0, 0, v(m), 0));
+      assertStatus(resp, Success);
+      assertSuccess(client().assertGet(m), v(m));
+   }
+
+   public void testPutIfAbsentNotExecuted(Method m) {
+      client().assertPut(m);
+      TestResponse resp = conditionalWrite(() ->
+            client().putIfAbsent(k(m), 0, 0, v(m, "v2-"), FORCE_RETURN_PREVIOUS_VALUE));
+      assertPrevious(resp, NotExecutedWithPrevious, v(m));
+      assertSuccess(client().assertGet(m), v(m));
+   }
+
+   public void testReplaceIfUnmodified(Method m) {
+      client().assertPut(m);
+      long version = version(m);
+      TestResponse resp = conditionalWrite(() ->
+            client().replaceIfUnmodified(k(m), 0, 0, v(m, "v2-"), version, FORCE_RETURN_PREVIOUS_VALUE));
+      assertPrevious(resp, SuccessWithPrevious, v(m));
+      assertSuccess(client().assertGet(m), v(m, "v2-"));
+      assertTrue(version != version(m));
+   }
+
+   public void testReplaceIfUnmodifiedNotExecuted(Method m) {
+      client().assertPut(m);
+      long version = version(m);
+      TestResponse resp = conditionalWrite(() ->
+            client().replaceIfUnmodified(k(m), 0, 0, v(m, "v2-"), version + 1, FORCE_RETURN_PREVIOUS_VALUE));
+      assertPrevious(resp, NotExecutedWithPrevious, v(m));
+      assertSuccess(client().assertGet(m), v(m));
+      assertEquals(version, version(m));
+   }
+
+   public void testReplaceIfUnmodifiedNotFound(Method m) {
+      TestResponse resp = conditionalWrite(() -> client().replaceIfUnmodified(k(m), 0, 0, v(m), 1, 0));
+      assertStatus(resp, KeyDoesNotExist);
+      assertKeyDoesNotExist(client().assertGet(m));
+   }
+
+   public void testRemoveIfUnmodified(Method m) {
+      client().assertPut(m);
+      long version = version(m);
+      TestResponse resp = conditionalWrite(() ->
+            client().removeIfUnmodified(k(m), version, FORCE_RETURN_PREVIOUS_VALUE));
+      assertPrevious(resp, SuccessWithPrevious, v(m));
+      assertKeyDoesNotExist(client().assertGet(m));
+   }
+
+   public void testRemoveIfUnmodifiedNotExecuted(Method m) {
+      client().assertPut(m);
+      long version = version(m);
+      TestResponse resp = conditionalWrite(() ->
+            client().removeIfUnmodified(k(m), version + 1, FORCE_RETURN_PREVIOUS_VALUE));
+      assertPrevious(resp, NotExecutedWithPrevious, v(m));
+      assertSuccess(client().assertGet(m), v(m));
+   }
+
+   public void testRemoveIfUnmodifiedNotFound(Method m) {
+      TestResponse resp = conditionalWrite(() -> client().removeIfUnmodified(k(m), 1, 0));
+      assertStatus(resp, KeyDoesNotExist);
+   }
+
+   private long version(Method m) {
+      TestGetWithVersionResponse resp = client().getWithVersion(k(m), 0);
+      assertStatus(resp, Success);
+      return resp.dataVersion;
+   }
+
+   /**
+    * Executes a conditional write and checks whether it read the entry with a separate command.
+    */
+   private TestResponse conditionalWrite(Supplier<TestResponse> write) {
+      commandCounter.reset();
+      TestResponse resp = write.get();
+      if (expectSingleCommand()) {
+         assertEquals(1, commandCounter.readWrites.get());
+         assertEquals(0, commandCounter.reads.get());
+      } else {
+         assertEquals(0, commandCounter.readWrites.get());
+         assertEquals(1, commandCounter.reads.get());
+      }
+      return resp;
+   }
+
+   private static void assertPrevious(TestResponse resp, OperationStatus expectedStatus, byte[] expectedPrevious) {
+      assertStatus(resp, expectedStatus);
+      assertByteArrayEquals(expectedPrevious, ((TestResponseWithPrevious) resp).previous.get());
+   }
+
+   static class CommandCountingInterceptor extends DDAsyncInterceptor {
+      final AtomicInteger readWrites = new AtomicInteger();
+      final AtomicInteger reads = new AtomicInteger();
+
+      void reset() {
+         readWrites.set(0);
+         reads.set(0);
+      }
+
+      @Override
+      public Object visitReadWriteKeyCommand(InvocationContext ctx, ReadWriteKeyCommand command) throws Throwable {
+         readWrites.incrementAndGet();
+         return super.visitReadWriteKeyCommand(ctx, command);
+      }
+
+      @Override
+      public Object visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryCommand command) throws Throwable {
+         reads.incrementAndGet();
+         return super.visitGetCacheEntryCommand(ctx, command);
+      }
+
+      @Override
+      public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand command) throws Throwable {
+         reads.incrementAndGet();
+         return super.visitGetKeyValueCommand(ctx, command);
+      }
+   }
+}
@@ -0,0 +1,29 @@
+package org.infinispan.server.hotrod;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the conditional writes of a Hot Rod server on a transactional cache, which read the entry before writing it.
+ *
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "server.hotrod.HotRodConditionalWriteTxTest")
+public class HotRodConditionalWriteTxTest extends HotRodConditionalWriteTest {
+
+   @Override
+   protected EmbeddedCacheManager createTestCacheManager() {
+      return TestCacheManagerFactory.createCacheManager(
+            new GlobalConfigurationBuilder().nonClusteredDefault().defaultCacheName(cacheName),
+            hotRodCacheConfiguration(TestCacheManagerFactory.getDefaultCacheConfiguration(true)));
+   }
+
+   @Override
+   protected boolean expectSingleCommand() {
+      return false;
+   }
+}
@@ -0,0 +1,56 @@
+package org.infinispan.server.hotrod;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.assertSuccess;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.k;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.v;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.server.hotrod.test.Op;
+import org.infinispan.server.hotrod.test.TestGetResponse;
+import org.infinispan.server.hotrod.test.TestResponse;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the responses to requests pipelined on a connection are flushed together.
+ *
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "server.hotrod.HotRodFlushConsolidationTest")
+public class HotRodFlushConsolidationTest extends HotRodSingleNodeTest {
+   private static final int PIPELINED_REQUESTS = 32;
+
+   @Override
+   public EmbeddedCacheManager createTestCacheManager() {
+      ConfigurationBuilder cfg = hotRodCacheConfiguration();
+      cfg.jmxStatistics().enable();
+      return TestCacheManagerFactory.createClusteredCacheManagerEnforceJmxDomain(jmxDomain(), cfg);
+   }
+
+   public void testPipelinedResponsesShareFlushes(Method m) {
+      client().assertPut(m);
+
+      List<Op> ops = new ArrayList<>(PIPELINED_REQUESTS);
+      for (int i = 0; i < PIPELINED_REQUESTS; i++) {
+         ops.add(new Op(0xA0, client().protocolVersion(), (byte) 0x03, client().defaultCacheName(), k(m), 0, 0, null,
+               0, 0, (byte) 1, 0));
+      }
+      List<TestResponse> responses = client().executePipelined(ops);
+      assertEquals(PIPELINED_REQUESTS, responses.size());
+      for (TestResponse response : responses) {
+         assertSuccess((TestGetResponse) response, v(m));
+      }
+
+      // Without consolidation each response would be flushed on its own, and the average would be exactly 1
+      double responsesPerFlush = server().getTransport().getAverageResponsesPerFlush();
+      assertTrue("Average responses per flush: " + responsesPerFlush, responsesPerFlush > 1);
+   }
+}
@@ -23,6 +23,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -207,6 +208,16 @@ public void testGetWithMetadata(Method m) {
       assertSuccess(client().getWithMetadata(k(m), 0), v(m), 10, 5);
    }
 
+   public void testGetLargeValue(Method m) {
+      // Large enough to be wrapped into the response instead of copied
+      byte[] value = new byte[64 * 1024];
+      new Random(1).nextBytes(value);
+      assertStatus(client().put(k(m), 0, 0, value), Success);
+      assertSuccess(client().get(k(m), 0), value);
+      assertSuccess(client().getWithVersion(k(m), 0), value, 0);
+      assertSuccess(client().getWithMetadata(k(m), 0), value, -1, -1);
+   }
+
    public void testReplaceIfUnmodifiedBasic(Method m) {
       client().assertPut(m);
       TestGetWithVersionResponse resp = client().getWithVersion(k(m), 0);
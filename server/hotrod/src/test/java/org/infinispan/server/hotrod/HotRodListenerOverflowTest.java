@@ -0,0 +1,169 @@
+package org.infinispan.server.hotrod;
+
+import static org.infinispan.server.hotrod.OperationStatus.Success;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.assertStatus;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.k;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.killClient;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.startHotRodServer;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.v;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.cachelistener.event.Event;
+import org.infinispan.server.hotrod.configuration.ClientListenerOverflowPolicy;
+import org.infinispan.server.hotrod.configuration.HotRodServerConfigurationBuilder;
+import org.infinispan.server.hotrod.event.EventLogListener;
+import org.infinispan.server.hotrod.test.HotRodClient;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+import io.netty.channel.Channel;
+
+/**
+ * Fills the event queue of a client listener while its channel can't be written to, and checks what the overflow
+ * policy does with the events that don't fit.
+ *
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "server.hotrod.HotRodListenerOverflowTest")
+public class HotRodListenerOverflowTest extends HotRodSingleNodeTest {
+   private static final int QUEUE_SIZE = 2;
+
+   private ClientListenerOverflowPolicy overflowPolicy = ClientListenerOverflowPolicy.COALESCE;
+
+   @Factory
+   public Object[] factory() {
+      return new Object[]{
+            new HotRodListenerOverflowTest().overflowPolicy(ClientListenerOverflowPolicy.COALESCE),
+            new HotRodListenerOverflowTest().overflowPolicy(ClientListenerOverflowPolicy.DISCONNECT),
+      };
+   }
+
+   HotRodListenerOverflowTest overflowPolicy(ClientListenerOverflowPolicy overflowPolicy) {
+      this.overflowPolicy = overflowPolicy;
+      return this;
+   }
+
+   @Override
+   protected String parameters() {
+      return "[" + overflowPolicy + "]";
+   }
+
+   @Override
+   protected HotRodServer createStartHotRodServer(EmbeddedCacheManager cacheManager) {
+      HotRodServerConfigurationBuilder builder = new HotRodServerConfigurationBuilder();
+      builder.listenerQueueSize(QUEUE_SIZE).listenerOverflowPolicy(overflowPolicy);
+      return startHotRodServer(cacheManager, builder);
+   }
+
+   public void testFullQueue(Method m) throws Exception {
+      EventLogListener eventListener = new EventLogListener();
+      byte[] listenerId = eventListener.getId();
+      assertStatus(client().addClientListener(eventListener, false, Optional.empty(), Optional.empty(), false), Success);
+      ClientListenerRegistry registry = server().getClientListenerRegistry();
+      assertEquals(1, registry.getNumberOfListeners());
+      Channel ch = registry.getListenerChannel(listenerId);
+      assertNotNull(ch);
+
+      // Events are only written from the event loop of the channel, so they stay queued while it is blocked
+      CountDownLatch resume = new CountDownLatch(1);
+      CompletableFuture<Void> blocked = new CompletableFuture<>();
+      ch.eventLoop().execute(() -> {
+         blocked.complete(null);
+         try {
+            resume.await(10, TimeUnit.SECONDS);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      });
+      blocked.get(10, TimeUnit.SECONDS);
+
+      byte[] k1 = k(m, "k1-");
+      byte[] k2 = k(m, "k2-");
+      byte[] k3 = k(m, "k3-");
+      try {
+         advancedCache.put(k1, v(m));
+         advancedCache.put(k2, v(m));
+         assertEquals(QUEUE_SIZE, registry.getEventQueueSize(listenerId));
+         assertEquals(0, registry.getCoalescedEvents(listenerId));
+         assertEquals(0, registry.getDroppedEvents(listenerId));
+
+         // A key that is already queued
+         advancedCache.put(k1, v(m, "v2-"));
+         assertEquals(QUEUE_SIZE, registry.getEventQueueSize(listenerId));
+         if (overflowPolicy == ClientListenerOverflowPolicy.COALESCE) {
+            assertEquals(1, registry.getCoalescedEvents(listenerId));
+            assertEquals(0, registry.getDroppedEvents(listenerId));
+
+            // A key that is not queued can't be coalesced, the client has to resynchronize
+            advancedCache.put(k3, v(m));
+            assertEquals(1, registry.getCoalescedEvents(listenerId));
+            assertEquals(1, registry.getDroppedEvents(listenerId));
+         } else {
+            assertEquals(0, registry.getCoalescedEvents(listenerId));
+            assertEquals(1, registry.getDroppedEvents(listenerId));
+         }
+
+         // Once the queue overflowed, every event is dropped until the channel is closed
+         advancedCache.put(k2, v(m, "v2-"));
+         assertEquals(QUEUE_SIZE, registry.getEventQueueSize(listenerId));
+      } finally {
+         resume.countDown();
+      }
+
+      // The event that overflowed the queue and the event after it
+      long coalesced = overflowPolicy == ClientListenerOverflowPolicy.COALESCE ? 1 : 0;
+      assertEquals(coalesced, registry.getTotalCoalescedEvents());
+      assertEquals(2, registry.getTotalDroppedEvents());
+      eventually(() -> !ch.isOpen());
+      // The listener is removed with its channel, but the totals are kept
+      eventuallyEquals(0, registry::getNumberOfListeners);
+      assertEquals(0, registry.getTotalQueuedEvents());
+      assertEquals(coalesced, registry.getTotalCoalescedEvents());
+      assertEquals(2, registry.getTotalDroppedEvents());
+   }
+
+   public void testCurrentStateLargerThanQueue(Method m) {
+      advancedCache.clear();
+      List<byte[]> keys = new ArrayList<>();
+      for (int i = 0; i < QUEUE_SIZE * 20; i++) {
+         byte[] key = k(m, "k" + i + "-");
+         advancedCache.put(key, v(m));
+         keys.add(key);
+      }
+
+      // Use another client, so that the channel closed by the other test doesn't matter
+      HotRodClient stateClient = connectClient();
+      try {
+         EventLogListener eventListener = new EventLogListener();
+         byte[] listenerId = eventListener.getId();
+         // The current state waits for space in the queue instead of overflowing it
+         assertStatus(stateClient.addClientListener(eventListener, true, Optional.empty(), Optional.empty(), false), Success);
+         eventListener.expectUnorderedEvents(advancedCache, keys, Event.Type.CACHE_ENTRY_CREATED);
+
+         ClientListenerRegistry registry = server().getClientListenerRegistry();
+         Channel ch = registry.getListenerChannel(listenerId);
+         assertNotNull(ch);
+         assertTrue(ch.isOpen());
+         assertEquals(0, registry.getCoalescedEvents(listenerId));
+         assertEquals(0, registry.getDroppedEvents(listenerId));
+
+         // Events of later writes are still received
+         byte[] key = k(m, "after-");
+         advancedCache.put(key, v(m));
+         eventListener.expectOnlyCreatedEvent(advancedCache, key);
+      } finally {
+         killClient(stateClient);
+      }
+   }
+}
@@ -2,6 +2,7 @@
 
 import static org.testng.Assert.assertEquals;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.testng.annotations.Test;
 
 /**
@@ -20,6 +21,36 @@ public void testMutatePortAndHost() {
       assertHostPort(builder.build(), "bar", 4321);
    }
 
+   public void testListenerQueue() {
+      HotRodServerConfigurationBuilder builder = new HotRodServerConfigurationBuilder();
+      HotRodServerConfiguration configuration = builder.build();
+      assertEquals(configuration.listenerQueueSize(), 1000);
+      assertEquals(configuration.listenerOverflowPolicy(), ClientListenerOverflowPolicy.COALESCE);
+
+      builder.listenerQueueSize(10).listenerOverflowPolicy(ClientListenerOverflowPolicy.DISCONNECT);
+      configuration = builder.build();
+      assertEquals(configuration.listenerQueueSize(), 10);
+      assertEquals(configuration.listenerOverflowPolicy(), ClientListenerOverflowPolicy.DISCONNECT);
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testInvalidListenerQueueSize() {
+      new HotRodServerConfigurationBuilder().listenerQueueSize(0).build();
+   }
+
+   public void testFlushBatchSize() {
+      HotRodServerConfigurationBuilder builder = new HotRodServerConfigurationBuilder();
+      assertEquals(builder.build().flushBatchSize(), 256);
+
+      builder.flushBatchSize(16);
+      assertEquals(builder.build().flushBatchSize(), 16);
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testInvalidFlushBatchSize() {
+      new HotRodServerConfigurationBuilder().flushBatchSize(0).build();
+   }
+
    private void assertHostPort(HotRodServerConfiguration configuration, String host, int port) {
       assertEquals(configuration.host(), host);
       assertEquals(configuration.proxyHost(), null);
@@ -0,0 +1,30 @@
+package org.infinispan.server.hotrod.iteration;
+
+import static org.infinispan.server.hotrod.iteration.DefaultIterationManager.OBJECT_SIZE_ESTIMATE;
+import static org.infinispan.server.hotrod.iteration.DefaultIterationManager.PRIMITIVE_SIZE_ESTIMATE;
+import static org.infinispan.server.hotrod.iteration.DefaultIterationManager.estimateSize;
+import static org.testng.AssertJUnit.assertEquals;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the size estimates that end the batches of a remote iteration.
+ *
+ * @since 10.0
+ */
+@Test(groups = "unit", testName = "server.hotrod.iteration.DefaultIterationManagerTest")
+public class DefaultIterationManagerTest extends AbstractInfinispanTest {
+
+   public void testEstimateSize() {
+      assertEquals(0, estimateSize(null));
+      assertEquals(10, estimateSize(new byte[10]));
+      assertEquals(10, estimateSize(new WrappedByteArray(new byte[10])));
+      assertEquals(5, estimateSize("value"));
+      assertEquals(PRIMITIVE_SIZE_ESTIMATE, estimateSize(42L));
+      assertEquals(OBJECT_SIZE_ESTIMATE, estimateSize(new Object()));
+      // Projections are the sum of their elements
+      assertEquals(15 + PRIMITIVE_SIZE_ESTIMATE, estimateSize(new Object[]{new byte[10], "value", 1}));
+   }
+}
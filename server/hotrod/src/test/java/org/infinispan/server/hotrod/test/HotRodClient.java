@@ -303,6 +303,28 @@ public boolean writeOp(Op op, boolean assertSuccess) {
       return future.isSuccess();
    }
 
+   /**
+    * Writes all the operations with a single flush, without waiting for the responses of the previous ones.
+    */
+   public List<TestResponse> executePipelined(List<Op> ops) {
+      ChannelFuture future = null;
+      for (Op op : ops) {
+         idToOp.put(op.id, op);
+         future = ch.write(op);
+      }
+      ch.flush();
+      if (future != null) {
+         future.awaitUninterruptibly();
+         assertTrue(future.isSuccess());
+      }
+      ClientHandler handler = (ClientHandler) ch.pipeline().last();
+      List<TestResponse> responses = new ArrayList<>(ops.size());
+      for (Op op : ops) {
+         responses.add(handler.getResponse(op.id));
+      }
+      return responses;
+   }
+
    public TestGetResponse get(byte[] k, int flags) {
       return (TestGetResponse) get((byte) 0x03, k, flags);
    }
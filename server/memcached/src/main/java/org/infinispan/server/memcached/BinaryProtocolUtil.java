@@ -0,0 +1,122 @@
+package org.infinispan.server.memcached;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Memcached binary protocol utilities.
+ *
+ * @since 10.0
+ */
+public class BinaryProtocolUtil {
+   private BinaryProtocolUtil() {
+   }
+
+   public static final byte MAGIC_REQUEST = (byte) 0x80;
+   public static final byte MAGIC_RESPONSE = (byte) 0x81;
+   public static final int HEADER_LENGTH = 24;
+
+   // Request header offsets
+   static final int OPCODE_OFFSET = 1;
+   static final int KEY_LENGTH_OFFSET = 2;
+   static final int EXTRAS_LENGTH_OFFSET = 4;
+   static final int BODY_LENGTH_OFFSET = 8;
+   static final int OPAQUE_OFFSET = 12;
+   static final int CAS_OFFSET = 16;
+
+   // Opcodes
+   static final byte GET = 0x00;
+   static final byte SET = 0x01;
+   static final byte ADD = 0x02;
+   static final byte REPLACE = 0x03;
+   static final byte DELETE = 0x04;
+   static final byte INCREMENT = 0x05;
+   static final byte DECREMENT = 0x06;
+   static final byte QUIT = 0x07;
+   static final byte FLUSH = 0x08;
+   static final byte GETQ = 0x09;
+   static final byte NOOP = 0x0a;
+   static final byte VERSION = 0x0b;
+   static final byte GETK = 0x0c;
+   static final byte GETKQ = 0x0d;
+   static final byte APPEND = 0x0e;
+   static final byte PREPEND = 0x0f;
+   static final byte STAT = 0x10;
+   static final byte SETQ = 0x11;
+   static final byte ADDQ = 0x12;
+   static final byte REPLACEQ = 0x13;
+   static final byte DELETEQ = 0x14;
+   static final byte INCREMENTQ = 0x15;
+   static final byte DECREMENTQ = 0x16;
+   static final byte QUITQ = 0x17;
+   static final byte FLUSHQ = 0x18;
+   static final byte APPENDQ = 0x19;
+   static final byte PREPENDQ = 0x1a;
+   static final byte VERBOSITY = 0x1b;
+   static final byte TOUCH = 0x1c;
+   static final byte GAT = 0x1d;
+   static final byte GATQ = 0x1e;
+
+   // Response status
+   static final short SUCCESS = 0x0000;
+   static final short KEY_NOT_FOUND = 0x0001;
+   static final short KEY_EXISTS = 0x0002;
+   static final short VALUE_TOO_LARGE = 0x0003;
+   static final short INVALID_ARGUMENTS = 0x0004;
+   static final short ITEM_NOT_STORED = 0x0005;
+   static final short NON_NUMERIC_VALUE = 0x0006;
+   static final short UNKNOWN_COMMAND = 0x0081;
+   static final short NOT_SUPPORTED = 0x0083;
+   static final short INTERNAL_ERROR = 0x0084;
+
+   // Expiration of an increment or decrement that must not create the counter
+   static final int NO_INITIAL_VALUE = 0xffffffff;
+
+   /**
+    * Writes the header of a response.
+    * @param buf the buffer to write to
+    * @param opcode the opcode of the request
+    * @param status the response status
+    * @param extrasLength the length of the extras following the header
+    * @param keyLength the length of the key following the extras
+    * @param bodyLength the total length of the extras, the key and the value
+    * @param opaque the opaque value of the request
+    * @param cas the version of the entry, or 0
+    */
+   static void writeResponseHeader(ByteBuf buf, byte opcode, short status, int extrasLength, int keyLength,
+                                   int bodyLength, int opaque, long cas) {
+      buf.writeByte(MAGIC_RESPONSE);
+      buf.writeByte(opcode);
+      buf.writeShort(keyLength);
+      buf.writeByte(extrasLength);
+      buf.writeByte(0); // Raw bytes data type
+      buf.writeShort(status);
+      buf.writeInt(bodyLength);
+      buf.writeInt(opaque);
+      buf.writeLong(cas);
+   }
+
+   /**
+    * Returns whether the given opcode is the quiet variant of a command, which only sends a response on failure.
+    * Quiet gets only send a response on success instead.
+    */
+   static boolean isQuiet(byte opcode) {
+      switch (opcode) {
+         case GETQ:
+         case GETKQ:
+         case SETQ:
+         case ADDQ:
+         case REPLACEQ:
+         case DELETEQ:
+         case INCREMENTQ:
+         case DECREMENTQ:
+         case QUITQ:
+         case FLUSHQ:
+         case APPENDQ:
+         case PREPENDQ:
+         case GATQ:
+            return true;
+         default:
+            return false;
+      }
+   }
+}
@@ -0,0 +1,587 @@
+package org.infinispan.server.memcached;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.infinispan.commons.dataconversion.MediaType.TEXT_PLAIN_TYPE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.ADD;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.ADDQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.APPEND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.APPENDQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.BODY_LENGTH_OFFSET;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.CAS_OFFSET;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.DECREMENT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.DECREMENTQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.DELETE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.DELETEQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.EXTRAS_LENGTH_OFFSET;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.FLUSH;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.FLUSHQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.GAT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.GATQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.GET;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.GETK;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.GETKQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.GETQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.HEADER_LENGTH;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.INCREMENT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.INCREMENTQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.INTERNAL_ERROR;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.INVALID_ARGUMENTS;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.ITEM_NOT_STORED;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.KEY_EXISTS;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.KEY_LENGTH_OFFSET;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.KEY_NOT_FOUND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.MAGIC_REQUEST;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.NON_NUMERIC_VALUE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.NOOP;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.NOT_SUPPORTED;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.NO_INITIAL_VALUE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.OPAQUE_OFFSET;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.OPCODE_OFFSET;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.PREPEND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.PREPENDQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.QUIT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.QUITQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.REPLACE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.REPLACEQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.SET;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.SETQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.STAT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.SUCCESS;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.TOUCH;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.UNKNOWN_COMMAND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.VALUE_TOO_LARGE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.VERBOSITY;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.VERSION;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.isQuiet;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.writeResponseHeader;
+import static org.infinispan.server.memcached.TextProtocolUtil.MAX_UNSIGNED_LONG;
+import static org.infinispan.server.memcached.TextProtocolUtil.MIN_UNSIGNED;
+import static org.infinispan.server.memcached.TextProtocolUtil.concat;
+
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Version;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.versioning.EntryVersion;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.context.Flag;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.server.core.transport.NettyTransport;
+import org.infinispan.server.memcached.logging.Log;
+import org.infinispan.stats.Stats;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+
+/**
+ * A Memcached binary protocol specific decoder.
+ * <p>
+ * Binary requests have a fixed size header holding the length of the whole request, so a request is only decoded
+ * once all its bytes were received, and all the requests that were received together are processed before the
+ * responses are flushed. Clients can therefore pipeline many requests, and the quiet variants of the commands don't
+ * send any response unless there is something to report.
+ *
+ * @since 10.0
+ */
+public class MemcachedBinaryDecoder extends ByteToMessageDecoder {
+
+   public MemcachedBinaryDecoder(AdvancedCache<byte[], byte[]> memcachedCache, ScheduledExecutorService scheduler,
+                                 NettyTransport transport, Predicate<? super String> ignoreCache,
+                                 MediaType valuePayload, int maxContentLength) {
+      this.cache = (AdvancedCache<byte[], byte[]>) memcachedCache.withMediaType(TEXT_PLAIN_TYPE, valuePayload.toString());
+      this.scheduler = scheduler;
+      this.transport = transport;
+      this.ignoreCache = ignoreCache;
+      this.maxContentLength = maxContentLength;
+      isStatsEnabled = cache.getCacheConfiguration().jmxStatistics().enabled();
+   }
+
+   private final AdvancedCache<byte[], byte[]> cache;
+   private final ScheduledExecutorService scheduler;
+   protected final NettyTransport transport;
+   protected final Predicate<? super String> ignoreCache;
+   private final int maxContentLength;
+
+   private final static Log log = LogFactory.getLog(MemcachedBinaryDecoder.class, Log.class);
+   private final static boolean isTrace = log.isTraceEnabled();
+
+   private final boolean isStatsEnabled;
+   private final AtomicLong incrMisses = new AtomicLong();
+   private final AtomicLong incrHits = new AtomicLong();
+   private final AtomicLong decrMisses = new AtomicLong();
+   private final AtomicLong decrHits = new AtomicLong();
+   private final AtomicLong replaceIfUnmodifiedMisses = new AtomicLong();
+   private final AtomicLong replaceIfUnmodifiedHits = new AtomicLong();
+   private final AtomicLong replaceIfUnmodifiedBadval = new AtomicLong();
+
+   // The request being processed
+   private byte opcode;
+   private int opaque;
+   private long cas;
+   private byte[] key;
+   private byte[] value;
+
+   @Override
+   protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+      if (in.readableBytes() < HEADER_LENGTH) {
+         return;
+      }
+      Channel ch = ctx.channel();
+      int start = in.readerIndex();
+      if (in.getByte(start) != MAGIC_REQUEST) {
+         // Unlike the text protocol, there is no delimiter to find the next request, so give up on the connection
+         log.debugf("Invalid magic byte 0x%02x, closing the connection", in.getByte(start));
+         in.skipBytes(in.readableBytes());
+         ch.close();
+         return;
+      }
+      long bodyLength = in.getUnsignedInt(start + BODY_LENGTH_OFFSET);
+      int keyLength = in.getUnsignedShort(start + KEY_LENGTH_OFFSET);
+      int extrasLength = in.getUnsignedByte(start + EXTRAS_LENGTH_OFFSET);
+      if (bodyLength > Integer.MAX_VALUE - HEADER_LENGTH || bodyLength < keyLength + extrasLength) {
+         log.debugf("Invalid body length %d, closing the connection", bodyLength);
+         in.skipBytes(in.readableBytes());
+         ch.close();
+         return;
+      }
+      if (HEADER_LENGTH + bodyLength > maxContentLength) {
+         // Checked before waiting for the body, so that a client cannot make the server buffer it
+         log.debugf("Request of %d bytes exceeds the maximum content length %d, closing the connection",
+               HEADER_LENGTH + bodyLength, maxContentLength);
+         opcode = in.getByte(start + OPCODE_OFFSET);
+         opaque = in.getInt(start + OPAQUE_OFFSET);
+         in.skipBytes(in.readableBytes());
+         writeError(ch, VALUE_TOO_LARGE, "Too large");
+         ch.writeAndFlush(Unpooled.EMPTY_BUFFER).addListener(ChannelFutureListener.CLOSE);
+         return;
+      }
+      if (in.readableBytes() < HEADER_LENGTH + bodyLength) {
+         return;
+      }
+      opcode = in.getByte(start + OPCODE_OFFSET);
+      opaque = in.getInt(start + OPAQUE_OFFSET);
+      cas = in.getLong(start + CAS_OFFSET);
+      in.skipBytes(HEADER_LENGTH);
+      ByteBuf extras = in.readSlice(extrasLength);
+      key = readBytes(in, keyLength);
+      value = readBytes(in, (int) bodyLength - keyLength - extrasLength);
+      if (isTrace) log.tracef("Binary operation 0x%02x, key length %d, value length %d", opcode, keyLength, value.length);
+      try {
+         String cacheName = cache.getName();
+         if (ignoreCache.test(cacheName)) throw new CacheUnavailableException(cacheName);
+         decodeOperation(ch, extras);
+      } catch (Throwable t) {
+         log.debug("Exception caught", t);
+         writeError(ch, INTERNAL_ERROR, String.valueOf(t.getMessage()));
+      } finally {
+         // Clear the references to the request
+         key = null;
+         value = null;
+      }
+   }
+
+   @Override
+   public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+      // Flush once for all the requests that were read together
+      ctx.flush();
+      super.channelReadComplete(ctx);
+   }
+
+   private void decodeOperation(Channel ch, ByteBuf extras) {
+      switch (opcode) {
+         case GET:
+         case GETQ:
+         case GETK:
+         case GETKQ:
+            get(ch);
+            break;
+         case SET:
+         case SETQ:
+         case ADD:
+         case ADDQ:
+         case REPLACE:
+         case REPLACEQ:
+            if (extras.readableBytes() != 8) {
+               writeError(ch, INVALID_ARGUMENTS, "Invalid arguments");
+            } else {
+               store(ch, extras.readUnsignedInt(), extras.readInt());
+            }
+            break;
+         case DELETE:
+         case DELETEQ:
+            delete(ch);
+            break;
+         case INCREMENT:
+         case INCREMENTQ:
+         case DECREMENT:
+         case DECREMENTQ:
+            if (extras.readableBytes() != 20) {
+               writeError(ch, INVALID_ARGUMENTS, "Invalid arguments");
+            } else {
+               incrDecr(ch, extras.readLong(), extras.readLong(), extras.readInt());
+            }
+            break;
+         case APPEND:
+         case APPENDQ:
+         case PREPEND:
+         case PREPENDQ:
+            appendPrepend(ch);
+            break;
+         case TOUCH:
+         case GAT:
+         case GATQ:
+            if (extras.readableBytes() != 4) {
+               writeError(ch, INVALID_ARGUMENTS, "Invalid arguments");
+            } else {
+               touch(ch, extras.readInt());
+            }
+            break;
+         case FLUSH:
+         case FLUSHQ:
+            flush(ch, extras.readableBytes() == 4 ? extras.readInt() : 0);
+            break;
+         case NOOP:
+            writeResponse(ch, SUCCESS, 0, null, null, null);
+            break;
+         case VERSION:
+            writeResponse(ch, SUCCESS, 0, null, null, Version.getVersion().getBytes(UTF_8));
+            break;
+         case STAT:
+            stats(ch);
+            break;
+         case QUIT:
+            writeResponse(ch, SUCCESS, 0, null, null, null);
+            ch.flush();
+            ch.close();
+            break;
+         case QUITQ:
+            ch.flush();
+            ch.close();
+            break;
+         case VERBOSITY:
+            writeError(ch, NOT_SUPPORTED, "Memcached 'verbosity' command is unsupported");
+            break;
+         default:
+            writeError(ch, UNKNOWN_COMMAND, "Unknown command");
+            break;
+      }
+   }
+
+   private void get(Channel ch) {
+      CacheEntry<byte[], byte[]> entry = cache.getCacheEntry(key);
+      boolean withKey = opcode == GETK || opcode == GETKQ;
+      if (entry == null) {
+         // Quiet gets only answer hits, the client relies on a following noop to know the others were misses
+         if (!isQuiet(opcode)) {
+            writeResponse(ch, KEY_NOT_FOUND, 0, null, withKey ? key : null, "Not found".getBytes(UTF_8));
+         }
+      } else {
+         Metadata metadata = entry.getMetadata();
+         writeResponse(ch, SUCCESS, version(metadata), flags(metadata), withKey ? key : null, entry.getValue());
+      }
+   }
+
+   private void store(Channel ch, long flags, int expiration) {
+      Metadata metadata = buildMetadata(flags, expiration);
+      short status;
+      switch (opcode) {
+         case ADD:
+         case ADDQ:
+            // Avoid generating a new version if the key is already present
+            if (cache.get(key) != null || cache.putIfAbsent(key, value, metadata) != null) {
+               status = KEY_EXISTS;
+            } else {
+               status = SUCCESS;
+            }
+            break;
+         case REPLACE:
+         case REPLACEQ:
+            if (cas != 0) {
+               status = replaceIfUnmodified(metadata);
+            } else {
+               status = cache.replace(key, value, metadata) != null ? SUCCESS : KEY_NOT_FOUND;
+            }
+            break;
+         default:
+            if (cas != 0) {
+               status = replaceIfUnmodified(metadata);
+            } else {
+               cache.put(key, value, metadata);
+               status = SUCCESS;
+            }
+            break;
+      }
+      if (status == SUCCESS) {
+         writeSuccess(ch, version(metadata));
+      } else {
+         writeError(ch, status, status == KEY_EXISTS ? "Data exists for key" : "Not found");
+      }
+   }
+
+   private short replaceIfUnmodified(Metadata metadata) {
+      CacheEntry<byte[], byte[]> entry = cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getCacheEntry(key);
+      if (entry == null) {
+         if (isStatsEnabled) replaceIfUnmodifiedMisses.incrementAndGet();
+         return KEY_NOT_FOUND;
+      }
+      if (version(entry.getMetadata()) == cas && cache.replace(key, entry.getValue(), value, metadata)) {
+         if (isStatsEnabled) replaceIfUnmodifiedHits.incrementAndGet();
+         return SUCCESS;
+      }
+      if (isStatsEnabled) replaceIfUnmodifiedBadval.incrementAndGet();
+      return KEY_EXISTS;
+   }
+
+   private void delete(Channel ch) {
+      boolean removed;
+      if (cas != 0) {
+         CacheEntry<byte[], byte[]> entry = cache.getCacheEntry(key);
+         if (entry == null) {
+            writeError(ch, KEY_NOT_FOUND, "Not found");
+            return;
+         }
+         removed = version(entry.getMetadata()) == cas && cache.remove(key, entry.getValue());
+         if (!removed) {
+            writeError(ch, KEY_EXISTS, "Data exists for key");
+            return;
+         }
+      } else {
+         removed = cache.remove(key) != null;
+      }
+      if (removed) {
+         writeSuccess(ch, 0);
+      } else {
+         writeError(ch, KEY_NOT_FOUND, "Not found");
+      }
+   }
+
+   private void incrDecr(Channel ch, long delta, long initial, int expiration) {
+      boolean increment = opcode == INCREMENT || opcode == INCREMENTQ;
+      BigInteger bigDelta = unsigned(delta);
+      while (true) {
+         byte[] prev = cache.get(key);
+         if (prev == null) {
+            if (isStatsEnabled) {
+               if (increment) incrMisses.incrementAndGet(); else decrMisses.incrementAndGet();
+            }
+            if (expiration == NO_INITIAL_VALUE) {
+               writeError(ch, KEY_NOT_FOUND, "Not found");
+               return;
+            }
+            String counter = unsigned(initial).toString();
+            Metadata metadata = buildMetadata(0, expiration);
+            if (cache.putIfAbsent(key, counter.getBytes(), metadata) == null) {
+               writeCounter(ch, initial, version(metadata));
+               return;
+            }
+         } else {
+            BigInteger prevCounter;
+            try {
+               prevCounter = new BigInteger(new String(prev));
+            } catch (NumberFormatException e) {
+               writeError(ch, NON_NUMERIC_VALUE, "Non-numeric server-side value for incr or decr");
+               return;
+            }
+            // Same bounds as the text protocol
+            BigInteger candidateCounter;
+            if (increment) {
+               candidateCounter = prevCounter.add(bigDelta);
+               candidateCounter = candidateCounter.compareTo(MAX_UNSIGNED_LONG) > 0 ? MIN_UNSIGNED : candidateCounter;
+            } else {
+               candidateCounter = prevCounter.subtract(bigDelta);
+               candidateCounter = candidateCounter.compareTo(MIN_UNSIGNED) < 0 ? MIN_UNSIGNED : candidateCounter;
+            }
+            Metadata metadata = buildMetadata(0, 0);
+            if (cache.replace(key, prev, candidateCounter.toString().getBytes(), metadata)) {
+               if (isStatsEnabled) {
+                  if (increment) incrHits.incrementAndGet(); else decrHits.incrementAndGet();
+               }
+               writeCounter(ch, candidateCounter.longValue(), version(metadata));
+               return;
+            }
+         }
+         // The counter was modified concurrently, try again with the new value
+      }
+   }
+
+   private void appendPrepend(Channel ch) {
+      CacheEntry<byte[], byte[]> entry = cache.getCacheEntry(key);
+      if (entry == null) {
+         writeError(ch, ITEM_NOT_STORED, "Not stored");
+         return;
+      }
+      byte[] prev = entry.getValue();
+      byte[] concatenated = opcode == APPEND || opcode == APPENDQ ? concat(prev, value) : concat(value, prev);
+      Metadata metadata = buildMetadata(flagsValue(entry.getMetadata()), 0);
+      if ((cas == 0 || version(entry.getMetadata()) == cas) && cache.replace(key, prev, concatenated, metadata)) {
+         writeSuccess(ch, version(metadata));
+      } else {
+         writeError(ch, KEY_EXISTS, "Data exists for key");
+      }
+   }
+
+   private void touch(Channel ch, int expiration) {
+      CacheEntry<byte[], byte[]> entry = cache.getCacheEntry(key);
+      if (entry == null) {
+         if (opcode != GATQ) {
+            writeError(ch, KEY_NOT_FOUND, "Not found");
+         }
+         return;
+      }
+      // Only the expiration changes, so the entry keeps its version
+      MemcachedMetadataBuilder builder = new MemcachedMetadataBuilder();
+      builder.flags(flagsValue(entry.getMetadata()));
+      builder.version(entry.getMetadata().version());
+      if (expiration > 0)
+         builder.lifespan(MemcachedDecoder.toMillis(expiration));
+      Metadata metadata = builder.build();
+      if (!cache.replace(key, entry.getValue(), entry.getValue(), metadata)) {
+         writeError(ch, KEY_EXISTS, "Data exists for key");
+      } else if (opcode == TOUCH) {
+         writeResponse(ch, SUCCESS, version(metadata), null, null, null);
+      } else {
+         writeResponse(ch, SUCCESS, version(metadata), flags(metadata), null, entry.getValue());
+      }
+   }
+
+   private void flush(Channel ch, int flushDelay) {
+      if (flushDelay == 0)
+         cache.clear();
+      else
+         scheduler.schedule(cache::clear, MemcachedDecoder.toMillis(flushDelay), TimeUnit.MILLISECONDS);
+      writeSuccess(ch, 0);
+   }
+
+   private void stats(Channel ch) {
+      Map<String, Object> stats = createStats();
+      if (key.length > 0) {
+         Object stat = stats.get(new String(key, UTF_8));
+         if (stat == null) {
+            writeError(ch, KEY_NOT_FOUND, "Not found");
+            return;
+         }
+         writeResponse(ch, SUCCESS, 0, null, key, String.valueOf(stat).getBytes(UTF_8));
+      } else {
+         stats.forEach((name, stat) ->
+               writeResponse(ch, SUCCESS, 0, null, name.getBytes(UTF_8), String.valueOf(stat).getBytes(UTF_8)));
+      }
+      // An empty response terminates the statistics
+      writeResponse(ch, SUCCESS, 0, null, null, null);
+   }
+
+   private Map<String, Object> createStats() {
+      Stats stats = cache.getStats();
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("pid", 0);
+      map.put("uptime", stats.getTimeSinceStart());
+      map.put("time", TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+      map.put("version", cache.getVersion());
+      map.put("curr_items", stats.getCurrentNumberOfEntries());
+      map.put("total_items", stats.getTotalNumberOfEntries());
+      map.put("cmd_get", stats.getRetrievals());
+      map.put("cmd_set", stats.getStores());
+      map.put("get_hits", stats.getHits());
+      map.put("get_misses", stats.getMisses());
+      map.put("delete_misses", stats.getRemoveMisses());
+      map.put("delete_hits", stats.getRemoveHits());
+      map.put("incr_misses", incrMisses);
+      map.put("incr_hits", incrHits);
+      map.put("decr_misses", decrMisses);
+      map.put("decr_hits", decrHits);
+      map.put("cas_misses", replaceIfUnmodifiedMisses);
+      map.put("cas_hits", replaceIfUnmodifiedHits);
+      map.put("cas_badval", replaceIfUnmodifiedBadval);
+      map.put("evictions", stats.getEvictions());
+      map.put("bytes_read", transport.getTotalBytesRead());
+      map.put("bytes_written", transport.getTotalBytesWritten());
+      return map;
+   }
+
+   private Metadata buildMetadata(long flags, int expiration) {
+      MemcachedMetadataBuilder metadata = new MemcachedMetadataBuilder();
+      metadata.version(MemcachedDecoder.generateVersion(cache));
+      metadata.flags(flags);
+      if (expiration > 0)
+         metadata.lifespan(MemcachedDecoder.toMillis(expiration));
+      return metadata.build();
+   }
+
+   private void writeSuccess(Channel ch, long version) {
+      if (!isQuiet(opcode)) {
+         writeResponse(ch, SUCCESS, version, null, null, null);
+      }
+   }
+
+   private void writeCounter(Channel ch, long counter, long version) {
+      if (!isQuiet(opcode)) {
+         byte[] body = new byte[8];
+         for (int i = 7; i >= 0; i--) {
+            body[i] = (byte) counter;
+            counter >>>= 8;
+         }
+         writeResponse(ch, SUCCESS, version, null, null, body);
+      }
+   }
+
+   private void writeError(Channel ch, short status, String message) {
+      // Errors are sent even for quiet commands
+      writeResponse(ch, status, 0, null, null, message.getBytes(UTF_8));
+   }
+
+   private void writeResponse(Channel ch, short status, long version, byte[] extras, byte[] key, byte[] value) {
+      int extrasLength = extras == null ? 0 : extras.length;
+      int keyLength = key == null ? 0 : key.length;
+      int valueLength = value == null ? 0 : value.length;
+      int bodyLength = extrasLength + keyLength + valueLength;
+      ByteBuf buf = ch.alloc().buffer(HEADER_LENGTH + bodyLength);
+      writeResponseHeader(buf, opcode, status, extrasLength, keyLength, bodyLength, opaque, version);
+      if (extras != null) buf.writeBytes(extras);
+      if (key != null) buf.writeBytes(key);
+      if (value != null) buf.writeBytes(value);
+      if (isTrace) log.tracef("Write binary response with status 0x%04x for operation 0x%02x", status, opcode);
+      ch.write(buf, ch.voidPromise());
+   }
+
+   private static byte[] readBytes(ByteBuf in, int length) {
+      if (length == 0) {
+         return Util.EMPTY_BYTE_ARRAY;
+      }
+      byte[] bytes = new byte[length];
+      in.readBytes(bytes);
+      return bytes;
+   }
+
+   private static long version(Metadata metadata) {
+      EntryVersion version = metadata == null ? null : metadata.version();
+      return version instanceof NumericVersion ? ((NumericVersion) version).getVersion() : 0;
+   }
+
+   private static long flagsValue(Metadata metadata) {
+      return metadata instanceof MemcachedMetadata ? ((MemcachedMetadata) metadata).flags : 0;
+   }
+
+   private static byte[] flags(Metadata metadata) {
+      long flags = flagsValue(metadata);
+      return new byte[]{(byte) (flags >>> 24), (byte) (flags >>> 16), (byte) (flags >>> 8), (byte) flags};
+   }
+
+   private static BigInteger unsigned(long value) {
+      BigInteger bigValue = BigInteger.valueOf(value);
+      return value < 0 ? bigValue.add(BigInteger.ONE.shiftLeft(64)) : bigValue;
+   }
+}
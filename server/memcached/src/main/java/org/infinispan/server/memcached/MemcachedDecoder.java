@@ -38,10 +38,14 @@
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -55,6 +59,7 @@
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.entries.CacheEntry;
@@ -127,6 +132,12 @@ public MemcachedDecoder(AdvancedCache<byte[], byte[]> memcachedCache, ScheduledE
    private ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
    protected RequestHeader header;
 
+   // Consecutive noreply sets with the same flags and lifespan, and noreply deletes, applied together
+   private final Map<WrappedByteArray, byte[]> batchedPuts = new LinkedHashMap<>();
+   private final Set<WrappedByteArray> batchedRemoves = new HashSet<>();
+   private long batchedFlags;
+   private int batchedLifespan;
+
    @Override
    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
       try {
@@ -137,6 +148,76 @@ protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) t
       }
    }
 
+   @Override
+   public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+      // All the commands received together have been decoded
+      flushBatch();
+      super.channelReadComplete(ctx);
+   }
+
+   @Override
+   public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+      flushBatch();
+      super.channelInactive(ctx);
+   }
+
+   private void batchPut() {
+      WrappedByteArray wrappedKey = new WrappedByteArray(key);
+      if (batchedRemoves.contains(wrappedKey) ||
+            (!batchedPuts.isEmpty() && (batchedFlags != params.flags || batchedLifespan != params.lifespan))) {
+         flushBatch();
+      }
+      batchedFlags = params.flags;
+      batchedLifespan = params.lifespan;
+      // A later set of the same key replaces the earlier one, as if they were applied in order
+      batchedPuts.put(wrappedKey, createValue());
+   }
+
+   private void batchRemove() {
+      WrappedByteArray wrappedKey = new WrappedByteArray(key);
+      if (batchedPuts.containsKey(wrappedKey)) {
+         flushBatch();
+      }
+      batchedRemoves.add(wrappedKey);
+   }
+
+   /**
+    * Applies the batched noreply sets with a single putAll and the batched deletes concurrently. The batched commands
+    * were sent with noreply, so their failures are only logged: they are never reported to the client, and never
+    * attributed to the command that caused the flush.
+    */
+   private void flushBatch() {
+      if (!batchedPuts.isEmpty()) {
+         Map<byte[], byte[]> entries = new LinkedHashMap<>(batchedPuts.size());
+         batchedPuts.forEach((k, v) -> entries.put(k.getBytes(), v));
+         batchedPuts.clear();
+         try {
+            cache.putAll(entries, buildMetadata(batchedFlags, batchedLifespan));
+         } catch (Throwable t) {
+            // Apply the sets one at a time to find out which ones failed
+            entries.forEach((k, v) -> {
+               try {
+                  cache.put(k, v, buildMetadata(batchedFlags, batchedLifespan));
+               } catch (Throwable t2) {
+                  log.debugf(t2, "Exception applying noreply set of key %s", Util.printArray(k));
+               }
+            });
+         }
+      }
+      if (!batchedRemoves.isEmpty()) {
+         CompletableFuture<?>[] removes = new CompletableFuture[batchedRemoves.size()];
+         int i = 0;
+         for (WrappedByteArray k : batchedRemoves) {
+            removes[i++] = cache.removeAsync(k.getBytes()).exceptionally(t -> {
+               log.debugf(t, "Exception applying noreply delete of key %s", Util.printArray(k.getBytes()));
+               return null;
+            });
+         }
+         batchedRemoves.clear();
+         CompletableFuture.allOf(removes).join();
+      }
+   }
+
    protected Object replace() {
       // Avoid listener notification for a simple optimization
       // on whether a new version should be calculated or not.
@@ -205,6 +286,10 @@ void decodeHeader(ChannelHandlerContext ctx, ByteBuf buffer, MemcachedDecoderSta
          // It can happen with Hot Rod if the header is completely corrupted
          return;
       }
+      if (header.operation != MemcachedOperation.PutRequest && header.operation != MemcachedOperation.RemoveRequest) {
+         // Only plain sets and deletes can be batched, any other command must see their effects
+         flushBatch();
+      }
       Channel ch = ctx.channel();
       String cacheName = cache.getName();
       if (ignoreCache.test(cacheName)) throw new CacheUnavailableException(cacheName);
@@ -310,8 +395,12 @@ private Object putIfAbsent() {
    }
 
    private Object put() {
-      // Get an optimised cache in case we can make the operation more efficient
-      Object prev = cache.put(key, createValue(), buildMetadata());
+      if (params.noReply) {
+         batchPut();
+         return null;
+      }
+      flushBatch();
+      cache.put(key, createValue(), buildMetadata());
       return createSuccessResponse();
    }
 
@@ -372,9 +461,16 @@ public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
    protected Object get(ByteBuf buffer) throws StreamCorruptedException {
       List<byte[]> keys = readKeys(buffer);
       if (keys.size() > 1) {
+         Set<byte[]> keySet = new HashSet<>(keys.size());
+         for (byte[] key : keys) {
+            keySet.add(checkKeyLength(key, true, buffer));
+         }
+         // Retrieve all the entries at once, the returned keys are not the same instances so match them by content
+         Map<WrappedByteArray, CacheEntry<byte[], byte[]>> entries = new HashMap<>(keys.size());
+         cache.getAllCacheEntries(keySet).forEach((k, entry) -> entries.put(new WrappedByteArray(k), entry));
          Map<byte[], CacheEntry<byte[], byte[]>> map = new LinkedHashMap<>();
          for (byte[] key : keys) {
-            CacheEntry<byte[], byte[]> entry = cache.getCacheEntry(checkKeyLength(key, true, buffer));
+            CacheEntry<byte[], byte[]> entry = entries.get(new WrappedByteArray(key));
             if (entry != null) {
                map.put(key, entry);
             }
@@ -476,8 +572,8 @@ private MemcachedParameters readStorageParameters(List<String> args, ByteBuf b)
       return new MemcachedParameters(length, lifespan, -1, streamVersion, noReply, flags, "", 0);
    }
 
-   private EntryVersion generateVersion(Cache<byte[], byte[]> cache) {
-      ComponentRegistry registry = getCacheRegistry();
+   static EntryVersion generateVersion(AdvancedCache<?, ?> cache) {
+      ComponentRegistry registry = cache.getComponentRegistry();
       VersionGenerator cacheVersionGenerator = registry.getComponent(VersionGenerator.class);
       if (cacheVersionGenerator == null) {
          NumericVersionGenerator newVersionGenerator = new NumericVersionGenerator()
@@ -546,10 +642,6 @@ private Configuration getCacheConfiguration() {
       return cache.getCacheConfiguration();
    }
 
-   private ComponentRegistry getCacheRegistry() {
-      return cache.getComponentRegistry();
-   }
-
    private void customDecodeHeader(ChannelHandlerContext ctx, ByteBuf buffer) throws IOException {
       Channel ch = ctx.channel();
       switch (header.operation) {
@@ -791,6 +883,11 @@ private void resetParams() {
 
 
    protected Object remove() {
+      if (params != null && params.noReply) {
+         batchRemove();
+         return null;
+      }
+      flushBatch();
       Object prev = cache.remove(key);
       if (prev != null)
          return createSuccessResponse();
@@ -823,11 +920,15 @@ private Object createErrorResponse(Throwable t) {
    }
 
    protected Metadata buildMetadata() {
+      return buildMetadata(params.flags, params.lifespan);
+   }
+
+   private Metadata buildMetadata(long flags, int lifespan) {
       MemcachedMetadataBuilder metadata = new MemcachedMetadataBuilder();
       metadata.version(generateVersion(cache));
-      metadata.flags(params.flags);
-      if (params.lifespan > 0)
-         metadata.lifespan(toMillis(params.lifespan));
+      metadata.flags(flags);
+      if (lifespan > 0)
+         metadata.lifespan(toMillis(lifespan));
 
       return metadata.build();
    }
@@ -849,7 +950,7 @@ private StringBuilder logAndCreateErrorMessage(StringBuilder sb, MemcachedExcept
     * Otherwise it's just considered number of seconds from
     * now and it's returned in milliseconds unit.
     */
-   private long toMillis(int lifespan) {
+   static long toMillis(int lifespan) {
       if (lifespan > SecondsInAMonth) {
          long unixTimeExpiry = TimeUnit.SECONDS.toMillis(lifespan) - System.currentTimeMillis();
          return unixTimeExpiry < 0 ? 0 : unixTimeExpiry;
@@ -865,8 +966,8 @@ protected Object writeResponse(Channel ch, Object response) {
             if (response instanceof ByteBuf[]) {
                for (ByteBuf buf : (ByteBuf[]) response) {
                   ch.write(buf, ch.voidPromise());
-                  ch.flush();
                }
+               ch.flush();
             } else if (response instanceof byte[]) {
                ch.writeAndFlush(wrappedBuffer((byte[]) response), ch.voidPromise());
             } else if (response instanceof CharSequence) {
@@ -0,0 +1,38 @@
+package org.infinispan.server.memcached;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+
+/**
+ * Detects whether a client speaks the text or the binary Memcached protocol from the first byte it sends, and replaces
+ * itself with the decoder for that protocol. Binary requests always start with the {@link BinaryProtocolUtil#MAGIC_REQUEST}
+ * byte, which is not a valid character for a text command.
+ *
+ * @since 10.0
+ */
+public class MemcachedProtocolDetector extends ByteToMessageDecoder {
+   private final Supplier<? extends ChannelHandler> textDecoder;
+   private final Supplier<? extends ChannelHandler> binaryDecoder;
+
+   public MemcachedProtocolDetector(Supplier<? extends ChannelHandler> textDecoder,
+                                    Supplier<? extends ChannelHandler> binaryDecoder) {
+      this.textDecoder = textDecoder;
+      this.binaryDecoder = binaryDecoder;
+   }
+
+   @Override
+   protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+      if (!in.isReadable()) {
+         return;
+      }
+      ChannelHandler decoder = in.getByte(in.readerIndex()) == BinaryProtocolUtil.MAGIC_REQUEST ?
+            binaryDecoder.get() : textDecoder.get();
+      // The bytes that were not read are passed on to the new decoder once this one is removed
+      ctx.pipeline().replace(this, ctx.name(), decoder);
+   }
+}
@@ -25,7 +25,8 @@
 
 /**
  * Memcached server defining its decoder/encoder settings. In fact, Memcached does not use an encoder since there's
- * no really common headers between protocol operations.
+ * no really common headers between protocol operations. Both the text and the binary protocols are supported, the
+ * protocol of each connection is detected from the first byte sent by the client.
  *
  * @author Galder Zamarreño
  * @since 4.1
@@ -67,7 +68,10 @@ public ChannelOutboundHandler getEncoder() {
 
    @Override
    public ChannelInboundHandler getDecoder() {
-      return new MemcachedDecoder(memcachedCache, scheduler, transport, this::isCacheIgnored, configuration.clientEncoding());
+      return new MemcachedProtocolDetector(
+            () -> new MemcachedDecoder(memcachedCache, scheduler, transport, this::isCacheIgnored, configuration.clientEncoding()),
+            () -> new MemcachedBinaryDecoder(memcachedCache, scheduler, transport, this::isCacheIgnored, configuration.clientEncoding(),
+                  configuration.maxContentLength()));
    }
 
    @Override
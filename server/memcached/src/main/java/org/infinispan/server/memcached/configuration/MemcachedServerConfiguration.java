@@ -26,21 +26,28 @@ public class MemcachedServerConfiguration extends ProtocolServerConfiguration {
    public static final String DEFAULT_MEMCACHED_CACHE = "memcachedCache";
 
    public static final AttributeDefinition<MediaType> CLIENT_ENCODING = AttributeDefinition.builder("client-encoding", APPLICATION_OCTET_STREAM, MediaType.class).immutable().build();
+   public static final AttributeDefinition<Integer> MAX_CONTENT_LENGTH = AttributeDefinition.builder("max-content-length", 10 * 1024 * 1024).immutable().build();
    private final Attribute<MediaType> clientEncoding;
+   private final Attribute<Integer> maxContentLength;
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(MemcachedServerConfiguration.class, ProtocolServerConfiguration.attributeDefinitionSet(), CLIENT_ENCODING);
+      return new AttributeSet(MemcachedServerConfiguration.class, ProtocolServerConfiguration.attributeDefinitionSet(), CLIENT_ENCODING, MAX_CONTENT_LENGTH);
    }
 
    MemcachedServerConfiguration(AttributeSet attributes, SslConfiguration ssl) {
       super(attributes, ssl);
       clientEncoding = attributes.attribute(CLIENT_ENCODING);
+      maxContentLength = attributes.attribute(MAX_CONTENT_LENGTH);
    }
 
    public MediaType clientEncoding() {
       return clientEncoding.get();
    }
 
+   public int maxContentLength() {
+      return maxContentLength.get();
+   }
+
    @Override
    public String toString() {
       return "MemcachedServerConfiguration [" + attributes + "]";
@@ -49,6 +49,15 @@ public MemcachedServerConfigurationBuilder clientEncoding(MediaType payloadType)
       return this;
    }
 
+   /**
+    * The maximum size in bytes of a request of the memcached binary protocol, including its header. The connection is
+    * closed when a client sends a larger request, before its body is read. Defaults to 10MB.
+    */
+   public MemcachedServerConfigurationBuilder maxContentLength(int maxContentLength) {
+      attributes.attribute(MemcachedServerConfiguration.MAX_CONTENT_LENGTH).set(maxContentLength);
+      return this;
+   }
+
    @Override
    public MemcachedServerConfiguration create() {
       return new MemcachedServerConfiguration(attributes.protect(), ssl.create());
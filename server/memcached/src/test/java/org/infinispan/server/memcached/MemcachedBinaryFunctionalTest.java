@@ -0,0 +1,163 @@
+package org.infinispan.server.memcached;
+
+import static org.infinispan.server.memcached.test.MemcachedTestingUtil.createMemcachedBinaryClient;
+import static org.infinispan.test.TestingUtil.k;
+import static org.infinispan.test.TestingUtil.v;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Version;
+import org.testng.annotations.Test;
+
+import net.spy.memcached.CASResponse;
+import net.spy.memcached.CASValue;
+import net.spy.memcached.MemcachedClient;
+
+/**
+ * Tests the binary Memcached protocol against Infinispan Memcached server.
+ *
+ * @since 10.0
+ */
+@Test(groups = "functional", testName = "server.memcached.MemcachedBinaryFunctionalTest")
+public class MemcachedBinaryFunctionalTest extends MemcachedSingleNodeTest {
+
+   @Override
+   protected MemcachedClient createClient() throws IOException {
+      return createMemcachedBinaryClient(60000, server.getPort());
+   }
+
+   public void testSetGet(Method m) throws Exception {
+      assertTrue(client.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertEquals(v(m), client.get(k(m)));
+      assertNull(client.get(k(m, "missing-")));
+   }
+
+   public void testAdd(Method m) throws Exception {
+      assertTrue(client.add(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertFalse(client.add(k(m), 0, v(m, "v1-")).get(timeout, TimeUnit.SECONDS));
+      assertEquals(v(m), client.get(k(m)));
+   }
+
+   public void testReplace(Method m) throws Exception {
+      assertFalse(client.replace(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.replace(k(m), 0, v(m, "v1-")).get(timeout, TimeUnit.SECONDS));
+      assertEquals(v(m, "v1-"), client.get(k(m)));
+   }
+
+   public void testDelete(Method m) throws Exception {
+      assertFalse(client.delete(k(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.delete(k(m)).get(timeout, TimeUnit.SECONDS));
+      assertNull(client.get(k(m)));
+   }
+
+   public void testCas(Method m) throws Exception {
+      assertTrue(client.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      CASValue<Object> value = client.gets(k(m));
+      assertEquals(v(m), value.getValue());
+      assertEquals(CASResponse.OK, client.cas(k(m), value.getCas(), v(m, "v1-")));
+      assertEquals(CASResponse.EXISTS, client.cas(k(m), value.getCas(), v(m, "v2-")));
+      assertEquals(CASResponse.NOT_FOUND, client.cas(k(m, "missing-"), value.getCas(), v(m)));
+      assertEquals(v(m, "v1-"), client.get(k(m)));
+   }
+
+   public void testIncrementDecrement(Method m) throws Exception {
+      assertEquals(-1, client.incr(k(m), 1));
+      assertEquals(10, client.incr(k(m), 1, 10));
+      assertEquals(15, client.incr(k(m), 5));
+      assertEquals(12, client.decr(k(m), 3));
+      assertEquals(0, client.decr(k(m), 20));
+      // The counter is stored the same way as with the text protocol
+      assertEquals("0", client.get(k(m)));
+   }
+
+   public void testAppendPrepend(Method m) throws Exception {
+      assertFalse(client.append(0, k(m), v(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.set(k(m), 0, "b").get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.append(0, k(m), "c").get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.prepend(0, k(m), "a").get(timeout, TimeUnit.SECONDS));
+      assertEquals("abc", client.get(k(m)));
+   }
+
+   public void testMultiGet(Method m) throws Exception {
+      List<String> keys = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+         // Only every other key exists, so some of the quiet gets don't answer
+         if (i % 2 == 0) {
+            assertTrue(client.set(k(m, i + "-"), 0, v(m, i + "-")).get(timeout, TimeUnit.SECONDS));
+         }
+         keys.add(k(m, i + "-"));
+      }
+      Map<String, Object> values = client.getBulk(keys);
+      assertEquals(50, values.size());
+      for (int i = 0; i < 100; i += 2) {
+         assertEquals(v(m, i + "-"), values.get(k(m, i + "-")));
+      }
+   }
+
+   public void testTouch(Method m) throws Exception {
+      assertFalse(client.touch(k(m), 10).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.touch(k(m), 10).get(timeout, TimeUnit.SECONDS));
+      assertEquals(v(m), client.get(k(m)));
+   }
+
+   public void testFlush(Method m) throws Exception {
+      assertTrue(client.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.flush().get(timeout, TimeUnit.SECONDS));
+      assertNull(client.get(k(m)));
+   }
+
+   public void testVersion() {
+      assertEquals(Version.getVersion(), client.getVersions().values().iterator().next());
+   }
+
+   public void testStats() {
+      Map<String, String> stats = client.getStats().values().iterator().next();
+      assertTrue(stats.containsKey("curr_items"));
+      assertTrue(stats.containsKey("cmd_get"));
+   }
+
+   public void testTextClientOnSameServer(Method m) throws Exception {
+      assertTrue(client.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      // The protocol is detected per connection, so text clients keep working
+      String response = send("get " + k(m) + "\r\n");
+      assertEquals("VALUE " + k(m) + " 0 " + v(m).length(), response);
+   }
+
+   public void testRequestTooLarge() throws Exception {
+      try (Socket socket = new Socket(server.getHost(), server.getPort())) {
+         // A set with a body larger than the maximum content length, the body itself is never sent
+         ByteBuffer header = ByteBuffer.allocate(BinaryProtocolUtil.HEADER_LENGTH);
+         header.put(BinaryProtocolUtil.MAGIC_REQUEST).put(BinaryProtocolUtil.SET).putShort((short) 1).put((byte) 8)
+               .put((byte) 0).putShort((short) 0).putInt(server.getConfiguration().maxContentLength()).putInt(42)
+               .putLong(0);
+         socket.getOutputStream().write(header.array());
+         socket.getOutputStream().flush();
+
+         DataInputStream in = new DataInputStream(socket.getInputStream());
+         assertEquals(BinaryProtocolUtil.MAGIC_RESPONSE, in.readByte());
+         assertEquals(BinaryProtocolUtil.SET, in.readByte());
+         in.skipBytes(4);
+         assertEquals(BinaryProtocolUtil.VALUE_TOO_LARGE, in.readShort());
+         int bodyLength = in.readInt();
+         assertEquals(42, in.readInt());
+         in.skipBytes(8 + bodyLength);
+         // The server closes the connection
+         assertEquals(-1, in.read());
+      }
+   }
+}
@@ -28,10 +28,16 @@
 
 import org.infinispan.Cache;
 import org.infinispan.Version;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.PutMapCommand;
+import org.infinispan.commons.CacheException;
 import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.DDAsyncInterceptor;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
@@ -299,6 +305,52 @@ public void testSetNoReplyMultiDelete(Method m) throws IOException {
       assertEquals(responses.get(3), "NOT_FOUND");
    }
 
+   public void testPipelinedNoReplySetsAndDeletes(Method m) throws IOException {
+      String k1 = k(m, "k1-");
+      String k2 = k(m, "k2-");
+      String k3 = k(m, "k3-");
+      List<String> responses = sendMulti(String.format(
+         "set %s 0 0 1 noreply\r\na\r\nset %s 0 0 1 noreply\r\nb\r\nset %s 5 0 1 noreply\r\nc\r\n" +
+         "delete %s noreply\r\nset %s 0 0 1 noreply\r\nd\r\nget %s %s %s\r\n",
+         k1, k2, k3, k2, k1, k1, k2, k3), 5, true);
+      assertEquals(responses.size(), 5);
+      assertEquals(responses.get(0), "VALUE " + k1 + " 0 1");
+      assertEquals(responses.get(1), "d");
+      assertEquals(responses.get(2), "VALUE " + k3 + " 5 1");
+      assertEquals(responses.get(3), "c");
+      assertEquals(responses.get(4), "END");
+   }
+
+   public void testGetMultipleKeysDuplicateAndMissing(Method m) throws IOException {
+      String k1 = k(m, "k1-");
+      String k2 = k(m, "k2-");
+      List<String> responses = sendMulti(String.format("set %s 0 0 1\r\na\r\nget %s %s %s\r\n", k1, k1, k2, k1), 6, true);
+      assertEquals(responses.size(), 6);
+      assertEquals(responses.get(0), "STORED");
+      assertEquals(responses.get(1), "VALUE " + k1 + " 0 1");
+      assertEquals(responses.get(2), "a");
+      assertEquals(responses.get(3), "VALUE " + k1 + " 0 1");
+      assertEquals(responses.get(4), "a");
+      assertEquals(responses.get(5), "END");
+   }
+
+   public void testFailedNoReplySetIsNotReported(Method m) throws IOException {
+      String failing = k(m, "failing-");
+      String k2 = k(m, "k2-");
+      cache.getAdvancedCache().getAsyncInterceptorChain().addInterceptor(new FailingPutInterceptor(failing), 0);
+      try {
+         // The failure of the batched set must neither be sent back nor be attributed to the get
+         List<String> responses = sendMulti(String.format(
+               "set %s 0 0 1 noreply\r\na\r\nset %s 0 0 1 noreply\r\nb\r\nget %s %s\r\n",
+               failing, k2, failing, k2), 3, true);
+         assertEquals(responses.get(0), "VALUE " + k2 + " 0 1");
+         assertEquals(responses.get(1), "b");
+         assertEquals(responses.get(2), "END");
+      } finally {
+         cache.getAdvancedCache().getAsyncInterceptorChain().removeInterceptor(FailingPutInterceptor.class);
+      }
+   }
+
    private void withNoReply(Method m, String op) throws InterruptedException, ExecutionException, TimeoutException,
            IOException {
       OperationFuture<Boolean> f = client.set(k(m), 0, "blah");
@@ -647,3 +699,33 @@ public void removed(CacheEntryRemovedEvent event) {
    }
 
 }
+
+class FailingPutInterceptor extends DDAsyncInterceptor {
+   private final String failingKey;
+
+   FailingPutInterceptor(String failingKey) {
+      this.failingKey = failingKey;
+   }
+
+   @Override
+   public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+      checkKey(command.getKey());
+      return super.visitPutKeyValueCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
+      command.getMap().keySet().forEach(this::checkKey);
+      return super.visitPutMapCommand(ctx, command);
+   }
+
+   private void checkKey(Object key) {
+      if (key instanceof WrappedByteArray) {
+         key = ((WrappedByteArray) key).getBytes();
+      }
+      String keyString = key instanceof byte[] ? new String((byte[]) key, StandardCharsets.UTF_8) : String.valueOf(key);
+      if (failingKey.equals(keyString)) {
+         throw new CacheException("Induced failure");
+      }
+   }
+}
@@ -37,11 +37,15 @@ abstract class MemcachedSingleNodeTest extends SingleCacheManagerTest {
    protected EmbeddedCacheManager createCacheManager() throws Exception {
       cacheManager = createTestCacheManager();
       server = startMemcachedTextServer(cacheManager);
-      client = createMemcachedClient(60000, server.getPort());
+      client = createClient();
       cache = cacheManager.getCache(server.getConfiguration().defaultCacheName());
       return cacheManager;
    }
 
+   protected MemcachedClient createClient() throws IOException {
+      return createMemcachedClient(60000, server.getPort());
+   }
+
    protected EmbeddedCacheManager createTestCacheManager() {
       return TestCacheManagerFactory.createCacheManager(false);
    }
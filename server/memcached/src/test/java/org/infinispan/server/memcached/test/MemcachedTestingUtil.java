@@ -16,6 +16,7 @@
 import org.infinispan.test.fwk.TestResourceTracker;
 
 import io.netty.channel.ChannelInboundHandler;
+import net.spy.memcached.BinaryConnectionFactory;
 import net.spy.memcached.DefaultConnectionFactory;
 import net.spy.memcached.MemcachedClient;
 
@@ -40,6 +41,16 @@ public long getOperationTimeout() {
       return new MemcachedClient(d, Collections.singletonList(new InetSocketAddress(host, port)));
    }
 
+   public static MemcachedClient createMemcachedBinaryClient(long timeout, int port) throws IOException {
+      BinaryConnectionFactory d = new BinaryConnectionFactory() {
+         @Override
+         public long getOperationTimeout() {
+            return timeout;
+         }
+      };
+      return new MemcachedClient(d, Collections.singletonList(new InetSocketAddress(host, port)));
+   }
+
    public static MemcachedServer startMemcachedTextServer(EmbeddedCacheManager cacheManager) {
       return startMemcachedTextServer(cacheManager, UniquePortThreadLocal.INSTANCE.get());
    }
@@ -3,11 +3,14 @@
 import static io.netty.handler.codec.http.HttpResponseStatus.CONTINUE;
 import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.util.concurrent.CompletableFutures;
+
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.FullHttpRequest;
-import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpUtil;
 
 /**
@@ -17,6 +20,10 @@
  */
 public class Http11RequestHandler extends Http20RequestHandler {
 
+   // Responses must be sent in the order of the requests, even if a later request completes first.
+   // Only accessed from the event loop
+   private CompletionStage<Void> lastResponse = CompletableFutures.completedNull();
+
    /**
     * Creates new {@link Http11RequestHandler}.
     *
@@ -32,17 +39,33 @@ public void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) thr
       if (HttpUtil.is100ContinueExpected(request)) {
          ctx.write(new DefaultFullHttpResponse(HTTP_1_1, CONTINUE));
       }
-      super.channelRead0(ctx, request);
+      // Every link of the chain must complete normally, otherwise no response would be sent after a failed one
+      CompletionStage<NettyRestResponse> response = handleRequest(ctx, request)
+            .exceptionally(t -> errorResponse(ctx, new RestResponseException(CompletableFutures.extractException(t))));
+      lastResponse = lastResponse.thenCombine(response, (ignore, r) -> r).handle((r, t) -> {
+         if (t != null) {
+            r = errorResponse(ctx, new RestResponseException(CompletableFutures.extractException(t)));
+         }
+         if (r != null) {
+            try {
+               sendResponse(ctx, request, r);
+            } catch (Throwable t2) {
+               logger.debug("Cannot send the response", t2);
+               ctx.close();
+            }
+         }
+         return null;
+      });
    }
 
    @Override
-   protected void sendResponse(ChannelHandlerContext ctx, FullHttpRequest request, FullHttpResponse response) {
+   protected void sendResponse(ChannelHandlerContext ctx, FullHttpRequest request, NettyRestResponse response) {
       ctx.executor().execute(() -> {
-         restAccessLoggingHandler.log(ctx, request, response);
-         if (HttpUtil.isKeepAlive(response)) {
-            ctx.writeAndFlush(response);
+         restAccessLoggingHandler.log(ctx, request, response.getResponse());
+         if (HttpUtil.isKeepAlive(response.getResponse())) {
+            write(ctx, response);
          } else {
-            ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+            write(ctx, response).addListener(ChannelFutureListener.CLOSE);
          }
       });
    }
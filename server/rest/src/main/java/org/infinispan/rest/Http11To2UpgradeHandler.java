@@ -22,6 +22,7 @@
 import io.netty.handler.ssl.ApplicationProtocolConfig;
 import io.netty.handler.ssl.ApplicationProtocolNames;
 import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.util.AsciiString;
 
 /**
@@ -64,6 +65,7 @@ public void configurePipeline(ChannelPipeline pipeline, String protocol) {
 
    protected void configureHttp2(ChannelPipeline pipeline) {
       pipeline.addLast(getHttp11To2ConnectionHandler());
+      pipeline.addLast(new ChunkedWriteHandler());
       pipeline.addLast("rest-handler-http2", getHttp2Handler());
    }
 
@@ -85,6 +87,7 @@ protected void configureHttp1(ChannelPipeline pipeline) {
       }));
 
       pipeline.addLast(new HttpObjectAggregator(maxContentLength()));
+      pipeline.addLast(new ChunkedWriteHandler());
       pipeline.addLast("rest-handler", getHttp1Handler());
    }
 
@@ -3,14 +3,21 @@
 import static io.netty.handler.codec.http.HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE;
 import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.commons.CacheException;
 import org.infinispan.rest.authentication.AuthenticationException;
 import org.infinispan.rest.authentication.Authenticator;
 import org.infinispan.rest.configuration.RestServerConfiguration;
 import org.infinispan.rest.framework.RestResponse;
 import org.infinispan.rest.logging.Log;
 import org.infinispan.rest.logging.RestAccessLoggingHandler;
+import org.infinispan.rest.stream.CacheChunkedStream;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.LogFactory;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
@@ -20,11 +27,14 @@
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpChunkedInput;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http2.HttpConversionUtil;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedWriteHandler;
 
 /**
  * Netty REST handler for HTTP/2.0
@@ -53,29 +63,65 @@ public Http20RequestHandler(RestServer restServer) {
 
    @Override
    public void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) throws Exception {
-      RestResponse response;
+      restAccessLoggingHandler.preLog(request);
+      handleRequest(ctx, request).thenAccept(response -> {
+         if (response != null) sendResponse(ctx, request, response);
+      });
+   }
+
+   /**
+    * Dispatches the request without waiting for the cache operations it performs.
+    *
+    * @return a stage completed with the response to send, or with {@code null} if the request failed and the channel
+    * is being closed.
+    */
+   protected CompletionStage<NettyRestResponse> handleRequest(ChannelHandlerContext ctx, FullHttpRequest request) {
       NettyRestRequest restRequest = new NettyRestRequest(request);
+      CompletionStage<RestResponse> responseStage;
+      // The request is released once this handler returns, but its content may be read after that
+      request.retain();
       try {
-         restAccessLoggingHandler.preLog(request);
          authenticator.challenge(restRequest, ctx);
-         response = restServer.getRestDispatcher().dispatch(restRequest);
+         responseStage = restServer.getRestDispatcher().dispatch(restRequest);
+      } catch (Throwable t) {
+         responseStage = CompletableFutures.completedExceptionFuture(t);
+      }
+      return responseStage.handle((response, throwable) -> {
+         request.release();
+         if (throwable != null) {
+            return errorResponse(ctx, throwable);
+         }
          if (response == null) {
             response = new NettyRestResponse.Builder().status(HttpResponseStatus.NOT_FOUND).build();
          }
-         addCorrelatedHeaders(request, ((NettyRestResponse) response).getResponse());
-      } catch (AuthenticationException authException) {
+         NettyRestResponse nettyResponse = (NettyRestResponse) response;
+         addCorrelatedHeaders(request, nettyResponse.getResponse());
+         return nettyResponse;
+      });
+   }
+
+   /**
+    * @return the response describing the failure, or {@code null} if the failure is unexpected and the channel is being
+    * closed.
+    */
+   protected NettyRestResponse errorResponse(ChannelHandlerContext ctx, Throwable throwable) {
+      Throwable cause = CompletableFutures.extractException(throwable);
+      NettyRestResponse response;
+      if (cause instanceof AuthenticationException) {
          response = new NettyRestResponse.Builder()
                .status(HttpResponseStatus.UNAUTHORIZED)
-               .authenticate(authException.getAuthenticationHeader())
+               .authenticate(((AuthenticationException) cause).getAuthenticationHeader())
                .build();
-
-      } catch (RestResponseException responseException) {
+      } else if (cause instanceof RestResponseException || cause instanceof CacheException) {
+         RestResponseException responseException = cause instanceof RestResponseException ?
+               (RestResponseException) cause : new RestResponseException(cause);
          logger.errorWhileResponding(responseException);
          response = new NettyRestResponse.Builder().status(responseException.getStatus()).entity(responseException.getText()).build();
+      } else {
+         ctx.executor().execute(() -> exceptionCaught(ctx, cause));
+         return null;
       }
-
-      NettyRestResponse nettyRestResponse = (NettyRestResponse) response;
-      sendResponse(ctx, request, nettyRestResponse.getResponse());
+      return response;
    }
 
    private void addCorrelatedHeaders(FullHttpRequest request, FullHttpResponse response) {
@@ -90,13 +136,34 @@ private void addCorrelatedHeaders(FullHttpRequest request, FullHttpResponse resp
       }
    }
 
-   protected void sendResponse(ChannelHandlerContext ctx, FullHttpRequest request, FullHttpResponse response) {
+   protected void sendResponse(ChannelHandlerContext ctx, FullHttpRequest request, NettyRestResponse response) {
       ctx.executor().execute(() -> {
-         restAccessLoggingHandler.log(ctx, request, response);
-         ctx.writeAndFlush(response);
+         restAccessLoggingHandler.log(ctx, request, response.getResponse());
+         write(ctx, response);
       });
    }
 
+   /**
+    * Writes the response, streaming its content when it is chunked.
+    *
+    * @return the future of the last write.
+    */
+   protected ChannelFuture write(ChannelHandlerContext ctx, NettyRestResponse response) {
+      FullHttpResponse fullResponse = response.getResponse();
+      ChunkedInput<ByteBuf> chunkedContent = response.getChunkedContent();
+      if (chunkedContent == null) {
+         return ctx.writeAndFlush(fullResponse);
+      }
+      // The content is read by the ChunkedWriteHandler when the channel is writable
+      if (chunkedContent instanceof CacheChunkedStream) {
+         ChunkedWriteHandler chunkedWriteHandler = ctx.pipeline().get(ChunkedWriteHandler.class);
+         ((CacheChunkedStream<?>) chunkedContent).onChunkReady(chunkedWriteHandler::resumeTransfer);
+      }
+      fullResponse.release();
+      ctx.write(new DefaultHttpResponse(fullResponse.protocolVersion(), fullResponse.status(), fullResponse.headers()));
+      return ctx.writeAndFlush(new HttpChunkedInput(chunkedContent));
+   }
+
    @Override
    public void exceptionCaught(ChannelHandlerContext ctx, Throwable e) {
       // handle the case of to big requests.
@@ -21,6 +21,7 @@
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.stream.ChunkedInput;
 import io.netty.util.AsciiString;
 
 /**
@@ -39,15 +40,25 @@ public class NettyRestResponse implements RestResponse {
    private final static String CLUSTER_NODE_NAME_HEADER = "Cluster-Node-Name";
    private final static String CLUSTER_SERVER_ADDRESS_HEADER = "Cluster-Server-Address";
    private final FullHttpResponse response;
+   private final ChunkedInput<ByteBuf> chunkedContent;
 
    private NettyRestResponse(Builder builder) {
       response = builder.getResponse();
+      chunkedContent = builder.chunkedContent;
    }
 
    public FullHttpResponse getResponse() {
       return response;
    }
 
+   /**
+    * @return the content to write after the headers of the response, or null if the content of
+    * {@link #getResponse()} is complete.
+    */
+   public ChunkedInput<ByteBuf> getChunkedContent() {
+      return chunkedContent;
+   }
+
    @Override
    public int getStatus() {
       return response.status().code();
@@ -61,10 +72,17 @@ public Object getEntity() {
    public static class Builder implements RestResponseBuilder<Builder> {
       private DefaultFullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, OK, Unpooled.buffer());
       private Object entity;
+      private ChunkedInput<ByteBuf> chunkedContent;
 
       @Override
+      @SuppressWarnings("unchecked")
       public NettyRestResponse build() {
          ByteBuf responseContent = response.content();
+         if (entity instanceof ChunkedInput) {
+            chunkedContent = (ChunkedInput<ByteBuf>) entity;
+            HttpUtil.setTransferEncodingChunked(response, true);
+            return new NettyRestResponse(this);
+         }
          if (entity instanceof String) {
             ByteBufUtil.writeUtf8(responseContent, entity.toString());
          } else if (entity instanceof byte[]) {
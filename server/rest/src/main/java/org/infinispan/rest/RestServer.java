@@ -32,6 +32,7 @@ public class RestServer extends AbstractProtocolServer<RestServerConfiguration>
    private Authenticator authenticator = new VoidAuthenticator();
    private RestDispatcher restDispatcher;
    private RestCacheManager<Object> restCacheManager;
+   private CacheResource cacheResource;
 
    public RestServer() {
       super("REST");
@@ -86,6 +87,7 @@ public void setAuthenticator(Authenticator authenticator) {
    @Override
    public void stop() {
       super.stop();
+      if (cacheResource != null) cacheResource.stop();
       restCacheManager.stop();
    }
 
@@ -95,7 +97,8 @@ protected void startInternal(RestServerConfiguration configuration, EmbeddedCach
       restCacheManager = new RestCacheManager<>(cacheManager, this::isCacheIgnored);
       String rootContext = configuration.startTransport() ? configuration.contextPath() : "*";
       ResourceManager resourceManager = new ResourceManagerImpl(rootContext);
-      resourceManager.registerResource(new CacheResource(restCacheManager, configuration));
+      cacheResource = new CacheResource(restCacheManager, configuration);
+      resourceManager.registerResource(cacheResource);
       resourceManager.registerResource(new SplashResource());
       resourceManager.registerResource(new ConfigResource(cacheManager));
       resourceManager.registerResource(new CounterResource(EmbeddedCounterManagerFactory.asCounterManager(cacheManager)));
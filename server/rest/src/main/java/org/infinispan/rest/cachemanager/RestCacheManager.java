@@ -3,6 +3,7 @@
 import static org.infinispan.commons.dataconversion.MediaType.MATCH_ALL;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
@@ -89,6 +90,10 @@ public CacheEntry<Object, V> getInternalEntry(String cacheName, Object key, Medi
       return getInternalEntry(cacheName, key, false, keyContentType, mediaType);
    }
 
+   public CompletableFuture<CacheEntry<Object, V>> getInternalEntryAsync(String cacheName, Object key, MediaType keyContentType, MediaType mediaType) {
+      return getInternalEntryAsync(cacheName, key, false, keyContentType, mediaType);
+   }
+
    public void remove(String cacheName, Object key, MediaType keyContentType, boolean async) {
       Cache<Object, V> cache = getCache(cacheName, keyContentType, MediaType.MATCH_ALL);
       if (async) {
@@ -99,6 +104,11 @@ public void remove(String cacheName, Object key, MediaType keyContentType, boole
 
    }
 
+   public CompletableFuture<V> removeAsync(String cacheName, Object key, MediaType keyContentType) {
+      Cache<Object, V> cache = getCache(cacheName, keyContentType, MediaType.MATCH_ALL);
+      return cache.removeAsync(key);
+   }
+
    public MediaType getValueConfiguredFormat(String cacheName) {
       return getCache(cacheName).getCacheConfiguration().encoding().valueDataType().mediaType();
    }
@@ -110,6 +120,13 @@ public CacheEntry<Object, V> getInternalEntry(String cacheName, Object key, bool
       return cache.getCacheEntry(key);
    }
 
+   public CompletableFuture<CacheEntry<Object, V>> getInternalEntryAsync(String cacheName, Object key, boolean skipListener, MediaType keyContentType, MediaType mediaType) {
+      AdvancedCache<Object, V> cache =
+            skipListener ? getCache(cacheName, keyContentType, mediaType).withFlags(Flag.SKIP_LISTENER_NOTIFICATION) : getCache(cacheName, keyContentType, mediaType);
+
+      return cache.getCacheEntryAsync(key);
+   }
+
    public String getNodeName() {
       Address addressToBeReturned = instance.getAddress();
       if (addressToBeReturned == null) {
@@ -1,6 +1,7 @@
 package org.infinispan.rest.framework;
 
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 
 /**
@@ -34,7 +35,8 @@ default String getName() {
    }
 
    /**
-    * Return the function to execute the invocation.
+    * Return the function to execute the invocation. The function must not block, it returns a stage that is
+    * completed with the response once it is available.
     */
-   Function<RestRequest, RestResponse> handler();
+   Function<RestRequest, CompletionStage<RestResponse>> handler();
 }
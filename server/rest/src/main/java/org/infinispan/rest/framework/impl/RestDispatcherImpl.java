@@ -1,5 +1,7 @@
 package org.infinispan.rest.framework.impl;
 
+import java.util.concurrent.CompletionStage;
+
 import org.infinispan.rest.framework.Invocation;
 import org.infinispan.rest.framework.LookupResult;
 import org.infinispan.rest.framework.ResourceManager;
@@ -21,7 +23,7 @@ public RestDispatcherImpl(ResourceManager manager) {
    }
 
    @Override
-   public RestResponse dispatch(RestRequest restRequest) {
+   public CompletionStage<RestResponse> dispatch(RestRequest restRequest) {
       String action = restRequest.getAction();
       if (action != null && action.isEmpty()) throw new MalformedRequest("Invalid action");
 
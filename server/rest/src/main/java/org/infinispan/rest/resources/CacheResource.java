@@ -1,5 +1,6 @@
 package org.infinispan.rest.resources;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.infinispan.commons.dataconversion.MediaType.APPLICATION_JSON;
 import static org.infinispan.commons.dataconversion.MediaType.TEXT_PLAIN;
 import static org.infinispan.rest.NettyRestRequest.EXTENDED_HEADER;
@@ -13,6 +14,9 @@
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.CacheSet;
@@ -20,9 +24,11 @@
 import org.infinispan.commons.dataconversion.EncodingException;
 import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.commons.hash.MurmurHash3;
-import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.commons.util.IntSets;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.encoding.DataConversion;
+import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.rest.CacheControl;
 import org.infinispan.rest.NettyRestResponse;
@@ -36,12 +42,16 @@
 import org.infinispan.rest.framework.impl.Invocations;
 import org.infinispan.rest.logging.Log;
 import org.infinispan.rest.operations.CacheOperationsHelper;
+import org.infinispan.rest.operations.exceptions.MalformedRequest;
 import org.infinispan.rest.operations.exceptions.NoDataFoundException;
 import org.infinispan.rest.operations.exceptions.NoKeyException;
 import org.infinispan.rest.operations.exceptions.UnacceptableDataFormatException;
 import org.infinispan.rest.operations.mediatypes.Charset;
 import org.infinispan.rest.operations.mediatypes.EntrySetFormatter;
 import org.infinispan.rest.operations.mediatypes.OutputPrinter;
+import org.infinispan.rest.stream.CacheChunkedStream;
+import org.infinispan.rest.stream.SegmentCursorIterator;
+import org.infinispan.rest.stream.SegmentCursors;
 
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponseStatus;
@@ -54,15 +64,29 @@
 public class CacheResource implements ResourceHandler {
 
    private static final MurmurHash3 hashFunc = MurmurHash3.getInstance();
+   private static final int DEFAULT_STREAM_BATCH = 100;
 
    private final RestCacheManager<Object> restCacheManager;
    private final RestServerConfiguration restServerConfiguration;
    private final CacheResourceQueryAction queryAction;
+   private final CacheResourceBulkAction bulkAction;
+   private final SegmentCursors cursors = new SegmentCursors();
+   private final ExecutorService streamExecutor;
 
    public CacheResource(RestCacheManager<Object> restCacheManager, RestServerConfiguration restServerConfiguration) {
       this.restCacheManager = restCacheManager;
       this.restServerConfiguration = restServerConfiguration;
       this.queryAction = new CacheResourceQueryAction(restCacheManager);
+      this.streamExecutor = restCacheManager.getInstance().getGlobalComponentRegistry()
+            .getComponent(ExecutorService.class, KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR);
+      this.bulkAction = new CacheResourceBulkAction(restCacheManager, this::negotiateMediaType, streamExecutor);
+   }
+
+   /**
+    * Closes the iterators kept for the next pages of the streamed caches.
+    */
+   public void stop() {
+      cursors.stop();
    }
 
    @Override
@@ -74,10 +98,15 @@ public Invocations getInvocations() {
             .invocation().method(DELETE).path("/{cacheName}").handleWith(this::clearEntireCache)
             .invocation().method(GET).path("/{cacheName}").handleWith(this::getCacheKeys)
             .invocation().methods(GET, POST).path("/{cacheName}").withAction("search").handleWith(queryAction::search)
+            .invocation().method(GET).path("/{cacheName}").withAction("keys").handleWith(r -> streamCache(r, false))
+            .invocation().method(GET).path("/{cacheName}").withAction("entries").handleWith(r -> streamCache(r, true))
+            .invocation().method(POST).path("/{cacheName}").withAction("getAll").handleWith(bulkAction::getAll)
+            .invocation().method(POST).path("/{cacheName}").withAction("putAll").handleWith(bulkAction::putAll)
+            .invocation().method(POST).path("/{cacheName}").withAction("removeAll").handleWith(bulkAction::removeAll)
             .create();
    }
 
-   private NettyRestResponse getCacheKeys(RestRequest request) throws RestResponseException {
+   private CompletionStage<RestResponse> getCacheKeys(RestRequest request) throws RestResponseException {
       try {
          String cacheName = request.variables().get("cacheName");
 
@@ -95,14 +124,80 @@ private NettyRestResponse getCacheKeys(RestRequest request) throws RestResponseE
          responseBuilder.header(HttpHeaderNames.CACHE_CONTROL.toString(), CacheControl.noCache());
          OutputPrinter outputPrinter = EntrySetFormatter.forMediaType(contentType);
          responseBuilder.entity(outputPrinter.print(cacheName, keys, charset));
-         return responseBuilder.build();
+         return completedFuture(responseBuilder.build());
+      } catch (CacheException cacheException) {
+         throw new RestResponseException(cacheException);
+      }
+   }
+
+
+   /**
+    * Streams the keys, or the keys and values, of the cache as JSON without loading them all in memory.
+    * <p>
+    * The keys are written in the media type of the {@code Key-Content-Type} header and the values in the media type
+    * negotiated with the {@code Accept} header. With a {@code limit} or a {@code cursor} parameter only a page is
+    * returned, iterating one segment at a time, and the response contains the cursor of the next page.
+    */
+   private CompletionStage<RestResponse> streamCache(RestRequest request, boolean entries) throws RestResponseException {
+      try {
+         String cacheName = request.variables().get("cacheName");
+         long limit = parseNumber(request, "limit", Long.MAX_VALUE);
+         int batch = (int) parseNumber(request, "batch", DEFAULT_STREAM_BATCH);
+         String cursor = getParameterValue(request, "cursor");
+         if (limit <= 0 || batch <= 0) throw new MalformedRequest("The limit and the batch must be positive");
+
+         String accept = request.getAcceptHeader();
+         MediaType keyMediaType = request.keyContentType();
+         MediaType valueMediaType = negotiateMediaType(accept == null ? MediaType.MATCH_ALL_TYPE : accept, cacheName);
+         AdvancedCache<Object, Object> cache = restCacheManager.getCache(cacheName, keyMediaType, valueMediaType);
+         if (valueMediaType.matchesAll()) {
+            // The values are returned as they are stored
+            valueMediaType = cache.getValueDataConversion().getStorageMediaType();
+         }
+         String scope = cacheName + (entries ? "/entries/" : "/keys/") + keyMediaType + "/" + valueMediaType;
+         CloseableIterator<?> iterator = entries ? iterator(cache, cache.entrySet(), limit, cursor, scope) :
+               iterator(cache, cache.keySet(), limit, cursor, scope);
+
+         NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
+         responseBuilder.contentType(APPLICATION_JSON);
+         responseBuilder.header(HttpHeaderNames.CACHE_CONTROL.toString(), CacheControl.noCache());
+         responseBuilder.entity(new CacheChunkedStream<>(iterator, entries, keyMediaType, valueMediaType, batch, limit,
+               streamExecutor));
+         return completedFuture(responseBuilder.build());
       } catch (CacheException cacheException) {
          throw new RestResponseException(cacheException);
       }
    }
 
+   private <T> CloseableIterator<T> iterator(AdvancedCache<?, ?> cache, CacheSet<T> elements, long limit, String cursor,
+                                             String scope) {
+      if (limit == Long.MAX_VALUE && cursor == null) {
+         return elements.iterator();
+      }
+      // Local caches don't have segments, so the whole cache is a single one
+      boolean segmented = cache.getDistributionManager() != null;
+      int numSegments = segmented ? cache.getCacheConfiguration().clustering().hash().numSegments() : 1;
+      return SegmentCursorIterator.resume(segment -> segmented ?
+            elements.stream().filterKeySegments(IntSets.immutableSet(segment)) : elements.stream(), numSegments, cursor,
+            cursors, scope);
+   }
+
+   private static long parseNumber(RestRequest request, String name, long defaultValue) {
+      String value = getParameterValue(request, name);
+      if (value == null) return defaultValue;
+      try {
+         return Long.parseLong(value);
+      } catch (NumberFormatException e) {
+         throw new MalformedRequest("Invalid " + name + " '" + value + "'");
+      }
+   }
+
+   private static String getParameterValue(RestRequest request, String name) {
+      List<String> values = request.parameters().get(name);
+      return values == null ? null : values.iterator().next();
+   }
 
-   private RestResponse deleteCacheValue(RestRequest request) throws RestResponseException {
+   private CompletionStage<RestResponse> deleteCacheValue(RestRequest request) throws RestResponseException {
       try {
          String cacheName = request.variables().get("cacheName");
 
@@ -111,31 +206,34 @@ private RestResponse deleteCacheValue(RestRequest request) throws RestResponseEx
          boolean useAsync = request.getPerformAsyncHeader();
 
          MediaType keyContentType = request.keyContentType();
+         String clientEtag = request.getEtagIfNoneMatchHeader();
 
-         CacheEntry<Object, Object> entry = restCacheManager.getInternalEntry(cacheName, key, keyContentType, MediaType.MATCH_ALL);
+         return restCacheManager.getInternalEntryAsync(cacheName, key, keyContentType, MediaType.MATCH_ALL).thenCompose(entry -> {
+            NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
+            responseBuilder.status(HttpResponseStatus.NOT_FOUND);
 
-         NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
-         responseBuilder.status(HttpResponseStatus.NOT_FOUND);
-
-         if (entry instanceof InternalCacheEntry) {
-            InternalCacheEntry<Object, Object> ice = (InternalCacheEntry<Object, Object>) entry;
-            String etag = calcETAG(ice.getValue());
-            String clientEtag = request.getEtagIfNoneMatchHeader();
-            if (clientEtag == null || clientEtag.equals(etag)) {
-               responseBuilder.status(HttpResponseStatus.OK.code());
-               restCacheManager.remove(cacheName, key, keyContentType, useAsync);
-            } else {
-               //ETags don't match, so preconditions failed
-               responseBuilder.status(HttpResponseStatus.PRECONDITION_FAILED.code());
+            if (entry instanceof InternalCacheEntry) {
+               InternalCacheEntry<Object, Object> ice = (InternalCacheEntry<Object, Object>) entry;
+               String etag = calcETAG(ice.getValue());
+               if (clientEtag == null || clientEtag.equals(etag)) {
+                  responseBuilder.status(HttpResponseStatus.OK.code());
+                  CompletableFuture<Object> removed = restCacheManager.removeAsync(cacheName, key, keyContentType);
+                  if (!useAsync) {
+                     return removed.thenApply(ignore -> responseBuilder.build());
+                  }
+               } else {
+                  //ETags don't match, so preconditions failed
+                  responseBuilder.status(HttpResponseStatus.PRECONDITION_FAILED.code());
+               }
             }
-         }
-         return responseBuilder.build();
+            return completedFuture(responseBuilder.build());
+         });
       } catch (CacheException cacheException) {
          throw new RestResponseException(cacheException);
       }
    }
 
-   private RestResponse putValueToCache(RestRequest request) {
+   private CompletionStage<RestResponse> putValueToCache(RestRequest request) {
       try {
          String cacheName = request.variables().get("cacheName");
 
@@ -145,40 +243,39 @@ private RestResponse putValueToCache(RestRequest request) {
          AdvancedCache<Object, Object> cache = restCacheManager.getCache(cacheName, keyContentType, contentType);
          Object key = request.variables().get("cacheKey");
          if (key == null) throw new NoKeyException();
-         NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
+         ContentSource contents = request.contents();
+         if (contents == null) throw new NoDataFoundException();
+         // Read the content now, the request is not available once the response is sent
+         byte[] data = contents.rawContent();
+         String etagNoneMatch = request.getEtagIfNoneMatchHeader();
+         boolean useAsync = request.getPerformAsyncHeader();
+         Long ttl = request.getTimeToLiveSecondsHeader();
+         Long idle = request.getMaxIdleTimeSecondsHeader();
 
-         if (request.method() == POST && cache.containsKey(key)) {
-            return responseBuilder.status(HttpResponseStatus.CONFLICT.code()).entity("An entry already exists").build();
-         } else {
-            Object oldData = null;
-            ContentSource contents = request.contents();
-            if (contents == null) throw new NoDataFoundException();
-            byte[] data = request.contents().rawContent();
-            CacheEntry<Object, Object> entry = restCacheManager.getInternalEntry(cacheName, key, true, keyContentType, contentType);
+         return restCacheManager.getInternalEntryAsync(cacheName, key, true, keyContentType, contentType).thenCompose(entry -> {
+            NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
+            if (request.method() == POST && entry != null) {
+               return completedFuture(responseBuilder.status(HttpResponseStatus.CONFLICT.code()).entity("An entry already exists").build());
+            }
             if (entry instanceof InternalCacheEntry) {
                InternalCacheEntry ice = (InternalCacheEntry) entry;
-               String etagNoneMatch = request.getEtagIfNoneMatchHeader();
                if (etagNoneMatch != null) {
                   String etag = calcETAG(ice.getValue());
                   if (etagNoneMatch.equals(etag)) {
                      //client's and our ETAG match. Nothing to do, an entry is cached on the client side...
                      responseBuilder.status(HttpResponseStatus.NOT_MODIFIED.code());
-                     return responseBuilder.build();
+                     return completedFuture(responseBuilder.build());
                   }
                }
             }
-
-            boolean useAsync = request.getPerformAsyncHeader();
-            Long ttl = request.getTimeToLiveSecondsHeader();
-            Long idle = request.getMaxIdleTimeSecondsHeader();
             return putInCache(responseBuilder, useAsync, cache, key, data, ttl, idle);
-         }
+         });
       } catch (CacheException | IllegalStateException e) {
          throw new RestResponseException(e);
       }
    }
 
-   private RestResponse clearEntireCache(RestRequest request) throws RestResponseException {
+   private CompletionStage<RestResponse> clearEntireCache(RestRequest request) throws RestResponseException {
       try {
          String cacheName = request.variables().get("cacheName");
          boolean useAsync = request.getPerformAsyncHeader();
@@ -186,20 +283,18 @@ private RestResponse clearEntireCache(RestRequest request) throws RestResponseEx
          NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
          responseBuilder.status(HttpResponseStatus.OK.code());
 
+         CompletableFuture<Void> cleared = restCacheManager.getCache(cacheName).clearAsync();
          if (useAsync) {
-            restCacheManager.getCache(cacheName).clearAsync();
-         } else {
-            restCacheManager.getCache(cacheName).clear();
+            return completedFuture(responseBuilder.build());
          }
-
-         return responseBuilder.build();
+         return cleared.thenApply(ignore -> responseBuilder.build());
       } catch (CacheException cacheException) {
          throw new RestResponseException(cacheException);
       }
    }
 
 
-   private NettyRestResponse getCacheValue(RestRequest request) throws RestResponseException {
+   private CompletionStage<RestResponse> getCacheValue(RestRequest request) throws RestResponseException {
       try {
          String cacheName = request.variables().get("cacheName");
          String accept = request.getAcceptHeader();
@@ -212,57 +307,58 @@ private NettyRestResponse getCacheValue(RestRequest request) throws RestResponse
 
          String cacheControl = request.getCacheControlHeader();
          boolean returnBody = request.method() == GET;
-         CacheEntry<Object, Object> entry = restCacheManager.getInternalEntry(cacheName, key, keyContentType, requestedMediaType);
-         NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
-         responseBuilder.status(HttpResponseStatus.NOT_FOUND.code());
-
-         if (entry instanceof InternalCacheEntry) {
-            InternalCacheEntry<Object, Object> ice = (InternalCacheEntry<Object, Object>) entry;
-            Date lastMod = CacheOperationsHelper.lastModified(ice);
-            Date expires = ice.canExpire() ? new Date(ice.getExpiryTime()) : null;
-            OptionalInt minFreshSeconds = CacheOperationsHelper.minFresh(cacheControl);
-            if (CacheOperationsHelper.entryFreshEnough(expires, minFreshSeconds)) {
-               Metadata meta = ice.getMetadata();
-               String etag = calcETAG(ice.getValue());
-               String ifNoneMatch = request.getEtagIfNoneMatchHeader();
-               String ifMatch = request.getEtagIfMatchHeader();
-               String ifUnmodifiedSince = request.getEtagIfUnmodifiedSinceHeader();
-               String ifModifiedSince = request.getEtagIfModifiedSinceHeader();
-               if (ifNoneMatch != null && ifNoneMatch.equals(etag)) {
-                  return responseBuilder.status(HttpResponseStatus.NOT_MODIFIED).build();
-               }
-               if (ifMatch != null && !ifMatch.equals(etag)) {
-                  return responseBuilder.status(HttpResponseStatus.PRECONDITION_FAILED).build();
-               }
-               if (CacheOperationsHelper.ifUnmodifiedIsBeforeEntryModificationDate(ifUnmodifiedSince, lastMod)) {
-                  return responseBuilder.status(HttpResponseStatus.PRECONDITION_FAILED).build();
-               }
-               if (CacheOperationsHelper.ifModifiedIsAfterEntryModificationDate(ifModifiedSince, lastMod)) {
-                  return responseBuilder.status(HttpResponseStatus.NOT_MODIFIED).build();
-               }
-               Object value = ice.getValue();
-               MediaType configuredMediaType = restCacheManager.getValueConfiguredFormat(cacheName);
-               writeValue(value, requestedMediaType, configuredMediaType, responseBuilder, returnBody);
-
-               responseBuilder.status(HttpResponseStatus.OK)
-                     .lastModified(lastMod)
-                     .eTag(etag)
-                     .cacheControl(CacheOperationsHelper.calcCacheControl(expires))
-                     .expires(expires)
-                     .timeToLive(meta.lifespan())
-                     .maxIdle(meta.maxIdle())
-                     .created(ice.getCreated())
-                     .lastUsed(ice.getLastUsed());
-
-               List<String> extended = request.parameters().get(EXTENDED_HEADER);
-               if (extended != null && extended.size() > 0 && CacheOperationsHelper.supportsExtendedHeaders(restServerConfiguration, extended.iterator().next())) {
-                  responseBuilder.clusterPrimaryOwner(restCacheManager.getPrimaryOwner(cacheName, key))
-                        .clusterNodeName(restCacheManager.getNodeName())
-                        .clusterServerAddress(restCacheManager.getServerAddress());
+         return restCacheManager.getInternalEntryAsync(cacheName, key, keyContentType, requestedMediaType).thenApply(entry -> {
+            NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
+            responseBuilder.status(HttpResponseStatus.NOT_FOUND.code());
+
+            if (entry instanceof InternalCacheEntry) {
+               InternalCacheEntry<Object, Object> ice = (InternalCacheEntry<Object, Object>) entry;
+               Date lastMod = CacheOperationsHelper.lastModified(ice);
+               Date expires = ice.canExpire() ? new Date(ice.getExpiryTime()) : null;
+               OptionalInt minFreshSeconds = CacheOperationsHelper.minFresh(cacheControl);
+               if (CacheOperationsHelper.entryFreshEnough(expires, minFreshSeconds)) {
+                  Metadata meta = ice.getMetadata();
+                  String etag = calcETAG(ice.getValue());
+                  String ifNoneMatch = request.getEtagIfNoneMatchHeader();
+                  String ifMatch = request.getEtagIfMatchHeader();
+                  String ifUnmodifiedSince = request.getEtagIfUnmodifiedSinceHeader();
+                  String ifModifiedSince = request.getEtagIfModifiedSinceHeader();
+                  if (ifNoneMatch != null && ifNoneMatch.equals(etag)) {
+                     return responseBuilder.status(HttpResponseStatus.NOT_MODIFIED).build();
+                  }
+                  if (ifMatch != null && !ifMatch.equals(etag)) {
+                     return responseBuilder.status(HttpResponseStatus.PRECONDITION_FAILED).build();
+                  }
+                  if (CacheOperationsHelper.ifUnmodifiedIsBeforeEntryModificationDate(ifUnmodifiedSince, lastMod)) {
+                     return responseBuilder.status(HttpResponseStatus.PRECONDITION_FAILED).build();
+                  }
+                  if (CacheOperationsHelper.ifModifiedIsAfterEntryModificationDate(ifModifiedSince, lastMod)) {
+                     return responseBuilder.status(HttpResponseStatus.NOT_MODIFIED).build();
+                  }
+                  Object value = ice.getValue();
+                  MediaType configuredMediaType = restCacheManager.getValueConfiguredFormat(cacheName);
+                  writeValue(value, requestedMediaType, configuredMediaType, responseBuilder, returnBody);
+
+                  responseBuilder.status(HttpResponseStatus.OK)
+                        .lastModified(lastMod)
+                        .eTag(etag)
+                        .cacheControl(CacheOperationsHelper.calcCacheControl(expires))
+                        .expires(expires)
+                        .timeToLive(meta.lifespan())
+                        .maxIdle(meta.maxIdle())
+                        .created(ice.getCreated())
+                        .lastUsed(ice.getLastUsed());
+
+                  List<String> extended = request.parameters().get(EXTENDED_HEADER);
+                  if (extended != null && extended.size() > 0 && CacheOperationsHelper.supportsExtendedHeaders(restServerConfiguration, extended.iterator().next())) {
+                     responseBuilder.clusterPrimaryOwner(restCacheManager.getPrimaryOwner(cacheName, key))
+                           .clusterNodeName(restCacheManager.getNodeName())
+                           .clusterServerAddress(restCacheManager.getServerAddress());
+                  }
                }
             }
-         }
-         return responseBuilder.build();
+            return responseBuilder.build();
+         });
       } catch (CacheException cacheException) {
          throw new RestResponseException(cacheException);
       }
@@ -290,17 +386,16 @@ private <V> String calcETAG(V value) {
       return String.valueOf(hashFunc.hash(value));
    }
 
-   private RestResponse putInCache(NettyRestResponse.Builder responseBuilder, boolean useAsync,
-                                   AdvancedCache<Object, Object> cache, Object key, byte[] data, Long ttl,
-                                   Long idleTime) {
+   private CompletionStage<RestResponse> putInCache(NettyRestResponse.Builder responseBuilder, boolean useAsync,
+                                                    AdvancedCache<Object, Object> cache, Object key, byte[] data, Long ttl,
+                                                    Long idleTime) {
       final Metadata metadata = CacheOperationsHelper.createMetadata(cache.getCacheConfiguration(), ttl, idleTime);
+      responseBuilder.header("etag", calcETAG(data));
+      CompletableFuture<Object> stored = cache.putAsync(key, data, metadata);
       if (useAsync) {
-         cache.putAsync(key, data, metadata);
-      } else {
-         cache.put(key, data, metadata);
+         return completedFuture(responseBuilder.build());
       }
-      responseBuilder.header("etag", calcETAG(data));
-      return responseBuilder.build();
+      return stored.thenApply(ignore -> responseBuilder.build());
    }
 
    private MediaType tryNarrowMediaType(MediaType negotiated, AdvancedCache<?, ?> cache) {
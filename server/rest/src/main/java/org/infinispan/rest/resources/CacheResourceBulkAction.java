@@ -0,0 +1,189 @@
+package org.infinispan.rest.resources;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.infinispan.commons.dataconversion.MediaType.APPLICATION_JSON;
+import static org.infinispan.commons.dataconversion.MediaType.APPLICATION_OBJECT;
+import static org.infinispan.commons.dataconversion.MediaType.MATCH_ALL_TYPE;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.util.Closeables;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.rest.NettyRestResponse;
+import org.infinispan.rest.RestResponseException;
+import org.infinispan.rest.cachemanager.RestCacheManager;
+import org.infinispan.rest.framework.ContentSource;
+import org.infinispan.rest.framework.RestRequest;
+import org.infinispan.rest.framework.RestResponse;
+import org.infinispan.rest.operations.CacheOperationsHelper;
+import org.infinispan.rest.operations.exceptions.MalformedRequest;
+import org.infinispan.rest.operations.exceptions.NoDataFoundException;
+import org.infinispan.rest.stream.CacheChunkedStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Helper for handling the 'getAll', 'putAll' and 'removeAll' actions of the {@link CacheResource}.
+ * <p>
+ * {@code getAll} and {@code removeAll} take a JSON array of keys and {@code putAll} takes a JSON object with the entries
+ * to write. The keys are in the media type of the {@code Key-Content-Type} header. The values returned by
+ * {@code getAll} are in the media type negotiated with the {@code Accept} header, and the values written by
+ * {@code putAll} in the default media type of the cache. Keys and values are represented as in the
+ * {@link CacheChunkedStream}: JSON is embedded as it is, text is a string and other binary content a Base64 string.
+ *
+ * @since 10.0
+ */
+class CacheResourceBulkAction {
+
+   private static final ObjectMapper MAPPER = new ObjectMapper();
+   private static final int RESPONSE_BATCH = 100;
+
+   private final RestCacheManager<Object> restCacheManager;
+   private final BiFunction<String, String, MediaType> mediaTypeNegotiator;
+   private final Executor executor;
+
+   /**
+    * @param mediaTypeNegotiator negotiates the media type of the values of a cache with the accepted media types
+    * @param executor            the executor writing the responses
+    */
+   CacheResourceBulkAction(RestCacheManager<Object> restCacheManager,
+                           BiFunction<String, String, MediaType> mediaTypeNegotiator, Executor executor) {
+      this.restCacheManager = restCacheManager;
+      this.mediaTypeNegotiator = mediaTypeNegotiator;
+      this.executor = executor;
+   }
+
+   public CompletionStage<RestResponse> getAll(RestRequest request) {
+      try {
+         String accept = request.getAcceptHeader();
+         AdvancedCache<Object, Object> cache = getCache(request, accept == null ? MATCH_ALL_TYPE : accept);
+         MediaType keyMediaType = request.keyContentType();
+         MediaType valueMediaType = valueMediaType(cache);
+         Set<Object> keys = new LinkedHashSet<>();
+         readArray(request).forEach(key -> keys.add(readElement(key, keyMediaType)));
+         return cache.getAllAsync(keys).thenApply(entries -> {
+            Iterator<Map.Entry<Object, Object>> iterator = entries.entrySet().iterator();
+            // The result is already in memory, but it is written a batch at a time so the response is never copied
+            return new NettyRestResponse.Builder()
+                  .contentType(APPLICATION_JSON)
+                  .entity(new CacheChunkedStream<>(Closeables.iterator(iterator), true, keyMediaType, valueMediaType,
+                        RESPONSE_BATCH, Long.MAX_VALUE, executor))
+                  .build();
+         });
+      } catch (CacheException e) {
+         throw new RestResponseException(e);
+      }
+   }
+
+   public CompletionStage<RestResponse> putAll(RestRequest request) {
+      try {
+         JsonNode body = readBody(request);
+         if (!body.isObject()) throw new MalformedRequest("Expected a JSON object with the entries to write");
+         AdvancedCache<Object, Object> cache = getCache(request, MATCH_ALL_TYPE);
+         MediaType keyMediaType = request.keyContentType();
+         MediaType valueMediaType = valueMediaType(cache);
+         Map<Object, Object> entries = new LinkedHashMap<>(body.size());
+         body.fields().forEachRemaining(field -> entries.put(readKey(field.getKey(), keyMediaType),
+               readElement(field.getValue(), valueMediaType)));
+         Metadata metadata = CacheOperationsHelper.createMetadata(cache.getCacheConfiguration(),
+               request.getTimeToLiveSecondsHeader(), request.getMaxIdleTimeSecondsHeader());
+         CompletableFuture<Void> stored = cache.putAllAsync(entries, metadata);
+         return respond(request, stored);
+      } catch (CacheException e) {
+         throw new RestResponseException(e);
+      }
+   }
+
+   public CompletionStage<RestResponse> removeAll(RestRequest request) {
+      try {
+         JsonNode keys = readArray(request);
+         AdvancedCache<Object, Object> cache = getCache(request, MATCH_ALL_TYPE);
+         MediaType keyMediaType = request.keyContentType();
+         List<CompletableFuture<Object>> removals = new ArrayList<>(keys.size());
+         keys.forEach(key -> removals.add(cache.removeAsync(readElement(key, keyMediaType))));
+         return respond(request, CompletableFuture.allOf(removals.toArray(new CompletableFuture[0])));
+      } catch (CacheException e) {
+         throw new RestResponseException(e);
+      }
+   }
+
+   private AdvancedCache<Object, Object> getCache(RestRequest request, String accept) {
+      String cacheName = request.variables().get("cacheName");
+      MediaType valueMediaType = mediaTypeNegotiator.apply(accept, cacheName);
+      return restCacheManager.getCache(cacheName, request.keyContentType(), valueMediaType);
+   }
+
+   private static MediaType valueMediaType(AdvancedCache<?, ?> cache) {
+      MediaType requested = cache.getValueDataConversion().getRequestMediaType();
+      // The values are exchanged as they are stored
+      return requested.matchesAll() ? cache.getValueDataConversion().getStorageMediaType() : requested;
+   }
+
+   /**
+    * Reads a key or a value written as in the {@link CacheChunkedStream}.
+    */
+   private static Object readElement(JsonNode node, MediaType mediaType) {
+      if (mediaType != null && mediaType.match(APPLICATION_JSON)) {
+         return node.toString().getBytes(mediaType.getCharset());
+      }
+      return readKey(node.asText(), mediaType);
+   }
+
+   private static Object readKey(String text, MediaType mediaType) {
+      if (mediaType == null) {
+         return text;
+      }
+      if (mediaType.match(APPLICATION_JSON) || "text".equals(mediaType.getType())) {
+         return text.getBytes(mediaType.getCharset());
+      }
+      if (mediaType.match(APPLICATION_OBJECT)) {
+         return text;
+      }
+      try {
+         return Base64.getDecoder().decode(text);
+      } catch (IllegalArgumentException e) {
+         throw new MalformedRequest("Invalid Base64 content: " + e.getMessage());
+      }
+   }
+
+   private CompletionStage<RestResponse> respond(RestRequest request, CompletableFuture<Void> operation) {
+      NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
+      if (request.getPerformAsyncHeader()) {
+         return completedFuture(responseBuilder.build());
+      }
+      return operation.thenApply(ignore -> responseBuilder.build());
+   }
+
+   private JsonNode readArray(RestRequest request) {
+      JsonNode body = readBody(request);
+      if (!body.isArray()) throw new MalformedRequest("Expected a JSON array with the keys");
+      return body;
+   }
+
+   private JsonNode readBody(RestRequest request) {
+      ContentSource contents = request.contents();
+      byte[] data = contents == null ? null : contents.rawContent();
+      if (data == null || data.length == 0) throw new NoDataFoundException();
+      try {
+         return MAPPER.readTree(data);
+      } catch (IOException e) {
+         throw new MalformedRequest("Invalid JSON content: " + e.getMessage());
+      }
+   }
+}
@@ -2,6 +2,7 @@
 
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static java.util.Collections.emptyMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.infinispan.query.remote.json.JSONConstants.MAX_RESULTS;
 import static org.infinispan.query.remote.json.JSONConstants.OFFSET;
 import static org.infinispan.query.remote.json.JSONConstants.QUERY_MODE;
@@ -9,6 +10,7 @@
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.dataconversion.MediaType;
@@ -23,6 +25,7 @@
 import org.infinispan.rest.framework.ContentSource;
 import org.infinispan.rest.framework.Method;
 import org.infinispan.rest.framework.RestRequest;
+import org.infinispan.rest.framework.RestResponse;
 
 /**
  * Helper for handling the 'search' action of the {@link CacheResource}.
@@ -37,7 +40,7 @@ class CacheResourceQueryAction {
       this.restCacheManager = restCacheManager;
    }
 
-   public NettyRestResponse search(RestRequest restRequest) {
+   public CompletionStage<RestResponse> search(RestRequest restRequest) {
       NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
       try {
          JsonQueryRequest query = null;
@@ -50,7 +53,7 @@ public NettyRestResponse search(RestRequest restRequest) {
 
 
          if (query == null || query.getQuery() == null || query.getQuery().isEmpty()) {
-            return queryError("Invalid search request, missing 'query' parameter", null);
+            return completedFuture(queryError("Invalid search request, missing 'query' parameter", null));
          }
 
          String cacheName = restRequest.variables().get("cacheName");
@@ -63,9 +66,9 @@ public NettyRestResponse search(RestRequest restRequest) {
          byte[] queryResultBytes = remoteQueryManager.executeQuery(queryString, emptyMap(), query.getStartOffset(),
                query.getMaxResults(), query.getQueryMode(), cache, MediaType.APPLICATION_JSON);
          responseBuilder.entity(queryResultBytes);
-         return responseBuilder.build();
+         return completedFuture(responseBuilder.build());
       } catch (IllegalArgumentException | ParsingException | IllegalStateException | IOException e) {
-         return queryError("Invalid search request", e.getMessage());
+         return completedFuture(queryError("Invalid search request", e.getMessage()));
       }
 
    }
@@ -1,11 +1,14 @@
 package org.infinispan.rest.resources;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.infinispan.commons.dataconversion.MediaType.APPLICATION_JSON;
 import static org.infinispan.commons.dataconversion.MediaType.APPLICATION_XML_TYPE;
 import static org.infinispan.rest.framework.Method.GET;
 import static org.infinispan.rest.framework.Method.POST;
 
+import java.util.concurrent.CompletionStage;
+
 import org.infinispan.commons.configuration.JsonWriter;
 import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.configuration.cache.Configuration;
@@ -46,7 +49,7 @@ public Invocations getInvocations() {
             .create();
    }
 
-   private RestResponse getConfiguration(RestRequest restRequest) {
+   private CompletionStage<RestResponse> getConfiguration(RestRequest restRequest) {
       NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
       String configurationName = restRequest.variables().get("name");
 
@@ -55,7 +58,7 @@ private RestResponse getConfiguration(RestRequest restRequest) {
 
       Configuration cacheConfiguration = cacheManager.getCacheConfiguration(configurationName);
 
-      if (cacheConfiguration == null) return responseBuilder.status(HttpResponseStatus.NOT_FOUND.code()).build();
+      if (cacheConfiguration == null) return completedFuture(responseBuilder.status(HttpResponseStatus.NOT_FOUND.code()).build());
 
       String entity;
       if (accept.getTypeSubtype().equals(APPLICATION_XML_TYPE)) {
@@ -63,7 +66,7 @@ private RestResponse getConfiguration(RestRequest restRequest) {
       } else {
          entity = JSON_WRITER.toJSON(cacheConfiguration);
       }
-      return responseBuilder.entity(entity).build();
+      return completedFuture(responseBuilder.entity(entity).build());
    }
 
    private MediaType getAccept(RestRequest restRequest) {
@@ -77,7 +80,7 @@ private MediaType getAccept(RestRequest restRequest) {
       return accept;
    }
 
-   private RestResponse convertToJson(RestRequest restRequest) {
+   private CompletionStage<RestResponse> convertToJson(RestRequest restRequest) {
       NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
 
       ContentSource contents = restRequest.contents();
@@ -86,9 +89,9 @@ private RestResponse convertToJson(RestRequest restRequest) {
       ConfigurationBuilder builder = builderHolder.getNamedConfigurationBuilders().values().iterator().next();
       Configuration configuration = builder.build();
 
-      return responseBuilder
+      return completedFuture(responseBuilder
             .contentType(APPLICATION_JSON)
             .entity(JSON_WRITER.toJSON(configuration))
-            .build();
+            .build());
    }
 }
@@ -1,10 +1,11 @@
 package org.infinispan.rest.resources;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.infinispan.rest.framework.Method.DELETE;
 import static org.infinispan.rest.framework.Method.GET;
 import static org.infinispan.rest.framework.Method.POST;
 
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletionStage;
 
 import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.counter.api.CounterConfiguration;
@@ -18,6 +19,7 @@
 import org.infinispan.rest.framework.RestResponse;
 import org.infinispan.rest.framework.impl.Invocations;
 import org.infinispan.rest.logging.Log;
+import org.infinispan.util.concurrent.CompletableFutures;
 
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponseStatus;
@@ -43,7 +45,7 @@ public Invocations getInvocations() {
             .create();
    }
 
-   private NettyRestResponse getCounter(RestRequest request) throws RestResponseException {
+   private CompletionStage<RestResponse> getCounter(RestRequest request) throws RestResponseException {
       try {
          String counterName = request.variables().get("counterName");
          String accept = request.getAcceptHeader();
@@ -51,22 +53,26 @@ private NettyRestResponse getCounter(RestRequest request) throws RestResponseExc
          NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
          CounterConfiguration configuration = counterManager.getConfiguration(counterName);
          if (configuration == null) {
-            return responseBuilder.status(HttpResponseStatus.NOT_FOUND.code()).entity("Counter not found").build();
-         } else {
-            responseBuilder.contentType(contentType);
-            switch (configuration.type()) {
-               case WEAK:
-                  long value = counterManager.getWeakCounter(counterName).getValue();
-                  responseBuilder.entity(Long.toString(value));
-                  break;
-               case BOUNDED_STRONG:
-               case UNBOUNDED_STRONG:
-                  value = counterManager.getStrongCounter(counterName).getValue().get(1, TimeUnit.MINUTES); // FIXME: make non-blocking in ISPN-10210
-                  responseBuilder.entity(Long.toString(value));
-                  break;
-            }
+            return completedFuture(responseBuilder.status(HttpResponseStatus.NOT_FOUND.code()).entity("Counter not found").build());
+         }
+         responseBuilder.contentType(contentType);
+         responseBuilder.header(HttpHeaderNames.CACHE_CONTROL.toString(), CacheControl.noCache());
+         CompletionStage<Long> value;
+         switch (configuration.type()) {
+            case WEAK:
+               value = completedFuture(counterManager.getWeakCounter(counterName).getValue());
+               break;
+            case BOUNDED_STRONG:
+            case UNBOUNDED_STRONG:
+               value = counterManager.getStrongCounter(counterName).getValue();
+               break;
+            default:
+               value = completedFuture(null);
          }
-         return responseBuilder.header(HttpHeaderNames.CACHE_CONTROL.toString(), CacheControl.noCache()).build();
+         return wrapFailure(value.thenApply(v -> {
+            if (v != null) responseBuilder.entity(Long.toString(v));
+            return responseBuilder.build();
+         }));
       } catch (Exception e) {
          throw new RestResponseException(e);
       }
@@ -79,61 +85,74 @@ private MediaType negotiateMediaType(String accept) {
    }
 
 
-   private RestResponse addCounter(RestRequest request) {
+   private CompletionStage<RestResponse> addCounter(RestRequest request) {
       try {
          String counterName = request.variables().get("counterName");
          NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
          CounterConfiguration configuration = counterManager.getConfiguration(counterName);
          if (configuration == null) {
-            return responseBuilder.status(HttpResponseStatus.NOT_FOUND.code()).entity("Counter not found").build();
+            return completedFuture(responseBuilder.status(HttpResponseStatus.NOT_FOUND.code()).entity("Counter not found").build());
+         }
+         ContentSource contents = request.contents();
+         long delta;
+         if (contents == null) {
+            delta = 1;
          } else {
-            ContentSource contents = request.contents();
-            long delta;
-            if (contents == null) {
-               delta = 1;
-            } else {
-               String s = contents.asString();
-               delta = Long.parseLong(s);
-            }
-            switch (configuration.type()) {
-               case WEAK:
-                  counterManager.getWeakCounter(counterName).add(delta).get(1, TimeUnit.MINUTES); // FIXME: make non-blocking in ISPN-10210
-                  break;
-               case BOUNDED_STRONG:
-               case UNBOUNDED_STRONG:
-                  long value = counterManager.getStrongCounter(counterName).addAndGet(delta).get(1, TimeUnit.MINUTES); // FIXME: make non-blocking in ISPN-10210
-                  responseBuilder.entity(Long.toString(value));
-                  break;
-            }
-            return responseBuilder.header(HttpHeaderNames.CACHE_CONTROL.toString(), CacheControl.noCache()).build();
+            String s = contents.asString();
+            delta = Long.parseLong(s);
+         }
+         responseBuilder.header(HttpHeaderNames.CACHE_CONTROL.toString(), CacheControl.noCache());
+         CompletionStage<Long> value;
+         switch (configuration.type()) {
+            case WEAK:
+               value = counterManager.getWeakCounter(counterName).add(delta).thenApply(ignore -> null);
+               break;
+            case BOUNDED_STRONG:
+            case UNBOUNDED_STRONG:
+               value = counterManager.getStrongCounter(counterName).addAndGet(delta);
+               break;
+            default:
+               value = completedFuture(null);
          }
+         return wrapFailure(value.thenApply(v -> {
+            if (v != null) responseBuilder.entity(Long.toString(v));
+            return responseBuilder.build();
+         }));
       } catch (Exception e) {
          throw new RestResponseException(e);
       }
    }
 
-   private RestResponse resetCounter(RestRequest request) throws RestResponseException {
+   private CompletionStage<RestResponse> resetCounter(RestRequest request) throws RestResponseException {
       try {
          String counterName = request.variables().get("counterName");
          NettyRestResponse.Builder responseBuilder = new NettyRestResponse.Builder();
          CounterConfiguration configuration = counterManager.getConfiguration(counterName);
          if (configuration == null) {
-            return responseBuilder.status(HttpResponseStatus.NOT_FOUND.code()).entity("Counter not found").build();
-         } else {
-            switch (configuration.type()) {
-               case WEAK:
-                  counterManager.getWeakCounter(counterName).reset().get(1, TimeUnit.MINUTES); // FIXME: make non-blocking in ISPN-10210
-                  break;
-               case BOUNDED_STRONG:
-               case UNBOUNDED_STRONG:
-                  counterManager.getStrongCounter(counterName).reset().get(1, TimeUnit.MINUTES); // FIXME: make non-blocking in ISPN-10210
-                  break;
-            }
+            return completedFuture(responseBuilder.status(HttpResponseStatus.NOT_FOUND.code()).entity("Counter not found").build());
+         }
+         CompletionStage<Void> reset;
+         switch (configuration.type()) {
+            case WEAK:
+               reset = counterManager.getWeakCounter(counterName).reset();
+               break;
+            case BOUNDED_STRONG:
+            case UNBOUNDED_STRONG:
+               reset = counterManager.getStrongCounter(counterName).reset();
+               break;
+            default:
+               reset = completedFuture(null);
          }
          responseBuilder.status(HttpResponseStatus.OK.code());
-         return responseBuilder.build();
+         return wrapFailure(reset.thenApply(ignore -> responseBuilder.build()));
       } catch (Exception e) {
          throw new RestResponseException(e);
       }
    }
+
+   private static CompletionStage<RestResponse> wrapFailure(CompletionStage<RestResponse> stage) {
+      return stage.exceptionally(t -> {
+         throw new RestResponseException(CompletableFutures.extractException(t));
+      });
+   }
 }
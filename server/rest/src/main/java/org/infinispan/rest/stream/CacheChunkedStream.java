@@ -0,0 +1,289 @@
+package org.infinispan.rest.stream;
+
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.util.CloseableIterator;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+
+/**
+ * Writes the keys or the entries of a cache as a JSON document, a batch of elements at a time.
+ * <p>
+ * The document has the form {@code {"keys":["k1","k2"]}} or {@code {"entries":[{"key":"k1","value":"v1"}]}}. When
+ * the elements come from a {@link SegmentCursorIterator} and the limit was reached before the end of the cache, a
+ * {@code "cursor"} field holds the position to continue from.
+ * <p>
+ * A chunk is only read when the channel can accept more data, so the memory used doesn't depend on the size of the
+ * cache. Chunks are read by an executor, because the iterator may block waiting for other nodes or for a store, and
+ * the next chunk is read while the previous one is written.
+ *
+ * @since 10.0
+ */
+public class CacheChunkedStream<T> implements ChunkedInput<ByteBuf> {
+
+   private final CloseableIterator<T> iterator;
+   private final boolean entries;
+   private final MediaType keyMediaType;
+   private final MediaType valueMediaType;
+   private final int batchSize;
+   private final long limit;
+   private final Executor executor;
+   // Only accessed by the thread filling a chunk, chunks are filled one at a time
+   private long count;
+   private boolean started;
+   // Guarded by this
+   private ByteBuf ready;
+   private boolean readyIsLast;
+   private Throwable failure;
+   private boolean filling;
+   private boolean closed;
+   private Runnable onChunkReady = () -> {};
+   // Written by the event loop while holding this, so other threads read it under this too
+   private boolean ended;
+   // Only accessed from the event loop
+   private long progress;
+
+   /**
+    * @param iterator the keys, or the {@link Map.Entry} instances when {@code entries} is true
+    * @param entries whether the iterator returns entries instead of keys
+    * @param keyMediaType the media type of the keys returned by the iterator
+    * @param valueMediaType the media type of the values returned by the iterator
+    * @param batchSize the number of elements written in every chunk
+    * @param limit the maximum number of elements to write
+    * @param executor the executor reading the elements, as the iterator may block
+    */
+   public CacheChunkedStream(CloseableIterator<T> iterator, boolean entries, MediaType keyMediaType,
+                             MediaType valueMediaType, int batchSize, long limit, Executor executor) {
+      this.iterator = iterator;
+      this.entries = entries;
+      this.keyMediaType = keyMediaType;
+      this.valueMediaType = valueMediaType;
+      this.batchSize = batchSize;
+      this.limit = limit;
+      this.executor = executor;
+   }
+
+   /**
+    * Sets the task invoked when a chunk was read after {@link #readChunk(ByteBufAllocator)} returned {@code null},
+    * which must resume the transfer of the {@link io.netty.handler.stream.ChunkedWriteHandler}.
+    */
+   public synchronized void onChunkReady(Runnable onChunkReady) {
+      this.onChunkReady = onChunkReady;
+   }
+
+   @Override
+   public boolean isEndOfInput() {
+      return ended;
+   }
+
+   @Override
+   public void close() {
+      boolean ended;
+      synchronized (this) {
+         closed = true;
+         ended = this.ended;
+         if (ready != null) {
+            ready.release();
+            ready = null;
+         }
+         // The chunk being filled closes the iterator once it is done with it
+         if (filling) return;
+      }
+      closeIterator(ended);
+   }
+
+   @Deprecated
+   @Override
+   public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+      return readChunk(ctx.alloc());
+   }
+
+   /**
+    * Never blocks: returns the chunk read in the background, or {@code null} if it isn't ready yet, in which case
+    * the transfer is resumed by the task set with {@link #onChunkReady(Runnable)}.
+    */
+   @Override
+   public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+      if (ended) return null;
+      ByteBuf chunk;
+      synchronized (this) {
+         if (failure != null) throw new CacheException(failure);
+         chunk = ready;
+         if (chunk == null) {
+            if (!filling) fill(allocator);
+            return null;
+         }
+         ready = null;
+         if (readyIsLast) {
+            ended = true;
+         } else {
+            // Read the next chunk while this one is written
+            fill(allocator);
+         }
+      }
+      progress = count;
+      return chunk;
+   }
+
+   @Override
+   public long length() {
+      return -1;
+   }
+
+   @Override
+   public long progress() {
+      return progress;
+   }
+
+   // Guarded by this
+   private void fill(ByteBufAllocator allocator) {
+      filling = true;
+      executor.execute(() -> {
+         ByteBuf buf = allocator.buffer();
+         boolean last = false;
+         Throwable t = null;
+         try {
+            last = writeBatch(buf);
+         } catch (Throwable throwable) {
+            t = throwable;
+            buf.release();
+            buf = null;
+         }
+         Runnable resume;
+         boolean ended;
+         synchronized (this) {
+            filling = false;
+            ended = this.ended;
+            if (closed) {
+               if (buf != null) buf.release();
+               resume = null;
+            } else {
+               ready = buf;
+               readyIsLast = last;
+               failure = t;
+               resume = onChunkReady;
+            }
+         }
+         if (resume != null) {
+            resume.run();
+         } else {
+            closeIterator(ended);
+         }
+      });
+   }
+
+   /**
+    * Writes the next batch of elements, which may block.
+    *
+    * @return whether this was the last batch
+    */
+   private boolean writeBatch(ByteBuf buf) {
+      if (!started) {
+         ByteBufUtil.writeUtf8(buf, entries ? "{\"entries\":[" : "{\"keys\":[");
+         started = true;
+      }
+      int written = 0;
+      while (written < batchSize && count < limit && iterator.hasNext()) {
+         if (count > 0) buf.writeByte(',');
+         T element = iterator.next();
+         if (entries) {
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) element;
+            ByteBufUtil.writeUtf8(buf, "{\"key\":");
+            writeElement(buf, entry.getKey(), keyMediaType);
+            ByteBufUtil.writeUtf8(buf, ",\"value\":");
+            writeElement(buf, entry.getValue(), valueMediaType);
+            buf.writeByte('}');
+         } else {
+            writeElement(buf, element, keyMediaType);
+         }
+         count++;
+         written++;
+      }
+      if (count == limit || !iterator.hasNext()) {
+         buf.writeByte(']');
+         String cursor = iterator instanceof SegmentCursorIterator ? ((SegmentCursorIterator<T>) iterator).cursor() : null;
+         if (cursor != null) {
+            ByteBufUtil.writeUtf8(buf, ",\"cursor\":");
+            writeString(buf, cursor);
+         }
+         buf.writeByte('}');
+         return true;
+      }
+      return false;
+   }
+
+   private void closeIterator(boolean ended) {
+      // The iterator of a page is kept for the next page, unless the page was interrupted
+      if (ended && iterator instanceof SegmentCursorIterator) {
+         ((SegmentCursorIterator<T>) iterator).suspend();
+      } else {
+         iterator.close();
+      }
+   }
+
+   /**
+    * Writes a key or a value as a JSON value. JSON documents are written as they are, text is written as a string,
+    * and any other binary content as a Base64 string.
+    */
+   private static void writeElement(ByteBuf buf, Object value, MediaType mediaType) {
+      boolean json = mediaType != null && mediaType.match(MediaType.APPLICATION_JSON);
+      if (value instanceof byte[]) {
+         byte[] bytes = (byte[]) value;
+         if (json) {
+            ByteBufUtil.writeUtf8(buf, new String(bytes, mediaType.getCharset()));
+         } else if (mediaType != null && "text".equals(mediaType.getType())) {
+            writeString(buf, new String(bytes, mediaType.getCharset()));
+         } else {
+            writeString(buf, Base64.getEncoder().encodeToString(bytes));
+         }
+      } else if (json && value instanceof String) {
+         ByteBufUtil.writeUtf8(buf, (String) value);
+      } else {
+         writeString(buf, String.valueOf(value));
+      }
+   }
+
+   private static void writeString(ByteBuf buf, String s) {
+      buf.writeByte('"');
+      for (int i = 0; i < s.length(); i++) {
+         char c = s.charAt(i);
+         switch (c) {
+            case '"':
+               ByteBufUtil.writeUtf8(buf, "\\\"");
+               break;
+            case '\\':
+               ByteBufUtil.writeUtf8(buf, "\\\\");
+               break;
+            case '\n':
+               ByteBufUtil.writeUtf8(buf, "\\n");
+               break;
+            case '\r':
+               ByteBufUtil.writeUtf8(buf, "\\r");
+               break;
+            case '\t':
+               ByteBufUtil.writeUtf8(buf, "\\t");
+               break;
+            default:
+               if (c < 0x20) {
+                  ByteBufUtil.writeUtf8(buf, String.format("\\u%04x", (int) c));
+               } else {
+                  int start = i;
+                  // Copy the run of characters that don't need escaping at once
+                  while (i + 1 < s.length() && s.charAt(i + 1) >= 0x20 && s.charAt(i + 1) != '"' && s.charAt(i + 1) != '\\') {
+                     i++;
+                  }
+                  ByteBufUtil.writeUtf8(buf, s.subSequence(start, i + 1));
+               }
+         }
+      }
+      buf.writeByte('"');
+   }
+}
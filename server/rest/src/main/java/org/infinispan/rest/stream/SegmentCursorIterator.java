@@ -0,0 +1,140 @@
+package org.infinispan.rest.stream;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+import org.infinispan.CacheStream;
+import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.rest.operations.exceptions.MalformedRequest;
+
+/**
+ * Iterates over a cache one segment at a time, starting from a cursor, so that the iteration can be resumed by a later
+ * request.
+ * <p>
+ * A cursor has the form {@code segment.offset}, where offset is the number of elements of the segment already
+ * returned. The order of the elements inside a segment is only stable while the segment isn't modified, so entries
+ * written or removed between two requests may be skipped or returned twice.
+ * <p>
+ * When the iterator of a page is {@link #suspend() suspended} in a {@link SegmentCursors}, the next page continues
+ * from it. Otherwise the segment of the cursor is iterated again from its start.
+ *
+ * @since 10.0
+ */
+public class SegmentCursorIterator<T> implements CloseableIterator<T> {
+
+   private final IntFunction<CacheStream<T>> segmentStream;
+   private final int numSegments;
+   private final SegmentCursors cursors;
+   private final String scope;
+   private int segment;
+   private long offset;
+   private CacheStream<T> stream;
+   private Iterator<T> iterator;
+
+   /**
+    * @param segmentStream creates the stream of the elements of a single segment
+    * @param numSegments the number of segments of the cache
+    * @param cursor the cursor returned by a previous iteration, or null to start from the beginning
+    */
+   public SegmentCursorIterator(IntFunction<CacheStream<T>> segmentStream, int numSegments, String cursor) {
+      this(segmentStream, numSegments, cursor, null, null);
+   }
+
+   private SegmentCursorIterator(IntFunction<CacheStream<T>> segmentStream, int numSegments, String cursor,
+                                 SegmentCursors cursors, String scope) {
+      this.segmentStream = segmentStream;
+      this.numSegments = numSegments;
+      this.cursors = cursors;
+      this.scope = scope;
+      if (cursor != null) {
+         int separator = cursor.indexOf('.');
+         try {
+            segment = Integer.parseInt(cursor.substring(0, separator));
+            offset = Long.parseLong(cursor.substring(separator + 1));
+         } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new MalformedRequest("Invalid cursor '" + cursor + "'");
+         }
+         if (segment < 0 || segment >= numSegments || offset < 0) {
+            throw new MalformedRequest("Invalid cursor '" + cursor + "'");
+         }
+      }
+   }
+
+   /**
+    * Continues from the iterator suspended at the cursor, if any, or starts a new iteration from the cursor.
+    *
+    * @param cursors the iterators suspended at the end of previous pages
+    * @param scope identifies the cache and the elements iterated, for example keys or entries
+    */
+   public static <T> SegmentCursorIterator<T> resume(IntFunction<CacheStream<T>> segmentStream, int numSegments,
+                                                     String cursor, SegmentCursors cursors, String scope) {
+      if (cursor != null) {
+         SegmentCursorIterator<T> suspended = cursors.resume(scope, cursor);
+         if (suspended != null) return suspended;
+      }
+      return new SegmentCursorIterator<>(segmentStream, numSegments, cursor, cursors, scope);
+   }
+
+   @Override
+   public boolean hasNext() {
+      while (segment < numSegments) {
+         if (iterator == null) {
+            stream = segmentStream.apply(segment);
+            iterator = stream.iterator();
+            // Skip the elements returned before the cursor
+            for (long i = 0; i < offset && iterator.hasNext(); i++) {
+               iterator.next();
+            }
+         }
+         if (iterator.hasNext()) {
+            return true;
+         }
+         closeSegment();
+         segment++;
+         offset = 0;
+      }
+      return false;
+   }
+
+   @Override
+   public T next() {
+      if (!hasNext()) throw new NoSuchElementException();
+      offset++;
+      return iterator.next();
+   }
+
+   /**
+    * @return the cursor of the next element, or null if there are no more elements
+    */
+   public String cursor() {
+      return hasNext() ? segment + "." + offset : null;
+   }
+
+   /**
+    * Ends the page: the iterator is kept so that the page of its cursor continues from it, or closed if there are no
+    * more elements.
+    */
+   public void suspend() {
+      String cursor = cursor();
+      if (cursors != null && cursor != null) {
+         cursors.suspend(scope, cursor, this);
+      } else {
+         close();
+      }
+   }
+
+   @Override
+   public void close() {
+      closeSegment();
+      segment = numSegments;
+   }
+
+   private void closeSegment() {
+      if (stream != null) {
+         stream.close();
+         stream = null;
+      }
+      iterator = null;
+   }
+}
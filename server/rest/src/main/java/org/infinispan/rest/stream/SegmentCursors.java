@@ -0,0 +1,97 @@
+package org.infinispan.rest.stream;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the iterators of the pages that ended before the end of the cache, so that the request for the next page
+ * continues from the open iterator instead of skipping the elements already returned.
+ * <p>
+ * An iterator is kept for a limited time and can only be resumed once. When it isn't available anymore, for example
+ * because the next page is requested from another server, the iteration restarts from the cursor.
+ *
+ * @since 10.0
+ */
+public class SegmentCursors {
+   public static final int DEFAULT_MAX_SUSPENDED = 100;
+   public static final long DEFAULT_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+   private final ConcurrentMap<String, Suspended> suspended = new ConcurrentHashMap<>();
+   private final int maxSuspended;
+   private final long timeoutNanos;
+
+   public SegmentCursors() {
+      this(DEFAULT_MAX_SUSPENDED, DEFAULT_TIMEOUT);
+   }
+
+   /**
+    * @param maxSuspended the maximum number of iterators kept at the same time
+    * @param timeoutMillis the time after which a kept iterator is closed
+    */
+   public SegmentCursors(int maxSuspended, long timeoutMillis) {
+      this.maxSuspended = maxSuspended;
+      this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+   }
+
+   /**
+    * @param scope identifies what is iterated, an iterator is only resumed for the same scope
+    * @return the iterator positioned at the cursor, or null if there is none
+    */
+   @SuppressWarnings("unchecked")
+   <T> SegmentCursorIterator<T> resume(String scope, String cursor) {
+      closeExpired();
+      Suspended s = suspended.remove(key(scope, cursor));
+      return s != null ? (SegmentCursorIterator<T>) s.iterator : null;
+   }
+
+   void suspend(String scope, String cursor, SegmentCursorIterator<?> iterator) {
+      closeExpired();
+      if (suspended.size() >= maxSuspended) {
+         iterator.close();
+         return;
+      }
+      Suspended previous = suspended.put(key(scope, cursor), new Suspended(iterator, System.nanoTime()));
+      if (previous != null) {
+         previous.iterator.close();
+      }
+   }
+
+   /**
+    * Closes all the kept iterators.
+    */
+   public void stop() {
+      suspended.forEach((key, s) -> {
+         if (suspended.remove(key, s)) s.iterator.close();
+      });
+   }
+
+   public int size() {
+      return suspended.size();
+   }
+
+   private void closeExpired() {
+      long now = System.nanoTime();
+      for (Map.Entry<String, Suspended> e : suspended.entrySet()) {
+         Suspended s = e.getValue();
+         if (now - s.time > timeoutNanos && suspended.remove(e.getKey(), s)) {
+            s.iterator.close();
+         }
+      }
+   }
+
+   private static String key(String scope, String cursor) {
+      return scope + '#' + cursor;
+   }
+
+   private static final class Suspended {
+      final SegmentCursorIterator<?> iterator;
+      final long time;
+
+      Suspended(SegmentCursorIterator<?> iterator, long time) {
+         this.iterator = iterator;
+         this.time = time;
+      }
+   }
+}
@@ -1,5 +1,6 @@
 package org.infinispan.rest;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.eclipse.jetty.http.HttpHeader.ACCEPT_ENCODING;
 import static org.infinispan.commons.dataconversion.MediaType.APPLICATION_JBOSS_MARSHALLING_TYPE;
 import static org.infinispan.commons.dataconversion.MediaType.APPLICATION_JSON;
@@ -16,6 +17,11 @@
 import static org.infinispan.rest.JSONConstants.TYPE;
 import static org.infinispan.rest.assertion.ResponseAssertion.assertThat;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.assertj.core.api.Assertions;
 import org.eclipse.jetty.client.HttpClient;
@@ -482,4 +488,127 @@ public void testStrongCounter() throws Exception {
       assertEquals(0, Long.parseLong(response.getContentAsString()));
    }
 
+   @Test
+   public void testStreamKeysAndEntries() throws Exception {
+      for (int i = 0; i < 50; i++) {
+         putStringValueInCache("textCache", "key" + i, "value\"" + i);
+      }
+      String url = String.format("http://localhost:%d/rest/textCache", restServer().getPort());
+      ContentResponse response = client.newRequest(url + "?action=entries&batch=7").send();
+      ResponseAssertion.assertThat(response).isOk();
+      ResponseAssertion.assertThat(response).hasContentType(APPLICATION_JSON.toString());
+      JsonNode entries = new ObjectMapper().readTree(response.getContentAsString()).get("entries");
+      assertEquals(50, entries.size());
+      for (JsonNode entry : entries) {
+         assertEquals("value\"" + entry.get("key").asText().substring(3), entry.get("value").asText());
+      }
+
+      Set<String> keys = new HashSet<>();
+      String cursor = null;
+      do {
+         String page = url + "?action=keys&limit=7" + (cursor == null ? "" : "&cursor=" + cursor);
+         response = client.newRequest(page).send();
+         ResponseAssertion.assertThat(response).isOk();
+         JsonNode jsonNode = new ObjectMapper().readTree(response.getContentAsString());
+         jsonNode.get("keys").forEach(key -> assertTrue(keys.add(key.asText())));
+         cursor = jsonNode.has("cursor") ? jsonNode.get("cursor").asText() : null;
+      } while (cursor != null);
+      assertEquals(50, keys.size());
+
+      response = client.newRequest(url + "?action=keys&cursor=invalid").send();
+      ResponseAssertion.assertThat(response).isBadRequest();
+   }
+
+   @Test
+   public void testStreamEntriesInNegotiatedMediaType() throws Exception {
+      putBinaryValueInCache("json", "person", "{\"name\":\"test\"}".getBytes(UTF_8), APPLICATION_JSON);
+      ContentResponse response = client
+            .newRequest(String.format("http://localhost:%d/rest/json?action=entries", restServer().getPort()))
+            .header(HttpHeader.ACCEPT, APPLICATION_JSON_TYPE)
+            .send();
+      ResponseAssertion.assertThat(response).isOk();
+      JsonNode entry = new ObjectMapper().readTree(response.getContentAsString()).get("entries").get(0);
+      assertEquals("person", entry.get("key").asText());
+      // A JSON value is part of the document, not a string
+      assertEquals("test", entry.get("value").get("name").asText());
+
+      byte[] binary = {0, 1, 2, (byte) 0xFF};
+      putBinaryValueInCache("binary", "bytes", binary, MediaType.APPLICATION_OCTET_STREAM);
+      response = client
+            .newRequest(String.format("http://localhost:%d/rest/binary?action=entries", restServer().getPort()))
+            .header(HttpHeader.ACCEPT, APPLICATION_OCTET_STREAM_TYPE)
+            .send();
+      ResponseAssertion.assertThat(response).isOk();
+      entry = new ObjectMapper().readTree(response.getContentAsString()).get("entries").get(0);
+      assertEquals(Base64.getEncoder().encodeToString(binary), entry.get("value").asText());
+   }
+
+   @Test
+   public void testBulkOperationsInCacheMediaType() throws Exception {
+      String url = String.format("http://localhost:%d/rest/json", restServer().getPort());
+      ContentResponse response = client.newRequest(url + "?action=putAll").method(HttpMethod.POST)
+            .content(new StringContentProvider("{\"person\":{\"name\":\"test\"}}")).send();
+      ResponseAssertion.assertThat(response).isOk();
+      response = client.newRequest(url + "?action=getAll").method(HttpMethod.POST)
+            .header(HttpHeader.ACCEPT, APPLICATION_JSON_TYPE)
+            .content(new StringContentProvider("[\"person\"]")).send();
+      ResponseAssertion.assertThat(response).isOk();
+      JsonNode entry = new ObjectMapper().readTree(response.getContentAsString()).get("entries").get(0);
+      // JSON values are written and returned as part of the document
+      assertEquals("test", entry.get("value").get("name").asText());
+
+      byte[] binary = {0, 1, 2, (byte) 0xFF};
+      String encoded = Base64.getEncoder().encodeToString(binary);
+      url = String.format("http://localhost:%d/rest/binary", restServer().getPort());
+      response = client.newRequest(url + "?action=putAll").method(HttpMethod.POST)
+            .content(new StringContentProvider("{\"bytes\":\"" + encoded + "\"}")).send();
+      ResponseAssertion.assertThat(response).isOk();
+      response = client.newRequest(url + "?action=getAll").method(HttpMethod.POST)
+            .header(HttpHeader.ACCEPT, APPLICATION_OCTET_STREAM_TYPE)
+            .content(new StringContentProvider("[\"bytes\"]")).send();
+      ResponseAssertion.assertThat(response).isOk();
+      entry = new ObjectMapper().readTree(response.getContentAsString()).get("entries").get(0);
+      // Binary values are exchanged as Base64
+      assertEquals(encoded, entry.get("value").asText());
+   }
+
+   @Test
+   public void testBulkOperations() throws Exception {
+      String url = String.format("http://localhost:%d/rest/textCache", restServer().getPort());
+      StringBuilder entries = new StringBuilder("{");
+      StringBuilder keys = new StringBuilder("[");
+      for (int i = 0; i < 200; i++) {
+         if (i > 0) {
+            entries.append(',');
+            keys.append(',');
+         }
+         entries.append("\"key").append(i).append("\":\"value").append(i).append('"');
+         keys.append("\"key").append(i).append('"');
+      }
+      entries.append('}');
+      keys.append(",\"missing\"]");
+
+      ContentResponse response = client.newRequest(url + "?action=putAll")
+            .method(HttpMethod.POST).content(new StringContentProvider(entries.toString())).send();
+      ResponseAssertion.assertThat(response).isOk();
+
+      response = client.newRequest(url + "?action=getAll")
+            .method(HttpMethod.POST).content(new StringContentProvider(keys.toString())).send();
+      ResponseAssertion.assertThat(response).isOk();
+      JsonNode values = new ObjectMapper().readTree(response.getContentAsString()).get("entries");
+      assertEquals(200, values.size());
+      for (JsonNode entry : values) {
+         assertEquals("value" + entry.get("key").asText().substring(3), entry.get("value").asText());
+      }
+
+      response = client.newRequest(url + "?action=removeAll")
+            .method(HttpMethod.POST).content(new StringContentProvider(keys.toString())).send();
+      ResponseAssertion.assertThat(response).isOk();
+      assertEquals(0, restServer().getCacheManager().getCache("textCache").size());
+
+      response = client.newRequest(url + "?action=putAll")
+            .method(HttpMethod.POST).content(new StringContentProvider("[\"key\"]")).send();
+      ResponseAssertion.assertThat(response).isBadRequest();
+   }
+
 }
@@ -1,5 +1,6 @@
 package org.infinispan.rest.framework;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.infinispan.rest.framework.Method.GET;
 import static org.infinispan.rest.framework.Method.HEAD;
 import static org.infinispan.rest.framework.Method.POST;
@@ -8,6 +9,7 @@
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.rest.framework.impl.Invocations;
@@ -36,42 +38,42 @@ public void testDispatch() throws Exception {
       RestDispatcherImpl restDispatcher = new RestDispatcherImpl(manager);
 
       RestRequest restRequest = new SimpleRequest.Builder().setMethod(GET).setPath("/ctx/").build();
-      RestResponse response = restDispatcher.dispatch(restRequest);
+      RestResponse response = restDispatcher.dispatch(restRequest).toCompletableFuture().join();
       assertEquals("Hello World!", response.getEntity().toString());
 
       restRequest = new SimpleRequest.Builder().setMethod(POST).setPath("/ctx/counters/counter1").build();
-      response = restDispatcher.dispatch(restRequest);
+      response = restDispatcher.dispatch(restRequest).toCompletableFuture().join();
       assertEquals(200, response.getStatus());
 
       restRequest = new SimpleRequest.Builder().setMethod(GET).setPath("/ctx/counters/counter1?action=increment").build();
-      response = restDispatcher.dispatch(restRequest);
+      response = restDispatcher.dispatch(restRequest).toCompletableFuture().join();
       assertEquals(200, response.getStatus());
 
       restRequest = new SimpleRequest.Builder().setMethod(GET).setPath("/ctx/counters/counter1").build();
-      response = restDispatcher.dispatch(restRequest);
+      response = restDispatcher.dispatch(restRequest).toCompletableFuture().join();
       assertEquals("counter1->1", response.getEntity().toString());
 
       restRequest = new SimpleRequest.Builder().setMethod(POST).setPath("/ctx/jvm").build();
       assertNoResource(restDispatcher, restRequest);
 
       restRequest = new SimpleRequest.Builder().setMethod(GET).setPath("/ctx/jvm/memory").build();
-      response = restDispatcher.dispatch(restRequest);
+      response = restDispatcher.dispatch(restRequest).toCompletableFuture().join();
       assertTrue(Long.valueOf(response.getEntity().toString()) > 0);
 
       restRequest = new SimpleRequest.Builder().setMethod(HEAD).setPath("/ctx/jvm/memory").build();
-      response = restDispatcher.dispatch(restRequest);
+      response = restDispatcher.dispatch(restRequest).toCompletableFuture().join();
       assertTrue(Long.valueOf(response.getEntity().toString()) > 0);
 
       restRequest = new SimpleRequest.Builder().setMethod(HEAD).setPath("/ctx/v2/java-memory").build();
-      response = restDispatcher.dispatch(restRequest);
+      response = restDispatcher.dispatch(restRequest).toCompletableFuture().join();
       assertTrue(Long.valueOf(response.getEntity().toString()) > 0);
 
       restRequest = new SimpleRequest.Builder().setMethod(GET).setPath("/ctx/context/var1/var2").build();
-      response = restDispatcher.dispatch(restRequest);
+      response = restDispatcher.dispatch(restRequest).toCompletableFuture().join();
       assertEquals("var1,var2", response.getEntity().toString());
 
       restRequest = new SimpleRequest.Builder().setMethod(GET).setPath("/ctx/context/var1/var2/var3?action=triple").build();
-      response = restDispatcher.dispatch(restRequest);
+      response = restDispatcher.dispatch(restRequest).toCompletableFuture().join();
       assertEquals("triple(var1,var2,var3)", response.getEntity().toString());
 
       restRequest = new SimpleRequest.Builder().setMethod(GET).setPath("/ctx/context/var1/var2/var3?action=invalid").build();
@@ -80,7 +82,7 @@ public void testDispatch() throws Exception {
 
    private void assertNoResource(RestDispatcher dispatcher, RestRequest restRequest) {
       try {
-         RestResponse response = dispatcher.dispatch(restRequest);
+         RestResponse response = dispatcher.dispatch(restRequest).toCompletableFuture().join();
          if (response != null) Assert.fail();
       } catch (ResourceNotFoundException ignored) {
       }
@@ -96,20 +98,20 @@ public Invocations getInvocations() {
                .create();
       }
 
-      private RestResponse tripleVarWithAction(RestRequest restRequest) {
+      private CompletionStage<RestResponse> tripleVarWithAction(RestRequest restRequest) {
          SimpleRestResponse.Builder responseBuilder = new SimpleRestResponse.Builder();
          String variable1 = restRequest.variables().get("variable1");
          String variable2 = restRequest.variables().get("variable2");
          String variable3 = restRequest.variables().get("variable3");
          String action = restRequest.getAction();
-         return responseBuilder.entity(action + "(" + variable1 + "," + variable2 + "," + variable3 + ")").build();
+         return completedFuture(responseBuilder.entity(action + "(" + variable1 + "," + variable2 + "," + variable3 + ")").build());
       }
 
-      private RestResponse doubleVars(RestRequest restRequest) {
+      private CompletionStage<RestResponse> doubleVars(RestRequest restRequest) {
          SimpleRestResponse.Builder responseBuilder = new SimpleRestResponse.Builder();
          String variable1 = restRequest.variables().get("variable1");
          String variable2 = restRequest.variables().get("variable2");
-         return responseBuilder.entity(variable1 + "," + variable2).build();
+         return completedFuture(responseBuilder.entity(variable1 + "," + variable2).build());
       }
    }
 
@@ -127,37 +129,37 @@ public Invocations getInvocations() {
                .create();
       }
 
-      private RestResponse listAllCounters(RestRequest request) {
+      private CompletionStage<RestResponse> listAllCounters(RestRequest request) {
          SimpleRestResponse.Builder responseBuilder = new SimpleRestResponse.Builder();
          StringBuilder sb = new StringBuilder();
          counters.forEach((key, value) -> sb.append(key).append("->").append(value.get()));
-         return responseBuilder.status(200).entity(sb.toString()).build();
+         return completedFuture(responseBuilder.status(200).entity(sb.toString()).build());
       }
 
-      private RestResponse addCounter(RestRequest request) {
+      private CompletionStage<RestResponse> addCounter(RestRequest request) {
          SimpleRestResponse.Builder responseBuilder = new SimpleRestResponse.Builder();
          String newCounterName = request.variables().get("name");
          if (newCounterName == null) {
-            return responseBuilder.status(503).build();
+            return completedFuture(responseBuilder.status(503).build());
          }
          counters.put(newCounterName, new AtomicInteger());
-         return responseBuilder.status(200).build();
+         return completedFuture(responseBuilder.status(200).build());
       }
 
-      private RestResponse getCounter(RestRequest restRequest) {
+      private CompletionStage<RestResponse> getCounter(RestRequest restRequest) {
          SimpleRestResponse.Builder responseBuilder = new SimpleRestResponse.Builder();
          String name = restRequest.variables().get("name");
          AtomicInteger atomicInteger = counters.get(name);
-         if (atomicInteger == null) return responseBuilder.status(404).build();
-         return responseBuilder.status(200).entity(name + "->" + atomicInteger.get()).build();
+         if (atomicInteger == null) return completedFuture(responseBuilder.status(404).build());
+         return completedFuture(responseBuilder.status(200).entity(name + "->" + atomicInteger.get()).build());
       }
 
-      private RestResponse incrementCounter(RestRequest request) {
+      private CompletionStage<RestResponse> incrementCounter(RestRequest request) {
          SimpleRestResponse.Builder responseBuilder = new SimpleRestResponse.Builder();
          String name = request.variables().get("name");
-         if (name == null) return responseBuilder.status(404).build();
+         if (name == null) return completedFuture(responseBuilder.status(404).build());
          counters.get(name).incrementAndGet();
-         return responseBuilder.status(200).build();
+         return completedFuture(responseBuilder.status(200).build());
       }
 
    }
@@ -171,8 +173,8 @@ public Invocations getInvocations() {
                .create();
       }
 
-      private RestResponse showMemory(RestRequest request) {
-         return new SimpleRestResponse.Builder().entity(String.valueOf(Runtime.getRuntime().freeMemory())).build();
+      private CompletionStage<RestResponse> showMemory(RestRequest request) {
+         return completedFuture(new SimpleRestResponse.Builder().entity(String.valueOf(Runtime.getRuntime().freeMemory())).build());
       }
    }
 
@@ -185,8 +187,8 @@ public Invocations getInvocations() {
                .create();
       }
 
-      private RestResponse serveStaticResource(RestRequest restRequest) {
-         return new SimpleRestResponse.Builder().entity("Hello World!").build();
+      private CompletionStage<RestResponse> serveStaticResource(RestRequest restRequest) {
+         return completedFuture(new SimpleRestResponse.Builder().entity("Hello World!").build());
       }
 
    }
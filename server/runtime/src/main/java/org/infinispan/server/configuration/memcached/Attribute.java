@@ -12,7 +12,7 @@ public enum Attribute {
 
    CACHE_CONTAINER,
    SOCKET_BINDING,
-   IDLE_TIMEOUT(), IO_THREADS(), NAME();
+   IDLE_TIMEOUT(), IO_THREADS(), MAX_CONTENT_LENGTH, NAME();
 
    private static final Map<String, Attribute> ATTRIBUTES;
 
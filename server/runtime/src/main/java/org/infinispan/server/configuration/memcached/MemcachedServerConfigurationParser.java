@@ -76,6 +76,10 @@ private void parseMemcached(XMLExtendedStreamReader reader, ServerConfigurationB
                builder.ioThreads(Integer.parseInt(value));
                break;
             }
+            case MAX_CONTENT_LENGTH: {
+               builder.maxContentLength(Integer.parseInt(value));
+               break;
+            }
             case NAME: {
                builder.name(value);
                break;